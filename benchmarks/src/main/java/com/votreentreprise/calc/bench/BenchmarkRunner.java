@@ -0,0 +1,40 @@
+package com.votreentreprise.calc.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Point d'entrée du JAR de benchmarks. Accepte les options JMH habituelles
+ * ({@code java -jar benchmarks.jar Operator -f 1}) et écrit toujours les résultats en
+ * JSON dans {@code jmh-results/jmh-result-<version>.json}, pour comparer les versions
+ * entre elles. {@code -Djmh.result=fichier.json} change la destination.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        String defaultResult = "jmh-results/jmh-result-" + (version != null ? version : "dev") + ".json";
+        File result = new File(System.getProperty("jmh.result", defaultResult));
+        File parent = result.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IllegalStateException("Impossible de créer " + parent);
+        }
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
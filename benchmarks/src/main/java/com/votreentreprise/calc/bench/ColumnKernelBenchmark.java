@@ -0,0 +1,90 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.batch.ColumnKernels;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boucle scalaire contre noyau SIMD de {@link ColumnKernels}, sur une colonne de
+ * {@value #ROWS} lignes qui tient dans le cache L1/L2. Une ligne sur 1000 est en
+ * erreur (division par 0, racine d'un négatif).
+ *
+ * <p>{@code + - ×} sont limités par la mémoire dès que les colonnes sortent du
+ * cache ; {@code ÷} et {@code √} profitent le plus des lanes. {@code %} reste
+ * scalaire dans les deux cas.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class ColumnKernelBenchmark {
+
+    static final int ROWS = 4096;
+
+    @Param({"PLUS", "MINUS", "TIMES", "DIVIDE", "MODULO", "SQUARE", "SQRT"})
+    public String kernel;
+
+    private Operator operator;
+    private UnaryFunction function;
+    private ColumnKernels vector;
+
+    private double[] left;
+    private double[] right;
+    private double[] results;
+    private byte[] status;
+
+    @Setup
+    public void setUp() {
+        if (kernel.equals("SQUARE") || kernel.equals("SQRT")) {
+            function = UnaryFunction.valueOf(kernel);
+        } else {
+            operator = Operator.valueOf(kernel);
+        }
+        vector = ColumnKernels.get();
+        SplittableRandom random = new SplittableRandom(42);
+        left = new double[ROWS];
+        right = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            boolean error = random.nextInt(1000) == 0;
+            left[i] = error ? -1 : random.nextDouble(1, 1000);
+            right[i] = error ? 0 : random.nextDouble(1, 1000);
+        }
+        results = new double[ROWS];
+        status = new byte[ROWS];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int scalar() {
+        return run(ColumnKernels.scalar());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int vector() {
+        return run(vector);
+    }
+
+    private int run(ColumnKernels kernels) {
+        return function != null
+                ? kernels.apply(function, left, results, status, 0, ROWS)
+                : kernels.apply(operator, left, right, results, status, 0, ROWS);
+    }
+}
@@ -0,0 +1,59 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.engine.CompiledExpression;
+import com.votreentreprise.calc.engine.ExpressionCache;
+import com.votreentreprise.calc.engine.ExpressionCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilation d'une expression, lecture dans le cache des formes compilées et
+ * réévaluation de la forme compilée.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+
+    @Param({"x + y", "x × 1.2 + y ÷ 3", "sin x ^ 2 + cos y ^ 2", "(x AND 255) << 2 XOR y"})
+    public String expression;
+
+    private CompiledExpression compiled;
+    private final ExpressionCache cache = new ExpressionCache();
+    private final double[] bindings = {30, 60};
+
+    @Setup
+    public void setUp() {
+        compiled = ExpressionCompiler.compile(expression, "x", "y");
+    }
+
+    @Benchmark
+    public CompiledExpression compile() {
+        return ExpressionCompiler.compile(expression, "x", "y");
+    }
+
+    @Benchmark
+    public CompiledExpression cached() {
+        return cache.get(expression, "x", "y");
+    }
+
+    @Benchmark
+    public double evaluate() {
+        bindings[0] += 1;
+        return compiled.evaluate(bindings);
+    }
+}
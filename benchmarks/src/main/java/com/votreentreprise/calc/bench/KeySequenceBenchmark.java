@@ -0,0 +1,74 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.session.CalculatorState;
+import com.votreentreprise.calc.session.KeySequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejeu complet d'une séquence de touches, comme une suite de clics sur
+ * {@code handleButtonClick} : copie mutable de l'ancienne interface
+ * ({@link LegacyKeypad}) contre transitions pures de {@link CalculatorState}, seul
+ * puis sur tous les cœurs (débit de {@code KeyReplay}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class KeySequenceBenchmark {
+
+    @Param({
+            "7 × 8 =",
+            "1 2 . 5 + 7 . 2 5 - 3 × 2 ÷ 4 =",
+            "3 0 sin x² + 3 0 cos x² =",
+            "2 5 5 AND 1 5 << 2 XOR 7 NOT",
+            "1 ÷ 0 = C 9 √ ± ⌫ 4"
+    })
+    public String sequence;
+
+    private String[] keys;
+    private KeySequence parsed;
+
+    @Setup
+    public void setUp() {
+        keys = sequence.split(" ");
+        parsed = KeySequence.parse(sequence);
+    }
+
+    @Benchmark
+    public String replay() {
+        LegacyKeypad keypad = new LegacyKeypad();
+        for (String key : keys) {
+            keypad.press(key);
+        }
+        return keypad.display;
+    }
+
+    @Benchmark
+    public CalculatorState state() {
+        return parsed.replay();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public CalculatorState stateAllCores() {
+        return parsed.replay();
+    }
+}
@@ -0,0 +1,123 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.format.ResultFormatter;
+
+import java.util.ArrayList;
+
+/**
+ * Copie sans Swing de l'ancien {@code CalculatorApp.handleButtonClick}, d'avant
+ * {@code CalculatorState} : même état mutable (texte affiché, opérateur, premier
+ * opérande), mêmes conversions texte/double et même historique en {@code String}.
+ * Figée : ce n'est pas une logique des touches, seulement la référence de
+ * {@code KeySequenceBenchmark}.
+ */
+final class LegacyKeypad {
+
+    String display = "0";
+    private String operator = "";
+    private double firstOperand = 0;
+    private boolean startNewNumber = true;
+    final ArrayList<String> history = new ArrayList<>();
+
+    void press(String text) {
+        try {
+            switch (text) {
+                case "C" -> clear();
+                case "⌫" -> backspace();
+                case "=" -> calculate();
+                case "±" -> display = ResultFormatter.format(-Double.parseDouble(display));
+                case "√" -> unary("√", UnaryFunction.SQRT);
+                case "x²" -> unary("x²", UnaryFunction.SQUARE);
+                case "xʸ" -> {
+                    operator = "^";
+                    firstOperand = Double.parseDouble(display);
+                    startNewNumber = true;
+                }
+                case "sin", "cos", "tan", "ln", "log" -> unary(text, UnaryFunction.fromSymbol(text));
+                case "NOT" -> unary("~", UnaryFunction.NOT);
+                case "AND", "OR", "XOR", "<<", ">>", "%", "÷", "×", "-", "+" -> handleOperator(text);
+                default -> handleNumber(text);
+            }
+        } catch (Exception ex) {
+            error("Erreur");
+        }
+    }
+
+    private void unary(String name, UnaryFunction f) {
+        double value = Double.parseDouble(display);
+        double result;
+        try {
+            result = f.apply(value);
+        } catch (CalculationException e) {
+            error(e.getMessage());
+            return;
+        }
+        history.add(name + "(" + value + ") = " + ResultFormatter.format(result));
+        display = ResultFormatter.format(result);
+        startNewNumber = true;
+    }
+
+    private void handleNumber(String num) {
+        if (startNewNumber) {
+            display = num.equals(".") ? "0." : num;
+            startNewNumber = false;
+        } else {
+            if (num.equals(".") && display.contains(".")) {
+                return;
+            }
+            display = display + num;
+        }
+    }
+
+    private void handleOperator(String op) {
+        if (!operator.isEmpty() && !startNewNumber) {
+            calculate();
+        }
+        firstOperand = Double.parseDouble(display);
+        operator = op;
+        startNewNumber = true;
+    }
+
+    private void calculate() {
+        if (operator.isEmpty()) {
+            return;
+        }
+        double secondOperand = Double.parseDouble(display);
+        double result;
+        try {
+            result = Operator.fromSymbol(operator).apply(firstOperand, secondOperand);
+        } catch (CalculationException e) {
+            error(e.getMessage());
+            operator = "";
+            return;
+        }
+        history.add(firstOperand + " " + operator + " " + secondOperand + " = " + ResultFormatter.format(result));
+        display = ResultFormatter.format(result);
+        operator = "";
+        startNewNumber = true;
+    }
+
+    private void clear() {
+        display = "0";
+        operator = "";
+        firstOperand = 0;
+        startNewNumber = true;
+    }
+
+    private void backspace() {
+        if (display.length() > 1) {
+            display = display.substring(0, display.length() - 1);
+        } else {
+            display = "0";
+            startNewNumber = true;
+        }
+    }
+
+    private void error(String message) {
+        display = message;
+        startNewNumber = true;
+    }
+}
@@ -0,0 +1,81 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.engine.MemoizedFunction;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul direct contre table de {@link MemoizedFunction}, selon le nombre de
+ * valeurs distinctes. Au-delà de la capacité de la table les défauts dominent ;
+ * pour {@code √} le calcul direct reste plus rapide.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MemoizationBenchmark {
+
+    @Param({"SIN", "LN", "SQRT"})
+    public UnaryFunction function;
+
+    @Param({"16", "1024", "65536"})
+    public int distinct;
+
+    private MemoizedFunction memo;
+    private double[] inputs;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int index;
+    }
+
+    @Setup
+    public void setUp() {
+        memo = new MemoizedFunction(function);
+        SplittableRandom random = new SplittableRandom(42);
+        double[] values = new double[distinct];
+        for (int i = 0; i < distinct; i++) {
+            values[i] = 1 + random.nextDouble() * 1000;
+        }
+        inputs = new double[1 << 16];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = values[random.nextInt(distinct)];
+        }
+    }
+
+    @Benchmark
+    public double direct(Cursor cursor) {
+        return UnaryFunction.apply(function, next(cursor));
+    }
+
+    @Benchmark
+    public double memoized(Cursor cursor) {
+        return memo.apply(next(cursor));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double memoizedShared(Cursor cursor) {
+        return memo.apply(next(cursor));
+    }
+
+    private double next(Cursor cursor) {
+        return inputs[cursor.index++ & (inputs.length - 1)];
+    }
+}
@@ -0,0 +1,60 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des mesures sur un calcul : opérateur nu, opérateur mesuré
+ * ({@link CalculationMetrics}, deux lectures d'horloge comprises) et enregistrement
+ * seul dans un {@link LatencyHistogram}, sur un thread puis sur quatre.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private final CalculationMetrics metrics = new CalculationMetrics();
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private double a = 1.5;
+    private long value = 1;
+
+    @Benchmark
+    public double bare() {
+        return Operator.apply(Operator.TIMES, a, 3);
+    }
+
+    @Benchmark
+    public double measured() {
+        long start = CalculationMetrics.start();
+        double result = Operator.apply(Operator.TIMES, a, 3);
+        metrics.record(Operator.TIMES, start);
+        return result;
+    }
+
+    @Benchmark
+    public void histogram() {
+        histogram.record(value++ & 0xFFFFF);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void histogramShared() {
+        histogram.record(System.identityHashCode(this) & 0xFFFFF);
+    }
+}
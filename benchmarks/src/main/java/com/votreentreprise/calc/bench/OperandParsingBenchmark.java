@@ -0,0 +1,56 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.io.AsciiDoubles;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture d'un opérande : {@code Double.parseDouble(displayField.getText())} comme dans
+ * {@code CalculatorApp}, et lecture directe depuis des octets ({@link AsciiDoubles}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OperandParsingBenchmark {
+
+    @Param({"7", "-42", "3.14159", "0.30000000000000004", "1.0E10", "123456789.123456789"})
+    public String text;
+
+    private final AsciiDoubles parser = new AsciiDoubles();
+    private ByteBuffer bytes;
+    private int length;
+
+    @Setup
+    public void setUp() {
+        byte[] raw = text.getBytes(StandardCharsets.US_ASCII);
+        bytes = ByteBuffer.allocateDirect(raw.length);
+        bytes.put(raw).flip();
+        length = raw.length;
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return Double.parseDouble(text);
+    }
+
+    @Benchmark
+    public double asciiDoubles() {
+        return parser.parse(bytes, 0, length);
+    }
+}
@@ -0,0 +1,74 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.batch.BatchEvaluator;
+import com.votreentreprise.calc.engine.Operator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chaque branche de {@code calculate()} : un appel isolé, puis la même opération sur
+ * une colonne de {@value #ROWS} lignes avec {@link BatchEvaluator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OperatorBenchmark {
+
+    static final int ROWS = 4096;
+
+    @Param({"PLUS", "MINUS", "TIMES", "DIVIDE", "MODULO", "POWER",
+            "AND", "OR", "XOR", "SHIFT_LEFT", "SHIFT_RIGHT"})
+    public Operator operator;
+
+    public double a = 1234.5;
+    public double b = 7;
+
+    private double[] left;
+    private double[] right;
+    private byte[] operators;
+    private double[] results;
+    private byte[] status;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        left = new double[ROWS];
+        right = new double[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            left[i] = random.nextDouble(-1000, 1000);
+            right[i] = random.nextInt(1, 16);
+        }
+        operators = new byte[ROWS];
+        Arrays.fill(operators, operator.code());
+        results = new double[ROWS];
+        status = new byte[ROWS];
+    }
+
+    @Benchmark
+    public double single() {
+        return Operator.apply(operator, a, b);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int column() {
+        return BatchEvaluator.evaluate(left, operators, right, results, status);
+    }
+}
@@ -0,0 +1,81 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.format.ResultFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResultFormatter} comparé à l'ancien {@code CalculatorApp.formatResult()}.
+ * Lancer avec {@code -prof gc} pour voir les allocations par appel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ResultFormatterBenchmark {
+
+    @Param({"42", "0.1", "3.3333333333333335", "-1234567.89", "1.4142135623730951"})
+    public double value;
+
+    private final char[] chars = new char[ResultFormatter.MAX_LENGTH];
+    private final StringBuilder sb = new StringBuilder(ResultFormatter.MAX_LENGTH);
+    private ByteBuffer bytes;
+
+    @Setup
+    public void setUp() {
+        bytes = ByteBuffer.allocateDirect(ResultFormatter.MAX_LENGTH * 3);
+    }
+
+    // Ancienne implémentation de CalculatorApp, recopiée telle quelle
+    static String legacyFormatResult(double result) {
+        if (result == (long) result) {
+            return String.format("%d", (long) result);
+        } else {
+            DecimalFormat df = new DecimalFormat("#.##########");
+            return df.format(result);
+        }
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyFormatResult(value);
+    }
+
+    @Benchmark
+    public String toStringResult() {
+        return ResultFormatter.format(value);
+    }
+
+    @Benchmark
+    public int toCharArray() {
+        return ResultFormatter.format(value, chars, 0);
+    }
+
+    @Benchmark
+    public int toStringBuilder() {
+        sb.setLength(0);
+        return ResultFormatter.appendTo(value, sb).length();
+    }
+
+    @Benchmark
+    public int toByteBuffer() {
+        bytes.clear();
+        ResultFormatter.appendTo(value, bytes);
+        return bytes.position();
+    }
+}
@@ -0,0 +1,95 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.stats.QuantileSketch;
+import com.votreentreprise.calc.stats.StatisticsReader;
+import com.votreentreprise.calc.stats.StreamingStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques d'une série de {@code size} valeurs log-normales : esquisse des
+ * quantiles seule, tous les agrégats, et lecture de la même colonne écrite au format
+ * français sur un thread puis sur {@code parallelism}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"4"})
+    private int parallelism;
+
+    private double[] values;
+    private byte[] column;
+    private StatisticsReader sequential;
+    private StatisticsReader parallel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[size];
+        StringBuilder text = new StringBuilder("montant\n");
+        for (int i = 0; i < size; i++) {
+            values[i] = Math.round(Math.exp(3 + random.nextGaussian()) * 100) / 100.0;
+            text.append(Double.toString(values[i]).replace('.', ',')).append('\n');
+        }
+        column = text.toString().getBytes(StandardCharsets.UTF_8);
+        sequential = new StatisticsReader(1);
+        parallel = new StatisticsReader(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sequential.close();
+        parallel.close();
+    }
+
+    @Benchmark
+    public double sketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double v : values) {
+            sketch.add(v);
+        }
+        return sketch.quantile(0.5);
+    }
+
+    @Benchmark
+    public double aggregates() {
+        StreamingStatistics stats = new StreamingStatistics();
+        stats.add(values, 0, values.length);
+        return stats.variance() + stats.quantile(0.99);
+    }
+
+    @Benchmark
+    public double readSequential() throws IOException {
+        return sequential.read(new ByteArrayInputStream(column), 0, StatisticsReader.Format.FRENCH).mean();
+    }
+
+    @Benchmark
+    public double readParallel() throws IOException {
+        return parallel.read(new ByteArrayInputStream(column), 0, StatisticsReader.Format.FRENCH).mean();
+    }
+}
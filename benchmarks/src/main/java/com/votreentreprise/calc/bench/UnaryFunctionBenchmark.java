@@ -0,0 +1,38 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins unaires de {@code applyUnary()}, {@code squareRoot()}, {@code square()},
+ * {@code bitwiseNot()} et {@code toggleSign()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class UnaryFunctionBenchmark {
+
+    @Param({"SIN", "COS", "TAN", "LN", "LOG", "SQRT", "SQUARE", "NOT", "NEGATE"})
+    public UnaryFunction function;
+
+    public double value = 37.5;
+
+    @Benchmark
+    public double apply() {
+        return UnaryFunction.apply(function, value);
+    }
+}
@@ -0,0 +1,63 @@
+package com.votreentreprise.calc.bench;
+
+import com.votreentreprise.calc.sheet.Worksheet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalcul d'une feuille d'un million de cellules (250 000 lignes de 4 colonnes :
+ * {@code A} saisie, {@code B = A × taux}, {@code C = A + B}, {@code D = C - remise})
+ * après une modification : une saisie (3 cellules à recalculer) ou le taux, lu par
+ * toute la colonne {@code B} (750 000 cellules, en vagues parallèles).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WorksheetBenchmark {
+
+    static final int ROWS = 250_000;
+
+    private Worksheet sheet;
+    private int row;
+    private double value;
+
+    @Setup
+    public void setUp() {
+        sheet = new Worksheet();
+        sheet.set("taux", 0.2);
+        sheet.set("remise", 5);
+        for (int i = 0; i < ROWS; i++) {
+            sheet.set("A" + i, i);
+            sheet.set("B" + i, "A" + i + " × taux");
+            sheet.set("C" + i, "A" + i + " + B" + i);
+            sheet.set("D" + i, "C" + i + " - remise");
+        }
+        sheet.recalculate();
+    }
+
+    @Benchmark
+    public int editInput() {
+        row = (row + 7919) % ROWS;
+        sheet.set("A" + row, ++value);
+        return sheet.recalculate();
+    }
+
+    @Benchmark
+    public int editShared() {
+        sheet.set("taux", ++value);
+        return sheet.recalculate();
+    }
+}
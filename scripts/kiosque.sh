@@ -0,0 +1,79 @@
+#!/bin/sh
+# Application de bureau pour les bornes : JAR, archive CDS et mesure du démarrage.
+#
+#   scripts/kiosque.sh construire    JAR et archive CDS dans target/kiosque
+#   scripts/kiosque.sh lancer        démarre la calculatrice avec l'archive
+#   scripts/kiosque.sh mesurer [N]   N démarrages à froid avec et sans archive (défaut 10)
+#
+# L'archive CDS (AppCDS dynamique, JDK 13 et plus) contient les classes chargées
+# jusqu'à la première image, déjà analysées et vérifiées : la JVM les projette en
+# mémoire au lieu de relire le JAR. Elle n'est valable que pour ce JAR et ce JDK :
+# la reconstruire après chaque mise à jour. Les mesures et l'entraînement demandent
+# un écran (ou Xvfb).
+set -eu
+
+cd "$(dirname "$0")/.."
+OUT=target/kiosque
+JAR=$OUT/calculatrice.jar
+JSA=$OUT/calculatrice.jsa
+# Petit tas, GC série et compilateur C1 seul : l'application démarre souvent et
+# calcule peu. Les mêmes options servent à l'entraînement et au lancement.
+JAVA_OPTS="-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Xms32m"
+
+construire() {
+    rm -rf "$OUT"
+    mkdir -p "$OUT/classes"
+    # Tout sauf le service web (Spring) : moteur, formats, historique, interface
+    find src -name '*.java' -not -path 'src/test/*' -not -path '*/server/*' -not -name Application.java > "$OUT/sources.txt"
+    javac -encoding UTF-8 --add-modules jdk.incubator.vector -d "$OUT/classes" @"$OUT/sources.txt"
+    jar --create --file "$JAR" --main-class CalculatorApp -C "$OUT/classes" .
+    # Entraînement : la fenêtre se ferme après sa première image, l'archive est écrite à la sortie
+    journal=$(mktemp)
+    java $JAVA_OPTS -XX:ArchiveClassesAtExit="$JSA" -Dcalculatrice.journal="$journal" \
+        -Dcalculatrice.premiereImage=quitter -jar "$JAR"
+    rm -f "$journal"
+    echo "Archive CDS : $JSA"
+}
+
+lancer() {
+    if [ -f "$JSA" ]; then
+        exec java $JAVA_OPTS -XX:SharedArchiveFile="$JSA" -jar "$JAR"
+    fi
+    exec java $JAVA_OPTS -jar "$JAR"
+}
+
+# Temps jusqu'à la première image (ms depuis le lancement de la JVM), un par ligne
+demarrages() {
+    n=$1
+    shift
+    journal=$(mktemp)
+    i=0
+    while [ "$i" -lt "$n" ]; do
+        java $JAVA_OPTS "$@" -Dcalculatrice.journal="$journal" -Dcalculatrice.premiereImage=quitter \
+            -jar "$JAR" 2>&1 | sed -n 's/^Première image : \([0-9]*\) ms.*/\1/p'
+        i=$((i + 1))
+    done
+    rm -f "$journal"
+}
+
+resume() {
+    sort -n | awk -v label="$1" '{ t[NR] = $1 } END {
+        if (NR == 0) { print label ": aucune mesure"; exit }
+        printf "%-14s min %4d ms   médiane %4d ms   max %4d ms   (%d démarrages)\n",
+            label, t[1], t[int((NR + 1) / 2)], t[NR], NR }'
+}
+
+mesurer() {
+    n=${1:-10}
+    [ -f "$JAR" ] || construire
+    demarrages 1 > /dev/null # Cache disque
+    demarrages "$n" -Xshare:auto | resume "Sans archive"
+    demarrages "$n" -XX:SharedArchiveFile="$JSA" | resume "Archive CDS"
+}
+
+case "${1:-}" in
+    construire) construire ;;
+    lancer) lancer ;;
+    mesurer) mesurer "${2:-10}" ;;
+    *) echo "Usage : $0 construire | lancer | mesurer [N]" >&2; exit 2 ;;
+esac
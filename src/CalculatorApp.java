@@ -1,33 +1,80 @@
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.history.CalculationHistory;
+import com.votreentreprise.calc.history.DisplayState;
+import com.votreentreprise.calc.history.HistoryJournal;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.session.CalculationListener;
+import com.votreentreprise.calc.session.CalculationMeasures;
+import com.votreentreprise.calc.session.CalculatorMode;
+import com.votreentreprise.calc.session.CalculatorState;
+import com.votreentreprise.calc.stats.StatisticsReader;
+import com.votreentreprise.calc.ui.AsyncEvaluator;
+import com.votreentreprise.calc.ui.FunctionPlotDialog;
+import com.votreentreprise.calc.ui.LazyCardPanel;
+
 import javax.swing.*;
 import javax.swing.border.AbstractBorder;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
-import java.text.DecimalFormat;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 public class CalculatorApp extends JFrame {
 
-    // Modes
-    private enum Mode {
-        STANDARD, SCIENTIFIC, PROGRAMMER
-    }
-
-    private Mode currentMode = Mode.STANDARD;
+    // État de la calculatrice (mode, affichage, opération en attente, série) : chaque
+    // touche le remplace par CalculatorState.press, l'interface ne fait que l'afficher
+    private CalculatorState state = CalculatorState.initial();
 
     // UI
     private JTextField displayField;
     private JLabel historyLabel;
     private JLabel modeLabel;
-    private JPanel buttonPanel;
-
-    // Logique
-    private String operator = "";
-    private double firstOperand = 0;
-    private boolean startNewNumber = true;
-    private final ArrayList<String> history = new ArrayList<>();
+    // Un clavier par mode, construit à la première utilisation ; ensuite le changement
+    // de mode ne fait que l'afficher
+    private LazyCardPanel<CalculatorMode> buttonPanel;
+
+    // Démarrage : -Dcalculatrice.premiereImage=afficher (ou quitter) mesure le temps
+    // jusqu'à la première image
+    private static final String FIRST_FRAME = System.getProperty("calculatrice.premiereImage");
+    private static long mainStart;
+    private boolean firstFramePainted;
+
+    // Historique borné (-Dcalculatrice.historique=N entrées), rendu en texte à l'affichage
+    private final CalculationHistory history = new CalculationHistory(
+            Integer.getInteger("calculatrice.historique", CalculationHistory.DEFAULT_CAPACITY));
+    // Journal sur disque (-Dcalculatrice.journal=fichier) ; null s'il n'a pas pu être ouvert
+    private HistoryJournal journal;
+    // Calculs longs (précision) et lectures de fichiers hors de l'EDT
+    private final AsyncEvaluator evaluator = new AsyncEvaluator();
+    // Erreurs des calculs lancés hors de l'EDT (les touches mesurent les leurs)
+    private final CalculationMetrics metrics = CalculationMetrics.global();
+    // Table et courbe (touche f(x)), créée au premier usage
+    private FunctionPlotDialog plotDialog;
+    // Mode statistiques : colonne collée ou lue dans un fichier, ajoutée à la série de
+    // l'état (CalculatorState.merge) ; la série n'est pas gardée dans le journal
+    private final StatisticsReader statisticsReader =
+            new StatisticsReader(ForkJoinPool.commonPool(), StatisticsReader.DEFAULT_BLOCK);
 
     // Couleurs / thème (dark fixe pour un rendu 2025)
     private Color bgPrimary = new Color(18, 18, 18);
@@ -38,6 +85,7 @@ public class CalculatorApp extends JFrame {
     private Color textSecondary = new Color(152, 152, 157);
     private Color operatorColor = new Color(255, 159, 10);
     private Color numberColor = new Color(58, 58, 60);
+    private Color clearColor = new Color(255, 69, 58);
 
     public CalculatorApp() {
         setTitle("CalculatorApp Pro 2025");
@@ -46,15 +94,41 @@ public class CalculatorApp extends JFrame {
         setLocationRelativeTo(null);
         setResizable(false);
 
-        // Panel principal avec gradient
+        // Historique et état de la session précédente (le mode choisit le clavier)
+        DisplayState saved = openJournal();
+        if (saved != null) {
+            CalculatorState restored = CalculatorState.restore(saved, history);
+            if (restored != null) {
+                state = restored;
+            }
+        }
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                evaluator.close();
+                closeJournal();
+            }
+        });
+
+        // Panel principal avec gradient (recréé seulement si la hauteur change)
         JPanel mainPanel = new JPanel() {
+            private GradientPaint gradient;
+            private int gradientHeight;
+
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                if (FIRST_FRAME != null && !firstFramePainted) {
+                    firstFramePainted = true;
+                    SwingUtilities.invokeLater(CalculatorApp.this::reportFirstFrame); // après cette image
+                }
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                GradientPaint gp = new GradientPaint(0, 0, bgPrimary, 0, getHeight(), bgSecondary);
-                g2d.setPaint(gp);
+                if (gradient == null || gradientHeight != getHeight()) {
+                    gradientHeight = getHeight();
+                    gradient = new GradientPaint(0, 0, bgPrimary, 0, gradientHeight, bgSecondary);
+                }
+                g2d.setPaint(gradient);
                 g2d.fillRect(0, 0, getWidth(), getHeight());
             }
         };
@@ -66,10 +140,11 @@ public class CalculatorApp extends JFrame {
         mainPanel.add(topPanel, BorderLayout.NORTH);
 
         // Boutons (dépend du mode)
-        buttonPanel = new JPanel();
+        buttonPanel = new LazyCardPanel<>(this::createKeypad);
         buttonPanel.setOpaque(false);
         mainPanel.add(buttonPanel, BorderLayout.CENTER);
-        updateButtonsForMode(); // initialise layout selon mode standard
+        updateButtonsForMode(); // construit et affiche le clavier du mode courant
+        render();
 
         add(mainPanel);
         setVisible(true);
@@ -127,17 +202,21 @@ public class CalculatorApp extends JFrame {
         leftPanel.add(titleLabel);
         leftPanel.add(modeLabel);
 
-        // 3 boutons = modes (remplacent totalement les anciennes fonctions)
+        // 4 boutons = modes (remplacent totalement les anciennes fonctions)
         JPanel modeButtonsPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
         modeButtonsPanel.setOpaque(false);
 
-        JButton stdBtn = createModeButton("STD", "Mode Standard", Mode.STANDARD);
-        JButton sciBtn = createModeButton("SCI", "Mode Scientifique", Mode.SCIENTIFIC);
-        JButton progBtn = createModeButton("PROG", "Mode Programmeur", Mode.PROGRAMMER);
+        JButton stdBtn = createModeButton("STD", "Mode Standard", CalculatorMode.STANDARD);
+        JButton sciBtn = createModeButton("SCI", "Mode Scientifique", CalculatorMode.SCIENTIFIC);
+        JButton progBtn = createModeButton("PROG", "Mode Programmeur", CalculatorMode.PROGRAMMER);
+        JButton decBtn = createModeButton("DEC", "Mode Précision (décimal exact)", CalculatorMode.PRECISION);
+        JButton statBtn = createModeButton("STAT", "Mode Statistiques", CalculatorMode.STATISTICS);
 
         modeButtonsPanel.add(stdBtn);
         modeButtonsPanel.add(sciBtn);
         modeButtonsPanel.add(progBtn);
+        modeButtonsPanel.add(decBtn);
+        modeButtonsPanel.add(statBtn);
 
         menuBar.add(leftPanel, BorderLayout.WEST);
         menuBar.add(modeButtonsPanel, BorderLayout.EAST);
@@ -145,7 +224,7 @@ public class CalculatorApp extends JFrame {
         return menuBar;
     }
 
-    private JButton createModeButton(String text, String tooltip, Mode mode) {
+    private JButton createModeButton(String text, String tooltip, CalculatorMode mode) {
         JButton btn = new JButton(text);
         btn.setFont(new Font("SF Pro Display", Font.BOLD, 12));
         btn.setFocusPainted(false);
@@ -154,7 +233,8 @@ public class CalculatorApp extends JFrame {
         btn.setForeground(textSecondary);
         btn.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         btn.setToolTipText(tooltip);
-        btn.setPreferredSize(new Dimension(60, 26));
+        btn.setMargin(new Insets(0, 0, 0, 0));
+        btn.setPreferredSize(new Dimension(52, 26));
 
         btn.addMouseListener(new MouseAdapter() {
             @Override
@@ -164,7 +244,7 @@ public class CalculatorApp extends JFrame {
 
             @Override
             public void mouseExited(MouseEvent e) {
-                if (currentMode == mode) {
+                if (state.mode() == mode) {
                     btn.setForeground(accentColor);
                 } else {
                     btn.setForeground(textSecondary);
@@ -174,20 +254,16 @@ public class CalculatorApp extends JFrame {
 
         btn.addActionListener(e -> setMode(mode, btn));
         // Colorer le bouton du mode initial
-        if (mode == currentMode) {
+        if (mode == state.mode()) {
             btn.setForeground(accentColor);
         }
 
         return btn;
     }
 
-    private void setMode(Mode newMode, JButton clickedButton) {
-        currentMode = newMode;
-        switch (currentMode) {
-            case STANDARD -> modeLabel.setText("Mode : Standard");
-            case SCIENTIFIC -> modeLabel.setText("Mode : Scientifique");
-            case PROGRAMMER -> modeLabel.setText("Mode : Programmeur");
-        }
+    private void setMode(CalculatorMode newMode, JButton clickedButton) {
+        evaluator.cancel();
+        state = state.withMode(newMode);
 
         // Recolorer tous les boutons de mode
         Container parent = clickedButton.getParent();
@@ -197,32 +273,52 @@ public class CalculatorApp extends JFrame {
             }
         }
 
-        clear();
         updateButtonsForMode();
+        show(state);
     }
 
-    // Met à jour le panel de boutons selon le mode
+    private void updateModeLabel() {
+        switch (state.mode()) {
+            case STANDARD -> modeLabel.setText("Mode : Standard");
+            case SCIENTIFIC -> modeLabel.setText("Mode : Scientifique");
+            case PROGRAMMER -> {
+                String base = switch (state.radix()) {
+                    case 16 -> "HEX";
+                    case 8 -> "OCT";
+                    case 2 -> "BIN";
+                    default -> "DEC";
+                };
+                modeLabel.setText("Mode : Programmeur (" + state.width() + " bits, " + base + ")");
+            }
+            case PRECISION -> modeLabel.setText("Mode : Précision");
+            case STATISTICS -> modeLabel.setText(String.format("Mode : Statistiques (n = %,d)", state.dataCount()));
+        }
+    }
+
+    // Affiche le clavier du mode courant
+    // Claviers construits à leur première utilisation : seul celui du mode courant
+    // retarde le premier affichage
     private void updateButtonsForMode() {
-        buttonPanel.removeAll();
+        buttonPanel.show(state.mode());
+    }
 
-        String[][] layout;
-        switch (currentMode) {
-            case STANDARD -> layout = getStandardLayout();
-            case SCIENTIFIC -> layout = getScientificLayout();
-            case PROGRAMMER -> layout = getProgrammerLayout();
-            default -> layout = getStandardLayout();
-        }
+    private JPanel createKeypad(CalculatorMode mode) {
+        String[][] layout = switch (mode) {
+            case STANDARD -> getStandardLayout();
+            case SCIENTIFIC -> getScientificLayout();
+            case PROGRAMMER -> getProgrammerLayout();
+            case PRECISION -> getPrecisionLayout();
+            case STATISTICS -> getStatisticsLayout();
+        };
 
-        buttonPanel.setLayout(new GridLayout(layout.length, 4, 12, 12));
+        JPanel keypad = new JPanel(new GridLayout(layout.length, 4, 12, 12));
+        keypad.setOpaque(false);
         for (String[] row : layout) {
             for (String text : row) {
-                JButton btn = createStyledButton(text);
-                buttonPanel.add(btn);
+                keypad.add(createStyledButton(text, mode));
             }
         }
-
-        buttonPanel.revalidate();
-        buttonPanel.repaint();
+        return keypad;
     }
 
     // Layouts des différents modes
@@ -244,64 +340,71 @@ public class CalculatorApp extends JFrame {
                 {"√", "x²", "xʸ", "×"},
                 {"7", "8", "9", "-"},
                 {"4", "5", "6", "+"},
+                {"1", "2", "3", "f(x)"},
                 {"±", "0", ".", "="}
         };
     }
 
+    // 5 colonnes : chiffres hexadécimaux A-F ("C" est un chiffre, "AC" efface)
     private String[][] getProgrammerLayout() {
         return new String[][]{
-                {"C", "⌫", "AND", "OR"},
-                {"XOR", "NOT", "<<", ">>"},
-                {"%", "÷", "×", "-"},
-                {"7", "8", "9", "+"},
-                {"4", "5", "6", "="},
-                {"±", "0", ".", "="}
+                {"HEX", "DEC", "OCT", "BIN", "BITS"},
+                {"AND", "OR", "XOR", "NOT", "POP"},
+                {"<<", ">>", ">>>", "ROL", "ROR"},
+                {"D", "E", "F", "AC", "⌫"},
+                {"A", "B", "C", "%", "÷"},
+                {"7", "8", "9", "±", "×"},
+                {"4", "5", "6", "0", "-"},
+                {"1", "2", "3", "=", "+"}
         };
     }
 
-    // Bouton stylé (arrondi + hover + opérateurs colorés)
-    private JButton createStyledButton(String text) {
-        JButton button = new JButton(text) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2d = (Graphics2D) g.create();
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                Color bgColor = numberColor;
-
-                if (isOperator(text)) {
-                    bgColor = operatorColor;
-                }
-                if (text.equals("=")) {
-                    bgColor = accentColor;
-                }
-                if (text.equals("C") || text.equals("⌫")) {
-                    bgColor = new Color(255, 69, 58);
-                }
-
-                if (getModel().isRollover()) {
-                    bgColor = bgColor.brighter();
-                }
-                if (getModel().isPressed()) {
-                    bgColor = bgColor.darker();
-                }
-
-                g2d.setColor(bgColor);
-                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
-                g2d.setColor(new Color(0, 0, 0, 30));
-                g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 20, 20);
-                g2d.dispose();
+    private String[][] getPrecisionLayout() {
+        return new String[][]{
+                {"C", "⌫", "%", "÷"},
+                {"√", "x²", "xʸ", "×"},
+                {"7", "8", "9", "-"},
+                {"4", "5", "6", "+"},
+                {"1", "2", "3", "="},
+                {"±", "0", ".", "="}
+        };
+    }
 
-                super.paintComponent(g);
-            }
+    private String[][] getStatisticsLayout() {
+        return new String[][]{
+                {"C", "⌫", "Coller", "Ouvrir"},
+                {"n", "Σx", "x̄", "ΣC"},
+                {"s", "σ", "min", "max"},
+                {"7", "8", "9", "Méd"},
+                {"4", "5", "6", "P%"},
+                {"1", "2", "3", "Σ+"},
+                {"±", "0", ".", "Σ+"}
         };
+    }
+
+    // Bouton stylé (arrondi + hover + opérateurs colorés) ; la couleur est fixée à la
+    // construction puisque chaque mode a son clavier
+    private JButton createStyledButton(String text, CalculatorMode mode) {
+        Color bgColor = numberColor;
+        if (isOperator(text)) {
+            bgColor = operatorColor;
+        }
+        if (text.equals("=") || text.equals("Σ+")) {
+            bgColor = accentColor;
+        }
+        if ((text.equals("C") && mode != CalculatorMode.PROGRAMMER)
+                || text.equals("AC") || text.equals("⌫")) {
+            bgColor = clearColor;
+        }
+        JButton button = new KeyButton(text, bgColor);
 
-        button.setFont(new Font("SF Pro Display", Font.BOLD, 22));
+        button.setFont(KEY_FONT);
         button.setForeground(textPrimary);
         button.setFocusPainted(false);
         button.setBorderPainted(false);
         button.setContentAreaFilled(false);
         button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        button.setMargin(new Insets(0, 0, 0, 0));
         button.setPreferredSize(new Dimension(80, 70));
         button.setHorizontalTextPosition(SwingConstants.CENTER);
 
@@ -310,230 +413,347 @@ public class CalculatorApp extends JFrame {
         return button;
     }
 
+    private static final Font KEY_FONT = new Font("SF Pro Display", Font.BOLD, 22);
+
+    private static final Set<String> OPERATORS = Set.of("÷", "×", "-", "+", "%", "xʸ",
+            "AND", "OR", "XOR", "<<", ">>", ">>>", "ROL", "ROR");
+
     private boolean isOperator(String text) {
-        return Arrays.asList("÷", "×", "-", "+", "%", "xʸ",
-                "AND", "OR", "XOR", "<<", ">>").contains(text);
+        return OPERATORS.contains(text);
     }
 
-    // Gestion des clics sur boutons
+    // Gestion des clics sur boutons : la touche est une transition de CalculatorState ;
+    // seules les fenêtres (f(x), Coller, Ouvrir) et les calculs longs restent ici
     private void handleButtonClick(String text) {
-        try {
-            switch (text) {
-                case "C" -> clear();
-                case "⌫" -> backspace();
-                case "=" -> calculate();
-                case "±" -> toggleSign();
-                case "." -> handleNumber(".");
-                case "√" -> squareRoot();
-                case "x²" -> square();
-                case "xʸ" -> {
-                    operator = "^";
-                    firstOperand = Double.parseDouble(displayField.getText());
-                    startNewNumber = true;
-                    updateHistory(firstOperand + " ^ ");
-                }
-                // Scientifique
-                case "sin" -> applyUnary("sin", v -> Math.sin(Math.toRadians(v)));
-                case "cos" -> applyUnary("cos", v -> Math.cos(Math.toRadians(v)));
-                case "tan" -> applyUnary("tan", v -> Math.tan(Math.toRadians(v)));
-                case "log" -> {
-                    double v = Double.parseDouble(displayField.getText());
-                    if (v <= 0) {
-                        displayError("Erreur: x ≤ 0");
-                    } else {
-                        applyUnary("log", Math::log10);
-                    }
-                }
-                case "ln" -> {
-                    double v = Double.parseDouble(displayField.getText());
-                    if (v <= 0) {
-                        displayError("Erreur: x ≤ 0");
-                    } else {
-                        applyUnary("ln", Math::log);
-                    }
+        if (evaluator.isBusy()) {
+            // Pendant un calcul, seules les touches d'effacement comptent : elles l'abandonnent
+            if (text.equals("AC") || text.equals("⌫")
+                    || text.equals("C") && state.mode() != CalculatorMode.PROGRAMMER) {
+                cancelEvaluation();
+            }
+            return;
+        }
+        switch (text) {
+            case "f(x)" -> openFunctionPlot();
+            case "Coller" -> pasteData();
+            case "Ouvrir" -> openData();
+            default -> {
+                if (isSlow(text)) {
+                    pressLater(text);
+                } else {
+                    Calculations calculations = new Calculations();
+                    CalculatorState next = state.press(text, calculations);
+                    record(calculations);
+                    show(next);
                 }
-                // Programmeur
-                case "AND", "OR", "XOR", "<<", ">>", "%", "÷", "×", "-", "+" -> handleOperator(text);
-                case "NOT" -> bitwiseNot();
-                default -> handleNumber(text);
             }
-        } catch (Exception ex) {
-            displayError("Erreur");
         }
     }
 
-    // Interface pour les opérations unaires
-    @FunctionalInterface
-    private interface UnaryOperation {
-        double apply(double value);
+    // Mode précision : division, racine ou puissance exactes peuvent être longues
+    private boolean isSlow(String text) {
+        return state.mode() == CalculatorMode.PRECISION
+                && (text.equals("=") || text.equals("√") || text.equals("x²") || isOperator(text));
     }
 
-    private void applyUnary(String name, UnaryOperation op) {
-        double value = Double.parseDouble(displayField.getText());
-        double result = op.apply(value);
-        String calc = name + "(" + value + ") = " + formatResult(result);
-        history.add(calc);
-        displayField.setText(formatResult(result));
-        updateHistory(calc);
-        startNewNumber = true;
+    // Touche appliquée hors de l'EDT : la fenêtre reste fluide, le temps écoulé s'affiche
+    // au-dessus du résultat et AC, C ou ⌫ l'abandonnent. L'état étant immuable, le
+    // calcul part de l'état courant et le remplace à la fin
+    private void pressLater(String text) {
+        CalculatorState from = state;
+        Calculations calculations = new Calculations();
+        evaluator.submit(() -> from.press(text, calculations), next -> {
+            record(calculations);
+            show(next);
+        }, e -> {
+            metrics.recordError(CalculationError.GENERIC);
+            show(from.withError("Erreur"));
+        }, elapsed -> historyLabel.setText(
+                String.format("Calcul en cours… %.1f s (⌫ pour annuler)", elapsed / 1e9)));
     }
 
-    // Gestion des nombres
-    private void handleNumber(String num) {
-        if (startNewNumber) {
-            if (num.equals(".")) {
-                displayField.setText("0.");
-            } else {
-                displayField.setText(num);
-            }
-            startNewNumber = false;
-        } else {
-            String current = displayField.getText();
-            if (num.equals(".") && current.contains(".")) return;
-            displayField.setText(current + num);
-        }
+    private void cancelEvaluation() {
+        evaluator.cancel();
+        show(state.withError("Calcul annulé"));
     }
 
-    private void handleOperator(String op) {
-        if (!operator.isEmpty() && !startNewNumber) {
-            calculate();
+    // Fenêtre non modale réutilisée ; refermée, elle est recréée (ses calculs sont arrêtés)
+    private void openFunctionPlot() {
+        if (plotDialog == null || !plotDialog.isDisplayable()) {
+            plotDialog = new FunctionPlotDialog(this, "sin x");
         }
-        firstOperand = Double.parseDouble(displayField.getText());
-        operator = op;
-        startNewNumber = true;
-        updateHistory(firstOperand + " " + op + " ");
+        plotDialog.setVisible(true);
+        plotDialog.toFront();
     }
 
-    private void calculate() {
-        if (operator.isEmpty()) return;
-
-        double secondOperand = Double.parseDouble(displayField.getText());
-        double result = 0;
+    // Colonne copiée depuis un tableur (première colonne, virgule ou point décimal)
+    private void pasteData() {
+        String text;
+        try {
+            text = (String) Toolkit.getDefaultToolkit().getSystemClipboard().getData(DataFlavor.stringFlavor);
+        } catch (Exception e) {
+            show(state.withError("Presse-papiers vide"));
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        readData(() -> new ByteArrayInputStream(bytes), 0, "Presse-papiers");
+    }
 
-        switch (operator) {
-            case "+" -> result = firstOperand + secondOperand;
-            case "-" -> result = firstOperand - secondOperand;
-            case "×" -> result = firstOperand * secondOperand;
-            case "÷" -> {
-                if (secondOperand == 0) {
-                    displayError("Erreur: Division par 0");
-                    operator = "";
-                    return;
-                }
-                result = firstOperand / secondOperand;
-            }
-            case "%" -> result = firstOperand % secondOperand;
-            case "^" -> result = Math.pow(firstOperand, secondOperand);
-
-            // Mode programmeur (opérations bit à bit sur des entiers)
-            case "AND" -> {
-                int a = (int) Math.round(firstOperand);
-                int b = (int) Math.round(secondOperand);
-                result = a & b;
-            }
-            case "OR" -> {
-                int a = (int) Math.round(firstOperand);
-                int b = (int) Math.round(secondOperand);
-                result = a | b;
-            }
-            case "XOR" -> {
-                int a = (int) Math.round(firstOperand);
-                int b = (int) Math.round(secondOperand);
-                result = a ^ b;
-            }
-            case "<<" -> {
-                int a = (int) Math.round(firstOperand);
-                int b = (int) Math.round(secondOperand);
-                result = a << b;
+    private void openData() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        String answer = JOptionPane.showInputDialog(this, "Colonne à lire (à partir de 1) :", "1");
+        if (answer == null) {
+            return;
+        }
+        int column;
+        try {
+            column = Integer.parseInt(answer.trim());
+        } catch (NumberFormatException e) {
+            column = 0;
+        }
+        if (column < 1) {
+            show(state.withError("Colonne invalide"));
+            return;
+        }
+        Path path = chooser.getSelectedFile().toPath();
+        readData(() -> {
+            try {
+                return Files.newInputStream(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            case ">>" -> {
-                int a = (int) Math.round(firstOperand);
-                int b = (int) Math.round(secondOperand);
-                result = a >> b;
+        }, column - 1, path.getFileName().toString());
+    }
+
+    // Lecture hors de l'EDT (AC, C ou ⌫ l'abandonnent) ; le résumé lu est ajouté à la série
+    private void readData(Supplier<InputStream> source, int column, String name) {
+        evaluator.submit(() -> {
+            try (InputStream in = source.get()) {
+                return statisticsReader.read(in, column, StatisticsReader.Format.FRENCH);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
+        }, read -> show(state.merge(read,
+                String.format("%s : %,d valeur(s), %,d ignorée(s)", name, read.count(), read.ignored()))), e -> {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            show(state.withError("Lecture impossible"));
+            historyLabel.setText(cause.getMessage() == null ? " " : cause.getMessage());
+        }, elapsed -> historyLabel.setText(String.format("Lecture… %.1f s (⌫ pour annuler)", elapsed / 1e9)));
+    }
 
-        String calculation = firstOperand + " " + operator + " " + secondOperand + " = " + formatResult(result);
-        history.add(calculation);
-        displayField.setText(formatResult(result));
-        updateHistory(calculation);
-        operator = "";
-        startNewNumber = true;
+    // Nouvel état : affiché et sauvegardé
+    private void show(CalculatorState next) {
+        state = next;
+        render();
+        saveDisplayState();
     }
 
-    private void clear() {
-        displayField.setText("0");
-        operator = "";
-        firstOperand = 0;
-        startNewNumber = true;
-        historyLabel.setText(" ");
+    private void render() {
+        displayField.setText(state.display());
+        historyLabel.setText(state.history());
+        updateModeLabel();
     }
 
-    private void backspace() {
-        String current = displayField.getText();
-        if (current.length() > 1) {
-            displayField.setText(current.substring(0, current.length() - 1));
-        } else {
-            displayField.setText("0");
-            startNewNumber = true;
+    /**
+     * Calculs faits par une touche, ajoutés à l'historique et au journal par
+     * {@link #record} sur l'EDT (la touche a pu être appliquée sur un autre thread),
+     * avec leurs mesures : un calcul abandonné n'est pas compté.
+     */
+    private static final class Calculations implements CalculationListener {
+        private final List<ToLongFunction<CalculationHistory>> added = new ArrayList<>(2);
+        private final CalculationMeasures measures = new CalculationMeasures();
+
+        @Override
+        public void calculated(Operator op, double a, double b, double result) {
+            added.add(h -> h.add(op, a, b, result));
         }
-    }
 
-    private void toggleSign() {
-        double value = Double.parseDouble(displayField.getText());
-        displayField.setText(formatResult(-value));
-    }
+        @Override
+        public void calculated(UnaryFunction f, double value, double result) {
+            added.add(h -> h.add(f, value, result));
+        }
 
-    private void squareRoot() {
-        double value = Double.parseDouble(displayField.getText());
-        if (value < 0) {
-            displayError("Erreur: Nombre négatif");
-            return;
+        @Override
+        public void calculated(Operator op, long a, long b, long result, int width) {
+            added.add(h -> h.add(op, a, b, result, width));
+        }
+
+        @Override
+        public void calculated(UnaryFunction f, long value, long result, int width) {
+            added.add(h -> h.add(f, value, result, width));
+        }
+
+        @Override
+        public void calculated(Operator op, ExactDecimal a, ExactDecimal b, ExactDecimal result) {
+            added.add(h -> h.add(op, a, b, result));
+        }
+
+        @Override
+        public void calculated(UnaryFunction f, ExactDecimal value, ExactDecimal result) {
+            added.add(h -> h.add(f, value, result));
+        }
+
+        @Override
+        public void measured(Operator op, CalculationError error, long nanos) {
+            measures.measured(op, error, nanos);
+        }
+
+        @Override
+        public void measured(UnaryFunction f, CalculationError error, long nanos) {
+            measures.measured(f, error, nanos);
+        }
+
+        @Override
+        public void failed(CalculationError error) {
+            measures.failed(error);
         }
-        double result = Math.sqrt(value);
-        String calculation = "√" + value + " = " + formatResult(result);
-        history.add(calculation);
-        displayField.setText(formatResult(result));
-        updateHistory(calculation);
-        startNewNumber = true;
     }
 
-    private void square() {
-        double value = Double.parseDouble(displayField.getText());
-        double result = value * value;
-        String calculation = value + "² = " + formatResult(result);
-        history.add(calculation);
-        displayField.setText(formatResult(result));
-        updateHistory(calculation);
-        startNewNumber = true;
+    // Ajoute les calculs à l'historique, les journalise et les compte
+    private void record(Calculations calculations) {
+        calculations.measures.recordTo(metrics);
+        for (ToLongFunction<CalculationHistory> add : calculations.added) {
+            long sequence = add.applyAsLong(history);
+            if (journal != null) {
+                try {
+                    journal.append(history, sequence);
+                } catch (IOException e) {
+                    System.err.println("Journal désactivé : " + e.getMessage());
+                    closeJournal();
+                }
+            }
+        }
     }
 
-    private void bitwiseNot() {
-        int value = (int) Math.round(Double.parseDouble(displayField.getText()));
-        int result = ~value;
-        String calculation = "~" + value + " = " + result;
-        history.add(calculation);
-        displayField.setText(String.valueOf(result));
-        updateHistory(calculation);
-        startNewNumber = true;
+    // Ouvre le journal, rejoue les derniers calculs et renvoie l'état de l'affichage
+    private DisplayState openJournal() {
+        Path path = Path.of(System.getProperty("calculatrice.journal",
+                Path.of(System.getProperty("user.home"), ".calculatrice", "historique.journal").toString()));
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            journal = HistoryJournal.open(path);
+            journal.replay(history, history.capacity());
+            return journal.lastState();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Journal d'historique indisponible : " + e.getMessage());
+            journal = null;
+            return null;
+        }
     }
 
-    private String formatResult(double result) {
-        if (result == (long) result) {
-            return String.format("%d", (long) result);
-        } else {
-            DecimalFormat df = new DecimalFormat("#.##########");
-            return df.format(result);
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Fermeture du journal : " + e.getMessage());
         }
+        journal = null;
     }
 
-    private void updateHistory(String text) {
-        historyLabel.setText(text);
+    private void saveDisplayState() {
+        if (journal != null) {
+            journal.saveState(state.toDisplayState());
+        }
     }
 
-    private void displayError(String message) {
-        displayField.setText(message);
-        startNewNumber = true;
+    /**
+     * Touche dont le fond (normal, survol, appui) est une image dessinée une fois par
+     * couleur et par taille, partagée entre toutes les touches : l'affichage copie
+     * l'image au lieu de recréer couleurs et formes anticrénelées à chaque rendu.
+     */
+    private static final class KeyButton extends JButton {
+        private static final Color EDGE = new Color(0, 0, 0, 30);
+        // Clé : couleur, taille et échelle de l'écran ; accès depuis l'EDT seulement.
+        // Chaque redimensionnement de la fenêtre crée de nouvelles tailles : on ne garde
+        // que les plus récemment utilisées (quelques couleurs × quelques formes de touche).
+        private static final int MAX_SKINS = 64;
+        private static final Map<Long, BufferedImage[]> SKINS =
+                new LinkedHashMap<>(2 * MAX_SKINS, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage[]> eldest) {
+                        return size() > MAX_SKINS;
+                    }
+                };
+
+        private final Color base;
+        private BufferedImage[] skin;
+        private long skinKey;
+        // Échelle de l'écran, relue seulement quand la fenêtre change d'écran
+        private GraphicsConfiguration screen;
+        private double scale = 1;
+        private int textX;
+        private int textY;
+        private int textWidth = -1;
+        private int textHeight = -1;
+
+        KeyButton(String text, Color base) {
+            super(text);
+            this.base = base;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int w = getWidth();
+            int h = getHeight();
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (gc != screen) {
+                screen = gc;
+                scale = gc == null ? 1 : gc.getDefaultTransform().getScaleX();
+            }
+            long key = (long) (base.getRGB() & 0xFFFFFF) << 32 | (long) w << 18 | (long) h << 4
+                    | Math.min(15, Math.round(scale * 4));
+            if (skin == null || key != skinKey) {
+                double s = scale;
+                skin = SKINS.computeIfAbsent(key, k -> paintSkin(base, w, h, s));
+                skinKey = key;
+            }
+            ButtonModel model = getModel();
+            BufferedImage image = model.isPressed() ? skin[2] : model.isRollover() ? skin[1] : skin[0];
+            g.drawImage(image, 0, 0, w, h, null);
+
+            // Texte centré, position recalculée seulement si la taille change
+            // (le rendu du libellé par le look and feel alloue à chaque fois)
+            if (w != textWidth || h != textHeight) {
+                FontMetrics metrics = getFontMetrics(getFont());
+                textX = (w - metrics.stringWidth(getText())) / 2;
+                textY = (h - metrics.getHeight()) / 2 + metrics.getAscent();
+                textWidth = w;
+                textHeight = h;
+            }
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(getFont());
+            g.setColor(getForeground());
+            g.drawString(getText(), textX, textY);
+        }
+
+        // Même rendu que l'ancien paintComponent : survol plus clair, appui plus sombre
+        private static BufferedImage[] paintSkin(Color base, int w, int h, double scale) {
+            Color rollover = base.brighter();
+            Color[] colors = {base, rollover, rollover.darker()};
+            BufferedImage[] images = new BufferedImage[colors.length];
+            int pw = Math.max(1, (int) Math.ceil(w * scale));
+            int ph = Math.max(1, (int) Math.ceil(h * scale));
+            for (int i = 0; i < colors.length; i++) {
+                BufferedImage image = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g2d = image.createGraphics();
+                g2d.scale(scale, scale);
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.setColor(colors[i]);
+                g2d.fillRoundRect(0, 0, w, h, 20, 20);
+                g2d.setColor(EDGE);
+                g2d.drawRoundRect(0, 0, w - 1, h - 1, 20, 20);
+                g2d.dispose();
+                images[i] = image;
+            }
+            return images;
+        }
     }
 
     // Bordure arrondie
@@ -568,11 +788,27 @@ public class CalculatorApp extends JFrame {
         }
     }
 
+    // Temps jusqu'à la première image (voir scripts/kiosque.sh) : affiché, puis la
+    // fenêtre se ferme si la propriété vaut "quitter"
+    private void reportFirstFrame() {
+        long sinceMain = (System.nanoTime() - mainStart) / 1_000_000;
+        long sinceLaunch = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("Première image : " + sinceLaunch + " ms depuis le lancement de la JVM, "
+                + sinceMain + " ms depuis main");
+        if (FIRST_FRAME.equals("quitter")) {
+            dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING));
+        }
+    }
+
     public static void main(String[] args) {
-        // Look & Feel natif pour plus de cohérence
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception ignored) {
+        mainStart = System.nanoTime();
+        // Look & Feel natif pour plus de cohérence ; -Dcalculatrice.lafNatif=false garde
+        // celui de Java, plus rapide à charger
+        if (Boolean.parseBoolean(System.getProperty("calculatrice.lafNatif", "true"))) {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception ignored) {
+            }
         }
 
         SwingUtilities.invokeLater(CalculatorApp::new);
@@ -0,0 +1,217 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.io.ChannelResultWriter;
+import com.votreentreprise.calc.io.MappedCsvReader;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Calcul en ligne de commande d'un fichier CSV {@code gauche,opérateur,droite}.
+ *
+ * <p>Chaque ligne d'entrée produit une ligne de sortie : le résultat mis en forme
+ * comme à l'écran, ou le message d'erreur ({@code Erreur: Division par 0}...) ; une
+ * ligne vide reste vide, pour que la sortie reste alignée sur l'entrée.
+ * Les lignes sont traitées par blocs pour que la mémoire reste constante.
+ *
+ * <pre>
+ * java -cp app.jar com.votreentreprise.calc.batch.BatchCli entree.csv sortie.csv
+ * java -cp app.jar com.votreentreprise.calc.batch.BatchCli - - &lt; entree.csv
+ * java -cp app.jar com.votreentreprise.calc.batch.BatchCli -p 64 entree.csv sortie.csv
+ * java -cp app.jar com.votreentreprise.calc.batch.BatchCli -m -p 64 entree.csv sortie.csv
+ * </pre>
+ *
+ * <p>Avec {@code -p N}, les blocs sont plus grands et calculés sur {@code N} cœurs ;
+ * la sortie reste dans l'ordre de l'entrée. Avec {@code -m}, l'entrée est projetée en
+ * mémoire et lue sans créer de {@code String} ({@link MappedCsvReader}) ; les deux
+ * fichiers doivent alors être de vrais chemins. Avec
+ * {@code --add-modules jdk.incubator.vector}, les suites de même opérateur sont
+ * calculées en SIMD ({@link ColumnKernels}).
+ */
+public final class BatchCli {
+
+    static final int CHUNK_SIZE = 8192;
+    static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+
+    private final int chunkSize;
+    private final ParallelBatchEvaluator parallel;
+    private final double[] left;
+    private final byte[] operators;
+    private final double[] right;
+    private final double[] results;
+    private final byte[] status;
+    private final char[] text = new char[ResultFormatter.MAX_LENGTH];
+
+    /** CLI séquentielle. */
+    public BatchCli() {
+        this(null);
+    }
+
+    /** CLI qui calcule chaque bloc avec {@code parallel} (séquentielle si {@code null}). */
+    public BatchCli(ParallelBatchEvaluator parallel) {
+        this.parallel = parallel;
+        this.chunkSize = parallel == null ? CHUNK_SIZE : PARALLEL_CHUNK_SIZE;
+        this.left = new double[chunkSize];
+        this.operators = new byte[chunkSize];
+        this.right = new double[chunkSize];
+        this.results = new double[chunkSize];
+        this.status = new byte[chunkSize];
+    }
+
+    public static void main(String[] args) throws IOException {
+        int parallelism = 1;
+        boolean mapped = false;
+        int first = 0;
+        while (first < args.length && args[first].startsWith("-") && args[first].length() > 1) {
+            if ("-p".equals(args[first]) && first + 1 < args.length) {
+                parallelism = Integer.parseInt(args[first + 1]);
+                first += 2;
+            } else if ("-m".equals(args[first])) {
+                mapped = true;
+                first++;
+            } else {
+                usage();
+            }
+        }
+        if (args.length - first > 2 || parallelism < 1) {
+            usage();
+        }
+        String in = args.length > first ? args[first] : "-";
+        String out = args.length > first + 1 ? args[first + 1] : "-";
+        if (mapped && ("-".equals(in) || "-".equals(out))) {
+            usage();
+        }
+        long rows;
+        try (ParallelBatchEvaluator parallel = parallelism > 1 ? new ParallelBatchEvaluator(parallelism) : null) {
+            BatchCli cli = new BatchCli(parallel);
+            if (mapped) {
+                try (MappedCsvReader reader = new MappedCsvReader(Path.of(in));
+                     ChannelResultWriter writer = new ChannelResultWriter(Path.of(out))) {
+                    rows = cli.run(reader, writer);
+                }
+            } else {
+                try (BufferedReader reader = new BufferedReader(open(in), 1 << 16);
+                     BufferedWriter writer = new BufferedWriter(create(out), 1 << 16)) {
+                    rows = cli.run(reader, writer);
+                }
+            }
+        }
+        System.err.println(rows + " ligne(s) calculée(s)");
+    }
+
+    private static void usage() {
+        System.err.println("Usage : BatchCli [-m] [-p parallélisme] [entrée.csv|-] [sortie.csv|-]");
+        System.exit(2);
+    }
+
+    /**
+     * Lit tout {@code reader} et écrit un résultat par ligne dans {@code writer}.
+     *
+     * @return le nombre de lignes traitées
+     */
+    public long run(BufferedReader reader, Writer writer) throws IOException {
+        long total = 0;
+        int n = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                operators[n] = -1;
+                status[n] = CalculationError.EMPTY;
+            } else {
+                parseRow(line, n);
+            }
+            if (++n == chunkSize) {
+                flush(n, writer);
+                total += n;
+                n = 0;
+            }
+        }
+        flush(n, writer);
+        return total + n;
+    }
+
+    /**
+     * Variante projetée en mémoire de {@link #run(BufferedReader, Writer)}.
+     *
+     * @return le nombre de lignes traitées
+     */
+    public long run(MappedCsvReader reader, ChannelResultWriter writer) throws IOException {
+        long total = 0;
+        int n;
+        while ((n = reader.read(left, operators, right, status)) > 0) {
+            evaluate(n);
+            writer.write(results, status, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    // Une ligne illisible est marquée en erreur générique, comme le catch de handleButtonClick
+    private void parseRow(String line, int row) {
+        int c1 = line.indexOf(',');
+        int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+        try {
+            if (c2 < 0) {
+                throw new IllegalArgumentException(line);
+            }
+            left[row] = Double.parseDouble(line.substring(0, c1).trim());
+            operators[row] = Operator.fromSymbol(line.substring(c1 + 1, c2).trim()).code();
+            right[row] = Double.parseDouble(line.substring(c2 + 1).trim());
+            status[row] = CalculationError.OK;
+        } catch (IllegalArgumentException e) {
+            operators[row] = -1;
+            status[row] = CalculationError.GENERIC.code();
+        }
+    }
+
+    private void flush(int n, Writer writer) throws IOException {
+        evaluate(n);
+        for (int i = 0; i < n; i++) {
+            byte s = status[i];
+            if (s == CalculationError.OK) {
+                writer.write(text, 0, ResultFormatter.format(results[i], text, 0));
+            } else if (s != CalculationError.EMPTY) {
+                writer.write(CalculationError.fromCode(s).message());
+            }
+            writer.write('\n');
+        }
+    }
+
+    private void evaluate(int n) {
+        int start = 0;
+        // Les lignes illisibles ou vides coupent le bloc : on évalue les segments valides entre elles
+        for (int i = 0; i <= n; i++) {
+            if (i == n || operators[i] < 0) {
+                if (parallel != null) {
+                    parallel.evaluate(left, operators, right, results, status, start, i);
+                } else {
+                    BatchEvaluator.evaluate(left, operators, right, results, status, start, i);
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    private static Reader open(String path) throws IOException {
+        return "-".equals(path)
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(path), StandardCharsets.UTF_8);
+    }
+
+    private static Writer create(String path) throws IOException {
+        return "-".equals(path)
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8);
+    }
+}
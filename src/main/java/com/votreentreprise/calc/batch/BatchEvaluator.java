@@ -0,0 +1,143 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.Operator;
+
+/**
+ * Évaluation en colonnes de {@code gauche opérateur droite}, avec la sémantique de
+ * {@code CalculatorApp.calculate()}.
+ *
+ * <p>Les opérateurs sont donnés par leur {@link Operator#code()}. Une ligne en erreur
+ * reçoit {@code NaN} comme résultat et le {@link CalculationError#code()} dans la
+ * colonne de statut ; les autres lignes ont le statut {@link CalculationError#OK}.
+ * Aucune allocation n'est faite par ligne.
+ *
+ * <p>Les suites d'au moins {@value #KERNEL_RUN} lignes de même opérateur
+ * ({@code + - × ÷ %}) passent par {@link ColumnKernels#get()}, vectorisé quand
+ * l'API Vector est disponible ; les résultats sont identiques.
+ */
+public final class BatchEvaluator {
+
+    private static final byte PLUS = Operator.PLUS.code();
+    private static final byte MINUS = Operator.MINUS.code();
+    private static final byte TIMES = Operator.TIMES.code();
+    private static final byte DIVIDE = Operator.DIVIDE.code();
+    private static final byte MODULO = Operator.MODULO.code();
+    private static final byte POWER = Operator.POWER.code();
+
+    /** Longueur minimale d'une suite de même opérateur confiée aux noyaux en colonnes. */
+    static final int KERNEL_RUN = 32;
+
+    private static final ColumnKernels KERNELS = ColumnKernels.get();
+
+    private BatchEvaluator() {
+    }
+
+    /**
+     * Évalue toutes les lignes. Les tableaux doivent avoir la même longueur.
+     *
+     * @return le nombre de lignes en erreur
+     */
+    public static int evaluate(double[] left, byte[] operators, double[] right,
+                               double[] results, byte[] status) {
+        checkLengths(left.length, left, operators, right, results, status);
+        return evaluate(left, operators, right, results, status, 0, left.length);
+    }
+
+    /**
+     * Évalue les lignes {@code [from, to)} ; les autres cases de {@code results} et
+     * {@code status} ne sont pas modifiées.
+     *
+     * @return le nombre de lignes en erreur dans l'intervalle
+     */
+    public static int evaluate(double[] left, byte[] operators, double[] right,
+                               double[] results, byte[] status, int from, int to) {
+        int errors = 0;
+        int start = from;
+        while (start < to) {
+            byte op = operators[start];
+            int end = start + 1;
+            while (end < to && operators[end] == op) {
+                end++;
+            }
+            if (end - start >= KERNEL_RUN && op <= MODULO) {
+                errors += KERNELS.apply(Operator.fromCode(op), left, right, results, status, start, end);
+            } else {
+                errors += evaluateRows(left, operators, right, results, status, start, end);
+            }
+            start = end;
+        }
+        return errors;
+    }
+
+    /**
+     * Évalue la colonne entière avec un seul opérateur, sans colonne d'opérateurs.
+     *
+     * @return le nombre de lignes en erreur
+     */
+    public static int evaluate(Operator op, double[] left, double[] right,
+                               double[] results, byte[] status, int from, int to) {
+        if (ColumnKernels.supports(op)) {
+            return KERNELS.apply(op, left, right, results, status, from, to);
+        }
+        int errors = 0;
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = Operator.apply(op, left[i], right[i]);
+                status[i] = CalculationError.OK;
+            } catch (CalculationException e) {
+                results[i] = Double.NaN;
+                status[i] = e.error().code();
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    private static int evaluateRows(double[] left, byte[] operators, double[] right,
+                                    double[] results, byte[] status, int from, int to) {
+        int errors = 0;
+        for (int i = from; i < to; i++) {
+            double a = left[i];
+            double b = right[i];
+            byte op = operators[i];
+            double r;
+            byte s = CalculationError.OK;
+            if (op == PLUS) {
+                r = a + b;
+            } else if (op == MINUS) {
+                r = a - b;
+            } else if (op == TIMES) {
+                r = a * b;
+            } else if (op == DIVIDE) {
+                if (b == 0) {
+                    r = Double.NaN;
+                    s = CalculationError.DIVISION_BY_ZERO.code();
+                } else {
+                    r = a / b;
+                }
+            } else if (op == MODULO) {
+                r = a % b;
+            } else if (op == POWER) {
+                r = Math.pow(a, b);
+            } else {
+                r = Operator.apply(Operator.fromCode(op), a, b);
+            }
+            results[i] = r;
+            status[i] = s;
+            if (s != CalculationError.OK) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    static void checkLengths(int n, double[] left, byte[] operators, double[] right,
+                             double[] results, byte[] status) {
+        if (left.length != n || operators.length != n || right.length != n
+                || results.length != n || status.length != n) {
+            throw new IllegalArgumentException("Les colonnes doivent avoir la même longueur");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+
+/**
+ * Calcul d'un même opérateur sur des colonnes {@code double[]}, avec la sémantique
+ * de {@link Operator#apply(Operator, double, double)} et
+ * {@link UnaryFunction#apply(UnaryFunction, double)} bit à bit.
+ *
+ * <p>Opérateurs pris en charge : {@code + - × ÷ %}, {@code x²} et {@code √}. Une
+ * ligne hors domaine (division par 0, racine d'un négatif) n'interrompt pas le
+ * calcul : elle reçoit {@code NaN} et son code d'erreur dans la colonne de statut,
+ * comme dans {@link BatchEvaluator}.
+ *
+ * <p>{@link #get()} renvoie l'implémentation SIMD ({@code jdk.incubator.vector}) si le
+ * module est chargé ({@code --add-modules jdk.incubator.vector}), sinon une boucle
+ * scalaire. {@code -Dcalculatrice.simd=false} force la boucle scalaire.
+ */
+public interface ColumnKernels {
+
+    /** Nom de l'implémentation, pour les journaux et les benchmarks. */
+    String name();
+
+    /**
+     * {@code results[i] = left[i] op right[i]} pour {@code i} dans {@code [from, to)}.
+     *
+     * @return le nombre de lignes en erreur
+     * @throws IllegalArgumentException si l'opérateur n'est pas pris en charge
+     */
+    int apply(Operator op, double[] left, double[] right, double[] results, byte[] status, int from, int to);
+
+    /**
+     * {@code results[i] = f(values[i])} pour {@code i} dans {@code [from, to)}.
+     *
+     * @return le nombre de lignes en erreur
+     * @throws IllegalArgumentException si la fonction n'est pas prise en charge
+     */
+    int apply(UnaryFunction f, double[] values, double[] results, byte[] status, int from, int to);
+
+    static boolean supports(Operator op) {
+        return switch (op) {
+            case PLUS, MINUS, TIMES, DIVIDE, MODULO -> true;
+            default -> false;
+        };
+    }
+
+    static boolean supports(UnaryFunction f) {
+        return f == UnaryFunction.SQUARE || f == UnaryFunction.SQRT;
+    }
+
+    /** Meilleure implémentation disponible dans cette JVM. */
+    static ColumnKernels get() {
+        return KernelLoader.INSTANCE;
+    }
+
+    /** Implémentation scalaire, toujours disponible. */
+    static ColumnKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+}
@@ -0,0 +1,24 @@
+package com.votreentreprise.calc.batch;
+
+/** Choix de l'implémentation de {@link ColumnKernels}, fait une fois au premier usage. */
+final class KernelLoader {
+
+    static final ColumnKernels INSTANCE = load();
+
+    private KernelLoader() {
+    }
+
+    // Chargée par réflexion : sans le module, la classe SIMD ne peut pas être liée
+    private static ColumnKernels load() {
+        if (!Boolean.parseBoolean(System.getProperty("calculatrice.simd", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return ScalarKernels.INSTANCE;
+        }
+        try {
+            return (ColumnKernels) Class.forName("com.votreentreprise.calc.batch.VectorKernels")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return ScalarKernels.INSTANCE;
+        }
+    }
+}
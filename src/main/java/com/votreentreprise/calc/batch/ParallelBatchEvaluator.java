@@ -0,0 +1,108 @@
+package com.votreentreprise.calc.batch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Version multi-cœurs de {@link BatchEvaluator}, basée sur fork-join.
+ *
+ * <p>Les colonnes sont découpées en intervalles disjoints ; chaque tâche écrit à la
+ * position de ses lignes d'entrée, donc l'ordre de sortie est celui de l'entrée.
+ * Chaque ligne passe par le même code que le chemin séquentiel : les résultats et
+ * statuts (y compris la division par 0) sont identiques bit à bit.
+ */
+public final class ParallelBatchEvaluator implements AutoCloseable {
+
+    /** Taille minimale d'un intervalle, en dessous on ne découpe plus. */
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int threshold;
+
+    /** Évaluateur avec son propre pool de {@code parallelism} threads. */
+    public ParallelBatchEvaluator(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_THRESHOLD);
+    }
+
+    /** Évaluateur sur un pool existant, qui n'est pas fermé par {@link #close()}. */
+    public ParallelBatchEvaluator(ForkJoinPool pool, int threshold) {
+        this(pool, false, threshold);
+    }
+
+    private ParallelBatchEvaluator(ForkJoinPool pool, boolean ownsPool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Seuil invalide : " + threshold);
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.threshold = threshold;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Évalue toutes les lignes, comme {@link BatchEvaluator#evaluate(double[], byte[], double[], double[], byte[])}.
+     *
+     * @return le nombre de lignes en erreur
+     */
+    public int evaluate(double[] left, byte[] operators, double[] right,
+                        double[] results, byte[] status) {
+        BatchEvaluator.checkLengths(left.length, left, operators, right, results, status);
+        return evaluate(left, operators, right, results, status, 0, left.length);
+    }
+
+    /** Évalue les lignes {@code [from, to)}. */
+    public int evaluate(double[] left, byte[] operators, double[] right,
+                        double[] results, byte[] status, int from, int to) {
+        if (to - from <= threshold) {
+            return BatchEvaluator.evaluate(left, operators, right, results, status, from, to);
+        }
+        return pool.invoke(new Chunk(left, operators, right, results, status, from, to, threshold));
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class Chunk extends RecursiveTask<Integer> {
+        private final double[] left;
+        private final byte[] operators;
+        private final double[] right;
+        private final double[] results;
+        private final byte[] status;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        Chunk(double[] left, byte[] operators, double[] right, double[] results, byte[] status,
+              int from, int to, int threshold) {
+            this.left = left;
+            this.operators = operators;
+            this.right = right;
+            this.results = results;
+            this.status = status;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= threshold) {
+                return BatchEvaluator.evaluate(left, operators, right, results, status, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            Chunk head = new Chunk(left, operators, right, results, status, from, mid, threshold);
+            Chunk tail = new Chunk(left, operators, right, results, status, mid, to, threshold);
+            head.fork();
+            int errors = tail.compute();
+            return errors + head.join();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+
+/** Boucles scalaires de {@link ColumnKernels}, une par opérateur pour rester sans branche. */
+final class ScalarKernels implements ColumnKernels {
+
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private static final byte DIVISION_BY_ZERO = CalculationError.DIVISION_BY_ZERO.code();
+    private static final byte NEGATIVE_SQRT = CalculationError.NEGATIVE_SQRT.code();
+
+    private ScalarKernels() {
+    }
+
+    @Override
+    public String name() {
+        return "scalaire";
+    }
+
+    @Override
+    public int apply(Operator op, double[] left, double[] right, double[] results, byte[] status,
+                     int from, int to) {
+        switch (op) {
+            case PLUS -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = left[i] + right[i];
+                    status[i] = CalculationError.OK;
+                }
+            }
+            case MINUS -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = left[i] - right[i];
+                    status[i] = CalculationError.OK;
+                }
+            }
+            case TIMES -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = left[i] * right[i];
+                    status[i] = CalculationError.OK;
+                }
+            }
+            case DIVIDE -> {
+                return divide(left, right, results, status, from, to);
+            }
+            case MODULO -> modulo(left, right, results, status, from, to);
+            default -> throw new IllegalArgumentException("Opérateur non vectorisé : " + op.symbol());
+        }
+        return 0;
+    }
+
+    @Override
+    public int apply(UnaryFunction f, double[] values, double[] results, byte[] status, int from, int to) {
+        switch (f) {
+            case SQUARE -> {
+                for (int i = from; i < to; i++) {
+                    double v = values[i];
+                    results[i] = v * v;
+                    status[i] = CalculationError.OK;
+                }
+                return 0;
+            }
+            case SQRT -> {
+                return sqrt(values, results, status, from, to);
+            }
+            default -> throw new IllegalArgumentException("Fonction non vectorisée : " + f.symbol());
+        }
+    }
+
+    static int divide(double[] left, double[] right, double[] results, byte[] status, int from, int to) {
+        int errors = 0;
+        for (int i = from; i < to; i++) {
+            double b = right[i];
+            if (b == 0) {
+                results[i] = Double.NaN;
+                status[i] = DIVISION_BY_ZERO;
+                errors++;
+            } else {
+                results[i] = left[i] / b;
+                status[i] = CalculationError.OK;
+            }
+        }
+        return errors;
+    }
+
+    // Pas de reste flottant dans l'API vectorielle : la version SIMD passe aussi par ici
+    static void modulo(double[] left, double[] right, double[] results, byte[] status, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = left[i] % right[i];
+            status[i] = CalculationError.OK;
+        }
+    }
+
+    static int sqrt(double[] values, double[] results, byte[] status, int from, int to) {
+        int errors = 0;
+        for (int i = from; i < to; i++) {
+            double v = values[i];
+            if (v < 0) {
+                results[i] = Double.NaN;
+                status[i] = NEGATIVE_SQRT;
+                errors++;
+            } else {
+                results[i] = Math.sqrt(v);
+                status[i] = CalculationError.OK;
+            }
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,136 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * Noyaux SIMD de {@link ColumnKernels}, à la largeur préférée du processeur
+ * (4 lanes en AVX2, 8 en AVX-512). Le reste de la colonne passe par la boucle
+ * scalaire. Les lanes en erreur sont repérées par un masque : le statut n'est écrit
+ * lane par lane que dans ce cas, qui est rare.
+ *
+ * <p>Ne charger que par {@link KernelLoader} : la classe dépend de
+ * {@code jdk.incubator.vector}.
+ */
+final class VectorKernels implements ColumnKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final DoubleVector NAN = DoubleVector.broadcast(SPECIES, Double.NaN);
+
+    private static final byte DIVISION_BY_ZERO = CalculationError.DIVISION_BY_ZERO.code();
+    private static final byte NEGATIVE_SQRT = CalculationError.NEGATIVE_SQRT.code();
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.length() + "x64";
+    }
+
+    @Override
+    public int apply(Operator op, double[] left, double[] right, double[] results, byte[] status,
+                     int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        switch (op) {
+            case PLUS -> add(left, right, results, from, bound);
+            case MINUS -> subtract(left, right, results, from, bound);
+            case TIMES -> multiply(left, right, results, from, bound);
+            case DIVIDE -> {
+                Arrays.fill(status, from, bound, CalculationError.OK);
+                return divide(left, right, results, status, from, bound)
+                        + ScalarKernels.divide(left, right, results, status, bound, to);
+            }
+            case MODULO -> {
+                ScalarKernels.modulo(left, right, results, status, from, to);
+                return 0;
+            }
+            default -> throw new IllegalArgumentException("Opérateur non vectorisé : " + op.symbol());
+        }
+        Arrays.fill(status, from, bound, CalculationError.OK);
+        return ScalarKernels.INSTANCE.apply(op, left, right, results, status, bound, to);
+    }
+
+    @Override
+    public int apply(UnaryFunction f, double[] values, double[] results, byte[] status, int from, int to) {
+        int bound = from + SPECIES.loopBound(to - from);
+        switch (f) {
+            case SQUARE -> multiply(values, values, results, from, bound);
+            case SQRT -> {
+                Arrays.fill(status, from, bound, CalculationError.OK);
+                return sqrt(values, results, status, from, bound)
+                        + ScalarKernels.sqrt(values, results, status, bound, to);
+            }
+            default -> throw new IllegalArgumentException("Fonction non vectorisée : " + f.symbol());
+        }
+        Arrays.fill(status, from, bound, CalculationError.OK);
+        return ScalarKernels.INSTANCE.apply(f, values, results, status, bound, to);
+    }
+
+    // Une boucle par opérateur : avec l'opérateur en paramètre, C2 ne génère plus le SIMD
+    private static void add(double[] left, double[] right, double[] results, int from, int bound) {
+        for (int i = from; i < bound; i += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, left, i);
+            a.add(DoubleVector.fromArray(SPECIES, right, i)).intoArray(results, i);
+        }
+    }
+
+    private static void subtract(double[] left, double[] right, double[] results, int from, int bound) {
+        for (int i = from; i < bound; i += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, left, i);
+            a.sub(DoubleVector.fromArray(SPECIES, right, i)).intoArray(results, i);
+        }
+    }
+
+    private static void multiply(double[] left, double[] right, double[] results, int from, int bound) {
+        for (int i = from; i < bound; i += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, left, i);
+            a.mul(DoubleVector.fromArray(SPECIES, right, i)).intoArray(results, i);
+        }
+    }
+
+    private static int divide(double[] left, double[] right, double[] results, byte[] status,
+                              int from, int bound) {
+        int errors = 0;
+        for (int i = from; i < bound; i += SPECIES.length()) {
+            DoubleVector a = DoubleVector.fromArray(SPECIES, left, i);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, right, i);
+            VectorMask<Double> zero = b.eq(0.0);
+            a.div(b).blend(NAN, zero).intoArray(results, i);
+            // trueCount est compilé en une instruction, anyTrue ne l'est pas partout en 17
+            int count = zero.trueCount();
+            if (count != 0) {
+                mark(zero, status, i, DIVISION_BY_ZERO);
+                errors += count;
+            }
+        }
+        return errors;
+    }
+
+    private static int sqrt(double[] values, double[] results, byte[] status, int from, int bound) {
+        int errors = 0;
+        for (int i = from; i < bound; i += SPECIES.length()) {
+            DoubleVector v = DoubleVector.fromArray(SPECIES, values, i);
+            VectorMask<Double> negative = v.lt(0.0);
+            v.lanewise(VectorOperators.SQRT).blend(NAN, negative).intoArray(results, i);
+            int count = negative.trueCount();
+            if (count != 0) {
+                mark(negative, status, i, NEGATIVE_SQRT);
+                errors += count;
+            }
+        }
+        return errors;
+    }
+
+    private static void mark(VectorMask<Double> errors, byte[] status, int offset, byte code) {
+        long bits = errors.toLong();
+        while (bits != 0) {
+            status[offset + Long.numberOfTrailingZeros(bits)] = code;
+            bits &= bits - 1;
+        }
+    }
+}
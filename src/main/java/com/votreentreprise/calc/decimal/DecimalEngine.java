@@ -0,0 +1,70 @@
+package com.votreentreprise.calc.decimal;
+
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Opérations de la calculatrice en décimal exact ({@link ExactDecimal}), pour le mode
+ * précision. Mêmes opérateurs et mêmes erreurs que {@link Operator} et
+ * {@link UnaryFunction} ; le {@link MathContext} ne sert qu'aux opérations qui ne
+ * peuvent pas être exactes (division, racine, puissance non entière, trigonométrie).
+ *
+ * <p>Immuable, partageable entre threads.
+ */
+public final class DecimalEngine {
+
+    /** 34 chiffres significatifs, arrondi bancaire (IEEE 754 decimal128). */
+    public static final MathContext DEFAULT_CONTEXT = MathContext.DECIMAL128;
+
+    private final MathContext context;
+
+    public DecimalEngine() {
+        this(DEFAULT_CONTEXT);
+    }
+
+    public DecimalEngine(MathContext context) {
+        this.context = context;
+    }
+
+    /** Moteur à {@code digits} chiffres significatifs, arrondi HALF_EVEN. */
+    public static DecimalEngine withPrecision(int digits) {
+        return new DecimalEngine(new MathContext(digits, RoundingMode.HALF_EVEN));
+    }
+
+    public MathContext context() {
+        return context;
+    }
+
+    /**
+     * @throws com.votreentreprise.calc.engine.CalculationException division par 0...
+     * @throws IllegalArgumentException pour les opérateurs bit à bit, réservés au mode programmeur
+     */
+    public ExactDecimal apply(Operator op, ExactDecimal a, ExactDecimal b) {
+        return switch (op) {
+            case PLUS -> a.add(b);
+            case MINUS -> a.subtract(b);
+            case TIMES -> a.multiply(b);
+            case DIVIDE -> a.divide(b, context);
+            case MODULO -> a.remainder(b);
+            case POWER -> a.pow(b, context);
+            default -> throw new IllegalArgumentException(
+                    "Opérateur non disponible en mode précision : " + op.symbol());
+        };
+    }
+
+    public ExactDecimal apply(UnaryFunction f, ExactDecimal v) {
+        return switch (f) {
+            case SQUARE -> v.multiply(v);
+            case SQRT -> v.sqrt(context);
+            case NEGATE -> v.negate();
+            case NOT, POPCOUNT -> throw new IllegalArgumentException(
+                    "Opérateur non disponible en mode précision : " + f.symbol());
+            // Pas de version décimale exacte : calcul en double (~17 chiffres)
+            default -> ExactDecimal.valueOf(BigDecimal.valueOf(f.apply(v.doubleValue())).round(context));
+        };
+    }
+}
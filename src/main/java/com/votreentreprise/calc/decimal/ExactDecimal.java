@@ -0,0 +1,326 @@
+package com.votreentreprise.calc.decimal;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.CalculationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Nombre décimal exact, immuable.
+ *
+ * <p>Tant que la valeur tient dans un {@code long} avec au plus
+ * {@value #MAX_COMPACT_SCALE} décimales, elle est stockée sous forme compacte
+ * ({@code unscaled × 10^-scale}) et additions, soustractions et multiplications se
+ * font en arithmétique entière ({@link Math#addExact}, {@link Math#multiplyExact}).
+ * En cas de dépassement, le calcul est refait en {@link BigDecimal} et le résultat
+ * reste en {@code BigDecimal}. Seules la division, la racine et les puissances non
+ * entières arrondissent, selon le {@link MathContext} fourni.
+ *
+ * <p>Les résultats exacts sont bornés à {@value #MAX_EXACT_DIGITS} chiffres : sans
+ * cette borne, chaque x² double la taille du nombre et quelques touches suffisent
+ * à occuper un thread pendant des minutes.
+ */
+public final class ExactDecimal extends Number implements Comparable<ExactDecimal> {
+
+    static final int MAX_COMPACT_SCALE = 18;
+
+    /**
+     * Nombre de chiffres au-delà duquel une puissance entière est arrondie et un
+     * produit refusé.
+     */
+    public static final int MAX_EXACT_DIGITS = 1000;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_COMPACT_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    public static final ExactDecimal ZERO = new ExactDecimal(0, 0, null);
+    public static final ExactDecimal ONE = new ExactDecimal(1, 0, null);
+
+    private final long unscaled;
+    private final int scale;
+    // Non nul uniquement hors de la forme compacte
+    private final BigDecimal big;
+
+    private ExactDecimal(long unscaled, int scale, BigDecimal big) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+        this.big = big;
+    }
+
+    public static ExactDecimal valueOf(long value) {
+        return new ExactDecimal(value, 0, null);
+    }
+
+    /** {@code unscaled × 10^-scale}. */
+    public static ExactDecimal valueOf(long unscaled, int scale) {
+        if (scale >= 0 && scale <= MAX_COMPACT_SCALE) {
+            return new ExactDecimal(unscaled, scale, null);
+        }
+        return valueOf(BigDecimal.valueOf(unscaled, scale));
+    }
+
+    public static ExactDecimal valueOf(BigDecimal value) {
+        int s = value.scale();
+        if (s < 0) {
+            if (value.precision() - s > 18) {
+                return new ExactDecimal(0, 0, value);
+            }
+            value = value.setScale(0);
+            s = 0;
+        }
+        if (s <= MAX_COMPACT_SCALE && value.unscaledValue().bitLength() < 64) {
+            return new ExactDecimal(value.unscaledValue().longValue(), s, null);
+        }
+        return new ExactDecimal(0, 0, value);
+    }
+
+    /** Valeur décimale exacte du texte affiché (pas de passage par {@code double}). */
+    public static ExactDecimal parse(String text) {
+        return valueOf(new BigDecimal(text.trim()));
+    }
+
+    public boolean isCompact() {
+        return big == null;
+    }
+
+    /** Entier non mis à l'échelle ; n'a de sens que si {@link #isCompact()}. */
+    public long unscaledValue() {
+        return unscaled;
+    }
+
+    /** Nombre de décimales ; n'a de sens que si {@link #isCompact()}. */
+    public int scale() {
+        return scale;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return big != null ? big : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    public int signum() {
+        return big != null ? big.signum() : Long.signum(unscaled);
+    }
+
+    public boolean isInteger() {
+        if (big != null) {
+            return big.signum() == 0 || big.stripTrailingZeros().scale() <= 0;
+        }
+        return scale == 0 || unscaled % POWERS_OF_TEN[scale] == 0;
+    }
+
+    // Opérations exactes
+
+    public ExactDecimal add(ExactDecimal other) {
+        if (big == null && other.big == null) {
+            try {
+                if (scale == other.scale) {
+                    return new ExactDecimal(Math.addExact(unscaled, other.unscaled), scale, null);
+                }
+                int s = Math.max(scale, other.scale);
+                return new ExactDecimal(Math.addExact(rescale(s), other.rescale(s)), s, null);
+            } catch (ArithmeticException overflow) {
+                // Passage en BigDecimal
+            }
+        }
+        return valueOf(toBigDecimal().add(other.toBigDecimal()));
+    }
+
+    public ExactDecimal subtract(ExactDecimal other) {
+        if (big == null && other.big == null) {
+            try {
+                if (scale == other.scale) {
+                    return new ExactDecimal(Math.subtractExact(unscaled, other.unscaled), scale, null);
+                }
+                int s = Math.max(scale, other.scale);
+                return new ExactDecimal(Math.subtractExact(rescale(s), other.rescale(s)), s, null);
+            } catch (ArithmeticException overflow) {
+                // Passage en BigDecimal
+            }
+        }
+        return valueOf(toBigDecimal().subtract(other.toBigDecimal()));
+    }
+
+    /**
+     * Produit exact.
+     *
+     * @throws CalculationException s'il a plus de {@value #MAX_EXACT_DIGITS} chiffres
+     *                              ou s'écrit sans exposant avec plus de chiffres
+     */
+    public ExactDecimal multiply(ExactDecimal other) {
+        if (big == null && other.big == null && scale + other.scale <= MAX_COMPACT_SCALE) {
+            long hi = Math.multiplyHigh(unscaled, other.unscaled);
+            long lo = unscaled * other.unscaled;
+            if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+                return new ExactDecimal(lo, scale + other.scale, null);
+            }
+        }
+        BigDecimal a = toBigDecimal();
+        BigDecimal b = other.toBigDecimal();
+        // Le produit a precision(a) + precision(b) chiffres, ou un de moins : refusé avant le calcul
+        if ((long) a.precision() + b.precision() - 1 > MAX_EXACT_DIGITS) {
+            throw CalculationException.of(CalculationError.GENERIC);
+        }
+        return bounded(a.multiply(b));
+    }
+
+    public ExactDecimal negate() {
+        if (big == null && unscaled != Long.MIN_VALUE) {
+            return new ExactDecimal(-unscaled, scale, null);
+        }
+        return valueOf(toBigDecimal().negate());
+    }
+
+    /** Reste de la division, du signe du dividende (comme {@code %} sur les {@code double}). */
+    public ExactDecimal remainder(ExactDecimal divisor) {
+        if (divisor.signum() == 0) {
+            throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+        }
+        if (big == null && divisor.big == null) {
+            try {
+                int s = Math.max(scale, divisor.scale);
+                return new ExactDecimal(rescale(s) % divisor.rescale(s), s, null);
+            } catch (ArithmeticException overflow) {
+                // Passage en BigDecimal
+            }
+        }
+        return valueOf(toBigDecimal().remainder(divisor.toBigDecimal()));
+    }
+
+    // Opérations arrondies selon le contexte
+
+    public ExactDecimal divide(ExactDecimal divisor, MathContext mc) {
+        if (divisor.signum() == 0) {
+            throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+        }
+        // Division entière exacte : on reste en long
+        if (big == null && divisor.big == null && scale == divisor.scale
+                && divisor.unscaled != -1 && unscaled % divisor.unscaled == 0) {
+            return new ExactDecimal(unscaled / divisor.unscaled, 0, null);
+        }
+        return valueOf(toBigDecimal().divide(divisor.toBigDecimal(), mc));
+    }
+
+    public ExactDecimal sqrt(MathContext mc) {
+        if (signum() < 0) {
+            throw CalculationException.of(CalculationError.NEGATIVE_SQRT);
+        }
+        return valueOf(toBigDecimal().sqrt(mc));
+    }
+
+    /**
+     * Puissance. Exposant entier : calcul exact tant que le résultat a au plus
+     * {@value #MAX_EXACT_DIGITS} chiffres, sinon (et pour un exposant négatif)
+     * arrondi selon {@code mc}. Exposant non entier : calcul en {@code double}, donc
+     * précision limitée à ~17 chiffres. Un résultat dont l'écriture sans exposant
+     * dépasserait {@value #MAX_EXACT_DIGITS} chiffres est une erreur.
+     */
+    public ExactDecimal pow(ExactDecimal exponent, MathContext mc) {
+        if (exponent.isInteger()) {
+            BigInteger n = exponent.toBigDecimal().toBigInteger();
+            if (n.bitLength() < 31 && Math.abs(n.intValue()) <= 999_999_999) {
+                int e = n.intValue();
+                BigDecimal base = toBigDecimal();
+                // Le résultat exact a environ precision × e chiffres
+                if (e >= 0 && (long) base.precision() * e <= MAX_EXACT_DIGITS) {
+                    return valueOf(base.pow(e));
+                }
+                if (e < 0 && signum() == 0) {
+                    throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+                }
+                try {
+                    return bounded(base.pow(e, mc));
+                } catch (ArithmeticException overflow) {
+                    throw CalculationException.of(CalculationError.GENERIC); // Exposant hors des int
+                }
+            }
+        }
+        double result = Math.pow(doubleValue(), exponent.doubleValue());
+        if (Double.isNaN(result) || Double.isInfinite(result)) {
+            throw CalculationException.of(CalculationError.GENERIC);
+        }
+        // Seuls les chiffres significatifs du double sont gardés
+        return valueOf(BigDecimal.valueOf(result).round(mc));
+    }
+
+    // Refuse les résultats trop grands ou trop petits pour être affichés en entier
+    private static ExactDecimal bounded(BigDecimal value) {
+        if (value.signum() != 0 && Math.abs((long) value.precision() - value.scale()) > MAX_EXACT_DIGITS) {
+            throw CalculationException.of(CalculationError.GENERIC);
+        }
+        return valueOf(value);
+    }
+
+    private long rescale(int newScale) {
+        return newScale == scale ? unscaled : Math.multiplyExact(unscaled, POWERS_OF_TEN[newScale - scale]);
+    }
+
+    // Conversions
+
+    /** Écriture décimale sans exposant ni zéros inutiles, pour l'affichage. */
+    public String toPlainString() {
+        if (signum() == 0) {
+            return "0";
+        }
+        return toBigDecimal().stripTrailingZeros().toPlainString();
+    }
+
+    @Override
+    public String toString() {
+        return toPlainString();
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    @Override
+    public long longValue() {
+        return big != null ? big.longValue() : unscaled / POWERS_OF_TEN[scale];
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        if (big == null && scale == 0) {
+            return unscaled;
+        }
+        return toBigDecimal().doubleValue();
+    }
+
+    @Override
+    public int compareTo(ExactDecimal other) {
+        if (big == null && other.big == null) {
+            try {
+                int s = Math.max(scale, other.scale);
+                return Long.compare(rescale(s), other.rescale(s));
+            } catch (ArithmeticException overflow) {
+                // Comparaison en BigDecimal
+            }
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /** Égalité numérique : {@code 1.50} et {@code 1.5} sont égaux. */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ExactDecimal other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return signum() == 0 ? 0 : toBigDecimal().stripTrailingZeros().hashCode();
+    }
+}
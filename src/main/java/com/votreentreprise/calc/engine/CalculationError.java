@@ -0,0 +1,49 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Erreurs de calcul connues, avec le message affiché par la calculatrice.
+ * Le code est stable : il sert de statut par ligne dans les traitements batch.
+ */
+public enum CalculationError {
+    DIVISION_BY_ZERO(1, "Erreur: Division par 0"),
+    NON_POSITIVE_LOG(2, "Erreur: x ≤ 0"),
+    NEGATIVE_SQRT(3, "Erreur: Nombre négatif"),
+    GENERIC(4, "Erreur");
+
+    /** Code de statut réservé aux lignes calculées sans erreur. */
+    public static final byte OK = 0;
+
+    /** Code de statut réservé aux lignes vides d'un batch : rien à calculer, sortie vide. */
+    public static final byte EMPTY = -1;
+
+    private static final CalculationError[] BY_CODE = new CalculationError[5];
+
+    static {
+        for (CalculationError e : values()) {
+            BY_CODE[e.code] = e;
+        }
+    }
+
+    private final byte code;
+    private final String message;
+
+    CalculationError(int code, String message) {
+        this.code = (byte) code;
+        this.message = message;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public static CalculationError fromCode(byte code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Code d'erreur inconnu : " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,33 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Levée quand un calcul échoue (division par 0, racine négative...).
+ * Les instances sont partagées et sans pile d'appel : le chemin d'erreur n'alloue rien.
+ */
+public final class CalculationException extends RuntimeException {
+
+    private static final CalculationException[] INSTANCES;
+
+    static {
+        CalculationError[] errors = CalculationError.values();
+        INSTANCES = new CalculationException[errors.length];
+        for (CalculationError e : errors) {
+            INSTANCES[e.ordinal()] = new CalculationException(e);
+        }
+    }
+
+    private final transient CalculationError error;
+
+    private CalculationException(CalculationError error) {
+        super(error.message(), null, false, false);
+        this.error = error;
+    }
+
+    public static CalculationException of(CalculationError error) {
+        return INSTANCES[error.ordinal()];
+    }
+
+    public CalculationError error() {
+        return error;
+    }
+}
@@ -0,0 +1,74 @@
+package com.votreentreprise.calc.engine;
+
+import java.util.Arrays;
+
+/**
+ * Expression compilée par {@link ExpressionCompiler}. Immuable et partageable
+ * entre threads ; {@link #evaluate(double[])} n'alloue rien.
+ */
+public final class CompiledExpression {
+
+    private static final double[] NO_VARIABLES = new double[0];
+
+    private final String source;
+    private final Node root;
+    private final String[] variables;
+
+    CompiledExpression(String source, Node root, String[] variables) {
+        this.source = source;
+        this.root = root;
+        this.variables = variables;
+    }
+
+    public String source() {
+        return source;
+    }
+
+    public int variableCount() {
+        return variables.length;
+    }
+
+    public String variableName(int slot) {
+        return variables[slot];
+    }
+
+    public String[] variableNames() {
+        return Arrays.copyOf(variables, variables.length);
+    }
+
+    /** Position de la variable dans le tableau de valeurs, ou -1 si elle n'existe pas. */
+    public int variableIndex(String name) {
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isConstant() {
+        return root.isConstant();
+    }
+
+    /**
+     * Évalue l'expression. {@code bindings[i]} est la valeur de la variable {@code i}.
+     *
+     * @throws CalculationException en cas d'erreur de calcul (division par 0...)
+     */
+    public double evaluate(double[] bindings) {
+        if (bindings.length < variables.length) {
+            throw new IllegalArgumentException(
+                    variables.length + " variable(s) attendue(s), " + bindings.length + " fournie(s)");
+        }
+        return root.eval(bindings);
+    }
+
+    public double evaluate() {
+        return evaluate(NO_VARIABLES);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
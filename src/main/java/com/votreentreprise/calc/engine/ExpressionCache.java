@@ -0,0 +1,271 @@
+package com.votreentreprise.calc.engine;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache concurrent d'expressions compilées, borné en nombre d'entrées et en poids
+ * (longueur de l'expression normalisée).
+ *
+ * <p>La clé est le texte de l'expression normalisé : chaque suite d'espaces devient
+ * un seul espace et les espaces du début et de la fin sont retirés. Un espace n'est
+ * jamais supprimé entre deux symboles, car il change le découpage
+ * ({@code "1 < < 2"} est invalide, {@code "1<<2"} ne l'est pas ; {@code "1e -5"}
+ * n'est pas {@code "1e-5"}) : deux textes de même clé se compilent toujours de la même
+ * façon. {@code "1 + 2"} et {@code " 1  +  2 "} partagent une entrée, pas {@code "1+2"}.
+ * Un défaut de cache ne compile qu'une fois, même si plusieurs threads demandent la même expression en
+ * même temps : les autres attendent le résultat. Une expression invalide n'est pas
+ * gardée.
+ *
+ * <p>Éviction de type CLOCK : une aiguille parcourt les entrées ; une entrée utilisée
+ * depuis le dernier passage perd un crédit et reste, sinon elle est retirée. En
+ * {@link Policy#LRU} une entrée a au plus un crédit (seconde chance) ; en
+ * {@link Policy#LFU} elle en accumule jusqu'à 15 et en perd la moitié à chaque
+ * passage, ce qui garde les formules fréquentes.
+ */
+public final class ExpressionCache {
+
+    public enum Policy {
+        LRU(1),
+        LFU(15);
+
+        final int maxCredit;
+
+        Policy(int maxCredit) {
+            this.maxCredit = maxCredit;
+        }
+    }
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final class Entry {
+        final String key;
+        final int weight;
+        final FutureTask<CompiledExpression> compilation;
+        volatile int credit;
+
+        Entry(String key, String expression, String[] variables, boolean memoize) {
+            this.key = key;
+            this.weight = key.length();
+            this.compilation = new FutureTask<>(() -> memoize
+                    ? ExpressionCompiler.compileMemoized(expression, variables)
+                    : ExpressionCompiler.compile(expression, variables));
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final Policy policy;
+    private final boolean memoizeFunctions;
+
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Aiguille de l'éviction, protégée par evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Entry> hand;
+
+    public ExpressionCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Long.MAX_VALUE, Policy.LFU);
+    }
+
+    /**
+     * @param maximumSize   nombre maximal d'entrées
+     * @param maximumWeight somme maximale des longueurs d'expression
+     */
+    public ExpressionCache(long maximumSize, long maximumWeight, Policy policy) {
+        this(maximumSize, maximumWeight, policy, false);
+    }
+
+    /**
+     * @param memoizeFunctions compiler avec {@link ExpressionCompiler#compileMemoized}
+     */
+    public ExpressionCache(long maximumSize, long maximumWeight, Policy policy, boolean memoizeFunctions) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Les bornes du cache doivent être positives");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.policy = policy;
+        this.memoizeFunctions = memoizeFunctions;
+    }
+
+    /**
+     * Forme compilée de {@code expression}, avec les mêmes arguments que
+     * {@link ExpressionCompiler#compile(String, String...)}.
+     *
+     * @throws ExpressionSyntaxException si l'expression est invalide
+     */
+    public CompiledExpression get(String expression, String... variables) {
+        String key = key(expression, variables);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            int credit = entry.credit;
+            if (credit < policy.maxCredit) {
+                entry.credit = credit + 1;
+            }
+        } else {
+            misses.increment();
+            Entry created = new Entry(key, expression, variables, memoizeFunctions);
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                entry = created;
+                weight.addAndGet(created.weight);
+            }
+        }
+
+        // Sans effet si la compilation est déjà faite ou en cours dans un autre thread
+        if (!entry.compilation.isDone()) {
+            entry.compilation.run();
+        }
+        CompiledExpression compiled;
+        try {
+            compiled = entry.compilation.get();
+        } catch (ExecutionException e) {
+            if (entries.remove(key, entry)) {
+                weight.addAndGet(-entry.weight);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Compilation interrompue", e);
+        }
+        if (isOverLimit()) {
+            evict();
+        }
+        return compiled;
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long weight() {
+        return weight.get();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /** Proportion de succès, 1 si le cache n'a pas encore servi. */
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 1.0 : (double) h / total;
+    }
+
+    public void clear() {
+        evictionLock.lock();
+        try {
+            entries.clear();
+            weight.set(0);
+            hand = null;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isOverLimit() {
+        return entries.size() > maximumSize || weight.get() > maximumWeight;
+    }
+
+    // Un seul thread évince à la fois ; les autres ne l'attendent pas
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Borne le nombre de pas si toutes les entrées sont en cours de compilation
+            long steps = 8L * (entries.size() + 1);
+            while (isOverLimit() && steps-- > 0) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.values().iterator();
+                    if (!hand.hasNext()) {
+                        return;
+                    }
+                }
+                Entry e = hand.next();
+                if (!e.compilation.isDone()) {
+                    continue;
+                }
+                int credit = e.credit;
+                if (credit > 0) {
+                    e.credit = credit >> 1;
+                    continue;
+                }
+                if (entries.remove(e.key, e)) {
+                    weight.addAndGet(-e.weight);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Expression normalisée, puis les variables imposées séparées par \0
+    static String key(String expression, String[] variables) {
+        String normalized = normalize(expression);
+        if (variables.length == 0) {
+            return normalized;
+        }
+        StringBuilder key = new StringBuilder(normalized);
+        for (String v : variables) {
+            key.append('\0').append(v);
+        }
+        return key.toString();
+    }
+
+    static String normalize(String expression) {
+        int n = expression.length();
+        int i = 0;
+        while (i < n && !Character.isWhitespace(expression.charAt(i))) {
+            i++;
+        }
+        if (i == n) {
+            return expression; // Cas courant : rien à retirer, pas d'allocation
+        }
+        StringBuilder out = new StringBuilder(n);
+        out.append(expression, 0, i);
+        while (i < n) {
+            char c = expression.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                out.append(c);
+                i++;
+                continue;
+            }
+            int next = i;
+            while (next < n && Character.isWhitespace(expression.charAt(next))) {
+                next++;
+            }
+            // Un seul espace, et seulement entre deux symboles : l'analyseur saute tous les
+            // espaces de la même façon, mais ils séparent les symboles
+            if (out.length() > 0 && next < n) {
+                out.append(' ');
+            }
+            i = next;
+        }
+        return out.toString();
+    }
+}
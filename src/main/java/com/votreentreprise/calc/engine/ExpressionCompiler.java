@@ -0,0 +1,341 @@
+package com.votreentreprise.calc.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compile une expression infixe en arbre d'évaluation ({@link CompiledExpression}).
+ *
+ * <p>Priorités, de la plus faible à la plus forte : {@code OR}, {@code XOR},
+ * {@code AND}, {@code << >> >>> ROL ROR}, {@code + -}, {@code × ÷ %}, signe et {@code NOT},
+ * {@code ^} (associatif à droite), puis {@code ²} et les fonctions
+ * ({@code sin cos tan ln log √}). Les identifiants qui ne sont pas des mots-clés
+ * sont des variables. Les sous-expressions constantes sont pré-calculées.
+ *
+ * <p>Les instances sont sans état : {@link #compile(String, String...)} peut être
+ * appelé depuis plusieurs threads.
+ */
+public final class ExpressionCompiler {
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compile {@code expression}. Si {@code variables} est fourni, il fixe l'ordre des
+     * variables et tout autre identifiant est refusé ; sinon les variables sont
+     * numérotées dans leur ordre d'apparition.
+     */
+    public static CompiledExpression compile(String expression, String... variables) {
+        return compile(expression, false, variables);
+    }
+
+    /**
+     * Comme {@link #compile(String, String...)}, mais les fonctions coûteuses
+     * ({@code sin cos tan ln log √}) passent par les tables partagées de
+     * {@link MemoizedFunction}. Utile quand les mêmes arguments reviennent souvent.
+     */
+    public static CompiledExpression compileMemoized(String expression, String... variables) {
+        return compile(expression, true, variables);
+    }
+
+    private static CompiledExpression compile(String expression, boolean memoize, String[] variables) {
+        Parser parser = new Parser(expression, variables, memoize);
+        Node root = parser.parse();
+        return new CompiledExpression(expression, root, parser.variableNames());
+    }
+
+    // Analyse lexicale et syntaxique (descente récursive)
+    private static final class Parser {
+        private final String src;
+        private final List<String> variables;
+        private final boolean fixedVariables;
+        private final boolean memoize;
+        private int pos;
+
+        Parser(String src, String[] variables, boolean memoize) {
+            this.src = src;
+            this.memoize = memoize;
+            this.fixedVariables = variables.length > 0;
+            this.variables = new ArrayList<>(Arrays.asList(variables));
+        }
+
+        private Node function(UnaryFunction f, Node operand) {
+            if (memoize && !operand.isConstant() && MemoizedFunction.isWorthMemoizing(f)) {
+                return new Node.Memoized(MemoizedFunction.shared(f), operand);
+            }
+            return fold(f, operand);
+        }
+
+        String[] variableNames() {
+            return variables.toArray(new String[0]);
+        }
+
+        Node parse() {
+            Node node = parseOr();
+            skipSpaces();
+            if (pos < src.length()) {
+                throw error("Symbole inattendu '" + src.charAt(pos) + "'");
+            }
+            return node;
+        }
+
+        private Node parseOr() {
+            Node left = parseXor();
+            while (acceptWord("OR") || accept("|")) {
+                left = fold(Operator.OR, left, parseXor());
+            }
+            return left;
+        }
+
+        private Node parseXor() {
+            Node left = parseAnd();
+            while (acceptWord("XOR")) {
+                left = fold(Operator.XOR, left, parseAnd());
+            }
+            return left;
+        }
+
+        private Node parseAnd() {
+            Node left = parseShift();
+            while (acceptWord("AND") || accept("&")) {
+                left = fold(Operator.AND, left, parseShift());
+            }
+            return left;
+        }
+
+        private Node parseShift() {
+            Node left = parseAdditive();
+            while (true) {
+                if (accept("<<")) {
+                    left = fold(Operator.SHIFT_LEFT, left, parseAdditive());
+                } else if (accept(">>>")) {
+                    left = fold(Operator.UNSIGNED_SHIFT_RIGHT, left, parseAdditive());
+                } else if (accept(">>")) {
+                    left = fold(Operator.SHIFT_RIGHT, left, parseAdditive());
+                } else if (acceptWord("ROL")) {
+                    left = fold(Operator.ROTATE_LEFT, left, parseAdditive());
+                } else if (acceptWord("ROR")) {
+                    left = fold(Operator.ROTATE_RIGHT, left, parseAdditive());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Node parseAdditive() {
+            Node left = parseMultiplicative();
+            while (true) {
+                if (accept("+")) {
+                    left = fold(Operator.PLUS, left, parseMultiplicative());
+                } else if (accept("-") || accept("−")) {
+                    left = fold(Operator.MINUS, left, parseMultiplicative());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Node parseMultiplicative() {
+            Node left = parseUnary();
+            while (true) {
+                if (accept("×") || accept("*")) {
+                    left = fold(Operator.TIMES, left, parseUnary());
+                } else if (accept("÷") || accept("/")) {
+                    left = fold(Operator.DIVIDE, left, parseUnary());
+                } else if (accept("%")) {
+                    left = fold(Operator.MODULO, left, parseUnary());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Node parseUnary() {
+            if (accept("-") || accept("−")) {
+                return fold(UnaryFunction.NEGATE, parseUnary());
+            }
+            if (accept("+")) {
+                return parseUnary();
+            }
+            if (acceptWord("NOT") || accept("~")) {
+                return fold(UnaryFunction.NOT, parseUnary());
+            }
+            return parsePower();
+        }
+
+        private Node parsePower() {
+            Node base = parsePostfix();
+            if (accept("^")) {
+                // -2^2 = -(2^2) et 2^-1 est accepté : l'exposant repasse par parseUnary
+                return fold(Operator.POWER, base, parseUnary());
+            }
+            return base;
+        }
+
+        private Node parsePostfix() {
+            Node node = parsePrimary();
+            while (accept("²")) {
+                node = fold(UnaryFunction.SQUARE, node);
+            }
+            return node;
+        }
+
+        private Node parsePrimary() {
+            skipSpaces();
+            if (pos >= src.length()) {
+                throw error("Fin d'expression inattendue");
+            }
+            char c = src.charAt(pos);
+            if (accept("(")) {
+                Node inner = parseOr();
+                if (!accept(")")) {
+                    throw error("')' attendue");
+                }
+                return inner;
+            }
+            if (accept("√")) {
+                return function(UnaryFunction.SQRT, parsePostfix());
+            }
+            if (isDigit(c) || c == '.') {
+                return new Node.Constant(parseNumber());
+            }
+            if (Character.isLetter(c) || c == '_') {
+                int start = pos;
+                String word = readWord();
+                UnaryFunction f = function(word);
+                if (f != null) {
+                    return function(f, parsePostfix());
+                }
+                return variable(word, start);
+            }
+            throw error("Symbole inattendu '" + c + "'");
+        }
+
+        private static UnaryFunction function(String word) {
+            return switch (word.toLowerCase()) {
+                case "sin" -> UnaryFunction.SIN;
+                case "cos" -> UnaryFunction.COS;
+                case "tan" -> UnaryFunction.TAN;
+                case "ln" -> UnaryFunction.LN;
+                case "log" -> UnaryFunction.LOG;
+                case "sqrt" -> UnaryFunction.SQRT;
+                default -> null;
+            };
+        }
+
+        private Node variable(String name, int start) {
+            if (isKeyword(name)) {
+                pos = start;
+                throw error("Opérande attendu avant '" + name + "'");
+            }
+            int slot = variables.indexOf(name);
+            if (slot < 0) {
+                if (fixedVariables) {
+                    pos = start;
+                    throw error("Variable inconnue '" + name + "'");
+                }
+                slot = variables.size();
+                variables.add(name);
+            }
+            return new Node.Variable(slot);
+        }
+
+        private double parseNumber() {
+            int start = pos;
+            while (pos < src.length() && (isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) {
+                pos++;
+            }
+            // Exposant éventuel (1.0E10, comme Double.toString)
+            if (pos < src.length() && (src.charAt(pos) == 'e' || src.charAt(pos) == 'E')) {
+                int mark = pos++;
+                if (pos < src.length() && (src.charAt(pos) == '+' || src.charAt(pos) == '-')) {
+                    pos++;
+                }
+                if (pos < src.length() && isDigit(src.charAt(pos))) {
+                    while (pos < src.length() && isDigit(src.charAt(pos))) {
+                        pos++;
+                    }
+                } else {
+                    pos = mark;
+                }
+            }
+            try {
+                return Double.parseDouble(src.substring(start, pos));
+            } catch (NumberFormatException e) {
+                pos = start;
+                throw error("Nombre invalide");
+            }
+        }
+
+        private String readWord() {
+            int start = pos;
+            while (pos < src.length()
+                    && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '_')) {
+                pos++;
+            }
+            return src.substring(start, pos);
+        }
+
+        private boolean accept(String symbol) {
+            skipSpaces();
+            if (src.startsWith(symbol, pos)) {
+                pos += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        // Mot-clé insensible à la casse, non suivi d'une lettre (pour ne pas avaler "order")
+        private boolean acceptWord(String word) {
+            skipSpaces();
+            int end = pos + word.length();
+            if (src.regionMatches(true, pos, word, 0, word.length())
+                    && (end >= src.length() || !Character.isLetterOrDigit(src.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private ExpressionSyntaxException error(String message) {
+            return new ExpressionSyntaxException(message, src, pos);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isKeyword(String word) {
+        return switch (word.toUpperCase()) {
+            case "AND", "OR", "XOR", "NOT", "ROL", "ROR" -> true;
+            default -> false;
+        };
+    }
+
+    // Pré-calcul des sous-expressions constantes ; une erreur (÷ 0) reste pour l'évaluation
+    private static Node fold(Operator op, Node left, Node right) {
+        Node node = Node.binary(op, left, right);
+        return left.isConstant() && right.isConstant() ? constant(node) : node;
+    }
+
+    private static Node fold(UnaryFunction f, Node operand) {
+        Node node = Node.unary(f, operand);
+        return operand.isConstant() ? constant(node) : node;
+    }
+
+    private static Node constant(Node node) {
+        try {
+            return new Node.Constant(node.eval(null));
+        } catch (CalculationException e) {
+            return node;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Levée quand une expression ne peut pas être compilée.
+ */
+public class ExpressionSyntaxException extends IllegalArgumentException {
+
+    private final int position;
+
+    public ExpressionSyntaxException(String message, String expression, int position) {
+        super(message + " (position " + position + " dans \"" + expression + "\")");
+        this.position = position;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
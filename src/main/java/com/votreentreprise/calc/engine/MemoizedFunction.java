@@ -0,0 +1,131 @@
+package com.votreentreprise.calc.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Mémoïsation d'une fonction unaire pure dans une table {@code double → double}
+ * de taille fixe, sans verrou ni boxing.
+ *
+ * <p>Table à adressage ouvert ({@value #PROBES} emplacements sondés), chaque
+ * emplacement étant trois {@code long} : version, bits de l'argument, bits du
+ * résultat. L'écriture suit le principe d'un seqlock : la version devient impaire
+ * pendant l'écriture et le lecteur ne garde la valeur que si la version est paire et
+ * inchangée après lecture. Un écrivain qui trouve l'emplacement occupé par un autre
+ * écrivain abandonne : c'est un cache, la valeur sera recalculée. Quand la table est
+ * pleine, une nouvelle valeur remplace l'une des entrées sondées.
+ *
+ * <p>Rentable pour les fonctions coûteuses (trigonométrie, logarithmes) appelées
+ * avec peu de valeurs distinctes ; {@code √} est une instruction du processeur et
+ * ne gagne rien (voir {@code MemoizationBenchmark}). Les erreurs de domaine
+ * ({@link CalculationException}) ne sont pas mémorisées.
+ */
+public final class MemoizedFunction {
+
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+
+    private static final int PROBES = 2;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final Map<UnaryFunction, MemoizedFunction> SHARED = new EnumMap<>(UnaryFunction.class);
+
+    private final UnaryFunction function;
+    private final long[] table;
+    private final int mask;
+
+    public MemoizedFunction(UnaryFunction function) {
+        this(function, DEFAULT_CAPACITY);
+    }
+
+    /** {@code capacity} est arrondie à la puissance de 2 supérieure. */
+    public MemoizedFunction(UnaryFunction function, int capacity) {
+        if (capacity <= 0 || capacity > 1 << 26) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        int size = Math.max(PROBES, Integer.highestOneBit(capacity - 1) << 1);
+        this.function = function;
+        this.table = new long[size * 3];
+        this.mask = size - 1;
+    }
+
+    /** Table partagée de la fonction, utilisée par {@link ExpressionCompiler#compileMemoized}. */
+    public static MemoizedFunction shared(UnaryFunction function) {
+        synchronized (SHARED) {
+            return SHARED.computeIfAbsent(function, MemoizedFunction::new);
+        }
+    }
+
+    /** Fonctions assez coûteuses pour que la table soit plus rapide que le calcul. */
+    public static boolean isWorthMemoizing(UnaryFunction function) {
+        return switch (function) {
+            case SIN, COS, TAN, LN, LOG -> true;
+            default -> false;
+        };
+    }
+
+    public UnaryFunction function() {
+        return function;
+    }
+
+    /** Nombre d'emplacements de la table. */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public double apply(double v) {
+        long key = Double.doubleToRawLongBits(v);
+        int h = hash(key);
+        for (int p = 0; p < PROBES; p++) {
+            int base = ((h + p) & mask) * 3;
+            long version = (long) SLOTS.getAcquire(table, base);
+            if (version == 0) {
+                break; // Jamais écrit : les suivants de la sonde non plus
+            }
+            if ((version & 1) == 0 && (long) SLOTS.getOpaque(table, base + 1) == key) {
+                long value = (long) SLOTS.getOpaque(table, base + 2);
+                VarHandle.acquireFence();
+                if ((long) SLOTS.getOpaque(table, base) == version) {
+                    return Double.longBitsToDouble(value);
+                }
+            }
+        }
+        double result = UnaryFunction.apply(function, v);
+        store(key, h, Double.doubleToRawLongBits(result));
+        return result;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    private void store(long key, int h, long value) {
+        // Emplacement libre ou déjà à cette clé, sinon un des sondés au hasard du hachage
+        int slot = (h + ((h >>> 24) & (PROBES - 1))) & mask;
+        for (int p = 0; p < PROBES; p++) {
+            int candidate = (h + p) & mask;
+            int base = candidate * 3;
+            if ((long) SLOTS.getAcquire(table, base) == 0 || (long) SLOTS.getOpaque(table, base + 1) == key) {
+                slot = candidate;
+                break;
+            }
+        }
+        int base = slot * 3;
+        long version = (long) SLOTS.getAcquire(table, base);
+        if ((version & 1) != 0 || !SLOTS.compareAndSet(table, base, version, version + 1)) {
+            return;
+        }
+        SLOTS.setOpaque(table, base + 1, key);
+        SLOTS.setOpaque(table, base + 2, value);
+        SLOTS.setRelease(table, base, version + 2);
+    }
+
+    // Les entiers exacts n'ont que des zéros dans les bits de poids faible : on
+    // replie les bits de poids fort avant et après la multiplication
+    private static int hash(long bits) {
+        long h = (bits ^ (bits >>> 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 29));
+    }
+}
@@ -0,0 +1,224 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Nœud de l'arbre d'évaluation compilé. Chaque opérateur a sa propre classe
+ * finale : l'évaluation ne fait ni allocation ni dispatch sur une chaîne.
+ */
+abstract class Node {
+
+    abstract double eval(double[] vars);
+
+    boolean isConstant() {
+        return false;
+    }
+
+    // Feuilles
+
+    static final class Constant extends Node {
+        final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            return value;
+        }
+
+        @Override
+        boolean isConstant() {
+            return true;
+        }
+    }
+
+    static final class Variable extends Node {
+        final int slot;
+
+        Variable(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        double eval(double[] vars) {
+            return vars[slot];
+        }
+    }
+
+    // Opérateurs binaires
+
+    abstract static class Binary extends Node {
+        final Node left;
+        final Node right;
+
+        Binary(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    static final class Add extends Binary {
+        Add(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            return left.eval(v) + right.eval(v);
+        }
+    }
+
+    static final class Subtract extends Binary {
+        Subtract(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            return left.eval(v) - right.eval(v);
+        }
+    }
+
+    static final class Multiply extends Binary {
+        Multiply(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            return left.eval(v) * right.eval(v);
+        }
+    }
+
+    static final class Divide extends Binary {
+        Divide(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            double a = left.eval(v);
+            double b = right.eval(v);
+            if (b == 0) {
+                throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+            }
+            return a / b;
+        }
+    }
+
+    static final class Modulo extends Binary {
+        Modulo(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            return left.eval(v) % right.eval(v);
+        }
+    }
+
+    static final class Power extends Binary {
+        Power(Node l, Node r) {
+            super(l, r);
+        }
+
+        @Override
+        double eval(double[] v) {
+            return Math.pow(left.eval(v), right.eval(v));
+        }
+    }
+
+    // Opérateurs bit à bit : rares, un seul nœud générique suffit
+    static final class Bitwise extends Binary {
+        final Operator op;
+
+        Bitwise(Operator op, Node l, Node r) {
+            super(l, r);
+            this.op = op;
+        }
+
+        @Override
+        double eval(double[] v) {
+            return Operator.apply(op, left.eval(v), right.eval(v));
+        }
+    }
+
+    // Fonctions unaires
+
+    static final class Negate extends Node {
+        final Node operand;
+
+        Negate(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] v) {
+            return -operand.eval(v);
+        }
+    }
+
+    static final class Square extends Node {
+        final Node operand;
+
+        Square(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] v) {
+            double x = operand.eval(v);
+            return x * x;
+        }
+    }
+
+    static final class Function extends Node {
+        final UnaryFunction function;
+        final Node operand;
+
+        Function(UnaryFunction function, Node operand) {
+            this.function = function;
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] v) {
+            return UnaryFunction.apply(function, operand.eval(v));
+        }
+    }
+
+    static final class Memoized extends Node {
+        final MemoizedFunction table;
+        final Node operand;
+
+        Memoized(MemoizedFunction table, Node operand) {
+            this.table = table;
+            this.operand = operand;
+        }
+
+        @Override
+        double eval(double[] v) {
+            return table.apply(operand.eval(v));
+        }
+    }
+
+    static Node binary(Operator op, Node left, Node right) {
+        return switch (op) {
+            case PLUS -> new Add(left, right);
+            case MINUS -> new Subtract(left, right);
+            case TIMES -> new Multiply(left, right);
+            case DIVIDE -> new Divide(left, right);
+            case MODULO -> new Modulo(left, right);
+            case POWER -> new Power(left, right);
+            default -> new Bitwise(op, left, right);
+        };
+    }
+
+    static Node unary(UnaryFunction f, Node operand) {
+        return switch (f) {
+            case NEGATE -> new Negate(operand);
+            case SQUARE -> new Square(operand);
+            default -> new Function(f, operand);
+        };
+    }
+}
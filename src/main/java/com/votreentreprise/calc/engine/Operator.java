@@ -0,0 +1,118 @@
+package com.votreentreprise.calc.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opérateurs binaires de la calculatrice, avec la même sémantique que
+ * {@code CalculatorApp.calculate()}. Les opérations bit à bit travaillent
+ * sur des entiers 64 bits arrondis, comme le mode programmeur
+ * ({@link ProgrammerEngine#QWORD}).
+ */
+public enum Operator {
+    PLUS("+"),
+    MINUS("-"),
+    TIMES("×"),
+    DIVIDE("÷"),
+    MODULO("%"),
+    POWER("^"),
+    AND("AND"),
+    OR("OR"),
+    XOR("XOR"),
+    SHIFT_LEFT("<<"),
+    SHIFT_RIGHT(">>"),
+    UNSIGNED_SHIFT_RIGHT(">>>"),
+    ROTATE_LEFT("ROL"),
+    ROTATE_RIGHT("ROR");
+
+    private static final Operator[] VALUES = values();
+
+    // Symboles acceptés, y compris les variantes ASCII
+    private static final Map<String, Operator> SYMBOLS = new LinkedHashMap<>();
+
+    static {
+        for (Operator op : VALUES) {
+            SYMBOLS.put(op.symbol, op);
+        }
+        SYMBOLS.put("−", MINUS);
+        SYMBOLS.put("*", TIMES);
+        SYMBOLS.put("/", DIVIDE);
+        SYMBOLS.put("xʸ", POWER);
+        SYMBOLS.put("and", AND);
+        SYMBOLS.put("&", AND);
+        SYMBOLS.put("or", OR);
+        SYMBOLS.put("|", OR);
+        SYMBOLS.put("xor", XOR);
+        SYMBOLS.put("rol", ROTATE_LEFT);
+        SYMBOLS.put("ror", ROTATE_RIGHT);
+    }
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    /** Code compact de l'opérateur, utilisé par les colonnes {@code byte[]} des batchs. */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static Operator fromCode(int code) {
+        return VALUES[code];
+    }
+
+    /**
+     * Retrouve un opérateur à partir du texte d'un bouton ou d'une expression.
+     * Les variantes ASCII ({@code * / xor ...}) sont acceptées.
+     */
+    public static Operator fromSymbol(String symbol) {
+        Operator op = lookup(symbol);
+        if (op == null) {
+            throw new IllegalArgumentException("Opérateur inconnu : " + symbol);
+        }
+        return op;
+    }
+
+    static Operator lookup(String symbol) {
+        return SYMBOLS.get(symbol);
+    }
+
+    /** Tous les symboles acceptés par {@link #fromSymbol(String)}. */
+    public static Map<String, Operator> symbols() {
+        return Collections.unmodifiableMap(SYMBOLS);
+    }
+
+    public double apply(double a, double b) {
+        return apply(this, a, b);
+    }
+
+    /**
+     * Applique l'opérateur. Lève {@link CalculationException} pour une division par 0.
+     */
+    public static double apply(Operator op, double a, double b) {
+        return switch (op) {
+            case PLUS -> a + b;
+            case MINUS -> a - b;
+            case TIMES -> a * b;
+            case DIVIDE -> {
+                if (b == 0) {
+                    throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+                }
+                yield a / b;
+            }
+            case MODULO -> a % b;
+            case POWER -> Math.pow(a, b);
+            default -> ProgrammerEngine.QWORD.apply(op, toLong(a), toLong(b));
+        };
+    }
+
+    static long toLong(double v) {
+        return Math.round(v);
+    }
+}
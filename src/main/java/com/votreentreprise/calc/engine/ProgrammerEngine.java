@@ -0,0 +1,156 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Arithmétique entière du mode programmeur sur un mot de {@code width} bits
+ * (1 à 64), en complément à deux.
+ *
+ * <p>Les valeurs sont des {@code long} signés, tronqués à la largeur du mot puis
+ * étendus par le signe : à 8 bits, {@code 0xFF} vaut {@code -1}. Les calculs
+ * débordent comme sur le matériel (pas d'erreur). Décalages : un nombre de bits
+ * négatif ou supérieur ou égal à la largeur fait sortir tous les bits, au lieu du
+ * modulo de Java. Les rotations prennent le nombre de bits modulo la largeur.
+ *
+ * <p>Immuable, partageable entre threads.
+ */
+public final class ProgrammerEngine {
+
+    public static final ProgrammerEngine BYTE = new ProgrammerEngine(8);
+    public static final ProgrammerEngine WORD = new ProgrammerEngine(16);
+    public static final ProgrammerEngine DWORD = new ProgrammerEngine(32);
+    public static final ProgrammerEngine QWORD = new ProgrammerEngine(64);
+
+    private final int width;
+    private final long mask;
+
+    public ProgrammerEngine(int width) {
+        if (width < 1 || width > 64) {
+            throw new IllegalArgumentException("Largeur de mot invalide : " + width);
+        }
+        this.width = width;
+        this.mask = width == 64 ? -1L : (1L << width) - 1;
+    }
+
+    /** Instance partagée pour 8, 16, 32 et 64 bits, nouvelle instance sinon. */
+    public static ProgrammerEngine ofWidth(int width) {
+        return switch (width) {
+            case 8 -> BYTE;
+            case 16 -> WORD;
+            case 32 -> DWORD;
+            case 64 -> QWORD;
+            default -> new ProgrammerEngine(width);
+        };
+    }
+
+    public int width() {
+        return width;
+    }
+
+    /** Bits du mot : {@code 2^width - 1}. */
+    public long mask() {
+        return mask;
+    }
+
+    /** Tronque à la largeur du mot et étend le signe. */
+    public long wrap(long v) {
+        int unused = 64 - width;
+        return (v << unused) >> unused;
+    }
+
+    /** Valeur non signée du mot (les bits au-delà de la largeur sont à 0). */
+    public long unsigned(long v) {
+        return v & mask;
+    }
+
+    /**
+     * Applique l'opérateur sur des entiers. Lève {@link CalculationException} pour
+     * une division ou un modulo par 0.
+     */
+    public long apply(Operator op, long a, long b) {
+        return switch (op) {
+            case PLUS -> wrap(a + b);
+            case MINUS -> wrap(a - b);
+            case TIMES -> wrap(a * b);
+            case DIVIDE -> {
+                if (b == 0) {
+                    throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+                }
+                yield wrap(a / b);
+            }
+            case MODULO -> {
+                if (b == 0) {
+                    throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+                }
+                yield wrap(a % b);
+            }
+            case POWER -> power(a, b);
+            case AND -> wrap(a & b);
+            case OR -> wrap(a | b);
+            case XOR -> wrap(a ^ b);
+            case SHIFT_LEFT -> shiftLeft(a, b);
+            case SHIFT_RIGHT -> shiftRight(a, b);
+            case UNSIGNED_SHIFT_RIGHT -> unsignedShiftRight(a, b);
+            case ROTATE_LEFT -> rotateLeft(a, b);
+            case ROTATE_RIGHT -> rotateLeft(a, -b);
+        };
+    }
+
+    public long not(long v) {
+        return wrap(~v);
+    }
+
+    public long negate(long v) {
+        return wrap(-v);
+    }
+
+    /** Nombre de bits à 1 dans le mot. */
+    public int popCount(long v) {
+        return Long.bitCount(v & mask);
+    }
+
+    public long shiftLeft(long v, long n) {
+        return n < 0 || n >= width ? 0 : wrap(v << n);
+    }
+
+    /** Décalage arithmétique : le bit de signe du mot est recopié. */
+    public long shiftRight(long v, long n) {
+        v = wrap(v);
+        return n < 0 || n >= width ? v >> 63 : v >> n;
+    }
+
+    /** Décalage logique : des 0 entrent par la gauche du mot. */
+    public long unsignedShiftRight(long v, long n) {
+        return n < 0 || n >= width ? 0 : wrap((v & mask) >>> n);
+    }
+
+    public long rotateLeft(long v, long n) {
+        int s = (int) Math.floorMod(n, (long) width);
+        long x = v & mask;
+        if (s == 0) {
+            return wrap(x);
+        }
+        return wrap((x << s) | (x >>> (width - s)));
+    }
+
+    public long rotateRight(long v, long n) {
+        return rotateLeft(v, -n);
+    }
+
+    // Exposant négatif : division entière, donc 0 sauf pour 1 et -1
+    private long power(long base, long exponent) {
+        if (exponent < 0) {
+            if (base == 0) {
+                throw CalculationException.of(CalculationError.DIVISION_BY_ZERO);
+            }
+            return base == 1 ? 1 : base == -1 ? ((exponent & 1) == 0 ? 1 : -1) : 0;
+        }
+        long result = 1;
+        while (exponent != 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>>= 1;
+        }
+        return wrap(result);
+    }
+}
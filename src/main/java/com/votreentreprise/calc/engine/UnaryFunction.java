@@ -0,0 +1,100 @@
+package com.votreentreprise.calc.engine;
+
+/**
+ * Fonctions unaires de la calculatrice (modes scientifique et programmeur).
+ * Les fonctions trigonométriques prennent des degrés, comme les boutons.
+ */
+public enum UnaryFunction {
+    SIN("sin"),
+    COS("cos"),
+    TAN("tan"),
+    LN("ln"),
+    LOG("log"),
+    SQRT("√"),
+    SQUARE("x²"),
+    NOT("NOT"),
+    NEGATE("±"),
+    POPCOUNT("POP");
+
+    private static final UnaryFunction[] VALUES = values();
+
+    private final String symbol;
+
+    UnaryFunction(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public static UnaryFunction fromCode(int code) {
+        return VALUES[code];
+    }
+
+    public static UnaryFunction fromSymbol(String symbol) {
+        UnaryFunction f = lookup(symbol);
+        if (f == null) {
+            throw new IllegalArgumentException("Fonction inconnue : " + symbol);
+        }
+        return f;
+    }
+
+    static UnaryFunction lookup(String symbol) {
+        return switch (symbol) {
+            case "sin", "SIN" -> SIN;
+            case "cos", "COS" -> COS;
+            case "tan", "TAN" -> TAN;
+            case "ln", "LN" -> LN;
+            case "log", "LOG" -> LOG;
+            case "√", "sqrt", "SQRT" -> SQRT;
+            case "x²", "²", "sqr", "SQR" -> SQUARE;
+            case "NOT", "not", "~" -> NOT;
+            case "±", "neg", "NEG" -> NEGATE;
+            case "POP", "pop", "popcount" -> POPCOUNT;
+            default -> null;
+        };
+    }
+
+    public double apply(double v) {
+        return apply(this, v);
+    }
+
+    /**
+     * Applique la fonction. Lève {@link CalculationException} hors du domaine
+     * (ln/log de x ≤ 0, racine d'un nombre négatif).
+     */
+    public static double apply(UnaryFunction f, double v) {
+        return switch (f) {
+            case SIN -> Math.sin(Math.toRadians(v));
+            case COS -> Math.cos(Math.toRadians(v));
+            case TAN -> Math.tan(Math.toRadians(v));
+            case LN -> {
+                if (v <= 0) {
+                    throw CalculationException.of(CalculationError.NON_POSITIVE_LOG);
+                }
+                yield Math.log(v);
+            }
+            case LOG -> {
+                if (v <= 0) {
+                    throw CalculationException.of(CalculationError.NON_POSITIVE_LOG);
+                }
+                yield Math.log10(v);
+            }
+            case SQRT -> {
+                if (v < 0) {
+                    throw CalculationException.of(CalculationError.NEGATIVE_SQRT);
+                }
+                yield Math.sqrt(v);
+            }
+            case SQUARE -> v * v;
+            case NOT -> ~Operator.toLong(v);
+            case NEGATE -> -v;
+            case POPCOUNT -> Long.bitCount(Operator.toLong(v));
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package com.votreentreprise.calc.format;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Conversion entier ↔ texte en base 2, 8, 10 ou 16 pour le mode programmeur,
+ * sur un mot de {@code width} bits (voir
+ * {@link com.votreentreprise.calc.engine.ProgrammerEngine}).
+ *
+ * <p>Le décimal est signé ; les bases 2, 8 et 16 affichent le mot en complément
+ * à deux, sans zéros de tête ({@code -1} sur 16 bits donne {@code FFFF}).
+ * Formatage et lecture passent par des tables et n'allouent rien (sauf
+ * {@link #format(long, int, int)}, qui rend une {@code String}), pour convertir
+ * de gros lots d'identifiants.
+ */
+public final class RadixFormat {
+
+    /** Longueur maximale produite : 64 chiffres binaires. */
+    public static final int MAX_LENGTH = 64;
+
+    private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+
+    // "00" à "99" : deux chiffres décimaux par division
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    // Valeur de chaque caractère ASCII comme chiffre, -1 sinon
+    private static final byte[] DIGIT_VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[2 * i] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (char) ('0' + i % 10);
+        }
+        Arrays.fill(DIGIT_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            DIGIT_VALUES[DIGITS[i]] = (byte) i;
+            DIGIT_VALUES[Character.toLowerCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private RadixFormat() {
+    }
+
+    public static String format(long value, int radix, int width) {
+        char[] text = new char[MAX_LENGTH];
+        int end = format(value, radix, width, text, 0);
+        return new String(text, 0, end);
+    }
+
+    /**
+     * Écrit {@code value} dans {@code dst} à partir de {@code offset} et renvoie
+     * l'indice de fin. Il faut {@link #MAX_LENGTH} caractères de place.
+     */
+    public static int format(long value, int radix, int width, char[] dst, int offset) {
+        if (radix == 10) {
+            return formatDecimal(signExtend(value, width), dst, offset);
+        }
+        int shift = shiftOf(radix);
+        long bits = width == 64 ? value : value & ((1L << width) - 1);
+        int digitMask = radix - 1;
+        int length = Math.max(1, (64 - Long.numberOfLeadingZeros(bits) + shift - 1) / shift);
+        int end = offset + length;
+        for (int i = end - 1; i >= offset; i--) {
+            dst[i] = DIGITS[(int) bits & digitMask];
+            bits >>>= shift;
+        }
+        return end;
+    }
+
+    /** Écrit {@code value} en ASCII à la position courante de {@code dst}. */
+    public static void appendTo(long value, int radix, int width, ByteBuffer dst) {
+        if (radix == 10) {
+            long v = signExtend(value, width);
+            if (v < 0) {
+                dst.put((byte) '-');
+            } else {
+                v = -v;
+            }
+            int length = decimalLength(v);
+            int end = dst.position() + length;
+            for (int i = end - 1; i >= end - length; i--) {
+                long q = v / 10;
+                dst.put(i, (byte) ('0' + (int) (q * 10 - v)));
+                v = q;
+            }
+            dst.position(end);
+            return;
+        }
+        int shift = shiftOf(radix);
+        long bits = width == 64 ? value : value & ((1L << width) - 1);
+        int digitMask = radix - 1;
+        int length = Math.max(1, (64 - Long.numberOfLeadingZeros(bits) + shift - 1) / shift);
+        for (int s = (length - 1) * shift; s >= 0; s -= shift) {
+            dst.put((byte) DIGITS[(int) (bits >>> s) & digitMask]);
+        }
+    }
+
+    public static long parse(CharSequence text, int radix, int width) {
+        return parse(text, 0, text.length(), radix, width);
+    }
+
+    /**
+     * Lit un entier sur {@code width} bits. Les espaces autour sont ignorés, ainsi que
+     * les {@code _} entre chiffres. {@code radix} vaut 2, 8, 10 ou 16, ou 0 pour
+     * déduire la base du préfixe ({@code 0x 0b 0o}, décimal sinon) ; un préfixe
+     * correspondant à la base demandée est toujours accepté. Le décimal va de
+     * {@code -2^(width-1)} à {@code 2^width - 1}, les autres bases jusqu'à
+     * {@code width} chiffres binaires (et un signe {@code -} éventuel).
+     *
+     * @throws NumberFormatException texte vide, chiffre invalide ou valeur trop grande
+     */
+    public static long parse(CharSequence text, int from, int to, int radix, int width) {
+        while (from < to && Character.isWhitespace(text.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(text.charAt(to - 1))) {
+            to--;
+        }
+        boolean negative = from < to && text.charAt(from) == '-';
+        if (negative || (from < to && text.charAt(from) == '+')) {
+            from++;
+        }
+        if (to - from > 2 && text.charAt(from) == '0') {
+            int prefixed = switch (text.charAt(from + 1)) {
+                case 'x', 'X' -> 16;
+                case 'b', 'B' -> 2;
+                case 'o', 'O' -> 8;
+                default -> 0;
+            };
+            if (prefixed != 0 && (radix == 0 || radix == prefixed)) {
+                radix = prefixed;
+                from += 2;
+            }
+        }
+        if (radix == 0) {
+            radix = 10;
+        }
+        if (from == to) {
+            throw invalid(text, radix);
+        }
+
+        long result = radix == 10 ? parseDecimal(text, from, to, negative, width)
+                : parseBinary(text, from, to, shiftOf(radix), width);
+        if (negative && radix != 10) {
+            result = -result;
+        }
+        return signExtend(result, width);
+    }
+
+    private static long parseDecimal(CharSequence text, int from, int to, boolean negative, int width) {
+        long value = 0;
+        boolean digit = false;
+        for (int i = from; i < to; i++) {
+            int d = digitValue(text.charAt(i));
+            if (d < 0 || d >= 10) {
+                if (text.charAt(i) == '_' && digit && i + 1 < to) {
+                    continue;
+                }
+                throw invalid(text, 10);
+            }
+            // value * 10 + d en non signé, avec détection du dépassement
+            if (Long.compareUnsigned(value, 0x1999_9999_9999_9999L) > 0) {
+                throw tooLarge(text, width);
+            }
+            long next = value * 10 + d;
+            if (Long.compareUnsigned(next, d) < 0) {
+                throw tooLarge(text, width);
+            }
+            value = next;
+            digit = true;
+        }
+        long max = negative ? 1L << (width - 1) : (width == 64 ? -1L : (1L << width) - 1);
+        if (Long.compareUnsigned(value, max) > 0) {
+            throw tooLarge(text, width);
+        }
+        return negative ? -value : value;
+    }
+
+    private static long parseBinary(CharSequence text, int from, int to, int shift, int width) {
+        long value = 0;
+        int radix = 1 << shift;
+        int room = Math.max(0, width - shift);
+        boolean digit = false;
+        for (int i = from; i < to; i++) {
+            int d = digitValue(text.charAt(i));
+            if (d < 0 || d >= radix) {
+                if (text.charAt(i) == '_' && digit && i + 1 < to) {
+                    continue;
+                }
+                throw invalid(text, radix);
+            }
+            if (value >>> room != 0) {
+                throw tooLarge(text, width);
+            }
+            value = value << shift | d;
+            digit = true;
+        }
+        if (width < 64 && value >>> width != 0) {
+            throw tooLarge(text, width);
+        }
+        return value;
+    }
+
+    private static int formatDecimal(long v, char[] dst, int offset) {
+        if (v < 0) {
+            dst[offset++] = '-';
+        } else {
+            v = -v;
+        }
+        // Chiffres calculés sur la valeur négative : Long.MIN_VALUE passe sans cas particulier
+        int end = offset + decimalLength(v);
+        int i = end;
+        while (v <= -100) {
+            long q = v / 100;
+            int pair = (int) (q * 100 - v);
+            dst[--i] = DIGIT_PAIRS[2 * pair + 1];
+            dst[--i] = DIGIT_PAIRS[2 * pair];
+            v = q;
+        }
+        int last = (int) -v;
+        if (last >= 10) {
+            dst[--i] = DIGIT_PAIRS[2 * last + 1];
+            dst[--i] = DIGIT_PAIRS[2 * last];
+        } else {
+            dst[--i] = DIGITS[last];
+        }
+        return end;
+    }
+
+    // Nombre de chiffres de -v, pour v ≤ 0
+    private static int decimalLength(long v) {
+        int length = 1;
+        for (long p = -10; length < 19 && v <= p; p *= 10) {
+            length++;
+        }
+        return length;
+    }
+
+    private static long signExtend(long v, int width) {
+        int unused = 64 - width;
+        return (v << unused) >> unused;
+    }
+
+    private static int shiftOf(int radix) {
+        return switch (radix) {
+            case 2 -> 1;
+            case 8 -> 3;
+            case 16 -> 4;
+            default -> throw new IllegalArgumentException("Base non gérée : " + radix);
+        };
+    }
+
+    private static int digitValue(char c) {
+        return c < 128 ? DIGIT_VALUES[c] : -1;
+    }
+
+    private static NumberFormatException invalid(CharSequence text, int radix) {
+        return new NumberFormatException("Nombre invalide en base " + radix + " : " + text);
+    }
+
+    private static NumberFormatException tooLarge(CharSequence text, int width) {
+        return new NumberFormatException("Dépasse " + width + " bits : " + text);
+    }
+}
@@ -0,0 +1,317 @@
+package com.votreentreprise.calc.format;
+
+import java.nio.ByteBuffer;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Mise en forme des résultats, identique à l'affichage de la calculatrice :
+ * les entiers comme {@code String.format("%d")}, sinon comme
+ * {@code new DecimalFormat("#.##########")} (jusqu'à 10 décimales, arrondi
+ * HALF_EVEN), avec les symboles de la locale par défaut.
+ *
+ * <p>Les méthodes qui écrivent dans un {@code char[]}, un {@link StringBuilder} ou un
+ * {@link ByteBuffer} n'allouent rien. Elles sont sans état partagé et peuvent être
+ * appelées depuis plusieurs threads.
+ *
+ * <p>Comme {@code DecimalFormat}, on arrondit les chiffres de la plus courte écriture
+ * décimale qui redonne le même {@code double} (celle de {@link Double#toString}),
+ * pas la valeur binaire exacte : {@code 123456789.123456789} donne
+ * {@code 123456789.12345679}. Cette écriture est recherchée par arithmétique entière
+ * exacte sur 128 bits. Les seuls cas confiés à {@code DecimalFormat} (avec allocation)
+ * sont {@code NaN}, les infinis, les valeurs au-delà de 2^63 et les écritures qui
+ * tombent pile au milieu de deux arrondis (11e décimale finale à 5).
+ */
+public final class ResultFormatter {
+
+    /** Longueur maximale du texte produit (1.8E308 s'écrit avec 309 chiffres). */
+    public static final int MAX_LENGTH = 330;
+
+    private static final Locale LOCALE = Locale.getDefault(Locale.Category.FORMAT);
+    private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance(LOCALE);
+    private static final char ZERO = SYMBOLS.getZeroDigit();
+    // Préfixe négatif de DecimalFormat (un simple '-' sauf dans quelques locales)
+    private static final char[] NEGATIVE_PREFIX =
+            new DecimalFormat("#.##########", SYMBOLS).getNegativePrefix().toCharArray();
+    private static final char SEPARATOR = SYMBOLS.getDecimalSeparator();
+
+    private static final int FRACTION_DIGITS = 10;
+    private static final long[] POWERS_OF_TEN = new long[19];
+    // En dessous, l'arrondi à 10 décimales donne toujours 0
+    private static final double TINY = 1e-11;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // DecimalFormat n'est pas thread-safe : une instance par thread, pour les cas rares
+    private static final ThreadLocal<DecimalFormat> DECIMAL =
+            ThreadLocal.withInitial(() -> new DecimalFormat("#.##########"));
+    private static final ThreadLocal<char[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    private ResultFormatter() {
+    }
+
+    public static String format(double result) {
+        char[] chars = SCRATCH.get();
+        int end = format(result, chars, 0);
+        return new String(chars, 0, end);
+    }
+
+    /**
+     * Écrit {@code result} dans {@code dst} à partir de {@code offset}. Il faut
+     * {@link #MAX_LENGTH} caractères de place.
+     *
+     * @return la position qui suit le dernier caractère écrit
+     */
+    public static int format(double result, char[] dst, int offset) {
+        if (result == (long) result) {
+            return writeLong((long) result, dst, offset);
+        }
+        int end = writeDecimal(result, dst, offset);
+        return end >= 0 ? end : writeSlow(result, dst, offset);
+    }
+
+    public static StringBuilder appendTo(double result, StringBuilder sb) {
+        char[] chars = SCRATCH.get();
+        int end = format(result, chars, 0);
+        return sb.append(chars, 0, end);
+    }
+
+    /** Écrit {@code result} en UTF-8 à la position courante de {@code dst}. */
+    public static void appendTo(double result, ByteBuffer dst) {
+        char[] chars = SCRATCH.get();
+        int end = format(result, chars, 0);
+        for (int i = 0; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                dst.put((byte) c);
+            } else if (c < 0x800) {
+                dst.put((byte) (0xC0 | (c >> 6)));
+                dst.put((byte) (0x80 | (c & 0x3F)));
+            } else {
+                dst.put((byte) (0xE0 | (c >> 12)));
+                dst.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                dst.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    // Entiers : String.format("%d") met un '-' et localise seulement les chiffres
+    private static int writeLong(long value, char[] dst, int offset) {
+        int pos = offset;
+        if (value < 0) {
+            dst[pos++] = '-';
+        }
+        return writeDigits(value, 0, dst, pos);
+    }
+
+    /**
+     * Non-entiers finis de valeur absolue inférieure à 2^52 (visible dans le paquet
+     * pour les tests).
+     *
+     * @return la fin du texte, ou -1 s'il faut passer par DecimalFormat
+     */
+    static int writeDecimal(double result, char[] dst, int offset) {
+        if (Double.isNaN(result) || Double.isInfinite(result) || Math.abs(result) >= 0x1p52) {
+            return -1;
+        }
+        int pos = offset;
+        if (result < 0) {
+            for (char c : NEGATIVE_PREFIX) {
+                dst[pos++] = c;
+            }
+        }
+        double a = Math.abs(result);
+        if (a < TINY) {
+            dst[pos++] = ZERO;
+            return pos;
+        }
+        long bits = Double.doubleToRawLongBits(a);
+        int exponent = (int) (bits >>> 52);
+        long mantissa = (bits & 0xFFFFFFFFFFFFFL) | (1L << 52);
+        int shift = 1075 - exponent;
+        boolean even = (mantissa & 1) == 0;
+        boolean lowerGapHalved = (bits & 0xFFFFFFFFFFFFFL) == 0;
+
+        // Plus courte écriture à k ≤ 10 décimales : DecimalFormat l'affiche telle quelle.
+        // Si une écriture à k décimales convient, celle à k + 1 aussi : recherche dichotomique.
+        // Pour les grandes valeurs on part de moins de 10 décimales (17 chiffres significatifs au plus)
+        int upper = FRACTION_DIGITS;
+        long step10 = step(mantissa, shift, upper, even, lowerGapHalved);
+        while (step10 == OVERFLOW && upper > 1) {
+            step10 = step(mantissa, shift, --upper, even, lowerGapHalved);
+        }
+        if (step10 == OVERFLOW || direction(step10) == TIE) {
+            return -1;
+        }
+        if (inInterval(step10)) {
+            long best = step10;
+            int lo = 1;
+            int hi = upper;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                long step = step(mantissa, shift, mid, even, lowerGapHalved);
+                // Pile au milieu hors de l'intervalle (8.375 à 2 décimales) : simplement trop court
+                if (step == OVERFLOW || direction(step) == TIE && inInterval(step)) {
+                    return -1;
+                }
+                if (inInterval(step)) {
+                    hi = mid;
+                    best = step;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return writeDigits(nearest(best), hi, dst, pos);
+        }
+        if (upper < FRACTION_DIGITS) {
+            return -1;
+        }
+
+        // Au moins 11 décimales : DecimalFormat arrondit cette écriture à 10 décimales
+        long step = step(mantissa, shift, FRACTION_DIGITS + 1, even, lowerGapHalved);
+        if (step == OVERFLOW || direction(step) == TIE) {
+            return -1;
+        }
+        long c10;
+        if (inInterval(step)) {
+            long d11 = nearest(step);
+            c10 = d11 / 10;
+            int tail = (int) (d11 % 10);
+            if (tail > 5) {
+                c10++;
+            } else if (tail == 5) {
+                // Pile au milieu : DecimalFormat s'appuie sur des indicateurs internes de
+                // FloatingDecimal qui ne suivent pas toujours la valeur exacte (5E-11 donne 0)
+                return -1;
+            }
+        } else {
+            // Aucune écriture à 11 décimales : le milieu est hors d'atteinte, on arrondit la valeur exacte
+            c10 = direction(step10) == ABOVE ? quotient(step10) + 1 : quotient(step10);
+        }
+        return writeDigits(c10, FRACTION_DIGITS, dst, pos);
+    }
+
+    // Résultat de step() : quotient << 4 | direction << 1 | dans l'intervalle
+    private static final long OVERFLOW = -1;
+    private static final int BELOW = 0;
+    private static final int TIE = 1;
+    private static final int ABOVE = 2;
+
+    private static long quotient(long step) {
+        return step >>> 4;
+    }
+
+    private static int direction(long step) {
+        return (int) (step >>> 1) & 3;
+    }
+
+    private static boolean inInterval(long step) {
+        return (step & 1) != 0;
+    }
+
+    // Écriture à k décimales la plus proche : le quotient, ou le suivant si le reste dépasse la moitié
+    private static long nearest(long step) {
+        return direction(step) == ABOVE ? quotient(step) + 1 : quotient(step);
+    }
+
+    /**
+     * Calcule {@code mantissa / 2^shift × 10^k} en arithmétique exacte sur 128 bits :
+     * partie entière, position du reste par rapport à la moitié, et si l'écriture à
+     * {@code k} décimales la plus proche se relit comme le même {@code double}
+     * (écart inférieur à une demi-unité de précision, bornes incluses si la mantisse
+     * est paire, comme l'arrondi de {@link Double#parseDouble}).
+     */
+    private static long step(long mantissa, int shift, int k, boolean even, boolean lowerGapHalved) {
+        long power = POWERS_OF_TEN[k];
+        long hi = Math.multiplyHigh(mantissa, power);
+        long lo = mantissa * power;
+
+        long q;
+        long remHi;
+        long remLo;
+        if (shift >= 64) {
+            q = hi >>> (shift - 64);
+            remHi = hi & ((1L << (shift - 64)) - 1);
+            remLo = lo;
+        } else {
+            if ((hi >>> shift) != 0) {
+                return OVERFLOW;
+            }
+            q = (lo >>> shift) | (shift == 0 ? 0 : hi << (64 - shift));
+            remHi = 0;
+            remLo = lo & ((1L << shift) - 1);
+        }
+        if (q >>> 58 != 0) {
+            return OVERFLOW;
+        }
+
+        // Moitié = 2^(shift - 1)
+        long halfHi = shift - 1 >= 64 ? 1L << (shift - 65) : 0;
+        long halfLo = shift - 1 >= 64 ? 0 : 1L << (shift - 1);
+        int cmp = remHi != halfHi ? Long.compareUnsigned(remHi, halfHi) : Long.compareUnsigned(remLo, halfLo);
+        int direction = cmp < 0 ? BELOW : cmp == 0 ? TIE : ABOVE;
+
+        // Distance à la candidate, en 2^-shift × 10^-k : reste, ou 2^shift - reste
+        long distHi;
+        long distLo;
+        if (direction == ABOVE) {
+            long fullHi = shift >= 64 ? 1L << (shift - 64) : 0;
+            long fullLo = shift >= 64 ? 0 : 1L << shift;
+            distLo = fullLo - remLo;
+            distHi = fullHi - remHi - (Long.compareUnsigned(fullLo, remLo) < 0 ? 1 : 0);
+        } else {
+            distHi = remHi;
+            distLo = remLo;
+        }
+        boolean in = false;
+        if (distHi == 0 && distLo >= 0 && distLo < (1L << 60)) {
+            // Sous une puissance de 2, le double précédent est deux fois plus proche
+            long scaled = direction != ABOVE && lowerGapHalved ? distLo * 4 : distLo * 2;
+            in = even ? scaled <= power : scaled < power;
+        }
+        return q << 4 | (long) direction << 1 | (in ? 1 : 0);
+    }
+
+    private static int writeDigits(long value, int fractionDigits, char[] dst, int pos) {
+        while (fractionDigits > 0) {
+            long next = value / 10;
+            if (value - next * 10 != 0) {
+                break;
+            }
+            value = next;
+            fractionDigits--;
+        }
+        // Nombre de chiffres, partie entière comprise (au moins un zéro avant la virgule)
+        long magnitude = value == Long.MIN_VALUE ? Long.MAX_VALUE : Math.abs(value);
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        digits = Math.max(digits, fractionDigits + 1);
+        int end = pos + digits + (fractionDigits > 0 ? 1 : 0);
+        int i = end;
+        long v = value;
+        for (int n = 0; n < digits; n++) {
+            if (n == fractionDigits && fractionDigits > 0) {
+                dst[--i] = SEPARATOR;
+            }
+            long next = v / 10;
+            dst[--i] = (char) (ZERO + Math.abs(v - next * 10));
+            v = next;
+        }
+        return end;
+    }
+
+    private static int writeSlow(double result, char[] dst, int offset) {
+        String text = DECIMAL.get().format(result);
+        text.getChars(0, text.length(), dst, offset);
+        return offset + text.length();
+    }
+}
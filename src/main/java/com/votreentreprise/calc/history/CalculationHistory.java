@@ -0,0 +1,431 @@
+package com.votreentreprise.calc.history;
+
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.format.RadixFormat;
+import com.votreentreprise.calc.format.ResultFormatter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Historique des calculs de taille fixe : au-delà de {@link #capacity()} entrées,
+ * les plus anciennes sont écrasées.
+ *
+ * <p>Chaque calcul occupe un enregistrement binaire de {@value #RECORD_SIZE} octets
+ * dans un buffer direct (hors tas) : opérandes et résultat bruts, code de
+ * l'opération, type numérique. Le texte n'est construit qu'à l'affichage
+ * ({@link #render(long)}). Les entrées sont repérées par un numéro de séquence
+ * croissant, stable tant qu'elles ne sont pas écrasées. Les décimaux exacts qui ne
+ * tiennent pas dans un {@code long} sont gardés à part, sur le tas, pour que leur
+ * texte reste exact ; l'enregistrement n'en garde que la valeur en {@code double}.
+ *
+ * <p>Ajout en O(1). Deux index sont tenus à jour à l'ajout :
+ * <ul>
+ *   <li>par opération, une liste chaînée des entrées (recherche en O(résultats)) ;</li>
+ *   <li>par bloc de {@value #BLOCK} entrées, le min/max des résultats, pour sauter
+ *       les blocs hors de l'intervalle cherché.</li>
+ * </ul>
+ *
+ * <p>Non thread-safe : un historique par fenêtre ou par session.
+ */
+public final class CalculationHistory {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /** Taille d'un enregistrement, en octets. */
+    public static final int RECORD_SIZE = 32;
+
+    // Disposition d'un enregistrement
+    private static final int OFF_A = 0;
+    private static final int OFF_B = 8;
+    private static final int OFF_RESULT = 16;
+    private static final int OFF_OPERATION = 24;
+    private static final int OFF_TYPE = 25;
+    private static final int OFF_SCALE_A = 26;
+    private static final int OFF_SCALE_B = 27;
+    private static final int OFF_SCALE_RESULT = 28;
+    private static final int OFF_WIDTH = 29;
+
+    // Types numériques : double, entier du mode programmeur, décimal exact compact,
+    // décimal exact non compact (double dans l'enregistrement, valeurs dans exact)
+    private static final byte DOUBLE = 0;
+    private static final byte INTEGER = 1;
+    private static final byte DECIMAL = 2;
+    private static final byte BIG_DECIMAL = 3;
+
+    // Codes d'opération : Operator.code(), puis UnaryFunction.code() décalé
+    private static final int UNARY_BASE = 32;
+    private static final int OPERATIONS = 64;
+
+    static final int BLOCK = 64;
+
+    private final int capacity;
+    private final ByteBuffer records;
+    // Opérandes et résultat exacts des entrées BIG_DECIMAL, par emplacement
+    private final ExactDecimal[][] exact;
+
+    // Listes chaînées par opération (indices d'emplacement, -1 = fin)
+    private final int[] next;
+    private final int[] previous;
+    private final int[] oldest = new int[OPERATIONS];
+    private final int[] newest = new int[OPERATIONS];
+
+    // Min/max des résultats par bloc. Pendant la réécriture d'un bloc, ses bornes
+    // couvrent anciennes et nouvelles entrées ; elles sont resserrées en fin de bloc.
+    private final double[] blockMin;
+    private final double[] blockMax;
+    private final double[] pendingMin;
+    private final double[] pendingMax;
+
+    private long count;
+
+    public CalculationHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CalculationHistory(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        this.capacity = capacity;
+        this.records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        this.exact = new ExactDecimal[capacity][];
+        this.next = new int[capacity];
+        this.previous = new int[capacity];
+        int blocks = (capacity + BLOCK - 1) / BLOCK;
+        this.blockMin = new double[blocks];
+        this.blockMax = new double[blocks];
+        this.pendingMin = new double[blocks];
+        this.pendingMax = new double[blocks];
+        clear();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /** Nombre d'entrées encore disponibles. */
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** Numéro de séquence de la dernière entrée, -1 si l'historique est vide. */
+    public long lastSequence() {
+        return count - 1;
+    }
+
+    /** Numéro de séquence de la plus ancienne entrée encore disponible. */
+    public long firstSequence() {
+        return count - size();
+    }
+
+    public boolean contains(long sequence) {
+        return sequence >= firstSequence() && sequence < count;
+    }
+
+    public void clear() {
+        count = 0;
+        Arrays.fill(exact, null);
+        Arrays.fill(oldest, -1);
+        Arrays.fill(newest, -1);
+        Arrays.fill(blockMin, Double.POSITIVE_INFINITY);
+        Arrays.fill(blockMax, Double.NEGATIVE_INFINITY);
+        Arrays.fill(pendingMin, Double.POSITIVE_INFINITY);
+        Arrays.fill(pendingMax, Double.NEGATIVE_INFINITY);
+    }
+
+    // Ajout
+
+    public long add(Operator op, double a, double b, double result) {
+        return append(op.code(), DOUBLE, Double.doubleToRawLongBits(a), Double.doubleToRawLongBits(b),
+                Double.doubleToRawLongBits(result), 0, 0, 0, 0, result);
+    }
+
+    public long add(UnaryFunction f, double value, double result) {
+        return append(UNARY_BASE + f.code(), DOUBLE, Double.doubleToRawLongBits(value), 0,
+                Double.doubleToRawLongBits(result), 0, 0, 0, 0, result);
+    }
+
+    /** Calcul du mode programmeur sur un mot de {@code width} bits. */
+    public long add(Operator op, long a, long b, long result, int width) {
+        return append(op.code(), INTEGER, a, b, result, 0, 0, 0, width, result);
+    }
+
+    public long add(UnaryFunction f, long value, long result, int width) {
+        return append(UNARY_BASE + f.code(), INTEGER, value, 0, result, 0, 0, 0, width, result);
+    }
+
+    /**
+     * Calcul du mode précision. Si une valeur ne tient pas dans un {@code long}
+     * (voir {@link ExactDecimal#isCompact()}), les trois sont gardées telles quelles à
+     * côté de l'enregistrement : le texte reste exact, mais le journal
+     * ({@link HistoryJournal}) n'en conserve que la valeur en {@code double}.
+     */
+    public long add(Operator op, ExactDecimal a, ExactDecimal b, ExactDecimal result) {
+        if (!a.isCompact() || !b.isCompact() || !result.isCompact()) {
+            return appendExact(op.code(), a, b, result);
+        }
+        return append(op.code(), DECIMAL, a.unscaledValue(), b.unscaledValue(), result.unscaledValue(),
+                a.scale(), b.scale(), result.scale(), 0, result.doubleValue());
+    }
+
+    public long add(UnaryFunction f, ExactDecimal value, ExactDecimal result) {
+        if (!value.isCompact() || !result.isCompact()) {
+            return appendExact(UNARY_BASE + f.code(), value, ExactDecimal.ZERO, result);
+        }
+        return append(UNARY_BASE + f.code(), DECIMAL, value.unscaledValue(), 0, result.unscaledValue(),
+                value.scale(), 0, result.scale(), 0, result.doubleValue());
+    }
+
+    // Copie brute d'enregistrements, pour le journal (HistoryJournal)
+
+    /** Copie l'enregistrement {@code sequence} dans {@code dst} à la position {@code offset}. */
+    void copyRecord(long sequence, ByteBuffer dst, int offset) {
+        int base = slotOf(sequence) * RECORD_SIZE;
+        for (int i = 0; i < RECORD_SIZE; i += 8) {
+            dst.putLong(offset + i, records.getLong(base + i));
+        }
+    }
+
+    /** Ajoute un enregistrement copié par {@link #copyRecord}. */
+    long appendRecord(ByteBuffer src, int offset) {
+        byte type = src.get(offset + OFF_TYPE);
+        long result = src.getLong(offset + OFF_RESULT);
+        byte scaleResult = src.get(offset + OFF_SCALE_RESULT);
+        return append(src.get(offset + OFF_OPERATION), type,
+                src.getLong(offset + OFF_A), src.getLong(offset + OFF_B), result,
+                src.get(offset + OFF_SCALE_A), src.get(offset + OFF_SCALE_B), scaleResult,
+                src.get(offset + OFF_WIDTH), toDouble(type, result, scaleResult));
+    }
+
+    private long appendExact(int operation, ExactDecimal a, ExactDecimal b, ExactDecimal result) {
+        double value = result.doubleValue();
+        long sequence = append(operation, BIG_DECIMAL, Double.doubleToRawLongBits(a.doubleValue()),
+                Double.doubleToRawLongBits(b.doubleValue()), Double.doubleToRawLongBits(value), 0, 0, 0, 0, value);
+        exact[(int) (sequence % capacity)] = new ExactDecimal[]{a, b, result};
+        return sequence;
+    }
+
+    private long append(int operation, byte type, long a, long b, long result,
+                        int scaleA, int scaleB, int scaleResult, int width, double resultValue) {
+        int slot = (int) (count % capacity);
+        if (count >= capacity) {
+            unlink(slot);
+        }
+
+        exact[slot] = null;
+        int base = slot * RECORD_SIZE;
+        records.putLong(base + OFF_A, a);
+        records.putLong(base + OFF_B, b);
+        records.putLong(base + OFF_RESULT, result);
+        records.put(base + OFF_OPERATION, (byte) operation);
+        records.put(base + OFF_TYPE, type);
+        records.put(base + OFF_SCALE_A, (byte) scaleA);
+        records.put(base + OFF_SCALE_B, (byte) scaleB);
+        records.put(base + OFF_SCALE_RESULT, (byte) scaleResult);
+        records.put(base + OFF_WIDTH, (byte) width);
+
+        // Chaînage en fin de liste de l'opération
+        int last = newest[operation];
+        previous[slot] = last;
+        next[slot] = -1;
+        if (last >= 0) {
+            next[last] = slot;
+        } else {
+            oldest[operation] = slot;
+        }
+        newest[operation] = slot;
+
+        int block = slot / BLOCK;
+        if (!Double.isNaN(resultValue)) {
+            blockMin[block] = Math.min(blockMin[block], resultValue);
+            blockMax[block] = Math.max(blockMax[block], resultValue);
+            pendingMin[block] = Math.min(pendingMin[block], resultValue);
+            pendingMax[block] = Math.max(pendingMax[block], resultValue);
+        }
+        if (slot % BLOCK == BLOCK - 1 || slot == capacity - 1) {
+            blockMin[block] = pendingMin[block];
+            blockMax[block] = pendingMax[block];
+            pendingMin[block] = Double.POSITIVE_INFINITY;
+            pendingMax[block] = Double.NEGATIVE_INFINITY;
+        }
+        return count++;
+    }
+
+    // L'entrée écrasée est la plus ancienne, donc la tête de la liste de son opération
+    private void unlink(int slot) {
+        int operation = records.get(slot * RECORD_SIZE + OFF_OPERATION);
+        int following = next[slot];
+        oldest[operation] = following;
+        if (following >= 0) {
+            previous[following] = -1;
+        } else {
+            newest[operation] = -1;
+        }
+    }
+
+    // Lecture
+
+    /** Opérateur de l'entrée, ou {@code null} pour une fonction unaire. */
+    public Operator operator(long sequence) {
+        int operation = operation(slotOf(sequence));
+        return operation < UNARY_BASE ? Operator.fromCode(operation) : null;
+    }
+
+    /** Fonction de l'entrée, ou {@code null} pour un opérateur binaire. */
+    public UnaryFunction function(long sequence) {
+        int operation = operation(slotOf(sequence));
+        return operation >= UNARY_BASE ? UnaryFunction.fromCode(operation - UNARY_BASE) : null;
+    }
+
+    /** Résultat converti en {@code double}. */
+    public double result(long sequence) {
+        int base = slotOf(sequence) * RECORD_SIZE;
+        return toDouble(base, OFF_RESULT, OFF_SCALE_RESULT);
+    }
+
+    /** Texte de l'entrée, entiers en décimal. */
+    public String render(long sequence) {
+        return render(sequence, 10);
+    }
+
+    /** Texte de l'entrée ; {@code radix} s'applique aux calculs du mode programmeur. */
+    public String render(long sequence, int radix) {
+        int slot = slotOf(sequence);
+        int base = slot * RECORD_SIZE;
+        int operation = operation(slot);
+        String result = text(slot, OFF_RESULT, OFF_SCALE_RESULT, radix);
+        String a = text(slot, OFF_A, OFF_SCALE_A, radix);
+        if (operation < UNARY_BASE) {
+            String b = text(slot, OFF_B, OFF_SCALE_B, radix);
+            return a + " " + Operator.fromCode(operation).symbol() + " " + b + " = " + result;
+        }
+        return switch (UnaryFunction.fromCode(operation - UNARY_BASE)) {
+            case SQRT -> "√" + a + " = " + result;
+            case SQUARE -> a + "² = " + result;
+            case NOT -> "~" + a + " = " + result;
+            case NEGATE -> "-(" + a + ") = " + result;
+            case POPCOUNT -> "POP(" + a + ") = " + result;
+            default -> UnaryFunction.fromCode(operation - UNARY_BASE).symbol() + "(" + a + ") = " + result;
+        };
+    }
+
+    /**
+     * Page de numéros de séquence, de la plus récente à la plus ancienne : saute les
+     * {@code skip} plus récentes et remplit {@code dst}. Renvoie le nombre écrit.
+     */
+    public int page(int skip, long[] dst) {
+        long from = lastSequence() - skip;
+        long first = firstSequence();
+        int n = 0;
+        for (long s = from; s >= first && n < dst.length; s--) {
+            dst[n++] = s;
+        }
+        return n;
+    }
+
+    /** Entrées de l'opérateur, de la plus récente à la plus ancienne (voir {@link #page}). */
+    public int findByOperator(Operator op, int skip, long[] dst) {
+        return findByOperation(op.code(), skip, dst);
+    }
+
+    public int findByFunction(UnaryFunction f, int skip, long[] dst) {
+        return findByOperation(UNARY_BASE + f.code(), skip, dst);
+    }
+
+    private int findByOperation(int operation, int skip, long[] dst) {
+        int n = 0;
+        for (int slot = newest[operation]; slot >= 0 && n < dst.length; slot = previous[slot]) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                dst[n++] = sequenceOf(slot);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Entrées dont le résultat est dans {@code [min, max]}, de la plus récente à la
+     * plus ancienne (voir {@link #page}). Les blocs dont le min/max est hors de
+     * l'intervalle ne sont pas lus.
+     */
+    public int findByResult(double min, double max, int skip, long[] dst) {
+        int n = 0;
+        long first = firstSequence();
+        long s = lastSequence();
+        while (s >= first && n < dst.length) {
+            int slot = (int) (s % capacity);
+            int block = slot / BLOCK;
+            if (blockMax[block] < min || blockMin[block] > max) {
+                s -= slot - block * BLOCK + 1;
+                continue;
+            }
+            double r = toDouble(slot * RECORD_SIZE, OFF_RESULT, OFF_SCALE_RESULT);
+            if (r >= min && r <= max) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    dst[n++] = s;
+                }
+            }
+            s--;
+        }
+        return n;
+    }
+
+    private int slotOf(long sequence) {
+        if (!contains(sequence)) {
+            throw new IndexOutOfBoundsException("Entrée absente de l'historique : " + sequence);
+        }
+        return (int) (sequence % capacity);
+    }
+
+    // Séquence de l'emplacement : la plus récente qui y a été écrite
+    private long sequenceOf(int slot) {
+        long last = lastSequence();
+        return last - Math.floorMod(last - slot, (long) capacity);
+    }
+
+    private int operation(int slot) {
+        return records.get(slot * RECORD_SIZE + OFF_OPERATION);
+    }
+
+    private double toDouble(int base, int offset, int scaleOffset) {
+        return toDouble(records.get(base + OFF_TYPE), records.getLong(base + offset), records.get(base + scaleOffset));
+    }
+
+    private static double toDouble(byte type, long bits, int scale) {
+        return switch (type) {
+            case INTEGER -> bits;
+            case DECIMAL -> ExactDecimal.valueOf(bits, scale).doubleValue();
+            default -> Double.longBitsToDouble(bits);
+        };
+    }
+
+    private String text(int slot, int offset, int scaleOffset, int radix) {
+        int base = slot * RECORD_SIZE;
+        long bits = records.getLong(base + offset);
+        byte type = records.get(base + OFF_TYPE);
+        if (type == BIG_DECIMAL && exact[slot] != null) {
+            // Opérande a, opérande b, résultat : même ordre que les champs de l'enregistrement
+            return exact[slot][offset / 8].toPlainString();
+        }
+        return switch (type) {
+            case INTEGER -> RadixFormat.format(bits, radix, records.get(base + OFF_WIDTH));
+            case DECIMAL -> ExactDecimal.valueOf(bits, records.get(base + scaleOffset)).toPlainString();
+            // Texte historique de la calculatrice : opérandes en Double.toString (« 7.0 × 8.0 = 56 »)
+            case DOUBLE -> offset == OFF_RESULT
+                    ? ResultFormatter.format(Double.longBitsToDouble(bits))
+                    : Double.toString(Double.longBitsToDouble(bits));
+            // Décimal non compact relu du journal sans ses valeurs exactes
+            default -> ResultFormatter.format(Double.longBitsToDouble(bits));
+        };
+    }
+}
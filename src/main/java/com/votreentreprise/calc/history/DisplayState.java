@@ -0,0 +1,65 @@
+package com.votreentreprise.calc.history;
+
+/**
+ * État de l'affichage de la calculatrice, sauvegardé par {@link HistoryJournal}
+ * pour être restauré au démarrage. Les valeurs sont gardées sous forme de texte,
+ * quel que soit le mode.
+ */
+public final class DisplayState {
+
+    private final String mode;
+    private final String display;
+    private final String operator;
+    private final String operand;
+    private final int radix;
+    private final int width;
+    private final boolean startNewNumber;
+
+    /**
+     * @param mode           nom du mode ({@code STANDARD}, {@code PROGRAMMER}...)
+     * @param display        texte affiché
+     * @param operator       opérateur en attente, vide s'il n'y en a pas
+     * @param operand        premier opérande de l'opération en attente
+     * @param radix          base du mode programmeur
+     * @param width          largeur de mot du mode programmeur
+     * @param startNewNumber la prochaine saisie remplace l'affichage
+     */
+    public DisplayState(String mode, String display, String operator, String operand,
+                        int radix, int width, boolean startNewNumber) {
+        this.mode = mode;
+        this.display = display;
+        this.operator = operator;
+        this.operand = operand;
+        this.radix = radix;
+        this.width = width;
+        this.startNewNumber = startNewNumber;
+    }
+
+    public String mode() {
+        return mode;
+    }
+
+    public String display() {
+        return display;
+    }
+
+    public String operator() {
+        return operator;
+    }
+
+    public String operand() {
+        return operand;
+    }
+
+    public int radix() {
+        return radix;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean startNewNumber() {
+        return startNewNumber;
+    }
+}
@@ -0,0 +1,317 @@
+package com.votreentreprise.calc.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal persistant de l'historique, projeté en mémoire.
+ *
+ * <p>Le fichier contient un en-tête, deux emplacements pour l'état de l'affichage
+ * ({@link DisplayState}), puis des trames de taille fixe ajoutées à la suite :
+ * <pre>
+ *   int marqueur | int CRC32C | long séquence | enregistrement CalculationHistory (32 octets)
+ * </pre>
+ * Une trame n'est valide que si son marqueur, sa somme de contrôle et sa séquence
+ * (numéro de la trame) sont corrects : une trame à moitié écrite lors d'un arrêt
+ * brutal est ignorée à la réouverture. L'état de l'affichage est écrit en alternance
+ * dans deux emplacements numérotés ; le plus récent valide est relu.
+ *
+ * <p>Démarrage rapide : l'en-tête garde le nombre de trames écrites, la fin du
+ * journal est retrouvée à partir de là sans relire le fichier, et seules les
+ * {@code n} dernières trames sont rejouées ({@link #replay}). Quand le journal
+ * atteint {@code maxRecords} trames, il est compacté : les {@code retain} dernières
+ * sont réécrites dans un nouveau fichier qui remplace l'ancien.
+ *
+ * <p>Les écritures vont dans la projection et survivent à l'arrêt du processus ;
+ * {@link #flush()} (appelé par {@link #close()}) les force sur disque.
+ *
+ * <p>Non thread-safe.
+ */
+public final class HistoryJournal implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_RECORDS = 1 << 20;
+    public static final int DEFAULT_RETAIN = 1 << 16;
+
+    private static final long MAGIC = 0x43414c434a524e4cL; // "CALCJRNL"
+    private static final int VERSION = 1;
+    private static final int FRAME_MARKER = 0x46524d31; // "FRM1"
+
+    // En-tête
+    private static final int OFF_MAGIC = 0;
+    private static final int OFF_VERSION = 8;
+    private static final int OFF_RECORD_SIZE = 12;
+    private static final int OFF_BASE_SEQUENCE = 16;
+    private static final int OFF_COUNT = 24;
+    private static final int HEADER_SIZE = 4096;
+
+    // Emplacements d'état : int longueur | int CRC32C | long génération | données
+    private static final int STATE_SLOT_SIZE = 4096;
+    private static final int STATE_OFFSET = HEADER_SIZE;
+    private static final int STATE_DATA = 16;
+
+    private static final int FRAMES_OFFSET = STATE_OFFSET + 2 * STATE_SLOT_SIZE;
+    private static final int FRAME_SIZE = 16 + CalculationHistory.RECORD_SIZE;
+    private static final int INITIAL_FRAMES = 1 << 12;
+
+    private final Path path;
+    private final int maxRecords;
+    private final int retain;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    // Vue réutilisée pour le calcul des sommes de contrôle
+    private ByteBuffer view;
+    private int frameCapacity;
+    private long baseSequence;
+    private int count;
+    private long stateGeneration;
+
+    private HistoryJournal(Path path, int maxRecords, int retain) {
+        this.path = path;
+        this.maxRecords = maxRecords;
+        this.retain = retain;
+    }
+
+    public static HistoryJournal open(Path path) throws IOException {
+        return open(path, DEFAULT_MAX_RECORDS, DEFAULT_RETAIN);
+    }
+
+    /**
+     * Ouvre ou crée le journal.
+     *
+     * @param maxRecords nombre de trames qui déclenche une compaction
+     * @param retain     nombre de trames gardées par la compaction
+     */
+    public static HistoryJournal open(Path path, int maxRecords, int retain) throws IOException {
+        if (retain <= 0 || retain >= maxRecords) {
+            throw new IllegalArgumentException("Il faut 0 < retain < maxRecords");
+        }
+        HistoryJournal journal = new HistoryJournal(path, maxRecords, retain);
+        journal.load();
+        return journal;
+    }
+
+    /** Nombre de calculs dans le journal. */
+    public int size() {
+        return count;
+    }
+
+    /** Numéro de séquence du prochain calcul ajouté (ne repart pas à 0 après compaction). */
+    public long nextSequence() {
+        return baseSequence + count;
+    }
+
+    /** Ajoute au journal l'entrée {@code sequence} de {@code history}. */
+    public void append(CalculationHistory history, long sequence) throws IOException {
+        if (count == maxRecords) {
+            compact();
+        }
+        if (count == frameCapacity) {
+            map(Math.min(maxRecords, frameCapacity * 2));
+        }
+        int frame = frameOffset(count);
+        history.copyRecord(sequence, buffer, frame + 16);
+        buffer.putLong(frame + 8, baseSequence + count);
+        buffer.putInt(frame + 4, checksum(frame + 8, FRAME_SIZE - 8));
+        buffer.putInt(frame, FRAME_MARKER);
+        count++;
+        buffer.putInt(OFF_COUNT, count);
+    }
+
+    /**
+     * Ajoute à {@code history} les {@code n} derniers calculs du journal (moins s'il y
+     * en a moins), du plus ancien au plus récent.
+     *
+     * @return le nombre de calculs rejoués
+     */
+    public int replay(CalculationHistory history, int n) {
+        int from = Math.max(0, count - n);
+        for (int i = from; i < count; i++) {
+            history.appendRecord(buffer, frameOffset(i) + 16);
+        }
+        return count - from;
+    }
+
+    /** Enregistre l'état de l'affichage, sans écraser le dernier état valide. */
+    public void saveState(DisplayState state) {
+        byte[] data = encode(state);
+        if (data.length > STATE_SLOT_SIZE - STATE_DATA) {
+            return; // Affichage démesuré : on garde l'état précédent
+        }
+        long generation = stateGeneration + 1;
+        int slot = STATE_OFFSET + (int) (generation & 1) * STATE_SLOT_SIZE;
+        buffer.putLong(slot + 8, generation);
+        buffer.put(slot + STATE_DATA, data);
+        buffer.putInt(slot, data.length);
+        buffer.putInt(slot + 4, checksum(slot + 8, 8 + data.length));
+        stateGeneration = generation;
+    }
+
+    /** Dernier état de l'affichage enregistré, ou {@code null}. */
+    public DisplayState lastState() {
+        int best = -1;
+        long bestGeneration = 0;
+        for (int i = 0; i < 2; i++) {
+            int slot = STATE_OFFSET + i * STATE_SLOT_SIZE;
+            int length = buffer.getInt(slot);
+            if (length <= 0 || length > STATE_SLOT_SIZE - STATE_DATA
+                    || buffer.getInt(slot + 4) != checksum(slot + 8, 8 + length)) {
+                continue;
+            }
+            long generation = buffer.getLong(slot + 8);
+            if (best < 0 || generation > bestGeneration) {
+                best = slot;
+                bestGeneration = generation;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        stateGeneration = Math.max(stateGeneration, bestGeneration);
+        byte[] data = new byte[buffer.getInt(best)];
+        buffer.get(best + STATE_DATA, data);
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /** Force les écritures sur disque. */
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    // Ouverture et récupération après arrêt brutal
+
+    private void load() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (channel.size() < FRAMES_OFFSET) {
+            map(INITIAL_FRAMES);
+            buffer.putLong(OFF_MAGIC, MAGIC);
+            buffer.putInt(OFF_VERSION, VERSION);
+            buffer.putInt(OFF_RECORD_SIZE, CalculationHistory.RECORD_SIZE);
+            buffer.putLong(OFF_BASE_SEQUENCE, 0);
+            buffer.putInt(OFF_COUNT, 0);
+            return;
+        }
+
+        map((int) Math.min(maxRecords, (channel.size() - FRAMES_OFFSET) / FRAME_SIZE));
+        if (buffer.getLong(OFF_MAGIC) != MAGIC || buffer.getInt(OFF_VERSION) != VERSION
+                || buffer.getInt(OFF_RECORD_SIZE) != CalculationHistory.RECORD_SIZE) {
+            channel.close();
+            throw new IOException("Journal d'historique invalide : " + path);
+        }
+        baseSequence = buffer.getLong(OFF_BASE_SEQUENCE);
+
+        // Le compteur de l'en-tête peut être en avance (trame non écrite) ou en
+        // retard (en-tête non écrit) : on le corrige dans les deux sens
+        int n = Math.max(0, Math.min(buffer.getInt(OFF_COUNT), frameCapacity));
+        while (n > 0 && !isValid(n - 1)) {
+            n--;
+        }
+        while (n < frameCapacity && isValid(n)) {
+            n++;
+        }
+        count = n;
+        buffer.putInt(OFF_COUNT, count);
+        lastState();
+    }
+
+    private boolean isValid(int index) {
+        int frame = frameOffset(index);
+        return buffer.getInt(frame) == FRAME_MARKER
+                && buffer.getLong(frame + 8) == baseSequence + index
+                && buffer.getInt(frame + 4) == checksum(frame + 8, FRAME_SIZE - 8);
+    }
+
+    private void map(int frames) throws IOException {
+        frameCapacity = Math.max(frames, 1);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                FRAMES_OFFSET + (long) frameCapacity * FRAME_SIZE);
+        view = buffer.duplicate();
+    }
+
+    // Réécrit les dernières trames dans un fichier temporaire qui remplace le journal
+    private void compact() throws IOException {
+        int kept = Math.min(retain, count);
+        int from = count - kept;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int capacity = Math.max(INITIAL_FRAMES, Math.min(maxRecords, kept * 2));
+            MappedByteBuffer copy = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    FRAMES_OFFSET + (long) capacity * FRAME_SIZE);
+            copy.put(0, buffer, 0, FRAMES_OFFSET);
+            copy.put(FRAMES_OFFSET, buffer, frameOffset(from), kept * FRAME_SIZE);
+            copy.putLong(OFF_BASE_SEQUENCE, baseSequence + from);
+            copy.putInt(OFF_COUNT, kept);
+            copy.force();
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map((int) ((channel.size() - FRAMES_OFFSET) / FRAME_SIZE));
+        baseSequence += from;
+        count = kept;
+    }
+
+    private static int frameOffset(int index) {
+        return FRAMES_OFFSET + index * FRAME_SIZE;
+    }
+
+    private int checksum(int offset, int length) {
+        view.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    // Encodage de l'état : chaînes UTF-8 précédées de leur longueur
+
+    private static byte[] encode(DisplayState state) {
+        byte[][] strings = {
+                utf8(state.mode()), utf8(state.display()), utf8(state.operator()), utf8(state.operand())
+        };
+        int length = 3;
+        for (byte[] s : strings) {
+            length += 2 + s.length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(length);
+        for (byte[] s : strings) {
+            out.putShort((short) s.length).put(s);
+        }
+        out.put((byte) state.radix()).put((byte) state.width()).put((byte) (state.startNewNumber() ? 1 : 0));
+        return out.array();
+    }
+
+    private static DisplayState decode(ByteBuffer in) {
+        String mode = readString(in);
+        String display = readString(in);
+        String operator = readString(in);
+        String operand = readString(in);
+        return new DisplayState(mode, display, operator, operand, in.get(), in.get(), in.get() != 0);
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
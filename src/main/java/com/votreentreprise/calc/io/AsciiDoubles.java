@@ -0,0 +1,150 @@
+package com.votreentreprise.calc.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture de nombres décimaux directement depuis des octets ASCII, sans passer par
+ * une {@code String}.
+ *
+ * <p>Le cas courant (au plus 18 chiffres significatifs, exposant décimal dans
+ * [-22, 22], mantisse &lt; 2^53) est converti exactement par une seule multiplication
+ * ou division, correctement arrondie. Les autres écritures acceptées par
+ * {@link Double#parseDouble(String)} (notation hexadécimale, {@code NaN},
+ * {@code Infinity}, beaucoup de chiffres) passent par celle-ci : le résultat est
+ * toujours identique à {@code Double.parseDouble(texte.trim())}.
+ *
+ * <p>Une instance garde un tampon de secours : elle n'est pas thread-safe.
+ */
+public final class AsciiDoubles {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private byte[] scratch = new byte[64];
+    private boolean valid;
+
+    /** {@code true} si le dernier appel à {@link #parse} a lu un nombre valide. */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Lit le nombre contenu dans {@code buf[from, to)} (lecture absolue, la position du
+     * tampon n'est pas modifiée). Les espaces en début et fin sont ignorés.
+     * Si le texte n'est pas un nombre, renvoie {@code NaN} et {@link #isValid()} est faux.
+     */
+    public double parse(ByteBuffer buf, int from, int to) {
+        while (from < to && isSpace(buf.get(from))) {
+            from++;
+        }
+        while (to > from && isSpace(buf.get(to - 1))) {
+            to--;
+        }
+        valid = true;
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+            negative = buf.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        while (i < to && isDigit(buf.get(i))) {
+            anyDigit = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (buf.get(i) - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+            } else {
+                return slowPath(buf, from, to);
+            }
+            i++;
+        }
+        if (i < to && buf.get(i) == '.') {
+            i++;
+            while (i < to && isDigit(buf.get(i))) {
+                anyDigit = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (buf.get(i) - '0');
+                    if (mantissa != 0) {
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    return slowPath(buf, from, to);
+                }
+                i++;
+            }
+        }
+        if (!anyDigit) {
+            return slowPath(buf, from, to);
+        }
+        if (i < to && (buf.get(i) == 'e' || buf.get(i) == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < to && (buf.get(i) == '-' || buf.get(i) == '+')) {
+                negativeExp = buf.get(i) == '-';
+                i++;
+            }
+            if (i == to) {
+                return slowPath(buf, from, to);
+            }
+            int exp = 0;
+            while (i < to && isDigit(buf.get(i))) {
+                if (exp > 10_000) {
+                    return slowPath(buf, from, to);
+                }
+                exp = exp * 10 + (buf.get(i) - '0');
+                i++;
+            }
+            exponent += negativeExp ? -exp : exp;
+        }
+        if (i != to) {
+            return slowPath(buf, from, to);
+        }
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (mantissa < MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            value = exponent >= 0
+                    ? mantissa * POWERS_OF_TEN[exponent]
+                    : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return slowPath(buf, from, to);
+        }
+        return negative ? -value : value;
+    }
+
+    // Écritures rares : on délègue à Double.parseDouble pour garder la même sémantique
+    private double slowPath(ByteBuffer buf, int from, int to) {
+        int len = to - from;
+        if (scratch.length < len) {
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+        for (int i = 0; i < len; i++) {
+            scratch[i] = buf.get(from + i);
+        }
+        try {
+            return Double.parseDouble(new String(scratch, 0, len, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            valid = false;
+            return Double.NaN;
+        }
+    }
+
+    // Caractères retirés par String.trim() ; les octets UTF-8 non ASCII sont négatifs
+    static boolean isSpace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
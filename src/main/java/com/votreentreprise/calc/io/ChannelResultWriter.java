@@ -0,0 +1,100 @@
+package com.votreentreprise.calc.io;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.format.ResultFormatter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écrit une colonne de résultats (un par ligne, en UTF-8) dans un fichier, via un
+ * tampon direct réutilisé. Le texte est celui de l'écran : résultat mis en forme ou
+ * message d'erreur ; une ligne de statut {@link CalculationError#EMPTY} reste vide.
+ *
+ * <p>Non thread-safe.
+ */
+public final class ChannelResultWriter implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER = 1 << 20;
+
+    /** Plus petit tampon accepté : la plus longue ligne possible, fin de ligne comprise. */
+    public static final int MIN_BUFFER;
+
+    // Un résultat en UTF-8 tient en MAX_LENGTH * 3 octets
+    private static final int MAX_RESULT_BYTES = ResultFormatter.MAX_LENGTH * 3;
+
+    private static final byte[][] ERROR_BYTES;
+
+    static {
+        CalculationError[] errors = CalculationError.values();
+        ERROR_BYTES = new byte[errors.length][];
+        int longest = MAX_RESULT_BYTES;
+        for (CalculationError e : errors) {
+            ERROR_BYTES[e.ordinal()] = e.message().getBytes(StandardCharsets.UTF_8);
+            longest = Math.max(longest, ERROR_BYTES[e.ordinal()].length);
+        }
+        MIN_BUFFER = longest + 1;
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    public ChannelResultWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER);
+    }
+
+    /** Tampon de {@code bufferSize} octets, au moins {@link #MIN_BUFFER}. */
+    public ChannelResultWriter(Path path, int bufferSize) throws IOException {
+        if (bufferSize < MIN_BUFFER) {
+            throw new IllegalArgumentException("Tampon de " + MIN_BUFFER + " octets au moins attendu : " + bufferSize);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /** Écrit les lignes {@code [from, to)}. */
+    public void write(double[] results, byte[] status, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            // Ligne entière (texte et fin de ligne) dans le tampon
+            if (status[i] == CalculationError.OK) {
+                ensure(MAX_RESULT_BYTES + 1);
+                ResultFormatter.appendTo(results[i], buffer);
+            } else if (status[i] != CalculationError.EMPTY) {
+                byte[] message = ERROR_BYTES[CalculationError.fromCode(status[i]).ordinal()];
+                ensure(message.length + 1);
+                buffer.put(message);
+            } else {
+                ensure(1);
+            }
+            buffer.put((byte) '\n');
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.votreentreprise.calc.io;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Lecteur de fichiers CSV {@code gauche,opérateur,droite} projeté en mémoire.
+ *
+ * <p>Le fichier est projeté par fenêtres de taille fixe ({@link FileChannel#map}) ;
+ * les nombres et opérateurs sont lus directement depuis les octets projetés, sans
+ * {@code String} intermédiaire. La mémoire utilisée ne dépend pas de la taille du
+ * fichier. Chaque ligne, même vide, donne une ligne des colonnes, comme dans
+ * {@code BatchCli}.
+ *
+ * <p>Non thread-safe.
+ */
+public final class MappedCsvReader implements AutoCloseable {
+
+    public static final int DEFAULT_WINDOW = 1 << 28;
+
+    private static final byte[][] OPERATOR_BYTES;
+    private static final byte[] OPERATOR_CODES;
+
+    static {
+        Map<String, Operator> symbols = Operator.symbols();
+        OPERATOR_BYTES = new byte[symbols.size()][];
+        OPERATOR_CODES = new byte[symbols.size()];
+        int i = 0;
+        for (Map.Entry<String, Operator> e : symbols.entrySet()) {
+            OPERATOR_BYTES[i] = e.getKey().getBytes(StandardCharsets.UTF_8);
+            OPERATOR_CODES[i] = e.getValue().code();
+            i++;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private final AsciiDoubles numbers = new AsciiDoubles();
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int pos;
+
+    public MappedCsvReader(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW);
+    }
+
+    public MappedCsvReader(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        map(0);
+    }
+
+    /**
+     * Lit au plus {@code left.length} lignes dans les colonnes. Une ligne illisible a
+     * l'opérateur {@code -1} et le statut {@link CalculationError#GENERIC}, une ligne
+     * vide l'opérateur {@code -1} et le statut {@link CalculationError#EMPTY} ; les
+     * autres ont le statut {@link CalculationError#OK}.
+     *
+     * @return le nombre de lignes lues, 0 en fin de fichier
+     */
+    public int read(double[] left, byte[] operators, double[] right, byte[] status) throws IOException {
+        int max = Math.min(Math.min(left.length, operators.length), Math.min(right.length, status.length));
+        int n = 0;
+        while (n < max) {
+            int end = lineEnd();
+            if (end < 0) {
+                break;
+            }
+            int start = pos;
+            pos = end + 1;
+            int stop = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+            if (isBlank(start, stop)) {
+                operators[n] = -1;
+                status[n] = CalculationError.EMPTY;
+            } else {
+                parseRow(start, stop, n, left, operators, right, status);
+            }
+            n++;
+        }
+        return n;
+    }
+
+    // Fin de la ligne courante (index du '\n' ou de la fin du fichier), -1 s'il n'y en a plus
+    private int lineEnd() throws IOException {
+        while (true) {
+            int limit = window.limit();
+            for (int i = pos; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    return i;
+                }
+            }
+            long absolute = windowStart + pos;
+            if (windowStart + limit >= size) {
+                return pos < limit ? limit : -1;
+            }
+            if (pos == 0) {
+                throw new IOException("Ligne plus longue que la fenêtre de lecture à l'octet " + absolute);
+            }
+            map(absolute);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+        pos = 0;
+    }
+
+    private void parseRow(int start, int end, int row, double[] left, byte[] operators,
+                          double[] right, byte[] status) {
+        int c1 = indexOf(',', start, end);
+        int c2 = c1 < 0 ? -1 : indexOf(',', c1 + 1, end);
+        if (c2 >= 0) {
+            double a = numbers.parse(window, start, c1);
+            boolean ok = numbers.isValid();
+            byte op = operator(c1 + 1, c2);
+            double b = numbers.parse(window, c2 + 1, end);
+            if (ok && numbers.isValid() && op >= 0) {
+                left[row] = a;
+                operators[row] = op;
+                right[row] = b;
+                status[row] = CalculationError.OK;
+                return;
+            }
+        }
+        operators[row] = -1;
+        status[row] = CalculationError.GENERIC.code();
+    }
+
+    private byte operator(int from, int to) {
+        while (from < to && AsciiDoubles.isSpace(window.get(from))) {
+            from++;
+        }
+        while (to > from && AsciiDoubles.isSpace(window.get(to - 1))) {
+            to--;
+        }
+        int len = to - from;
+        for (int k = 0; k < OPERATOR_BYTES.length; k++) {
+            byte[] symbol = OPERATOR_BYTES[k];
+            if (symbol.length != len) {
+                continue;
+            }
+            int j = 0;
+            while (j < len && window.get(from + j) == symbol[j]) {
+                j++;
+            }
+            if (j == len) {
+                return OPERATOR_CODES[k];
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (window.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!AsciiDoubles.isSpace(window.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.votreentreprise.calc.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Un calcul vu par JFR. Désactivé par défaut : un enregistrement l'active avec
+ * {@code com.votreentreprise.calc.Calcul#enabled=true} dans ses réglages
+ * ({@code jfr configure} ou fichier {@code .jfc}). Désactivé, il ne coûte qu'un test.
+ */
+@Name("com.votreentreprise.calc.Calcul")
+@Label("Calcul")
+@Description("Opération de la calculatrice, avec sa durée et son erreur éventuelle")
+@Category("Calculatrice")
+@Enabled(false)
+@StackTrace(false)
+final class CalculationEvent extends Event {
+
+    @Label("Opération")
+    String operation;
+
+    @Label("Erreur")
+    String error;
+
+    @Label("Latence")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,157 @@
+package com.votreentreprise.calc.metrics;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures des calculs : nombre et latence par opération ({@link LatencyHistogram}),
+ * erreurs par type. Chaque calcul peut aussi produire un {@link CalculationEvent} JFR.
+ *
+ * <pre>{@code
+ * long start = CalculationMetrics.start();
+ * try {
+ *     result = op.apply(a, b);
+ * } catch (CalculationException e) {
+ *     metrics.recordError(op, e.error(), start);
+ *     ...
+ * }
+ * metrics.record(op, start);
+ * }</pre>
+ *
+ * <p>Un enregistrement coûte un appel à {@link System#nanoTime()} et un incrément
+ * atomique, sans verrou ni allocation (une dizaine de nanosecondes hors lecture de
+ * l'horloge) : les mesures restent actives en production.
+ * Le nombre de calculs d'une opération est celui de son histogramme. Le débit
+ * d'allocation n'est pas mesuré ici : la JVM le publie déjà (actuator
+ * {@code jvm.gc.memory.allocated}, événements JFR {@code jdk.ObjectAllocationSample}).
+ */
+public final class CalculationMetrics {
+
+    private static final Operator[] OPERATORS = Operator.values();
+    private static final UnaryFunction[] FUNCTIONS = UnaryFunction.values();
+    private static final CalculationError[] ERRORS = CalculationError.values();
+
+    // Une case par opérateur, puis par fonction, puis pour les expressions compilées
+    private static final int FUNCTION_OFFSET = OPERATORS.length;
+    private static final int EXPRESSION = FUNCTION_OFFSET + FUNCTIONS.length;
+    private static final String[] NAMES = new String[EXPRESSION + 1];
+
+    static {
+        for (Operator op : OPERATORS) {
+            NAMES[op.ordinal()] = op.symbol();
+        }
+        for (UnaryFunction f : FUNCTIONS) {
+            NAMES[FUNCTION_OFFSET + f.ordinal()] = f.symbol();
+        }
+        NAMES[EXPRESSION] = "expression";
+    }
+
+    private static final CalculationMetrics GLOBAL = new CalculationMetrics();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[NAMES.length];
+    private final LongAdder[] errors = new LongAdder[ERRORS.length];
+
+    public CalculationMetrics() {
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = new LongAdder();
+        }
+    }
+
+    /** Mesures de l'application de bureau, des sessions et du service web. */
+    public static CalculationMetrics global() {
+        return GLOBAL;
+    }
+
+    /** Début d'un calcul, à passer ensuite à {@code record} ou {@code recordError}. */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    public void record(Operator op, long start) {
+        record(op.ordinal(), null, start);
+    }
+
+    public void record(UnaryFunction f, long start) {
+        record(FUNCTION_OFFSET + f.ordinal(), null, start);
+    }
+
+    /** Évaluation d'une expression compilée (service web). */
+    public void recordExpression(long start) {
+        record(EXPRESSION, null, start);
+    }
+
+    public void recordError(Operator op, CalculationError error, long start) {
+        record(op.ordinal(), error, start);
+    }
+
+    public void recordError(UnaryFunction f, CalculationError error, long start) {
+        record(FUNCTION_OFFSET + f.ordinal(), error, start);
+    }
+
+    public void recordExpressionError(CalculationError error, long start) {
+        record(EXPRESSION, error, start);
+    }
+
+    /**
+     * Calcul chronométré ailleurs, enregistré plus tard (touche d'une session, comptée
+     * une fois son état installé) ; {@code error} est {@code null} s'il a réussi.
+     */
+    public void recordLatency(Operator op, CalculationError error, long nanos) {
+        recordNanos(op.ordinal(), error, nanos);
+    }
+
+    public void recordLatency(UnaryFunction f, CalculationError error, long nanos) {
+        recordNanos(FUNCTION_OFFSET + f.ordinal(), error, nanos);
+    }
+
+    /** Erreur hors d'une opération connue (saisie illisible...), comptée en {@link CalculationError#GENERIC}. */
+    public void recordError(CalculationError error) {
+        errors[error.ordinal()].increment();
+        CalculationEvent event = new CalculationEvent();
+        if (event.isEnabled()) {
+            event.error = error.name();
+            event.commit();
+        }
+    }
+
+    public LatencyHistogram latency(Operator op) {
+        return latencies[op.ordinal()];
+    }
+
+    public LatencyHistogram latency(UnaryFunction f) {
+        return latencies[FUNCTION_OFFSET + f.ordinal()];
+    }
+
+    public LatencyHistogram expressionLatency() {
+        return latencies[EXPRESSION];
+    }
+
+    public long errorCount(CalculationError error) {
+        return errors[error.ordinal()].sum();
+    }
+
+    private void record(int slot, CalculationError error, long start) {
+        recordNanos(slot, error, System.nanoTime() - start);
+    }
+
+    private void recordNanos(int slot, CalculationError error, long nanos) {
+        latencies[slot].record(nanos);
+        if (error != null) {
+            errors[error.ordinal()].increment();
+        }
+        // Sans enregistrement JFR actif, isEnabled() est constant et l'événement n'est pas alloué
+        CalculationEvent event = new CalculationEvent();
+        if (event.isEnabled()) {
+            event.operation = NAMES[slot];
+            event.error = error == null ? null : error.name();
+            event.latency = nanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.votreentreprise.calc.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de durées en nanosecondes, à la manière de HdrHistogram : les
+ * intervalles doublent de taille et chacun est coupé en {@value #SUB_BUCKETS}
+ * cases, soit une erreur relative d'au plus 1/16 (6,25 %). Les durées au-delà de
+ * 2<sup>36</sup> ns (environ 69 s) tombent dans la dernière case.
+ *
+ * <p>L'enregistrement ne prend pas de verrou : un seul incrément atomique dans la
+ * copie des compteurs du thread ({@link #record(long)}), les copies étant réparties
+ * par identifiant de thread pour limiter la contention. Comme dans HdrHistogram, la
+ * somme des durées n'est pas tenue : moyenne et total sont estimés à partir des
+ * cases. La lecture ({@link #snapshot()}) additionne les copies sans arrêter les
+ * écrivains : elle peut manquer les enregistrements en cours, jamais en compter
+ * deux fois.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final long MAX_VALUE = (1L << 36) - 1;
+    static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    // Une copie des cases par groupe de threads ; le pas est complété pour que deux
+    // copies ne partagent pas de ligne de cache
+    private static final int STRIDE = ((BUCKETS + 7) & ~7) + 8;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+
+    /** Enregistre une durée ; une valeur négative (horloge non monotone) compte pour 0. */
+    public void record(long nanos) {
+        long v = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.getAndIncrement(stripe() * STRIDE + index(v));
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        for (int s = 0; s < STRIPES; s++) {
+            int base = s * STRIDE;
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += counts.get(base + i);
+            }
+        }
+        return new Snapshot(merged);
+    }
+
+    /** Valeurs cumulées d'un histogramme à un instant donné. */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long n = 0;
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                n += counts[i];
+                total += counts[i] * middleValue(i);
+            }
+            this.count = n;
+            this.totalNanos = total;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        /** Somme des durées, estimée avec le milieu de chaque case. */
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        /** Durée moyenne estimée en nanosecondes, 0 sans enregistrement. */
+        public double mean() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Plus grande durée de la case qui contient le quantile {@code q} (entre 0 et 1),
+         * en nanosecondes ; 0 sans enregistrement.
+         */
+        public long percentile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return highestValue(counts.length - 1);
+        }
+
+        /** Borne haute de la plus grande durée enregistrée. */
+        public long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    // Case 0 : valeurs 0 à 15 une par une ; ensuite, pour 2^e <= v < 2^(e+1),
+    // 16 cases de largeur 2^(e-4) à partir de (e - 3) * 16
+    static int index(long v) {
+        if (v < SUB_BUCKETS) {
+            return (int) v;
+        }
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        int shift = e - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((v >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowestValue(int index) {
+        int bucket = index >>> SUB_BUCKET_BITS;
+        long sub = index & (SUB_BUCKETS - 1);
+        return bucket == 0 ? sub : (SUB_BUCKETS + sub) << (bucket - 1);
+    }
+
+    static long highestValue(int index) {
+        return index + 1 < BUCKETS ? lowestValue(index + 1) - 1 : MAX_VALUE;
+    }
+
+    static long middleValue(int index) {
+        return (lowestValue(index) + highestValue(index)) >>> 1;
+    }
+
+    private static int stripe() {
+        return (int) Thread.currentThread().getId() & (STRIPES - 1);
+    }
+
+    private static int stripes(int processors) {
+        // Puissance de 2 pour le masque, 8 au plus : au-delà la mémoire l'emporte
+        return processors <= 1 ? 1 : Math.min(Integer.highestOneBit(processors - 1) << 1, 8);
+    }
+}
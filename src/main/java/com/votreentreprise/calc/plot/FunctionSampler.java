@@ -0,0 +1,122 @@
+package com.votreentreprise.calc.plot;
+
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.CompiledExpression;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Échantillonne une expression d'une variable sur un intervalle, pour les tables et
+ * les courbes : {@code n} points régulièrement espacés, bornes comprises.
+ *
+ * <p>Chaque point passe par {@link CompiledExpression#evaluate(double[])} ; l'intervalle
+ * est découpé en blocs calculés en parallèle (fork-join) et chaque bloc réutilise un
+ * seul tableau de variables, donc rien n'est alloué par point. Un point en erreur
+ * (division par 0, logarithme d'un nombre négatif...) vaut NaN.
+ */
+public final class FunctionSampler implements AutoCloseable {
+
+    /** Taille minimale d'un bloc, en dessous on ne découpe plus. */
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int threshold;
+
+    /** Échantillonneur avec son propre pool de {@code parallelism} threads. */
+    public FunctionSampler(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_THRESHOLD);
+    }
+
+    /** Échantillonneur sur un pool existant, qui n'est pas fermé par {@link #close()}. */
+    public FunctionSampler(ForkJoinPool pool, int threshold) {
+        this(pool, false, threshold);
+    }
+
+    private FunctionSampler(ForkJoinPool pool, boolean ownsPool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Seuil invalide : " + threshold);
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Remplit {@code ys} avec les valeurs de {@code f} aux abscisses
+     * {@link #x(double, double, int, int) x(from, to, ys.length, i)}.
+     *
+     * @return le nombre de points en erreur
+     * @throws IllegalArgumentException si {@code f} a plus d'une variable
+     */
+    public int sample(CompiledExpression f, double from, double to, double[] ys) {
+        if (f.variableCount() > 1) {
+            throw new IllegalArgumentException("Une seule variable attendue : " + f.source());
+        }
+        if (ys.length <= threshold) {
+            return sample(f, from, to, ys, 0, ys.length);
+        }
+        return pool.invoke(new Chunk(f, from, to, ys, 0, ys.length, threshold));
+    }
+
+    /** Abscisse du point {@code i} sur {@code n} : calculée, pas cumulée, donc sans dérive. */
+    public static double x(double from, double to, int n, int i) {
+        return n == 1 ? from : i == n - 1 ? to : from + (to - from) * i / (n - 1);
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    static int sample(CompiledExpression f, double from, double to, double[] ys, int start, int end) {
+        double[] x = new double[1];
+        int errors = 0;
+        for (int i = start; i < end; i++) {
+            x[0] = x(from, to, ys.length, i);
+            try {
+                ys[i] = f.evaluate(x);
+            } catch (CalculationException e) {
+                ys[i] = Double.NaN;
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    private static final class Chunk extends RecursiveTask<Integer> {
+        private final CompiledExpression f;
+        private final double from;
+        private final double to;
+        private final double[] ys;
+        private final int start;
+        private final int end;
+        private final int threshold;
+
+        Chunk(CompiledExpression f, double from, double to, double[] ys, int start, int end, int threshold) {
+            this.f = f;
+            this.from = from;
+            this.to = to;
+            this.ys = ys;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (end - start <= threshold) {
+                return sample(f, from, to, ys, start, end);
+            }
+            int mid = (start + end) >>> 1;
+            Chunk head = new Chunk(f, from, to, ys, start, mid, threshold);
+            Chunk tail = new Chunk(f, from, to, ys, mid, end, threshold);
+            head.fork();
+            int errors = tail.compute();
+            return errors + head.join();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.votreentreprise.calc.plot;
+
+/**
+ * Niveaux de détail d'une série d'échantillons, pour tracer des millions de points
+ * sur quelques centaines de colonnes de pixels.
+ *
+ * <p>Le niveau {@code k} garde le minimum et le maximum de chaque bloc de
+ * 2<sup>k</sup> échantillons consécutifs (la mémoire totale est d'environ deux fois
+ * la série). {@link #columns} donne pour chaque colonne le minimum et le maximum des
+ * échantillons qu'elle couvre, en assemblant quelques blocs alignés : le coût dépend
+ * du nombre de colonnes, pas du nombre d'échantillons visibles, et les pics ne sont
+ * jamais perdus. Les NaN (points en erreur) sont ignorés ; une colonne sans valeur
+ * vaut NaN.
+ */
+public final class MinMaxPyramid {
+
+    private final double[] samples;
+    // Niveaux 1 et suivants : mins[k - 1][b] et maxs[k - 1][b] pour le bloc b
+    private final double[][] mins;
+    private final double[][] maxs;
+
+    public MinMaxPyramid(double[] samples) {
+        this.samples = samples;
+        int levels = 0;
+        for (int n = samples.length; n > 1; n = (n + 1) >>> 1) {
+            levels++;
+        }
+        mins = new double[levels][];
+        maxs = new double[levels][];
+        double[] lowerMin = samples;
+        double[] lowerMax = samples;
+        for (int k = 0; k < levels; k++) {
+            int n = (lowerMin.length + 1) >>> 1;
+            double[] min = new double[n];
+            double[] max = new double[n];
+            for (int b = 0; b < n; b++) {
+                int i = 2 * b;
+                if (i + 1 < lowerMin.length) {
+                    min[b] = min(lowerMin[i], lowerMin[i + 1]);
+                    max[b] = max(lowerMax[i], lowerMax[i + 1]);
+                } else {
+                    min[b] = lowerMin[i];
+                    max[b] = lowerMax[i];
+                }
+            }
+            mins[k] = min;
+            maxs[k] = max;
+            lowerMin = min;
+            lowerMax = max;
+        }
+    }
+
+    public int size() {
+        return samples.length;
+    }
+
+    public double sample(int i) {
+        return samples[i];
+    }
+
+    /**
+     * Minimum et maximum par colonne. La colonne {@code c} couvre les positions
+     * {@code [first + c × pas, first + (c + 1) × pas)} avec
+     * {@code pas = (last - first) / width} ; les positions sont des indices
+     * d'échantillons, éventuellement fractionnaires ou hors de la série. Une colonne
+     * plus étroite qu'un échantillon prend l'échantillon le plus proche.
+     */
+    public void columns(double first, double last, int width, double[] min, double[] max) {
+        double step = (last - first) / width;
+        int n = samples.length;
+        for (int c = 0; c < width; c++) {
+            double start = first + c * step;
+            double end = start + step;
+            long lo = (long) Math.ceil(start);
+            long hi = (long) Math.ceil(end);
+            if (hi <= lo) {
+                long nearest = Math.round((start + end) / 2);
+                lo = nearest;
+                hi = nearest + 1;
+            }
+            lo = Math.max(lo, 0);
+            hi = Math.min(hi, n);
+            if (hi <= lo) {
+                min[c] = Double.NaN;
+                max[c] = Double.NaN;
+                continue;
+            }
+            range((int) lo, (int) hi, min, max, c);
+        }
+    }
+
+    // Min et max de [lo, hi) : à chaque pas, le plus grand bloc aligné qui tient
+    private void range(int lo, int hi, double[] outMin, double[] outMax, int c) {
+        double min = Double.NaN;
+        double max = Double.NaN;
+        while (lo < hi) {
+            int k = Integer.numberOfTrailingZeros(lo | Integer.highestOneBit(hi - lo));
+            if (k == 0) {
+                min = min(min, samples[lo]);
+                max = max(max, samples[lo]);
+            } else {
+                min = min(min, mins[k - 1][lo >>> k]);
+                max = max(max, maxs[k - 1][lo >>> k]);
+            }
+            lo += 1 << k;
+        }
+        outMin[c] = min;
+        outMax[c] = max;
+    }
+
+    private static double min(double a, double b) {
+        return a != a ? b : b < a ? b : a;
+    }
+
+    private static double max(double a, double b) {
+        return a != a ? b : b > a ? b : a;
+    }
+}
@@ -0,0 +1,216 @@
+package com.votreentreprise.calc.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.CompiledExpression;
+import com.votreentreprise.calc.engine.ExpressionCache;
+import com.votreentreprise.calc.engine.ExpressionCompiler;
+import com.votreentreprise.calc.engine.ExpressionSyntaxException;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Évaluation d'expressions avec la sémantique de la calculatrice
+ * ({@link ExpressionCompiler}, formes compilées gardées dans un {@link ExpressionCache}) :
+ * <ul>
+ *   <li>{@code GET /api/evaluate?expression=2*x&x=3} ;</li>
+ *   <li>{@code POST /api/evaluate} avec {@code {"expression":"2*x","variables":{"x":3}}} ;</li>
+ *   <li>{@code POST /api/batch} en NDJSON : une requête par ligne (objet comme
+ *       ci-dessus, chaîne JSON ou texte brut), une réponse par ligne, dans l'ordre ;
+ *       une ligne vide donne une erreur, pour que les réponses restent alignées.</li>
+ * </ul>
+ * Réponse : {@code {"result":6.0,"display":"6"}}, ou {@code {"error":...,"code":...}}
+ * avec le statut 400 (syntaxe, requête invalide) ou 422 (division par 0, domaine).
+ * En batch, les erreurs restent sur leur ligne et le statut HTTP est 200.
+ *
+ * <p>Objectif de latence : p99 &lt; 1 ms côté serveur pour une expression seule, à
+ * 20 000 requêtes/s sur un nœud. Le traitement ne bloque jamais (pas de base, pas
+ * d'appel externe) et coûte quelques microsecondes ; les requêtes tournent sur des
+ * threads virtuels quand la JVM en a (voir {@link ServerConfiguration}). Chaque
+ * évaluation est mesurée dans {@link CalculationMetrics} (actuator
+ * {@code calculatrice.calculs}, opération {@code expression}).
+ */
+@RestController
+@RequestMapping("/api")
+public class CalculationController {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int BAD_REQUEST = HttpStatus.BAD_REQUEST.value();
+    private static final int UNPROCESSABLE = HttpStatus.UNPROCESSABLE_ENTITY.value();
+
+    private final ObjectMapper mapper;
+    private final ExpressionCache cache;
+    private final CalculationMetrics metrics;
+
+    public CalculationController(ObjectMapper mapper, ExpressionCache cache, CalculationMetrics metrics) {
+        this.mapper = mapper;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    /** Les paramètres autres que {@code expression} sont les valeurs des variables. */
+    @GetMapping(value = "/evaluate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> evaluate(@RequestParam String expression,
+                                           @RequestParam Map<String, String> parameters) {
+        StringBuilder out = new StringBuilder(64);
+        int status;
+        try {
+            CompiledExpression compiled = cache.get(expression);
+            double[] bindings = new double[compiled.variableCount()];
+            for (int i = 0; i < bindings.length; i++) {
+                String value = parameters.get(compiled.variableName(i));
+                if (value == null) {
+                    throw new IllegalArgumentException("Variable sans valeur : " + compiled.variableName(i));
+                }
+                try {
+                    bindings[i] = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Valeur non numérique pour " + compiled.variableName(i));
+                }
+            }
+            status = evaluate(compiled, bindings, out);
+        } catch (ExpressionSyntaxException e) {
+            Json.error(out, e);
+            status = BAD_REQUEST;
+        } catch (IllegalArgumentException e) {
+            Json.error(out, e.getMessage());
+            status = BAD_REQUEST;
+        }
+        return respond(status, out);
+    }
+
+    @PostMapping(value = "/evaluate", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> evaluate(@RequestBody JsonNode request) {
+        StringBuilder out = new StringBuilder(64);
+        return respond(evaluate(request, out), out);
+    }
+
+    /** Lit et répond ligne à ligne : la mémoire utilisée ne dépend pas de la taille du lot. */
+    @PostMapping(value = "/batch", consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE})
+    public void batch(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader in = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 1 << 16);
+        StringBuilder line = new StringBuilder(64);
+        String request;
+        while ((request = in.readLine()) != null) {
+            request = request.trim();
+            line.setLength(0);
+            if (request.isEmpty()) {
+                Json.error(line, "Requête vide");
+            } else {
+                evaluateLine(request, line);
+            }
+            out.append(line).append('\n');
+        }
+        out.flush();
+    }
+
+    private void evaluateLine(String request, StringBuilder out) {
+        char first = request.charAt(0);
+        if (first != '{' && first != '"') {
+            evaluate(request, null, out);
+            return;
+        }
+        try {
+            evaluate(mapper.readTree(request), out);
+        } catch (JsonProcessingException e) {
+            Json.error(out, "JSON invalide");
+        }
+    }
+
+    // Renvoie le statut HTTP ; la réponse est ajoutée à out
+
+    private int evaluate(JsonNode request, StringBuilder out) {
+        if (request.isTextual()) {
+            return evaluate(request.asText(), null, out);
+        }
+        JsonNode expression = request.get("expression");
+        if (expression == null || !expression.isTextual()) {
+            Json.error(out, "Champ \"expression\" manquant");
+            return BAD_REQUEST;
+        }
+        JsonNode variables = request.get("variables");
+        if (variables != null && !variables.isObject()) {
+            Json.error(out, "\"variables\" doit être un objet");
+            return BAD_REQUEST;
+        }
+        return evaluate(expression.asText(), variables, out);
+    }
+
+    private int evaluate(String expression, JsonNode variables, StringBuilder out) {
+        CompiledExpression compiled;
+        try {
+            compiled = cache.get(expression);
+        } catch (ExpressionSyntaxException e) {
+            Json.error(out, e);
+            return BAD_REQUEST;
+        }
+        double[] bindings = new double[compiled.variableCount()];
+        if (variables != null) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = variables.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> e = it.next();
+                int slot = compiled.variableIndex(e.getKey());
+                if (slot >= 0) {
+                    if (!e.getValue().isNumber()) {
+                        Json.error(out, "Valeur non numérique pour " + e.getKey());
+                        return BAD_REQUEST;
+                    }
+                    bindings[slot] = e.getValue().doubleValue();
+                }
+            }
+        }
+        for (int i = 0; i < bindings.length; i++) {
+            if (variables == null || !variables.has(compiled.variableName(i))) {
+                Json.error(out, "Variable sans valeur : " + compiled.variableName(i));
+                return BAD_REQUEST;
+            }
+        }
+        return evaluate(compiled, bindings, out);
+    }
+
+    private int evaluate(CompiledExpression compiled, double[] bindings, StringBuilder out) {
+        long start = CalculationMetrics.start();
+        double result;
+        try {
+            result = compiled.evaluate(bindings);
+        } catch (CalculationException e) {
+            metrics.recordExpressionError(e.error(), start);
+            Json.error(out, e);
+            return UNPROCESSABLE;
+        }
+        metrics.recordExpression(start);
+        Json.result(out, result);
+        return HttpStatus.OK.value();
+    }
+
+    private static ResponseEntity<String> respond(int status, StringBuilder body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body.toString());
+    }
+}
@@ -0,0 +1,69 @@
+package com.votreentreprise.calc.server;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.metrics.LatencyHistogram;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publie {@link CalculationMetrics} dans l'actuator ({@code /actuator/metrics}) :
+ * <ul>
+ *   <li>{@code calculatrice.calculs} : nombre et durée totale par opération ;</li>
+ *   <li>{@code calculatrice.calculs.latence} : quantiles 0,5, 0,99 et 0,999 par
+ *       opération, en secondes ;</li>
+ *   <li>{@code calculatrice.erreurs} : erreurs par type.</li>
+ * </ul>
+ * Les valeurs sont lues dans les histogrammes à chaque collecte : rien n'est ajouté
+ * sur le chemin des calculs. Le débit d'allocation est {@code jvm.gc.memory.allocated}.
+ */
+final class CalculationMetricsBinder implements MeterBinder {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final CalculationMetrics metrics;
+
+    CalculationMetricsBinder(CalculationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Operator op : Operator.values()) {
+            bind(registry, op.symbol(), metrics.latency(op));
+        }
+        for (UnaryFunction f : UnaryFunction.values()) {
+            bind(registry, f.symbol(), metrics.latency(f));
+        }
+        bind(registry, "expression", metrics.expressionLatency());
+        for (CalculationError error : CalculationError.values()) {
+            FunctionCounter.builder("calculatrice.erreurs", metrics, m -> m.errorCount(error))
+                    .description("Calculs en erreur")
+                    .tag("type", error.name())
+                    .register(registry);
+        }
+    }
+
+    private static void bind(MeterRegistry registry, String operation, LatencyHistogram latency) {
+        FunctionTimer.builder("calculatrice.calculs", latency,
+                        h -> h.snapshot().count(), h -> h.snapshot().totalNanos(), TimeUnit.NANOSECONDS)
+                .description("Calculs effectués")
+                .tag("operation", operation)
+                .register(registry);
+        for (double q : QUANTILES) {
+            Gauge.builder("calculatrice.calculs.latence", latency, h -> h.snapshot().percentile(q) / 1e9)
+                    .description("Latence des calculs")
+                    .baseUnit("seconds")
+                    .tag("operation", operation)
+                    .tag("quantile", Double.toString(q))
+                    .register(registry);
+        }
+    }
+}
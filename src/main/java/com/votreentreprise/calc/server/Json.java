@@ -0,0 +1,80 @@
+package com.votreentreprise.calc.server;
+
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.ExpressionSyntaxException;
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.session.CalculatorState;
+
+/**
+ * Réponses JSON du service, écrites à la main : un objet par résultat, sans
+ * passer par Jackson sur le chemin critique.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /** {@code {"result":5.0,"display":"5"}} ; {@code null} pour NaN et les infinis. */
+    static StringBuilder result(StringBuilder out, double result) {
+        out.append("{\"result\":");
+        if (Double.isFinite(result)) {
+            out.append(result);
+        } else {
+            out.append("null");
+        }
+        out.append(",\"display\":");
+        return string(out, ResultFormatter.format(result)).append('}');
+    }
+
+    /** {@code {"error":"Erreur: Division par 0","code":"DIVISION_BY_ZERO"}}. */
+    static StringBuilder error(StringBuilder out, CalculationException e) {
+        out.append("{\"error\":");
+        string(out, e.getMessage()).append(",\"code\":");
+        return string(out, e.error().name()).append('}');
+    }
+
+    /** {@code {"error":"...","code":"SYNTAX","position":3}}. */
+    static StringBuilder error(StringBuilder out, ExpressionSyntaxException e) {
+        out.append("{\"error\":");
+        string(out, e.getMessage()).append(",\"code\":\"SYNTAX\",\"position\":");
+        return out.append(e.getPosition()).append('}');
+    }
+
+    /** État d'une session de {@link SessionController}. */
+    static StringBuilder state(StringBuilder out, String id, CalculatorState state) {
+        out.append("{\"session\":");
+        string(out, id).append(",\"mode\":\"").append(state.mode().name()).append("\",\"display\":");
+        string(out, state.display()).append(",\"history\":");
+        string(out, state.history().trim()).append(",\"operator\":");
+        string(out, state.operator()).append(",\"radix\":").append(state.radix());
+        return out.append(",\"width\":").append(state.width()).append('}');
+    }
+
+    /** Requête mal formée (JSON illisible, expression absente...). */
+    static StringBuilder error(StringBuilder out, String message) {
+        out.append("{\"error\":");
+        return string(out, message).append(",\"code\":\"BAD_REQUEST\"}");
+    }
+
+    static StringBuilder string(StringBuilder out, String s) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+}
@@ -0,0 +1,91 @@
+package com.votreentreprise.calc.server;
+
+import com.votreentreprise.calc.engine.ExpressionCache;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Threads des requêtes, cache des expressions, sessions, mesures et accès aux endpoints.
+ */
+@Configuration
+public class ServerConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerConfiguration.class);
+
+    /**
+     * Un thread virtuel par requête quand la JVM le permet (Java 21 et plus). Le projet
+     * compile en Java 17 : l'exécuteur est obtenu par réflexion, et sur une JVM plus
+     * ancienne Tomcat garde son pool de threads ({@code server.tomcat.threads.*}).
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadExecutor() {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            LOG.info("Threads virtuels indisponibles ({}), pool de threads Tomcat",
+                    System.getProperty("java.version"));
+            return handler -> { };
+        }
+        LOG.info("Requêtes traitées sur des threads virtuels");
+        return handler -> handler.setExecutor(executor);
+    }
+
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /** Les mêmes formules reviennent sans cesse avec d'autres valeurs : on garde leur forme compilée. */
+    @Bean
+    public ExpressionCache expressionCache(
+            @Value("${calculatrice.cache.taille:" + ExpressionCache.DEFAULT_MAXIMUM_SIZE + "}") long maximumSize,
+            @Value("${calculatrice.cache.poids:1000000}") long maximumWeight,
+            @Value("${calculatrice.cache.politique:LFU}") ExpressionCache.Policy policy,
+            @Value("${calculatrice.memo:false}") boolean memoizeFunctions) {
+        return new ExpressionCache(maximumSize, maximumWeight, policy, memoizeFunctions);
+    }
+
+    /** Sessions de calculatrice des clients web ({@link SessionController}). */
+    @Bean
+    SessionRegistry sessionRegistry(
+            @Value("${calculatrice.sessions.max:100000}") int maximumSize,
+            @Value("${calculatrice.sessions.inactivite:PT30M}") Duration idleTimeout) {
+        return new SessionRegistry(maximumSize, idleTimeout.toNanos());
+    }
+
+    /** Mesures partagées avec les sessions ({@link CalculationMetrics#global()}). */
+    @Bean
+    public CalculationMetrics calculationMetrics() {
+        return CalculationMetrics.global();
+    }
+
+    /** Publication des mesures dans l'actuator, lues à chaque collecte. */
+    @Bean
+    CalculationMetricsBinder calculationMetricsBinder(CalculationMetrics metrics) {
+        return new CalculationMetricsBinder(metrics);
+    }
+
+    /** API de calcul et santé publiques, le reste de l'actuator reste authentifié. */
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        http.csrf().disable()
+                .authorizeHttpRequests(auth -> auth
+                        .antMatchers("/api/**", "/actuator/health/**", "/actuator/info").permitAll()
+                        .anyRequest().authenticated())
+                .httpBasic();
+        return http.build();
+    }
+}
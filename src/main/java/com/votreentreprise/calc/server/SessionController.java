@@ -0,0 +1,134 @@
+package com.votreentreprise.calc.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.session.CalculationMeasures;
+import com.votreentreprise.calc.session.CalculatorMode;
+import com.votreentreprise.calc.session.CalculatorState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+/**
+ * Calculatrice à touches pour les clients web : chaque session a son propre
+ * {@link CalculatorState}, gardé par {@link SessionRegistry}.
+ * <ul>
+ *   <li>{@code POST /api/sessions?mode=PROGRAMMER} crée une session (201) ;</li>
+ *   <li>{@code POST /api/sessions/{id}/keys} avec {@code ["6","×","7","="]} applique
+ *       les touches dans l'ordre, d'un seul coup ;</li>
+ *   <li>{@code POST /api/sessions/{id}/mode/{mode}} change de mode ;</li>
+ *   <li>{@code GET} et {@code DELETE /api/sessions/{id}}.</li>
+ * </ul>
+ * Réponse : {@code {"session":"...","mode":"STANDARD","display":"42",
+ * "history":"6.0 × 7.0 = 42","operator":"","radix":10,"width":64}}. Une session
+ * inconnue ou expirée donne 404, une table pleine 503.
+ *
+ * <p>Les calculs des touches sont comptés dans {@link CalculationMetrics} une fois le
+ * nouvel état installé, pas à chaque essai de la transition.
+ */
+@RestController
+@RequestMapping("/api/sessions")
+public class SessionController {
+
+    /** Nombre maximal de touches par requête. */
+    static final int MAX_KEYS = 10_000;
+
+    private final SessionRegistry sessions;
+    private final CalculationMetrics metrics;
+
+    public SessionController(SessionRegistry sessions, CalculationMetrics metrics) {
+        this.sessions = sessions;
+        this.metrics = metrics;
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> create(@RequestParam(defaultValue = "STANDARD") String mode) {
+        CalculatorMode parsed = mode(mode);
+        if (parsed == null) {
+            return respond(HttpStatus.BAD_REQUEST, Json.error(new StringBuilder(), "Mode inconnu : " + mode));
+        }
+        String id;
+        try {
+            id = sessions.create(parsed);
+        } catch (IllegalStateException e) {
+            return respond(HttpStatus.SERVICE_UNAVAILABLE, Json.error(new StringBuilder(), e.getMessage()));
+        }
+        return respond(HttpStatus.CREATED, id, sessions.get(id));
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> get(@PathVariable String id) {
+        return respond(HttpStatus.OK, id, sessions.get(id));
+    }
+
+    @PostMapping(value = "/{id}/keys", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> press(@PathVariable String id, @RequestBody JsonNode keys) {
+        if (!keys.isArray() || keys.size() > MAX_KEYS) {
+            return respond(HttpStatus.BAD_REQUEST, Json.error(new StringBuilder(),
+                    "Tableau de " + MAX_KEYS + " touches au plus attendu"));
+        }
+        String[] pressed = new String[keys.size()];
+        for (int i = 0; i < pressed.length; i++) {
+            if (!keys.get(i).isTextual()) {
+                return respond(HttpStatus.BAD_REQUEST, Json.error(new StringBuilder(), "Touche non textuelle"));
+            }
+            pressed[i] = keys.get(i).asText();
+        }
+        CalculationMeasures measures = new CalculationMeasures();
+        CalculatorState next = sessions.update(id, state -> {
+            measures.clear();
+            for (String key : pressed) {
+                state = state.press(key, measures);
+            }
+            return state;
+        });
+        if (next != null) {
+            measures.recordTo(metrics);
+        }
+        return respond(HttpStatus.OK, id, next);
+    }
+
+    @PostMapping(value = "/{id}/mode/{mode}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> mode(@PathVariable String id, @PathVariable String mode) {
+        CalculatorMode parsed = mode(mode);
+        if (parsed == null) {
+            return respond(HttpStatus.BAD_REQUEST, Json.error(new StringBuilder(), "Mode inconnu : " + mode));
+        }
+        return respond(HttpStatus.OK, id, sessions.update(id, state -> state.withMode(parsed)));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return sessions.remove(id) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    private static CalculatorMode mode(String name) {
+        try {
+            return CalculatorMode.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ResponseEntity<String> respond(HttpStatus status, String id, CalculatorState state) {
+        if (state == null) {
+            return respond(HttpStatus.NOT_FOUND, Json.error(new StringBuilder(), "Session inconnue ou expirée"));
+        }
+        return respond(status, Json.state(new StringBuilder(128), id, state));
+    }
+
+    private static ResponseEntity<String> respond(HttpStatus status, StringBuilder body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body.toString());
+    }
+}
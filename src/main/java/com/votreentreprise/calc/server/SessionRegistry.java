@@ -0,0 +1,149 @@
+package com.votreentreprise.calc.server;
+
+import com.votreentreprise.calc.session.CalculatorMode;
+import com.votreentreprise.calc.session.CalculatorState;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Calculatrices des utilisateurs du service, une par identifiant de session.
+ *
+ * <p>Sans verrou sur le chemin des touches : la table est un
+ * {@link ConcurrentHashMap} et chaque session un {@link AtomicReference} vers un
+ * {@link CalculatorState} immuable. Une requête calcule le nouvel état puis l'installe
+ * par CAS ; si une autre requête de la même session passe entre-temps, elle
+ * recommence depuis le nouvel état, ce qui est sans risque puisque les transitions
+ * sont pures.
+ *
+ * <p>Une session inactive depuis plus de {@code idleTimeoutNanos} est expirée : elle
+ * est retirée dès qu'on la demande, par un nettoyage périodique (toutes les
+ * demi-durées d'inactivité, sur un thread démon) et quand la table est pleine ; si
+ * elle l'est encore, la création est refusée.
+ */
+final class SessionRegistry implements AutoCloseable {
+
+    private static final class Session {
+        final AtomicReference<CalculatorState> state;
+        volatile long lastAccess;
+
+        Session(CalculatorState state, long now) {
+            this.state = new AtomicReference<>(state);
+            this.lastAccess = now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final long idleTimeoutNanos;
+    private final SecureRandom random = new SecureRandom();
+    // Un seul thread nettoie à la fois ; les autres ne l'attendent pas
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private final ScheduledExecutorService sweeper;
+
+    SessionRegistry(int maximumSize, long idleTimeoutNanos) {
+        if (maximumSize <= 0 || idleTimeoutNanos <= 0) {
+            throw new IllegalArgumentException("Les bornes des sessions doivent être positives");
+        }
+        this.maximumSize = maximumSize;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "sessions-nettoyage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutNanos / 2, TimeUnit.SECONDS.toNanos(1));
+        sweeper.scheduleAtFixedRate(() -> sweep(System.nanoTime()), period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Nouvelle session dans le mode demandé.
+     *
+     * @return l'identifiant, imprévisible (128 bits aléatoires)
+     * @throws IllegalStateException si la table est pleine de sessions actives
+     */
+    String create(CalculatorMode mode) {
+        long now = System.nanoTime();
+        if (sessions.size() >= maximumSize) {
+            sweep(now);
+            if (sessions.size() >= maximumSize) {
+                throw new IllegalStateException("Trop de sessions ouvertes");
+            }
+        }
+        Session session = new Session(CalculatorState.initial().withMode(mode), now);
+        String id;
+        do {
+            id = newId();
+        } while (sessions.putIfAbsent(id, session) != null);
+        return id;
+    }
+
+    /** État courant, {@code null} si la session n'existe pas ou a expiré. */
+    CalculatorState get(String id) {
+        Session session = touch(id);
+        return session == null ? null : session.state.get();
+    }
+
+    /**
+     * Applique la transition de façon atomique ; {@code null} si la session n'existe pas
+     * ou a expiré. La transition peut être appelée plusieurs fois ; le dernier appel
+     * est celui dont le résultat est installé.
+     */
+    CalculatorState update(String id, UnaryOperator<CalculatorState> transition) {
+        Session session = touch(id);
+        return session == null ? null : session.state.updateAndGet(transition);
+    }
+
+    boolean remove(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    /** Arrête le nettoyage périodique (appelé par Spring à l'arrêt). */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    // Session active marquée utilisée maintenant ; une session expirée est retirée
+    private Session touch(String id) {
+        Session session = sessions.get(id);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.lastAccess > idleTimeoutNanos) {
+            sessions.remove(id, session);
+            return null;
+        }
+        session.lastAccess = now;
+        return session;
+    }
+
+    private void sweep(long now) {
+        if (!sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            sessions.values().removeIf(s -> now - s.lastAccess > idleTimeoutNanos);
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private String newId() {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,51 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+
+/**
+ * Calculs réussis d'une touche, avec leurs opérandes typés, pour l'historique et le
+ * journal de l'interface ({@code CalculationHistory.add} a les mêmes surcharges), et
+ * durées des opérations pour les mesures ({@link CalculationMeasures}).
+ * Appelé pendant {@link CalculatorState#press(String, CalculationListener)}, sur le
+ * thread qui l'appelle ; par défaut, rien. Une transition rejouée (CAS d'une session
+ * perdu) le rappelle : l'appelant ne garde que les appels de l'état installé.
+ */
+public interface CalculationListener {
+
+    CalculationListener NONE = new CalculationListener() {
+    };
+
+    default void calculated(Operator op, double a, double b, double result) {
+    }
+
+    default void calculated(UnaryFunction f, double value, double result) {
+    }
+
+    /** Mode programmeur, sur {@code width} bits. */
+    default void calculated(Operator op, long a, long b, long result, int width) {
+    }
+
+    /** Mode programmeur, sur {@code width} bits. */
+    default void calculated(UnaryFunction f, long value, long result, int width) {
+    }
+
+    default void calculated(Operator op, ExactDecimal a, ExactDecimal b, ExactDecimal result) {
+    }
+
+    default void calculated(UnaryFunction f, ExactDecimal value, ExactDecimal result) {
+    }
+
+    /** Durée d'une opération, réussie ou non ; {@code error} est {@code null} si elle a réussi. */
+    default void measured(Operator op, CalculationError error, long nanos) {
+    }
+
+    default void measured(UnaryFunction f, CalculationError error, long nanos) {
+    }
+
+    /** Touche refusée hors de toute opération (saisie illisible...). */
+    default void failed(CalculationError error) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Mesures des touches gardées jusqu'à ce que leur état soit installé, puis
+ * enregistrées par {@link #recordTo}. Une session remet la liste à zéro au début de
+ * chaque essai de sa transition ({@link #clear}) : un CAS perdu ne compte rien.
+ *
+ * <p>Non thread-safe : une instance par requête ou par touche.
+ */
+public final class CalculationMeasures implements CalculationListener {
+
+    private final List<Consumer<CalculationMetrics>> measures = new ArrayList<>(2);
+
+    @Override
+    public void measured(Operator op, CalculationError error, long nanos) {
+        measures.add(m -> m.recordLatency(op, error, nanos));
+    }
+
+    @Override
+    public void measured(UnaryFunction f, CalculationError error, long nanos) {
+        measures.add(m -> m.recordLatency(f, error, nanos));
+    }
+
+    @Override
+    public void failed(CalculationError error) {
+        measures.add(m -> m.recordError(error));
+    }
+
+    public void clear() {
+        measures.clear();
+    }
+
+    /** Nombre de mesures en attente. */
+    public int size() {
+        return measures.size();
+    }
+
+    /** Enregistre les mesures en attente dans {@code metrics} et les oublie. */
+    public void recordTo(CalculationMetrics metrics) {
+        for (Consumer<CalculationMetrics> measure : measures) {
+            measure.accept(metrics);
+        }
+        measures.clear();
+    }
+}
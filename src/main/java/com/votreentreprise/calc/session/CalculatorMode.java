@@ -0,0 +1,13 @@
+package com.votreentreprise.calc.session;
+
+/** Modes de la calculatrice : ils décident de l'arithmétique utilisée par les touches. */
+public enum CalculatorMode {
+    STANDARD,
+    SCIENTIFIC,
+    /** Entiers sur la largeur de mot choisie, affichés dans la base choisie. */
+    PROGRAMMER,
+    /** Décimaux exacts ({@link com.votreentreprise.calc.decimal.DecimalEngine}). */
+    PRECISION,
+    /** Série de valeurs (Σ+) et ses statistiques ({@link com.votreentreprise.calc.stats.StreamingStatistics}). */
+    STATISTICS
+}
@@ -0,0 +1,221 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.decimal.DecimalEngine;
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.ProgrammerEngine;
+import com.votreentreprise.calc.format.RadixFormat;
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.history.CalculationHistory;
+import com.votreentreprise.calc.history.DisplayState;
+import com.votreentreprise.calc.stats.StreamingStatistics;
+
+/**
+ * État immuable d'une calculatrice : l'affichage, la ligne d'historique et
+ * l'opération en attente.
+ *
+ * <p>Chaque touche est une transition pure ({@link #press(String)}) qui renvoie un
+ * nouvel état. C'est la seule logique des touches : {@code CalculatorApp} garde un
+ * état et l'affiche, les sessions du service aussi. Un état peut donc être partagé
+ * entre threads sans synchronisation, calculé hors de l'EDT, et une session se
+ * reconstruit en rejouant ses touches depuis {@link #initial()}.
+ */
+public final class CalculatorState {
+
+    // Mode précision : nombre de chiffres des opérations inexactes (-Dcalculatrice.precision=N)
+    static final DecimalEngine DECIMAL =
+            DecimalEngine.withPrecision(Integer.getInteger("calculatrice.precision", 34));
+
+    private static final CalculatorState INITIAL = initial(CalculatorMode.STANDARD);
+
+    final CalculatorMode mode;
+    final String display;
+    final String history;
+    final String operator;
+    final double firstOperand;
+    final ExactDecimal exactOperand;
+    final long programmerOperand;
+    final ProgrammerEngine programmer;
+    final int radix;
+    final boolean startNewNumber;
+    // Série du mode statistiques ; jamais modifiée une fois dans un état (Σ+ modifie
+    // une copie, fusionnée par flush() avant d'être installée : les lectures ne
+    // l'écrivent pas)
+    final StreamingStatistics statistics;
+
+    CalculatorState(CalculatorMode mode, String display, String history, String operator,
+                    double firstOperand, ExactDecimal exactOperand, long programmerOperand,
+                    ProgrammerEngine programmer, int radix, boolean startNewNumber,
+                    StreamingStatistics statistics) {
+        this.mode = mode;
+        this.display = display;
+        this.history = history;
+        this.operator = operator;
+        this.firstOperand = firstOperand;
+        this.exactOperand = exactOperand;
+        this.programmerOperand = programmerOperand;
+        this.programmer = programmer;
+        this.radix = radix;
+        this.startNewNumber = startNewNumber;
+        this.statistics = statistics;
+    }
+
+    /** Calculatrice standard remise à zéro. */
+    public static CalculatorState initial() {
+        return INITIAL;
+    }
+
+    public static CalculatorState initial(CalculatorMode mode) {
+        return new CalculatorState(mode, "0", " ", "", 0, ExactDecimal.ZERO, 0,
+                ProgrammerEngine.QWORD, 10, true, new StreamingStatistics());
+    }
+
+    /**
+     * État après la touche {@code key} (texte du bouton : {@code "7"}, {@code "×"},
+     * {@code "sin"}, {@code "HEX"}...). Une touche inconnue affiche {@code Erreur}
+     * depuis l'état courant ; seuls les chiffres et le point (de 0 à F dans la base
+     * courante en mode programmeur) s'ajoutent à l'affichage, et un nombre tapé est
+     * limité à {@value KeyTransitions#MAX_INPUT_LENGTH} caractères.
+     */
+    public CalculatorState press(String key) {
+        return KeyTransitions.apply(this, key, CalculationListener.NONE);
+    }
+
+    /** Comme {@link #press(String)}, en signalant à {@code listener} les calculs faits. */
+    public CalculatorState press(String key, CalculationListener listener) {
+        return KeyTransitions.apply(this, key, listener);
+    }
+
+    /** État après toutes les touches, dans l'ordre. */
+    public CalculatorState pressAll(Iterable<String> keys) {
+        CalculatorState state = this;
+        for (String key : keys) {
+            state = KeyTransitions.apply(state, key, CalculationListener.NONE);
+        }
+        return state;
+    }
+
+    /**
+     * Changement de mode : remet le calcul à zéro, garde la base, la largeur de mot et
+     * la série du mode statistiques.
+     */
+    public CalculatorState withMode(CalculatorMode newMode) {
+        return new CalculatorState(newMode, "0", " ", "", 0, ExactDecimal.ZERO, 0,
+                programmer, radix, true, statistics);
+    }
+
+    /**
+     * Affiche {@code message} sans opération en attente : calcul abandonné
+     * ({@link #press} lancé hors de l'EDT), fichier illisible...
+     */
+    public CalculatorState withError(String message) {
+        return new CalculatorState(mode, message, " ", "", firstOperand, exactOperand, programmerOperand,
+                programmer, radix, true, statistics);
+    }
+
+    /**
+     * Mode statistiques : ajoute à la série les valeurs résumées par {@code part}
+     * (fichier, presse-papiers), qui n'est pas modifié, et affiche le nouvel effectif.
+     */
+    public CalculatorState merge(StreamingStatistics part, String line) {
+        StreamingStatistics data = new StreamingStatistics(statistics);
+        data.merge(part);
+        data.flush();
+        return new CalculatorState(mode, ResultFormatter.format(data.count()), line, operator, firstOperand,
+                exactOperand, programmerOperand, programmer, radix, true, data);
+    }
+
+    public CalculatorMode mode() {
+        return mode;
+    }
+
+    /** Texte affiché. */
+    public String display() {
+        return display;
+    }
+
+    /** Ligne au-dessus de l'affichage : dernier calcul ou opération en attente. */
+    public String history() {
+        return history;
+    }
+
+    /** Opérateur en attente, vide s'il n'y en a pas. */
+    public String operator() {
+        return operator;
+    }
+
+    /** Nombre de valeurs de la série du mode statistiques. */
+    public long dataCount() {
+        return statistics.count();
+    }
+
+    public int radix() {
+        return radix;
+    }
+
+    public int width() {
+        return programmer.width();
+    }
+
+    public boolean startNewNumber() {
+        return startNewNumber;
+    }
+
+    /** Forme sauvegardée par {@link com.votreentreprise.calc.history.HistoryJournal}. */
+    public DisplayState toDisplayState() {
+        String operand = switch (mode) {
+            case PROGRAMMER -> Long.toString(programmerOperand);
+            case PRECISION -> exactOperand.toPlainString();
+            default -> Double.toString(firstOperand);
+        };
+        return new DisplayState(mode.name(), display, operator, operand, radix, programmer.width(), startNewNumber);
+    }
+
+    /**
+     * État sauvegardé par {@link #toDisplayState()}, {@code null} si son mode est
+     * inconnu. Sans opération en attente, la ligne d'historique est le dernier calcul
+     * de {@code history}. La série du mode statistiques n'est pas sauvegardée.
+     */
+    public static CalculatorState restore(DisplayState saved, CalculationHistory history) {
+        CalculatorMode mode;
+        try {
+            mode = CalculatorMode.valueOf(saved.mode());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int radix = saved.radix() == 2 || saved.radix() == 8 || saved.radix() == 16 ? saved.radix() : 10;
+        ProgrammerEngine programmer = saved.width() >= 1 && saved.width() <= 64
+                ? ProgrammerEngine.ofWidth(saved.width()) : ProgrammerEngine.QWORD;
+        double firstOperand = 0;
+        ExactDecimal exactOperand = ExactDecimal.ZERO;
+        long programmerOperand = 0;
+        String operand;
+        try {
+            switch (mode) {
+                case PROGRAMMER -> {
+                    programmerOperand = Long.parseLong(saved.operand());
+                    operand = RadixFormat.format(programmerOperand, radix, programmer.width());
+                }
+                case PRECISION -> {
+                    exactOperand = ExactDecimal.parse(saved.operand());
+                    operand = exactOperand.toPlainString();
+                }
+                default -> {
+                    firstOperand = Double.parseDouble(saved.operand());
+                    operand = ResultFormatter.format(firstOperand);
+                }
+            }
+        } catch (NumberFormatException e) {
+            return new CalculatorState(mode, "0", " ", "", 0, ExactDecimal.ZERO, 0, programmer, radix, true,
+                    INITIAL.statistics);
+        }
+        String line = !saved.operator().isEmpty() ? operand + " " + saved.operator() + " "
+                : history.isEmpty() ? " " : history.render(history.lastSequence(), radix);
+        return new CalculatorState(mode, saved.display(), line, saved.operator(), firstOperand, exactOperand,
+                programmerOperand, programmer, radix, saved.startNewNumber(), INITIAL.statistics);
+    }
+
+    @Override
+    public String toString() {
+        return mode + "[" + display + ", " + history.trim() + "]";
+    }
+}
@@ -0,0 +1,243 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.history.CalculationHistory;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Rejeu de journaux de touches sur {@link CalculatorState}, sans Swing, pour les tests
+ * de non-régression et les mesures de débit.
+ *
+ * <p>Chaque séquence part d'une calculatrice remise à zéro ; le résultat attendu
+ * (fichier « golden ») a une ligne par séquence, en champs séparés par des
+ * tabulations : le texte affiché, la ligne d'historique affichée, puis tout
+ * l'historique des calculs de la séquence ({@link CalculationHistory#render}), du plus
+ * ancien au plus récent.
+ *
+ * <pre>
+ * java -cp app.jar com.votreentreprise.calc.session.KeyReplay sequences.txt sequences.golden
+ * java -cp app.jar com.votreentreprise.calc.session.KeyReplay -t 8 -r 100 sequences.txt sequences.golden
+ * java -cp app.jar com.votreentreprise.calc.session.KeyReplay --ecrire sequences.txt sequences.golden
+ * </pre>
+ *
+ * <p>{@code -t N} rejoue sur {@code N} threads, {@code -r N} répète le journal
+ * {@code N} fois pour mesurer le débit, {@code --ecrire} régénère le fichier attendu.
+ * Le code de sortie est 1 si une séquence diffère.
+ */
+public final class KeyReplay implements AutoCloseable {
+
+    /** Nombre de séquences en dessous duquel on ne découpe plus. */
+    static final int THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+
+    public KeyReplay(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /** Lignes du fichier attendu ({@link #golden}), dans l'ordre des séquences. */
+    public String[] replay(List<KeySequence> sequences) {
+        KeySequence[] input = sequences.toArray(new KeySequence[0]);
+        String[] output = new String[input.length];
+        pool.invoke(new Chunk(input, output, 0, input.length));
+        return output;
+    }
+
+    /** Rejoue la séquence et renvoie sa ligne du fichier attendu. */
+    public static String golden(KeySequence sequence) {
+        return golden(sequence, new CalculationHistory(Math.max(1, sequence.length())));
+    }
+
+    // history est vidé puis reçoit les calculs de la séquence : une touche en fait un au plus
+    private static String golden(KeySequence sequence, CalculationHistory history) {
+        history.clear();
+        Recorder recorder = new Recorder(history);
+        CalculatorState state = CalculatorState.initial(sequence.mode());
+        for (int i = 0; i < sequence.length(); i++) {
+            state = KeyTransitions.apply(state, sequence.key(i), recorder);
+        }
+        StringBuilder line = new StringBuilder(state.display()).append('\t').append(state.history().trim());
+        for (long s = history.firstSequence(); s <= history.lastSequence(); s++) {
+            line.append('\t').append(history.render(s, state.radix()));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Compare les lignes obtenues aux lignes attendues.
+     *
+     * @return les indices des séquences qui diffèrent (ou qui n'ont pas de ligne attendue)
+     */
+    public static List<Integer> mismatches(String[] lines, List<String> expected) {
+        List<Integer> mismatches = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            if (i >= expected.size() || !lines[i].equals(expected.get(i))) {
+                mismatches.add(i);
+            }
+        }
+        return mismatches;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private final KeySequence[] input;
+        private final String[] output;
+        private final int from;
+        private final int to;
+
+        Chunk(KeySequence[] input, String[] output, int from, int to) {
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                CalculationHistory history = new CalculationHistory(64);
+                for (int i = from; i < to; i++) {
+                    if (input[i].length() > history.capacity()) {
+                        history = new CalculationHistory(input[i].length());
+                    }
+                    output[i] = golden(input[i], history);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunk(input, output, from, mid), new Chunk(input, output, mid, to));
+        }
+    }
+
+    /** Calculs d'une séquence, ajoutés à l'historique comme dans l'interface. */
+    private static final class Recorder implements CalculationListener {
+        private final CalculationHistory history;
+
+        Recorder(CalculationHistory history) {
+            this.history = history;
+        }
+
+        @Override
+        public void calculated(Operator op, double a, double b, double result) {
+            history.add(op, a, b, result);
+        }
+
+        @Override
+        public void calculated(UnaryFunction f, double value, double result) {
+            history.add(f, value, result);
+        }
+
+        @Override
+        public void calculated(Operator op, long a, long b, long result, int width) {
+            history.add(op, a, b, result, width);
+        }
+
+        @Override
+        public void calculated(UnaryFunction f, long value, long result, int width) {
+            history.add(f, value, result, width);
+        }
+
+        @Override
+        public void calculated(Operator op, ExactDecimal a, ExactDecimal b, ExactDecimal result) {
+            history.add(op, a, b, result);
+        }
+
+        @Override
+        public void calculated(UnaryFunction f, ExactDecimal value, ExactDecimal result) {
+            history.add(f, value, result);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int repeat = 1;
+        boolean write = false;
+        int i = 0;
+        for (; i < args.length && args[i].startsWith("-"); i++) {
+            switch (args[i]) {
+                case "-t" -> threads = Integer.parseInt(args[++i]);
+                case "-r" -> repeat = Integer.parseInt(args[++i]);
+                case "--ecrire" -> write = true;
+                default -> usage();
+            }
+        }
+        if (args.length - i != 2 || threads < 1 || repeat < 1) {
+            usage();
+        }
+        Path sequencesFile = Path.of(args[i]);
+        Path goldenFile = Path.of(args[i + 1]);
+
+        List<KeySequence> log = KeySequence.parseAll(Files.readAllLines(sequencesFile, StandardCharsets.UTF_8));
+        List<KeySequence> sequences = new ArrayList<>(log.size() * repeat);
+        for (int r = 0; r < repeat; r++) {
+            sequences.addAll(log);
+        }
+        long keys = 0;
+        for (KeySequence s : log) {
+            keys += s.length();
+        }
+        keys *= repeat;
+
+        String[] lines;
+        long elapsed;
+        try (KeyReplay replay = new KeyReplay(threads)) {
+            replay.replay(sequences); // Chauffe
+            long start = System.nanoTime();
+            lines = replay.replay(sequences);
+            elapsed = System.nanoTime() - start;
+        }
+        System.err.printf("%d séquences (%d touches) en %.1f ms sur %d threads : %.2f M séquences/s%n",
+                lines.length, keys, elapsed / 1e6, threads, lines.length * 1e3 / elapsed);
+
+        if (write) {
+            List<String> golden = List.of(lines).subList(0, log.size());
+            Files.write(goldenFile, golden, StandardCharsets.UTF_8);
+            System.err.println(golden.size() + " lignes écrites dans " + goldenFile);
+            return;
+        }
+
+        List<String> expected = Files.readAllLines(goldenFile, StandardCharsets.UTF_8);
+        List<String> repeated = new ArrayList<>(expected.size() * repeat);
+        for (int r = 0; r < repeat; r++) {
+            repeated.addAll(expected);
+        }
+        List<Integer> mismatches = mismatches(lines, repeated);
+        for (int m : mismatches) {
+            if (m >= log.size()) {
+                break; // Les répétitions donnent les mêmes écarts
+            }
+            System.out.println("Séquence " + (m + 1) + " : " + log.get(m));
+            System.out.println("  attendu : " + (m < expected.size() ? expected.get(m) : "(rien)"));
+            System.out.println("  obtenu  : " + lines[m]);
+        }
+        if (!mismatches.isEmpty() || expected.size() != log.size()) {
+            System.err.println("Différences : " + mismatches.size() / repeat + " séquence(s)"
+                    + (expected.size() != log.size() ? ", " + expected.size() + " lignes attendues pour "
+                    + log.size() + " séquences" : ""));
+            System.exit(1);
+        }
+        System.err.println("Toutes les séquences sont conformes");
+    }
+
+    private static void usage() {
+        System.err.println("Usage : KeyReplay [-t threads] [-r répétitions] [--ecrire] sequences.txt attendu.golden");
+        System.exit(2);
+    }
+}
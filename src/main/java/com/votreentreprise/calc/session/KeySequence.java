@@ -0,0 +1,96 @@
+package com.votreentreprise.calc.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Séquence de touches enregistrée, à rejouer depuis une calculatrice remise à zéro.
+ *
+ * <p>Forme texte : les touches séparées par des espaces, précédées du mode si ce
+ * n'est pas le mode standard ({@code @PROGRAMMER HEX F F AND 0 F =}). Les touches
+ * sont celles de {@link CalculatorState#press(String)}.
+ */
+public final class KeySequence {
+
+    private final CalculatorMode mode;
+    private final String[] keys;
+
+    public KeySequence(CalculatorMode mode, String... keys) {
+        this.mode = mode;
+        this.keys = keys.clone();
+    }
+
+    /**
+     * Lit une ligne d'un journal de touches.
+     *
+     * @throws IllegalArgumentException si le mode est inconnu
+     */
+    public static KeySequence parse(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        CalculatorMode mode = CalculatorMode.STANDARD;
+        int first = 0;
+        if (tokens.length > 0 && tokens[0].startsWith("@")) {
+            mode = CalculatorMode.valueOf(tokens[0].substring(1));
+            first = 1;
+        }
+        String[] keys = new String[tokens.length - first];
+        for (int i = 0; i < keys.length; i++) {
+            // Partagées entre séquences : le switch des touches compare des chaînes déjà hachées
+            keys[i] = tokens[first + i].intern();
+        }
+        if (keys.length == 1 && keys[0].isEmpty()) {
+            keys = new String[0];
+        }
+        return new KeySequence(mode, keys);
+    }
+
+    /** Lignes d'un journal ; les lignes vides et celles qui commencent par {@code #} sont ignorées. */
+    public static List<KeySequence> parseAll(List<String> lines) {
+        List<KeySequence> sequences = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                sequences.add(parse(trimmed));
+            }
+        }
+        return sequences;
+    }
+
+    public CalculatorMode mode() {
+        return mode;
+    }
+
+    public int length() {
+        return keys.length;
+    }
+
+    public String key(int index) {
+        return keys[index];
+    }
+
+    /** État final après toutes les touches. */
+    public CalculatorState replay() {
+        CalculatorState state = CalculatorState.initial(mode);
+        for (String key : keys) {
+            state = KeyTransitions.apply(state, key, CalculationListener.NONE);
+        }
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.join(" ", keys);
+        return mode == CalculatorMode.STANDARD ? text : "@" + mode + " " + text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KeySequence other && mode == other.mode && Arrays.equals(keys, other.keys);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mode.hashCode() + Arrays.hashCode(keys);
+    }
+}
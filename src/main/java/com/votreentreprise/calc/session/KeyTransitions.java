@@ -0,0 +1,330 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.ProgrammerEngine;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.format.RadixFormat;
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.stats.StreamingStatistics;
+
+/**
+ * Transitions de {@link CalculatorState}, une méthode par touche ou famille de
+ * touches. Les lignes d'historique sont celles de
+ * {@code CalculationHistory.render} (hors modes programmeur et précision, opérandes en
+ * {@code Double.toString} comme dans la calculatrice d'origine : {@code 7.0 × 8.0 = 56}) ; chaque calcul réussi est aussi signalé au
+ * {@link CalculationListener}, avec la durée des opérations. Rien n'est mesuré ici :
+ * une transition peut être rejouée, seul l'appelant sait laquelle a été installée.
+ */
+final class KeyTransitions {
+
+    /** Longueur maximale d'un nombre tapé ; les chiffres suivants sont ignorés. */
+    static final int MAX_INPUT_LENGTH = 64;
+
+    private KeyTransitions() {
+    }
+
+    static CalculatorState apply(CalculatorState s, String key, CalculationListener listener) {
+        try {
+            return switch (key) {
+                case "C" -> s.mode == CalculatorMode.PROGRAMMER ? number(s, "C") : clear(s);
+                case "AC" -> clear(s);
+                case "⌫" -> backspace(s);
+                case "=" -> calculate(s, listener);
+                case "±" -> toggleSign(s);
+                case "√" -> s.mode == CalculatorMode.PRECISION
+                        ? exact(s, UnaryFunction.SQRT, listener) : unary(s, UnaryFunction.SQRT, listener);
+                case "x²" -> s.mode == CalculatorMode.PRECISION
+                        ? exact(s, UnaryFunction.SQUARE, listener) : unary(s, UnaryFunction.SQUARE, listener);
+                case "xʸ" -> operator(s, "^", listener);
+                case "sin" -> unary(s, UnaryFunction.SIN, listener);
+                case "cos" -> unary(s, UnaryFunction.COS, listener);
+                case "tan" -> unary(s, UnaryFunction.TAN, listener);
+                case "log" -> unary(s, UnaryFunction.LOG, listener);
+                case "ln" -> unary(s, UnaryFunction.LN, listener);
+                case "f(x)" -> s; // Ouvre une fenêtre, l'état de la calculatrice ne change pas
+                case "AND", "OR", "XOR", "<<", ">>", ">>>", "ROL", "ROR",
+                        "%", "÷", "×", "-", "+" -> operator(s, key, listener);
+                case "NOT" -> programmerUnary(s, UnaryFunction.NOT, s.programmer.not(programmerValue(s)), listener);
+                case "POP" -> programmerUnary(s, UnaryFunction.POPCOUNT,
+                        s.programmer.popCount(programmerValue(s)), listener);
+                case "HEX" -> radix(s, 16);
+                case "DEC" -> radix(s, 10);
+                case "OCT" -> radix(s, 8);
+                case "BIN" -> radix(s, 2);
+                case "BITS" -> nextWordSize(s);
+                // Statistiques, refusées dans les autres modes ; Coller et Ouvrir ouvrent
+                // une fenêtre, la série lue est ajoutée par CalculatorState.merge
+                case "Σ+" -> s.mode == CalculatorMode.STATISTICS ? addData(s) : error(s, "Erreur");
+                case "ΣC" -> s.mode == CalculatorMode.STATISTICS ? clearData(s) : error(s, "Erreur");
+                case "Coller", "Ouvrir" -> s.mode == CalculatorMode.STATISTICS ? s : error(s, "Erreur");
+                case "n", "Σx", "x̄", "s", "σ", "min", "max", "Méd", "P%" ->
+                        s.mode == CalculatorMode.STATISTICS ? statistic(s, key) : error(s, "Erreur");
+                default -> isNumberKey(s, key) ? number(s, key) : error(s, "Erreur");
+            };
+        } catch (RuntimeException e) {
+            listener.failed(CalculationError.GENERIC);
+            return error(s, "Erreur");
+        }
+    }
+
+    // Chiffre décimal ou point ; en mode programmeur, chiffre de 0 à F (ceux hors de la
+    // base sont ensuite refusés par number)
+    private static boolean isNumberKey(CalculatorState s, String key) {
+        if (key.length() != 1) {
+            return false;
+        }
+        char c = key.charAt(0);
+        if (s.mode == CalculatorMode.PROGRAMMER) {
+            return c >= '0' && c <= '9' || c >= 'A' && c <= 'F';
+        }
+        return c >= '0' && c <= '9' || c == '.';
+    }
+
+    private static CalculatorState number(CalculatorState s, String digit) {
+        if (!s.startNewNumber && s.display.length() >= MAX_INPUT_LENGTH) {
+            return s;
+        }
+        if (s.mode == CalculatorMode.PROGRAMMER) {
+            // Chiffre refusé s'il n'existe pas dans la base ou si le nombre dépasserait le mot
+            String text = s.startNewNumber ? digit : s.display + digit;
+            try {
+                RadixFormat.parse(text, s.radix, s.programmer.width());
+            } catch (NumberFormatException e) {
+                return s;
+            }
+            return display(s, text, false);
+        }
+        if (s.startNewNumber) {
+            return display(s, digit.equals(".") ? "0." : digit, false);
+        }
+        if (digit.equals(".") && s.display.contains(".")) {
+            return s;
+        }
+        return display(s, s.display + digit, false);
+    }
+
+    private static CalculatorState operator(CalculatorState s, String op, CalculationListener listener) {
+        if (!s.operator.isEmpty() && !s.startNewNumber) {
+            s = calculate(s, listener);
+        }
+        return switch (s.mode) {
+            case PROGRAMMER -> {
+                long operand = programmerValue(s);
+                yield new CalculatorState(s.mode, s.display, format(s, operand) + " " + op + " ", op,
+                        s.firstOperand, s.exactOperand, operand, s.programmer, s.radix, true, s.statistics);
+            }
+            case PRECISION -> {
+                ExactDecimal operand = ExactDecimal.parse(s.display);
+                yield new CalculatorState(s.mode, s.display, operand + " " + op + " ", op,
+                        s.firstOperand, operand, s.programmerOperand, s.programmer, s.radix, true, s.statistics);
+            }
+            default -> {
+                double operand = Double.parseDouble(s.display);
+                yield new CalculatorState(s.mode, s.display, operand + " " + op + " ", op,
+                        operand, s.exactOperand, s.programmerOperand, s.programmer, s.radix, true, s.statistics);
+            }
+        };
+    }
+
+    private static CalculatorState calculate(CalculatorState s, CalculationListener listener) {
+        if (s.operator.isEmpty()) {
+            return s;
+        }
+        Operator op = Operator.fromSymbol(s.operator);
+        String a;
+        String b;
+        String result;
+        long start = System.nanoTime();
+        try {
+            switch (s.mode) {
+                case PROGRAMMER -> {
+                    long second = programmerValue(s);
+                    long value = s.programmer.apply(op, s.programmerOperand, second);
+                    a = format(s, s.programmerOperand);
+                    b = format(s, second);
+                    result = format(s, value);
+                    listener.calculated(op, s.programmerOperand, second, value, s.programmer.width());
+                }
+                case PRECISION -> {
+                    ExactDecimal second = ExactDecimal.parse(s.display);
+                    ExactDecimal value = CalculatorState.DECIMAL.apply(op, s.exactOperand, second);
+                    a = s.exactOperand.toPlainString();
+                    b = second.toPlainString();
+                    result = value.toPlainString();
+                    listener.calculated(op, s.exactOperand, second, value);
+                }
+                default -> {
+                    double second = Double.parseDouble(s.display);
+                    double value = op.apply(s.firstOperand, second);
+                    a = Double.toString(s.firstOperand);
+                    b = Double.toString(second);
+                    result = ResultFormatter.format(value);
+                    listener.calculated(op, s.firstOperand, second, value);
+                }
+            }
+        } catch (CalculationException e) {
+            listener.measured(op, e.error(), System.nanoTime() - start);
+            return new CalculatorState(s.mode, e.getMessage(), s.history, "", s.firstOperand,
+                    s.exactOperand, s.programmerOperand, s.programmer, s.radix, true, s.statistics);
+        }
+        listener.measured(op, null, System.nanoTime() - start);
+        String line = a + " " + op.symbol() + " " + b + " = " + result;
+        return new CalculatorState(s.mode, result, line, "", s.firstOperand, s.exactOperand,
+                s.programmerOperand, s.programmer, s.radix, true, s.statistics);
+    }
+
+    // Fonctions sur double : sin, cos, tan, log, ln, et √ x² hors mode précision
+    private static CalculatorState unary(CalculatorState s, UnaryFunction f, CalculationListener listener) {
+        double value = Double.parseDouble(s.display);
+        double result;
+        long start = System.nanoTime();
+        try {
+            result = f.apply(value);
+        } catch (CalculationException e) {
+            listener.measured(f, e.error(), System.nanoTime() - start);
+            return error(s, e.getMessage());
+        }
+        listener.measured(f, null, System.nanoTime() - start);
+        listener.calculated(f, value, result);
+        return result(s, ResultFormatter.format(result), line(f, Double.toString(value), ResultFormatter.format(result)));
+    }
+
+    private static CalculatorState exact(CalculatorState s, UnaryFunction f, CalculationListener listener) {
+        ExactDecimal value = ExactDecimal.parse(s.display);
+        ExactDecimal result;
+        long start = System.nanoTime();
+        try {
+            result = CalculatorState.DECIMAL.apply(f, value);
+        } catch (CalculationException e) {
+            listener.measured(f, e.error(), System.nanoTime() - start);
+            return error(s, e.getMessage());
+        }
+        listener.measured(f, null, System.nanoTime() - start);
+        listener.calculated(f, value, result);
+        String text = result.toPlainString();
+        return result(s, text, line(f, value.toPlainString(), text));
+    }
+
+    private static CalculatorState programmerUnary(CalculatorState s, UnaryFunction f, long result,
+                                                   CalculationListener listener) {
+        long value = programmerValue(s);
+        listener.calculated(f, value, result, s.programmer.width());
+        String text = format(s, result);
+        return result(s, text, line(f, format(s, value), text));
+    }
+
+    private static String line(UnaryFunction f, String a, String result) {
+        return switch (f) {
+            case SQRT -> "√" + a + " = " + result;
+            case SQUARE -> a + "² = " + result;
+            case NOT -> "~" + a + " = " + result;
+            case NEGATE -> "-(" + a + ") = " + result;
+            case POPCOUNT -> "POP(" + a + ") = " + result;
+            default -> f.symbol() + "(" + a + ") = " + result;
+        };
+    }
+
+    // La valeur affichée rejoint une copie de la série
+    private static CalculatorState addData(CalculatorState s) {
+        double value = Double.parseDouble(s.display);
+        StreamingStatistics data = new StreamingStatistics(s.statistics);
+        data.add(value);
+        data.flush();
+        return new CalculatorState(s.mode, s.display, "Σ+ " + ResultFormatter.format(value), s.operator,
+                s.firstOperand, s.exactOperand, s.programmerOperand, s.programmer, s.radix, true, data);
+    }
+
+    private static CalculatorState clearData(CalculatorState s) {
+        return new CalculatorState(s.mode, s.display, "Série effacée", s.operator, s.firstOperand,
+                s.exactOperand, s.programmerOperand, s.programmer, s.radix, true, new StreamingStatistics());
+    }
+
+    // P% : quantile approché de rang p % de la valeur affichée
+    private static CalculatorState statistic(CalculatorState s, String key) {
+        StreamingStatistics data = s.statistics;
+        if (data.count() == 0) {
+            return error(s, "Aucune donnée");
+        }
+        double value = switch (key) {
+            case "n" -> data.count();
+            case "Σx" -> data.sum();
+            case "x̄" -> data.mean();
+            case "s" -> data.standardDeviation();
+            case "σ" -> data.populationStandardDeviation();
+            case "min" -> data.min();
+            case "max" -> data.max();
+            case "Méd" -> data.median();
+            default -> {
+                double p = Double.parseDouble(s.display);
+                yield p >= 0 && p <= 100 ? data.quantile(p / 100) : Double.NaN;
+            }
+        };
+        if (Double.isNaN(value)) {
+            return error(s, key.equals("P%") ? "Erreur: 0 ≤ p ≤ 100" : "Pas assez de données");
+        }
+        String label = key.equals("P%") ? "P" + s.display : key;
+        return result(s, ResultFormatter.format(value), label + " (n = " + data.count() + ")");
+    }
+
+    private static CalculatorState clear(CalculatorState s) {
+        return new CalculatorState(s.mode, "0", " ", "", 0, ExactDecimal.ZERO, 0,
+                s.programmer, s.radix, true, s.statistics);
+    }
+
+    private static CalculatorState backspace(CalculatorState s) {
+        if (s.display.length() > 1) {
+            return display(s, s.display.substring(0, s.display.length() - 1), s.startNewNumber);
+        }
+        return display(s, "0", true);
+    }
+
+    private static CalculatorState toggleSign(CalculatorState s) {
+        String text = switch (s.mode) {
+            case PROGRAMMER -> format(s, s.programmer.negate(programmerValue(s)));
+            case PRECISION -> ExactDecimal.parse(s.display).negate().toPlainString();
+            default -> ResultFormatter.format(-Double.parseDouble(s.display));
+        };
+        return display(s, text, s.startNewNumber);
+    }
+
+    private static CalculatorState radix(CalculatorState s, int radix) {
+        long value = programmerValue(s);
+        return new CalculatorState(s.mode, RadixFormat.format(value, radix, s.programmer.width()), s.history,
+                s.operator, s.firstOperand, s.exactOperand, s.programmerOperand, s.programmer, radix,
+                s.startNewNumber, s.statistics);
+    }
+
+    // 64 → 32 → 16 → 8 → 64 bits ; la valeur affichée est tronquée au nouveau mot
+    private static CalculatorState nextWordSize(CalculatorState s) {
+        long value = programmerValue(s);
+        ProgrammerEngine next = ProgrammerEngine.ofWidth(s.programmer.width() == 8 ? 64 : s.programmer.width() / 2);
+        return new CalculatorState(s.mode, RadixFormat.format(next.wrap(value), s.radix, next.width()), s.history,
+                s.operator, s.firstOperand, s.exactOperand, next.wrap(s.programmerOperand), next, s.radix,
+                s.startNewNumber, s.statistics);
+    }
+
+    private static long programmerValue(CalculatorState s) {
+        return RadixFormat.parse(s.display, s.radix, s.programmer.width());
+    }
+
+    private static String format(CalculatorState s, long value) {
+        return RadixFormat.format(value, s.radix, s.programmer.width());
+    }
+
+    private static CalculatorState display(CalculatorState s, String text, boolean startNewNumber) {
+        return new CalculatorState(s.mode, text, s.history, s.operator, s.firstOperand, s.exactOperand,
+                s.programmerOperand, s.programmer, s.radix, startNewNumber, s.statistics);
+    }
+
+    private static CalculatorState result(CalculatorState s, String text, String line) {
+        return new CalculatorState(s.mode, text, line, s.operator, s.firstOperand, s.exactOperand,
+                s.programmerOperand, s.programmer, s.radix, true, s.statistics);
+    }
+
+    private static CalculatorState error(CalculatorState s, String message) {
+        return display(s, message, true);
+    }
+}
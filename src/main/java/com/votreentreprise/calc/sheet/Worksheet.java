@@ -0,0 +1,435 @@
+package com.votreentreprise.calc.sheet;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.CompiledExpression;
+import com.votreentreprise.calc.engine.ExpressionCompiler;
+import com.votreentreprise.calc.engine.ExpressionSyntaxException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Feuille de calcul : des cellules nommées contiennent une valeur ou une expression
+ * ({@link ExpressionCompiler}, mêmes opérateurs que la calculatrice) dont les
+ * variables sont d'autres cellules.
+ *
+ * <pre>{@code
+ * Worksheet sheet = new Worksheet();
+ * sheet.set("prix", 120);
+ * sheet.set("tva", "prix × 0.2");
+ * sheet.set("ttc", "prix + tva");
+ * sheet.value("ttc");   // 144
+ * sheet.set("prix", 80);
+ * sheet.value("ttc");   // 96 : seules tva et ttc sont recalculées
+ * }</pre>
+ *
+ * <p>Les dépendances forment un graphe sans cycle : une formule qui en créerait un
+ * est refusée. Une modification marque la cellule ; {@link #recalculate()} (appelé
+ * aussi par {@link #value(String)}) ne recalcule que les cellules qui en dépendent,
+ * vague par vague dans l'ordre topologique. Les cellules d'une même vague sont
+ * indépendantes : au-delà de {@link #PARALLEL_THRESHOLD} elles sont calculées en
+ * parallèle. Le coût d'une modification dépend du nombre de cellules touchées, pas
+ * de la taille de la feuille.
+ *
+ * <p>Une cellule référencée mais jamais remplie vaut 0. Une erreur de calcul
+ * (division par 0...) se propage aux cellules qui en dépendent ; leur valeur est NaN.
+ *
+ * <p>Une feuille n'est pas thread-safe : un seul thread la modifie et la lit.
+ */
+public final class Worksheet {
+
+    /** Taille de vague à partir de laquelle le calcul est réparti sur le pool. */
+    public static final int PARALLEL_THRESHOLD = 4096;
+
+    private static final int[] NONE = new int[0];
+
+    private final ForkJoinPool pool;
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // Une entrée par cellule, indexée par son identifiant
+    private String[] names = new String[16];
+    private CompiledExpression[] formulas = new CompiledExpression[16];
+    private int[][] inputs = new int[16][];      // Cellules lues, dans l'ordre des variables
+    private int[][] dependents = new int[16][];  // Cellules qui lisent celle-ci
+    private int[] dependentCount = new int[16];
+    private double[] values = new double[16];
+    private byte[] status = new byte[16];
+    private int size;
+    private int maxInputs;
+
+    // Recalcul : cellules modifiées, marques de parcours (par époque) et vagues
+    private int[] changed = new int[16];
+    private int changedCount;
+    private int[] mark = new int[16];
+    private int epoch;
+    private int[] pendingInputs = new int[16];
+    private int[] wave = new int[16];
+    private int[] nextWave = new int[16];
+
+    public Worksheet() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public Worksheet(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /** Donne une valeur à la cellule, qui perd son éventuelle formule. */
+    public void set(String name, double value) {
+        int id = cell(name);
+        unlink(id);
+        formulas[id] = null;
+        inputs[id] = NONE;
+        values[id] = value;
+        status[id] = CalculationError.OK;
+        markChanged(id);
+    }
+
+    /**
+     * Donne une formule à la cellule ; les identifiants de l'expression sont des
+     * noms de cellules.
+     *
+     * @throws ExpressionSyntaxException si l'expression est invalide
+     * @throws IllegalArgumentException  si la formule crée une référence circulaire
+     */
+    public void set(String name, String expression) {
+        CompiledExpression formula = ExpressionCompiler.compile(expression);
+        Integer existing = ids.get(name);
+        if (existing != null && createsCycle(existing, formula)) {
+            throw new IllegalArgumentException("Référence circulaire : " + name + " = " + expression);
+        }
+        if (existing == null && formula.variableIndex(name) >= 0) {
+            throw new IllegalArgumentException("Référence circulaire : " + name + " = " + expression);
+        }
+        int id = existing != null ? existing : cell(name);
+        int[] read = new int[formula.variableCount()];
+        for (int i = 0; i < read.length; i++) {
+            read[i] = cell(formula.variableName(i));
+        }
+        unlink(id);
+        formulas[id] = formula;
+        inputs[id] = read;
+        for (int input : read) {
+            addDependent(input, id);
+        }
+        maxInputs = Math.max(maxInputs, read.length);
+        markChanged(id);
+    }
+
+    public boolean contains(String name) {
+        return ids.containsKey(name);
+    }
+
+    /** Nombre de cellules, y compris celles seulement référencées. */
+    public int size() {
+        return size;
+    }
+
+    /** Noms des cellules dans leur ordre de création. */
+    public List<String> names() {
+        return Collections.unmodifiableList(Arrays.asList(names).subList(0, size));
+    }
+
+    /** Expression de la cellule, {@code null} pour une valeur. */
+    public String expression(String name) {
+        CompiledExpression formula = formulas[id(name)];
+        return formula == null ? null : formula.source();
+    }
+
+    /** Valeur à jour de la cellule, NaN si elle est en erreur. */
+    public double value(String name) {
+        int id = id(name);
+        recalculate();
+        return values[id];
+    }
+
+    /** Erreur de la cellule après recalcul, {@code null} si elle n'en a pas. */
+    public CalculationError error(String name) {
+        int id = id(name);
+        recalculate();
+        return status[id] == CalculationError.OK ? null : CalculationError.fromCode(status[id]);
+    }
+
+    /**
+     * Recalcule les cellules qui dépendent des modifications faites depuis le
+     * dernier recalcul.
+     *
+     * @return le nombre de cellules parcourues (modifiées et dépendantes)
+     */
+    public int recalculate() {
+        if (changedCount == 0) {
+            return 0;
+        }
+        int dirty = collectDirty();
+        changedCount = 0;
+        int current = 0;
+        for (int i = 0; i < dirty; i++) {
+            int id = wave[i];
+            if (pendingInputs[id] == 0) {
+                nextWave[current++] = id;
+            }
+        }
+        int[] swap = wave;
+        wave = nextWave;
+        nextWave = swap;
+        int mine = epoch;
+        while (current > 0) {
+            evaluate(wave, current);
+            // Vague suivante : les dépendantes dont toutes les entrées marquées sont prêtes
+            int next = 0;
+            for (int i = 0; i < current; i++) {
+                int id = wave[i];
+                int[] out = dependents[id];
+                for (int d = 0, n = dependentCount[id]; d < n; d++) {
+                    int dependent = out[d];
+                    if (mark[dependent] == mine && --pendingInputs[dependent] == 0) {
+                        nextWave[next++] = dependent;
+                    }
+                }
+            }
+            swap = wave;
+            wave = nextWave;
+            nextWave = swap;
+            current = next;
+        }
+        return dirty;
+    }
+
+    // Marque les cellules modifiées et leurs dépendantes (parcours en profondeur),
+    // les range dans wave et compte leurs entrées marquées
+    private int collectDirty() {
+        int mine = nextEpoch();
+        int[] stack = nextWave;
+        int dirty = 0;
+        for (int c = 0; c < changedCount; c++) {
+            int root = changed[c];
+            if (mark[root] == mine) {
+                continue;
+            }
+            mark[root] = mine;
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int id = stack[--top];
+                wave[dirty++] = id;
+                int[] out = dependents[id];
+                for (int d = 0, n = dependentCount[id]; d < n; d++) {
+                    int dependent = out[d];
+                    if (mark[dependent] != mine) {
+                        mark[dependent] = mine;
+                        stack[top++] = dependent;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < dirty; i++) {
+            int id = wave[i];
+            int pending = 0;
+            for (int input : inputs[id]) {
+                if (mark[input] == mine) {
+                    pending++;
+                }
+            }
+            pendingInputs[id] = pending;
+        }
+        return dirty;
+    }
+
+    private void evaluate(int[] cells, int count) {
+        if (count < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            evaluate(cells, 0, count, new double[maxInputs]);
+        } else {
+            pool.invoke(new Wave(cells, 0, count));
+        }
+    }
+
+    private void evaluate(int[] cells, int from, int to, double[] bindings) {
+        for (int i = from; i < to; i++) {
+            evaluate(cells[i], bindings);
+        }
+    }
+
+    private void evaluate(int id, double[] bindings) {
+        CompiledExpression formula = formulas[id];
+        if (formula == null) {
+            return;
+        }
+        int[] read = inputs[id];
+        for (int i = 0; i < read.length; i++) {
+            byte s = status[read[i]];
+            if (s != CalculationError.OK) {
+                values[id] = Double.NaN;
+                status[id] = s;
+                return;
+            }
+            bindings[i] = values[read[i]];
+        }
+        try {
+            values[id] = formula.evaluate(bindings);
+            status[id] = CalculationError.OK;
+        } catch (CalculationException e) {
+            values[id] = Double.NaN;
+            status[id] = e.error().code();
+        }
+    }
+
+    // Une vague découpée en intervalles ; les cellules d'une vague ne se lisent pas entre elles
+    private final class Wave extends RecursiveAction {
+        private final int[] cells;
+        private final int from;
+        private final int to;
+
+        Wave(int[] cells, int from, int to) {
+            this.cells = cells;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                evaluate(cells, from, to, new double[maxInputs]);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Wave(cells, from, mid), new Wave(cells, mid, to));
+        }
+    }
+
+    // La nouvelle formule de id lirait une cellule qui dépend déjà de id
+    private boolean createsCycle(int id, CompiledExpression formula) {
+        int mine = nextEpoch();
+        boolean any = false;
+        for (int i = 0; i < formula.variableCount(); i++) {
+            Integer input = ids.get(formula.variableName(i));
+            if (input != null) {
+                if (input == id) {
+                    return true;
+                }
+                mark[input] = mine;
+                any = true;
+            }
+        }
+        if (!any || dependentCount[id] == 0) {
+            return false;
+        }
+        // Parcours des dépendantes de id ; une entrée marquée atteinte ferme un cycle
+        int visited = nextEpoch();
+        int[] stack = wave;
+        int top = 0;
+        stack[top++] = id;
+        while (top > 0) {
+            int cell = stack[--top];
+            int[] out = dependents[cell];
+            for (int d = 0, n = dependentCount[cell]; d < n; d++) {
+                int dependent = out[d];
+                if (mark[dependent] == mine) {
+                    return true;
+                }
+                if (mark[dependent] != visited) {
+                    mark[dependent] = visited;
+                    stack[top++] = dependent;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int nextEpoch() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private void markChanged(int id) {
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, changedCount * 2);
+        }
+        changed[changedCount++] = id;
+    }
+
+    private void unlink(int id) {
+        for (int input : inputs[id]) {
+            int[] out = dependents[input];
+            int n = dependentCount[input];
+            for (int d = 0; d < n; d++) {
+                if (out[d] == id) {
+                    out[d] = out[n - 1];
+                    dependentCount[input] = n - 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    private void addDependent(int input, int id) {
+        int n = dependentCount[input];
+        int[] out = dependents[input];
+        if (n == out.length) {
+            out = dependents[input] = Arrays.copyOf(out, Math.max(4, n * 2));
+        }
+        out[n] = id;
+        dependentCount[input] = n + 1;
+    }
+
+    private int id(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("Cellule inconnue : " + name);
+        }
+        return id;
+    }
+
+    // Identifiant de la cellule, créée vide (valeur 0) si besoin
+    private int cell(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        checkName(name);
+        if (size == names.length) {
+            grow(size * 2);
+        }
+        int created = size++;
+        names[created] = name;
+        inputs[created] = NONE;
+        dependents[created] = NONE;
+        ids.put(name, created);
+        return created;
+    }
+
+    // Un nom de cellule doit pouvoir être lu comme variable dans une expression
+    private static void checkName(String name) {
+        try {
+            CompiledExpression e = ExpressionCompiler.compile(name);
+            if (e.variableCount() == 1 && e.variableName(0).equals(name)) {
+                return;
+            }
+        } catch (ExpressionSyntaxException e) {
+            // Mot-clé, nombre...
+        }
+        throw new IllegalArgumentException("Nom de cellule invalide : " + name);
+    }
+
+    private void grow(int capacity) {
+        names = Arrays.copyOf(names, capacity);
+        formulas = Arrays.copyOf(formulas, capacity);
+        inputs = Arrays.copyOf(inputs, capacity);
+        dependents = Arrays.copyOf(dependents, capacity);
+        dependentCount = Arrays.copyOf(dependentCount, capacity);
+        values = Arrays.copyOf(values, capacity);
+        status = Arrays.copyOf(status, capacity);
+        mark = Arrays.copyOf(mark, capacity);
+        pendingInputs = Arrays.copyOf(pendingInputs, capacity);
+        wave = Arrays.copyOf(wave, capacity);
+        nextWave = Arrays.copyOf(nextWave, capacity);
+    }
+}
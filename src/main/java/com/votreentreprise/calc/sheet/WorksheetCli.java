@@ -0,0 +1,109 @@
+package com.votreentreprise.calc.sheet;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.format.ResultFormatter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Feuille de calcul en ligne de commande. Le fichier a une cellule par ligne,
+ * {@code nom = valeur} ou {@code nom = expression} ; les lignes vides et celles qui
+ * commencent par {@code #} sont ignorées.
+ *
+ * <pre>
+ * java -cp app.jar com.votreentreprise.calc.sheet.WorksheetCli feuille.txt
+ * java -cp app.jar com.votreentreprise.calc.sheet.WorksheetCli feuille.txt &lt; modifications.txt
+ * </pre>
+ *
+ * <p>Les lignes lues ensuite sur l'entrée standard, au même format, modifient la
+ * feuille une à une : chacune affiche la nouvelle valeur de la cellule et le nombre
+ * de cellules recalculées. À la fin, toutes les cellules sont écrites
+ * ({@code nom}, tabulation, valeur comme à l'écran ou message d'erreur).
+ */
+public final class WorksheetCli {
+
+    private WorksheetCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage : WorksheetCli feuille.txt [< modifications.txt]");
+            System.exit(2);
+        }
+        Worksheet sheet = new Worksheet();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String error = apply(sheet, line);
+            if (error != null) {
+                System.err.println(args[0] + ":" + lineNumber + " : " + error);
+                System.exit(1);
+            }
+        }
+        long start = System.nanoTime();
+        int cells = sheet.recalculate();
+        System.err.printf("%d cellules calculées en %.1f ms%n", cells, (System.nanoTime() - start) / 1e6);
+
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String error = apply(sheet, line);
+            if (error != null) {
+                out.println(error);
+                continue;
+            }
+            String name = name(line);
+            if (name == null) {
+                continue;
+            }
+            start = System.nanoTime();
+            cells = sheet.recalculate();
+            long elapsed = System.nanoTime() - start;
+            out.printf("%s = %s (%d cellules recalculées en %.3f ms)%n",
+                    name, display(sheet, name), cells, elapsed / 1e6);
+        }
+        for (String name : sheet.names()) {
+            out.append(name).append('\t').append(display(sheet, name)).append('\n');
+        }
+        out.flush();
+    }
+
+    // Applique une ligne ; renvoie le message d'erreur, ou null
+    static String apply(Worksheet sheet, String line) {
+        String name = name(line);
+        if (name == null) {
+            return line.isBlank() || line.trim().startsWith("#") ? null : "Ligne sans '=' : " + line;
+        }
+        String content = line.substring(line.indexOf('=') + 1).trim();
+        try {
+            try {
+                sheet.set(name, Double.parseDouble(content));
+            } catch (NumberFormatException e) {
+                sheet.set(name, content);
+            }
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private static String name(String line) {
+        int equals = line.indexOf('=');
+        if (equals < 0 || line.trim().startsWith("#")) {
+            return null;
+        }
+        return line.substring(0, equals).trim();
+    }
+
+    private static String display(Worksheet sheet, String name) {
+        CalculationError error = sheet.error(name);
+        return error != null ? error.message() : ResultFormatter.format(sheet.value(name));
+    }
+}
@@ -0,0 +1,266 @@
+package com.votreentreprise.calc.stats;
+
+import java.util.Arrays;
+
+/**
+ * Quantiles approchés d'un flux de valeurs en mémoire constante (t-digest par fusion).
+ *
+ * <p>Les valeurs arrivent dans un tampon ; quand il est plein, il est trié et fusionné
+ * avec les centroïdes (moyenne, poids) déjà en place. La fonction d'échelle
+ * {@code k(q) = δ / 2π · asin(2q - 1)} limite le poids d'un centroïde selon sa
+ * position : beaucoup de petits centroïdes près des extrémités, peu de gros au milieu.
+ * Il reste au plus environ {@code δ} centroïdes ; l'erreur est de l'ordre de
+ * {@code 1 / δ} en rang au milieu et bien plus faible vers 0 et 1. Le minimum et le
+ * maximum sont exacts.
+ *
+ * <p>Deux esquisses se fusionnent ({@link #merge}) : chaque thread résume sa part des
+ * données, et les résumés sont assemblés ensuite. Les valeurs non finies sont
+ * écartées par l'appelant ({@link StreamingStatistics}).
+ *
+ * <p>Non thread-safe pour l'écriture. Les lectures ne modifient pas l'esquisse (des
+ * valeurs encore dans le tampon sont fusionnées dans une copie) : une esquisse qu'on
+ * ne modifie plus se lit depuis plusieurs threads. {@link #flush()} évite cette copie.
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_COMPRESSION = 200;
+
+    private final double compression;
+    // Centroïdes triés par moyenne
+    private double[] means;
+    private double[] weights;
+    private int centroids;
+    // Fusion : les centroïdes sont écrits dans ces tableaux, puis échangés
+    private double[] nextMeans;
+    private double[] nextWeights;
+    // Valeurs pas encore fusionnées (poids 1)
+    private final double[] buffer;
+    private int buffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /** @param compression δ : plus grand, plus précis et plus gros (environ δ centroïdes) */
+    public QuantileSketch(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Compression invalide : " + compression);
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) + 8;
+        means = new double[capacity];
+        weights = new double[capacity];
+        nextMeans = new double[capacity];
+        nextWeights = new double[capacity];
+        buffer = new double[5 * capacity];
+    }
+
+    /** Copie indépendante de {@code other}. */
+    public QuantileSketch(QuantileSketch other) {
+        this.compression = other.compression;
+        this.means = other.means.clone();
+        this.weights = other.weights.clone();
+        this.centroids = other.centroids;
+        this.nextMeans = new double[other.nextMeans.length];
+        this.nextWeights = new double[other.nextWeights.length];
+        this.buffer = other.buffer.clone();
+        this.buffered = other.buffered;
+        this.totalWeight = other.totalWeight;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    public void add(double value) {
+        if (buffered == buffer.length) {
+            flush();
+        }
+        buffer[buffered++] = value;
+        totalWeight++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /** Ajoute les valeurs résumées par {@code other}, qui n'est pas modifiée. */
+    public void merge(QuantileSketch other) {
+        if (other.totalWeight == 0) {
+            return;
+        }
+        flush();
+        double[] pending = Arrays.copyOf(other.buffer, other.buffered);
+        Arrays.sort(pending);
+        compress(means, weights, centroids, other.means, other.weights, other.centroids);
+        compress(means, weights, centroids, pending, null, pending.length);
+        totalWeight += other.totalWeight;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() {
+        return (long) totalWeight;
+    }
+
+    public double min() {
+        return totalWeight == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return totalWeight == 0 ? Double.NaN : max;
+    }
+
+    /** Nombre de centroïdes après fusion du tampon (taille du résumé). */
+    public int centroidCount() {
+        return flushed().centroids;
+    }
+
+    /**
+     * Valeur approchée de rang {@code q × n} ({@code q} dans [0, 1]), {@code NaN} sans
+     * données. Chaque centroïde est placé au milieu de son poids cumulé ; entre deux
+     * centroïdes, et entre les extrémités et le minimum ou le maximum, on interpole
+     * linéairement.
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("Quantile hors de [0, 1] : " + q);
+        }
+        return flushed().interpolate(q);
+    }
+
+    private double interpolate(double q) {
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1) {
+            return q == 0 ? min : q == 1 ? max : means[0];
+        }
+        double rank = q * totalWeight;
+        double first = weights[0] / 2;
+        if (rank < first) {
+            return min + (means[0] - min) * rank / first;
+        }
+        double cumulative = first;
+        for (int i = 0; i + 1 < centroids; i++) {
+            double gap = (weights[i] + weights[i + 1]) / 2;
+            if (rank < cumulative + gap) {
+                return means[i] + (means[i + 1] - means[i]) * (rank - cumulative) / gap;
+            }
+            cumulative += gap;
+        }
+        double last = weights[centroids - 1] / 2;
+        double tail = Math.min(1, (rank - cumulative) / last);
+        return means[centroids - 1] + (max - means[centroids - 1]) * tail;
+    }
+
+    /**
+     * Fusionne les valeurs en attente dans les centroïdes. Les lectures suivantes
+     * n'ont plus rien à copier, jusqu'au prochain {@link #add}.
+     */
+    public void flush() {
+        if (buffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, buffered);
+        compress(means, weights, centroids, buffer, null, buffered);
+        buffered = 0;
+    }
+
+    // Cette esquisse si le tampon est vide, sinon une copie où il est fusionné
+    private QuantileSketch flushed() {
+        if (buffered == 0) {
+            return this;
+        }
+        QuantileSketch copy = new QuantileSketch(this);
+        copy.flush();
+        return copy;
+    }
+
+    /*
+     * Fusionne deux suites triées de centroïdes (poids 1 si weights est null) dans
+     * nextMeans / nextWeights, puis échange les tableaux. Un centroïde absorbe le suivant
+     * tant que son poids cumulé ne dépasse pas celui de k(q) + 1.
+     */
+    private void compress(double[] aMeans, double[] aWeights, int a,
+                          double[] bMeans, double[] bWeights, int b) {
+        double total = 0;
+        for (int i = 0; i < a; i++) {
+            total += aWeights[i];
+        }
+        for (int j = 0; j < b; j++) {
+            total += bWeights == null ? 1 : bWeights[j];
+        }
+        int out = 0;
+        int i = 0;
+        int j = 0;
+        double mean = 0;
+        double weight = 0;
+        double done = 0;
+        double limit = total * inverseScale(scale(0) + 1);
+        while (i < a || j < b) {
+            double m;
+            double w;
+            if (j >= b || i < a && aMeans[i] <= bMeans[j]) {
+                m = aMeans[i];
+                w = aWeights[i];
+                i++;
+            } else {
+                m = bMeans[j];
+                w = bWeights == null ? 1 : bWeights[j];
+                j++;
+            }
+            if (weight > 0 && done + weight + w > limit) {
+                out = emit(out, mean, weight);
+                done += weight;
+                limit = total * inverseScale(scale(done / total) + 1);
+                weight = 0;
+            }
+            if (weight == 0) {
+                mean = m;
+                weight = w;
+            } else {
+                weight += w;
+                mean += (m - mean) * w / weight;
+            }
+        }
+        if (weight > 0) {
+            out = emit(out, mean, weight);
+        }
+        double[] swap = means;
+        means = nextMeans;
+        nextMeans = swap;
+        swap = weights;
+        weights = nextWeights;
+        nextWeights = swap;
+        centroids = out;
+    }
+
+    private int emit(int out, double mean, double weight) {
+        if (out == nextMeans.length) {
+            // Borne théorique d'environ δ centroïdes : ne devrait pas arriver
+            nextMeans = Arrays.copyOf(nextMeans, 2 * out);
+            nextWeights = Arrays.copyOf(nextWeights, 2 * out);
+            means = Arrays.copyOf(means, 2 * out);
+            weights = Arrays.copyOf(weights, 2 * out);
+        }
+        nextMeans[out] = mean;
+        nextWeights[out] = weight;
+        return out + 1;
+    }
+
+    private double scale(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private double inverseScale(double k) {
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+}
@@ -0,0 +1,87 @@
+package com.votreentreprise.calc.stats;
+
+import com.votreentreprise.calc.format.ResultFormatter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Statistiques d'une colonne de nombres en ligne de commande.
+ *
+ * <pre>
+ * java -cp app.jar com.votreentreprise.calc.stats.StatisticsCli export.csv
+ * java -cp app.jar com.votreentreprise.calc.stats.StatisticsCli -c 2 -p 8 export.csv
+ * java -cp app.jar com.votreentreprise.calc.stats.StatisticsCli --csv - &lt; donnees.csv
+ * </pre>
+ *
+ * <p>{@code -c N} choisit la colonne (à partir de 1, défaut 1) ; {@code -p N} résume
+ * les blocs sur {@code N} cœurs ; {@code --csv} lit des champs séparés par des
+ * virgules avec un point décimal au lieu du format français ({@code ;} et virgule
+ * décimale, voir {@link StatisticsReader.Format}).
+ */
+public final class StatisticsCli {
+
+    private StatisticsCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int column = 1;
+        int parallelism = 1;
+        StatisticsReader.Format format = StatisticsReader.Format.FRENCH;
+        int first = 0;
+        while (first < args.length && args[first].startsWith("-") && args[first].length() > 1) {
+            if ("-c".equals(args[first]) && first + 1 < args.length) {
+                column = Integer.parseInt(args[first + 1]);
+                first += 2;
+            } else if ("-p".equals(args[first]) && first + 1 < args.length) {
+                parallelism = Integer.parseInt(args[first + 1]);
+                first += 2;
+            } else if ("--csv".equals(args[first])) {
+                format = StatisticsReader.Format.CSV;
+                first++;
+            } else {
+                usage();
+            }
+        }
+        if (args.length - first > 1 || column < 1 || parallelism < 1) {
+            usage();
+        }
+        String in = args.length > first ? args[first] : "-";
+        long start = System.nanoTime();
+        StreamingStatistics stats;
+        try (StatisticsReader reader = new StatisticsReader(parallelism);
+             InputStream input = "-".equals(in) ? System.in : Files.newInputStream(Path.of(in))) {
+            stats = reader.read(input, column - 1, format);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        print(out, "n", stats.count());
+        print(out, "somme", stats.sum());
+        print(out, "moyenne", stats.mean());
+        print(out, "écart-type", stats.standardDeviation());
+        print(out, "écart-type (population)", stats.populationStandardDeviation());
+        print(out, "min", stats.min());
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99}) {
+            print(out, "quantile " + ResultFormatter.format(q), stats.quantile(q));
+        }
+        print(out, "max", stats.max());
+        out.flush();
+        System.err.printf("%d valeur(s) lue(s), %d ignorée(s) en %.1f ms%n",
+                stats.count(), stats.ignored(), elapsed / 1e6);
+    }
+
+    private static void print(PrintStream out, String label, double value) {
+        out.append(label).append('\t')
+                .append(Double.isNaN(value) ? "-" : ResultFormatter.format(value)).append('\n');
+    }
+
+    private static void usage() {
+        System.err.println("Usage : StatisticsCli [-c colonne] [-p parallélisme] [--csv] [fichier|-]");
+        System.exit(2);
+    }
+}
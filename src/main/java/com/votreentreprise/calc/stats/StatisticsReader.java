@@ -0,0 +1,234 @@
+package com.votreentreprise.calc.stats;
+
+import com.votreentreprise.calc.io.AsciiDoubles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Statistiques d'une colonne de nombres lue dans un flux (fichier exporté, texte
+ * collé), en une passe et en mémoire constante.
+ *
+ * <p>Le flux est lu par blocs d'octets coupés en fin de ligne. Chaque bloc est résumé
+ * dans sa propre {@link StreamingStatistics} sur le pool fork-join, pendant que le
+ * suivant est lu ; les résumés sont fusionnés dans l'ordre des blocs, le résultat ne
+ * dépend donc pas de l'ordonnancement. Au plus deux blocs par thread sont en cours.
+ * Avec un seul thread, les blocs sont lus et résumés à la suite dans le même tableau.
+ *
+ * <p>Les lignes vides sont sautées ; une ligne dont la colonne manque ou n'est pas un
+ * nombre (en-tête...) est comptée dans {@link StreamingStatistics#ignored()}.
+ */
+public final class StatisticsReader implements AutoCloseable {
+
+    public static final int DEFAULT_BLOCK = 1 << 20;
+
+    /** Écriture des nombres et séparateurs de champs. */
+    public enum Format {
+        /** Champs séparés par {@code ;} ou tabulation ; virgule ou point décimal (export français). */
+        FRENCH,
+        /** Champs séparés par {@code ,} ou tabulation ; point décimal. */
+        CSV
+    }
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int blockSize;
+
+    /** Lecteur avec son propre pool de {@code parallelism} threads. */
+    public StatisticsReader(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_BLOCK);
+    }
+
+    /** Lecteur sur un pool existant, qui n'est pas fermé par {@link #close()}. */
+    public StatisticsReader(ForkJoinPool pool, int blockSize) {
+        this(pool, false, blockSize);
+    }
+
+    private StatisticsReader(ForkJoinPool pool, boolean ownsPool, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Taille de bloc invalide : " + blockSize);
+        }
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Lit {@code in} jusqu'au bout (il n'est pas fermé).
+     *
+     * @param column colonne lue, à partir de 0
+     * @throws InterruptedIOException si le thread est interrompu pendant la lecture
+     */
+    public StreamingStatistics read(InputStream in, int column, Format format) throws IOException {
+        if (column < 0) {
+            throw new IllegalArgumentException("Colonne invalide : " + column);
+        }
+        StreamingStatistics total = new StreamingStatistics();
+        boolean parallel = pool.getParallelism() > 1;
+        ArrayDeque<ForkJoinTask<StreamingStatistics>> pending = new ArrayDeque<>();
+        Parser inline = parallel ? null : new Parser(column, format);
+        byte[] block = new byte[blockSize];
+        int carried = 0;
+        try {
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Lecture interrompue");
+                }
+                int filled = carried + in.readNBytes(block, carried, block.length - carried);
+                boolean end = filled < block.length;
+                int cut = end ? filled : lastLineEnd(block, filled);
+                if (!end && cut == 0) {
+                    // Ligne plus longue que le bloc : on l'agrandit
+                    block = Arrays.copyOf(block, block.length * 2);
+                    carried = filled;
+                    continue;
+                }
+                byte[] next = block;
+                if (parallel) {
+                    byte[] bytes = block;
+                    int length = cut;
+                    pending.add(pool.submit(() -> {
+                        StreamingStatistics part = new StreamingStatistics();
+                        new Parser(column, format).parse(bytes, length, part);
+                        return part;
+                    }));
+                    if (pending.size() >= 2 * pool.getParallelism()) {
+                        total.merge(pending.poll().join());
+                    }
+                    next = new byte[block.length];
+                } else {
+                    inline.parse(block, cut, total);
+                }
+                if (end) {
+                    break;
+                }
+                carried = filled - cut;
+                System.arraycopy(block, cut, next, 0, carried);
+                block = next;
+            }
+            while (!pending.isEmpty()) {
+                total.merge(pending.poll().join());
+            }
+        } finally {
+            for (ForkJoinTask<StreamingStatistics> task : pending) {
+                task.cancel(true);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    // Position qui suit le dernier '\n' de block[0, length), 0 s'il n'y en a pas
+    private static int lastLineEnd(byte[] block, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (block[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /** Découpe des lignes d'un bloc ; un par tâche (AsciiDoubles n'est pas thread-safe). */
+    private static final class Parser {
+        private final int column;
+        private final Format format;
+        private final AsciiDoubles numbers = new AsciiDoubles();
+        // Champ recopié avec un point décimal (format français)
+        private byte[] scratch = new byte[64];
+        private ByteBuffer scratchBuffer = ByteBuffer.wrap(scratch);
+
+        Parser(int column, Format format) {
+            this.column = column;
+            this.format = format;
+        }
+
+        void parse(byte[] block, int length, StreamingStatistics into) {
+            ByteBuffer buf = ByteBuffer.wrap(block, 0, length);
+            long ignored = 0;
+            int start = 0;
+            while (start < length) {
+                int end = start;
+                while (end < length && block[end] != '\n') {
+                    end++;
+                }
+                int stop = end > start && block[end - 1] == '\r' ? end - 1 : end;
+                if (!isBlank(block, start, stop)) {
+                    double value = field(block, buf, start, stop);
+                    if (numbers.isValid()) {
+                        into.add(value);
+                    } else {
+                        ignored++;
+                    }
+                }
+                start = end + 1;
+            }
+            into.ignore(ignored);
+        }
+
+        // Valeur de la colonne ; numbers.isValid() est faux si elle manque ou n'est pas un nombre
+        private double field(byte[] block, ByteBuffer buf, int from, int to) {
+            int index = 0;
+            int start = from;
+            for (int i = from; i <= to; i++) {
+                if (i == to || isSeparator(block[i])) {
+                    if (index == column) {
+                        return number(block, buf, start, i);
+                    }
+                    index++;
+                    start = i + 1;
+                }
+            }
+            return numbers.parse(buf, from, from); // Champ absent : invalide
+        }
+
+        private double number(byte[] block, ByteBuffer buf, int from, int to) {
+            if (format == Format.CSV || indexOf(block, (byte) ',', from, to) < 0) {
+                return numbers.parse(buf, from, to);
+            }
+            int length = to - from;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, 2 * scratch.length)];
+                scratchBuffer = ByteBuffer.wrap(scratch);
+            }
+            for (int i = 0; i < length; i++) {
+                byte b = block[from + i];
+                scratch[i] = b == ',' ? (byte) '.' : b;
+            }
+            return numbers.parse(scratchBuffer, 0, length);
+        }
+
+        private boolean isSeparator(byte b) {
+            return b == '\t' || b == (format == Format.CSV ? ',' : ';');
+        }
+
+        private static int indexOf(byte[] block, byte b, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (block[i] == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isBlank(byte[] block, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (block[i] < 0 || block[i] > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.votreentreprise.calc.stats;
+
+/**
+ * Statistiques d'une série lue en une seule passe, en mémoire constante : effectif,
+ * somme, moyenne, variance, minimum, maximum et quantiles approchés.
+ *
+ * <ul>
+ *   <li>Somme compensée de Neumaier : l'erreur d'arrondi de chaque addition est
+ *       gardée à part et rajoutée à la fin, la somme ne dérive pas sur des millions
+ *       de valeurs d'ordres de grandeur différents.</li>
+ *   <li>Moyenne et somme des carrés des écarts de Welford : pas de
+ *       {@code Σx² - (Σx)² / n}, qui perd tous ses chiffres quand la moyenne est
+ *       grande devant l'écart-type.</li>
+ *   <li>Quantiles : {@link QuantileSketch}.</li>
+ * </ul>
+ *
+ * <p>{@link #merge} ajoute un résultat partiel (formules de Chan pour la variance) :
+ * une série découpée en blocs résumés séparément donne, aux arrondis près, les mêmes
+ * statistiques que la série entière. Les valeurs non finies (NaN, infinis) sont
+ * ignorées et comptées à part.
+ *
+ * <p>Non thread-safe pour l'écriture : une instance par thread, fusionnées ensuite.
+ * Les lectures ne modifient pas l'instance ; une série qu'on ne modifie plus se lit
+ * depuis plusieurs threads.
+ */
+public final class StreamingStatistics {
+
+    private long count;
+    private long ignored;
+    private double sum;
+    private double compensation;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileSketch quantiles;
+
+    public StreamingStatistics() {
+        this(QuantileSketch.DEFAULT_COMPRESSION);
+    }
+
+    /** @param compression précision des quantiles, voir {@link QuantileSketch} */
+    public StreamingStatistics(double compression) {
+        this.quantiles = new QuantileSketch(compression);
+    }
+
+    /** Copie indépendante de {@code other} (quantiles compris). */
+    public StreamingStatistics(StreamingStatistics other) {
+        this.count = other.count;
+        this.ignored = other.ignored;
+        this.sum = other.sum;
+        this.compensation = other.compensation;
+        this.mean = other.mean;
+        this.m2 = other.m2;
+        this.min = other.min;
+        this.max = other.max;
+        this.quantiles = new QuantileSketch(other.quantiles);
+    }
+
+    public void add(double x) {
+        if (!Double.isFinite(x)) {
+            ignored++;
+            return;
+        }
+        count++;
+        // Neumaier : on garde la partie de la plus petite opérande perdue dans l'addition
+        double t = sum + x;
+        if (Math.abs(sum) >= Math.abs(x)) {
+            compensation += (sum - t) + x;
+        } else {
+            compensation += (x - t) + sum;
+        }
+        sum = t;
+        // Welford
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        if (x < min) {
+            min = x;
+        }
+        if (x > max) {
+            max = x;
+        }
+        quantiles.add(x);
+    }
+
+    public void add(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(values[i]);
+        }
+    }
+
+    /** Ajoute un résultat partiel ; {@code other} n'est pas modifié. */
+    public void merge(StreamingStatistics other) {
+        ignored += other.ignored;
+        if (other.count == 0) {
+            return;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        double weight = (double) other.count / n;
+        m2 += other.m2 + delta * delta * count * weight;
+        mean += delta * weight;
+        count = n;
+        double t = sum + other.sum;
+        if (Math.abs(sum) >= Math.abs(other.sum)) {
+            compensation += (sum - t) + other.sum;
+        } else {
+            compensation += (other.sum - t) + sum;
+        }
+        sum = t;
+        compensation += other.compensation;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        quantiles.merge(other.quantiles);
+    }
+
+    /** Voir {@link QuantileSketch#flush()} : à appeler avant de partager la série. */
+    public void flush() {
+        quantiles.flush();
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** Valeurs non finies (ou illisibles, pour {@link StatisticsReader}) laissées de côté. */
+    public long ignored() {
+        return ignored;
+    }
+
+    void ignore(long n) {
+        ignored += n;
+    }
+
+    public double sum() {
+        return sum + compensation;
+    }
+
+    /** {@code NaN} sans données. */
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /** Variance de l'échantillon (divisée par n - 1), {@code NaN} avec moins de 2 valeurs. */
+    public double variance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /** Variance de la population (divisée par n), {@code NaN} sans données. */
+    public double populationVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double populationStandardDeviation() {
+        return Math.sqrt(populationVariance());
+    }
+
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /** Quantile approché, {@code q} dans [0, 1] ; {@code NaN} sans données. */
+    public double quantile(double q) {
+        return quantiles.quantile(q);
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+}
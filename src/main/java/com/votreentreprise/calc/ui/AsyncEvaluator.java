@@ -0,0 +1,139 @@
+package com.votreentreprise.calc.ui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Calculs lancés depuis l'interface et exécutés hors de l'EDT, un à la fois.
+ *
+ * <p>Le résultat (ou l'erreur) est remis à l'EDT par un seul
+ * {@link SwingUtilities#invokeLater} ; pendant le calcul, la progression (temps
+ * écoulé) est signalée par un {@link Timer} Swing, dont les événements en retard sont
+ * fusionnés. Les calculs de moins de {@value #PROGRESS_DELAY_MS} ms ne signalent rien.
+ *
+ * <p>{@link #cancel()} interrompt le thread du calcul et garantit qu'aucun rappel ne
+ * sera fait. Un calcul qui ignore l'interruption (multiplication de {@code BigInteger}...)
+ * se termine en arrière-plan et son résultat est jeté : la tâche doit donc être pure.
+ * Le calcul suivant part sur un autre thread sans l'attendre, dans la limite de
+ * {@value #MAX_THREADS} threads ; au-delà, il attend qu'un calcul abandonné se termine.
+ *
+ * <p>Une tâche qui lève une {@link Error} ({@link OutOfMemoryError}...) termine le
+ * calcul comme une exception : {@code onError} la reçoit enveloppée.
+ *
+ * <p>Toutes les méthodes s'appellent depuis l'EDT.
+ */
+public final class AsyncEvaluator implements AutoCloseable {
+
+    public static final int PROGRESS_DELAY_MS = 150;
+    public static final int PROGRESS_INTERVAL_MS = 100;
+    /** Threads de calcul au plus, calculs abandonnés encore en cours compris. */
+    public static final int MAX_THREADS = 4;
+
+    private static final class Job {
+        final LongConsumer onProgress;
+        final long start = System.nanoTime();
+        Future<?> future;
+
+        Job(LongConsumer onProgress) {
+            this.onProgress = onProgress;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Timer progress;
+    private Job current;
+
+    public AsyncEvaluator() {
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "calcul-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.progress = new Timer(PROGRESS_INTERVAL_MS, e -> {
+            if (current != null) {
+                current.onProgress.accept(System.nanoTime() - current.start);
+            }
+        });
+        progress.setInitialDelay(PROGRESS_DELAY_MS);
+        progress.setCoalesce(true);
+    }
+
+    /** Un calcul est en cours et n'a pas encore rendu son résultat. */
+    public boolean isBusy() {
+        return current != null;
+    }
+
+    /**
+     * Lance {@code task} sur un thread de calcul.
+     *
+     * @param onResult   appelé sur l'EDT avec le résultat
+     * @param onError    appelé sur l'EDT si la tâche lève une exception ; une
+     *                   {@link Error} arrive enveloppée dans une {@link IllegalStateException}
+     * @param onProgress appelé sur l'EDT avec le temps écoulé en nanosecondes
+     * @throws IllegalStateException si un calcul est déjà en cours
+     */
+    public <T> void submit(Supplier<? extends T> task, Consumer<? super T> onResult,
+                           Consumer<? super RuntimeException> onError, LongConsumer onProgress) {
+        if (current != null) {
+            throw new IllegalStateException("Un calcul est déjà en cours");
+        }
+        Job job = new Job(onProgress);
+        current = job;
+        job.future = executor.submit(() -> {
+            T result = null;
+            RuntimeException error = null;
+            try {
+                result = task.get();
+            } catch (RuntimeException e) {
+                error = e;
+            } catch (Throwable e) {
+                // Sans rappel, le calcul resterait en cours et le minuteur tournerait
+                error = new IllegalStateException(e);
+            }
+            T value = result;
+            RuntimeException failure = error;
+            SwingUtilities.invokeLater(() -> {
+                if (current != job) {
+                    return; // Annulé entre-temps
+                }
+                finish();
+                if (failure == null) {
+                    onResult.accept(value);
+                } else {
+                    onError.accept(failure);
+                }
+            });
+        });
+        progress.restart();
+    }
+
+    /** Abandonne le calcul en cours ; sans effet s'il n'y en a pas. */
+    public void cancel() {
+        if (current != null) {
+            current.future.cancel(true);
+            finish();
+        }
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void finish() {
+        current = null;
+        progress.stop();
+    }
+}
@@ -0,0 +1,184 @@
+package com.votreentreprise.calc.ui;
+
+import com.votreentreprise.calc.engine.CompiledExpression;
+import com.votreentreprise.calc.engine.ExpressionCompiler;
+import com.votreentreprise.calc.engine.ExpressionSyntaxException;
+import com.votreentreprise.calc.plot.FunctionSampler;
+import com.votreentreprise.calc.plot.MinMaxPyramid;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.WindowConstants;
+import javax.swing.border.EmptyBorder;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Table et courbe d'une expression d'une variable ({@code sin x ÷ x}, angles en
+ * degrés comme les touches) sur un intervalle.
+ *
+ * <p>L'échantillonnage tourne hors de l'EDT ({@link AsyncEvaluator}) sur tous les
+ * cœurs ({@link FunctionSampler}), suivi de la construction des niveaux de détail
+ * ({@link MinMaxPyramid}) : l'EDT ne fait qu'installer le résultat. Un point coûte
+ * environ {@value #BYTES_PER_POINT} octets (échantillon et pyramide) ; le nombre de
+ * points est limité à {@link #maxPoints()}. Quand le zoom dépasse la résolution des données
+ * ou sort de l'intervalle, la vue est rééchantillonnée avec une marge d'une largeur
+ * de vue de chaque côté, pour que les petits déplacements n'aient rien à recalculer ;
+ * la table garde l'intervalle demandé.
+ */
+public final class FunctionPlotDialog extends JDialog {
+
+    public static final int DEFAULT_POINTS = 1_000_000;
+    public static final int MAX_POINTS = 10_000_000;
+    /** Échantillon (8 octets) et niveaux de la pyramide (16 octets). */
+    public static final int BYTES_PER_POINT = 24;
+
+    private static final class Samples {
+        final double[] values;
+        final MinMaxPyramid pyramid;
+        final int errors;
+
+        Samples(double[] values, int errors) {
+            this.values = values;
+            this.pyramid = new MinMaxPyramid(values);
+            this.errors = errors;
+        }
+    }
+
+    private final JTextField expression;
+    private final JTextField from = new JTextField("-360", 6);
+    private final JTextField to = new JTextField("360", 6);
+    private final JTextField points = new JTextField(Integer.toString(DEFAULT_POINTS), 8);
+    private final JLabel status = new JLabel(" ");
+    private final PlotPanel plot = new PlotPanel();
+    private final FunctionTableModel table = new FunctionTableModel();
+
+    private final AsyncEvaluator evaluator = new AsyncEvaluator();
+    private final FunctionSampler sampler = new FunctionSampler(Runtime.getRuntime().availableProcessors());
+    // Fonction tracée et nombre de points demandé, repris pour les rééchantillonnages
+    private CompiledExpression function;
+    private int resolution;
+
+    public FunctionPlotDialog(Frame owner, String initialExpression) {
+        super(owner, "Table et courbe", false);
+        setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+        expression = new JTextField(initialExpression, 16);
+
+        JPanel form = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        form.add(new JLabel("f(x) ="));
+        form.add(expression);
+        form.add(new JLabel("de"));
+        form.add(from);
+        form.add(new JLabel("à"));
+        form.add(to);
+        form.add(new JLabel("points"));
+        form.add(points);
+        JButton trace = new JButton("Calculer");
+        form.add(trace);
+        trace.addActionListener(e -> trace());
+        expression.addActionListener(e -> trace());
+        getRootPane().setDefaultButton(trace);
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Courbe", plot);
+        tabs.addTab("Table", new JScrollPane(new JTable(table)));
+        plot.setViewListener(this::resampleView);
+
+        JPanel content = new JPanel(new BorderLayout(0, 8));
+        content.setBorder(new EmptyBorder(10, 10, 10, 10));
+        content.add(form, BorderLayout.NORTH);
+        content.add(tabs, BorderLayout.CENTER);
+        content.add(status, BorderLayout.SOUTH);
+        setContentPane(content);
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                evaluator.close();
+                sampler.close();
+            }
+        });
+        pack();
+        setLocationRelativeTo(owner);
+    }
+
+    private void trace() {
+        CompiledExpression f;
+        double a;
+        double b;
+        int n;
+        try {
+            f = ExpressionCompiler.compile(expression.getText());
+            a = Double.parseDouble(from.getText().trim());
+            b = Double.parseDouble(to.getText().trim());
+            n = Integer.parseInt(points.getText().trim());
+        } catch (ExpressionSyntaxException e) {
+            status.setText(e.getMessage());
+            return;
+        } catch (NumberFormatException e) {
+            status.setText("Bornes ou nombre de points invalides");
+            return;
+        }
+        if (f.variableCount() > 1) {
+            status.setText("Une seule variable attendue : " + String.join(", ", f.variableNames()));
+            return;
+        }
+        int max = maxPoints();
+        if (!(b > a) || !Double.isFinite(b - a) || n < 2 || n > max) {
+            status.setText(String.format("Il faut de < à et entre 2 et %,d points", max));
+            return;
+        }
+        evaluator.cancel();
+        function = f;
+        resolution = n;
+        long start = System.nanoTime();
+        evaluator.submit(() -> sample(f, a, b, n), samples -> {
+            table.setData(a, b, samples.values);
+            plot.setData(a, b, samples.pyramid);
+            plot.setView(a, b);
+            status.setText(String.format("%,d points en %.0f ms, %,d en erreur",
+                    n, (System.nanoTime() - start) / 1e6, samples.errors));
+        }, e -> status.setText(e.getMessage()), elapsed -> status.setText("Calcul en cours…"));
+    }
+
+    // Zoom au-delà de la résolution ou hors des données : nouvel échantillonnage de la vue
+    private void resampleView() {
+        if (function == null || evaluator.isBusy() || plot.isViewResolved()) {
+            return;
+        }
+        CompiledExpression f = function;
+        double span = plot.viewTo() - plot.viewFrom();
+        double a = plot.viewFrom() - span;
+        double b = plot.viewTo() + span;
+        int n = Math.min(Math.max(resolution, 3 * plot.getWidth()), maxPoints());
+        evaluator.submit(() -> sample(f, a, b, n), samples -> {
+            plot.setData(a, b, samples.pyramid);
+            resampleView(); // La vue a pu bouger pendant le calcul
+        }, e -> status.setText(e.getMessage()), elapsed -> { });
+    }
+
+    /**
+     * Points au plus par tracé : {@link #MAX_POINTS}, ou moins si un quart du tas ne
+     * suffit pas (pendant un rééchantillonnage, l'ancien tracé et le nouveau coexistent,
+     * et la table garde le sien).
+     */
+    public static int maxPoints() {
+        return (int) Math.min(MAX_POINTS, Runtime.getRuntime().maxMemory() / 4 / BYTES_PER_POINT);
+    }
+
+    // Hors de l'EDT : échantillons et pyramide
+    private Samples sample(CompiledExpression f, double a, double b, int n) {
+        double[] values = new double[n];
+        int errors = sampler.sample(f, a, b, values);
+        return new Samples(values, errors);
+    }
+}
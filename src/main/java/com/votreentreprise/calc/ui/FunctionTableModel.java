@@ -0,0 +1,51 @@
+package com.votreentreprise.calc.ui;
+
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.plot.FunctionSampler;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table {@code x, f(x)} d'un échantillonnage. Les abscisses sont recalculées et les
+ * textes mis en forme seulement pour les lignes affichées : une table d'un million
+ * de lignes ne coûte que son tableau de valeurs.
+ */
+final class FunctionTableModel extends AbstractTableModel {
+
+    private static final double[] EMPTY = new double[0];
+
+    private double from;
+    private double to;
+    private double[] values = EMPTY;
+
+    void setData(double from, double to, double[] values) {
+        this.from = from;
+        this.to = to;
+        this.values = values;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return values.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return 2;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? "x" : "f(x)";
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return ResultFormatter.format(FunctionSampler.x(from, to, values.length, row));
+        }
+        double y = values[row];
+        return Double.isNaN(y) ? "Erreur" : ResultFormatter.format(y);
+    }
+}
@@ -0,0 +1,44 @@
+package com.votreentreprise.calc.ui;
+
+import javax.swing.JPanel;
+import java.awt.CardLayout;
+import java.awt.Component;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Panneau à cartes dont chaque carte est construite à sa première utilisation.
+ *
+ * <p>Seule la carte affichée au démarrage retarde la première image ; les suivantes
+ * sont construites une fois, puis simplement réaffichées. Les cartes sont nommées par
+ * {@code String.valueOf(key)}, les clés doivent donc avoir des noms distincts.
+ *
+ * <p>Toutes les méthodes s'appellent depuis l'EDT.
+ */
+public final class LazyCardPanel<K> extends JPanel {
+
+    private final CardLayout cards = new CardLayout();
+    private final Set<K> built = new HashSet<>();
+    private final Function<? super K, ? extends Component> factory;
+
+    public LazyCardPanel(Function<? super K, ? extends Component> factory) {
+        this.factory = Objects.requireNonNull(factory);
+        setLayout(cards);
+    }
+
+    /** Affiche la carte de {@code key}, construite au premier appel. */
+    public void show(K key) {
+        String name = String.valueOf(key);
+        if (!built.contains(key)) {
+            add(factory.apply(key), name);
+            built.add(key);
+        }
+        cards.show(this, name);
+    }
+
+    public boolean isBuilt(K key) {
+        return built.contains(key);
+    }
+}
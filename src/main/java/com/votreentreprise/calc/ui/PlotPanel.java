@@ -0,0 +1,239 @@
+package com.votreentreprise.calc.ui;
+
+import com.votreentreprise.calc.format.ResultFormatter;
+import com.votreentreprise.calc.plot.MinMaxPyramid;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Courbe d'une fonction échantillonnée. La molette zoome autour du curseur, le
+ * glisser déplace la vue.
+ *
+ * <p>La courbe est dessinée dans une {@link BufferedImage} gardée entre deux
+ * affichages : {@code paintComponent} ne fait que la copier, et elle n'est redessinée
+ * que si la vue, les données ou la taille changent. Chaque colonne de pixels reçoit
+ * le minimum et le maximum des échantillons qu'elle couvre ({@link MinMaxPyramid}),
+ * tracés comme un segment vertical écrit directement dans les pixels : le coût d'un
+ * rendu dépend de la taille du composant, pas du nombre de points.
+ *
+ * <p>Les données couvrent {@code [from, to]} ; la vue peut en sortir (zoom arrière)
+ * ou les agrandir au-delà de leur résolution (zoom avant) : {@link #setViewListener}
+ * permet alors de rééchantillonner la vue.
+ */
+public final class PlotPanel extends JComponent {
+
+    private static final int BACKGROUND = new Color(28, 28, 30).getRGB();
+    private static final int AXIS = new Color(72, 72, 74).getRGB();
+    private static final int CURVE = new Color(10, 132, 255).getRGB();
+    private static final Color LABEL = new Color(152, 152, 157);
+    private static final Font LABEL_FONT = new Font("SF Pro Display", Font.PLAIN, 11);
+    private static final double ZOOM_STEP = 1.25;
+
+    private MinMaxPyramid data;
+    private double from;
+    private double to;
+    private double viewFrom = -1;
+    private double viewTo = 1;
+    private Runnable viewListener = () -> { };
+
+    // Rendu en cache et colonnes réutilisées
+    private BufferedImage image;
+    private boolean dirty = true;
+    private double[] columnMin = new double[0];
+    private double[] columnMax = new double[0];
+
+    public PlotPanel() {
+        setPreferredSize(new Dimension(640, 400));
+        MouseAdapter mouse = new MouseAdapter() {
+            private int dragX;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragX = e.getX();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                double shift = (dragX - e.getX()) * (viewTo - viewFrom) / Math.max(1, getWidth());
+                dragX = e.getX();
+                setView(viewFrom + shift, viewTo + shift);
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(ZOOM_STEP, e.getPreciseWheelRotation());
+                double anchor = viewFrom + (viewTo - viewFrom) * e.getX() / Math.max(1, getWidth());
+                setView(anchor - (anchor - viewFrom) * factor, anchor + (viewTo - anchor) * factor);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Nouvelles données sur {@code [from, to]} ; la vue n'est pas modifiée. La pyramide
+     * se construit hors de l'EDT (plusieurs centaines de ms pour des millions de points).
+     */
+    public void setData(double from, double to, MinMaxPyramid data) {
+        this.data = data;
+        this.from = from;
+        this.to = to;
+        invalidatePlot();
+    }
+
+    public void setView(double from, double to) {
+        if (!(to > from) || !Double.isFinite(to - from)) {
+            return;
+        }
+        viewFrom = from;
+        viewTo = to;
+        invalidatePlot();
+        viewListener.run();
+    }
+
+    /** Appelé sur l'EDT après chaque changement de vue (zoom, déplacement). */
+    public void setViewListener(Runnable listener) {
+        this.viewListener = listener;
+    }
+
+    public double viewFrom() {
+        return viewFrom;
+    }
+
+    public double viewTo() {
+        return viewTo;
+    }
+
+    /** Vrai si les données couvrent la vue avec au moins un échantillon par pixel. */
+    public boolean isViewResolved() {
+        if (data == null || viewFrom < from || viewTo > to) {
+            return false;
+        }
+        double visible = (viewTo - viewFrom) / (to - from) * (data.size() - 1);
+        return visible >= getWidth();
+    }
+
+    private void invalidatePlot() {
+        dirty = true;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (image == null || image.getWidth() != w || image.getHeight() != h) {
+            image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            columnMin = new double[w];
+            columnMax = new double[w];
+            dirty = true;
+        }
+        if (dirty) {
+            render(w, h);
+            dirty = false;
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+
+    private void render(int w, int h) {
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        Arrays.fill(pixels, BACKGROUND);
+        if (data == null) {
+            return;
+        }
+        // Colonnes de la vue, en positions d'échantillons
+        double scale = (data.size() - 1) / (to - from);
+        data.columns((viewFrom - from) * scale, (viewTo - from) * scale, w, columnMin, columnMax);
+
+        double low = Double.POSITIVE_INFINITY;
+        double high = Double.NEGATIVE_INFINITY;
+        for (int c = 0; c < w; c++) {
+            if (Double.isFinite(columnMin[c])) {
+                low = Math.min(low, columnMin[c]);
+            }
+            if (Double.isFinite(columnMax[c])) {
+                high = Math.max(high, columnMax[c]);
+            }
+        }
+        if (low > high) {
+            return; // Aucune valeur dans la vue
+        }
+        if (low == high) {
+            low -= 1;
+            high += 1;
+        }
+        double margin = (high - low) * 0.05;
+        low -= margin;
+        high += margin;
+        double rows = (h - 1) / (high - low);
+
+        // Axes x = 0 et y = 0 s'ils sont visibles
+        if (viewFrom < 0 && viewTo > 0) {
+            int x = (int) (-viewFrom / (viewTo - viewFrom) * w);
+            for (int y = 0; y < h; y++) {
+                pixels[y * w + x] = AXIS;
+            }
+        }
+        if (low < 0 && high > 0) {
+            int y = (int) Math.round(high * rows);
+            Arrays.fill(pixels, y * w, y * w + w, AXIS);
+        }
+
+        // Un segment par colonne, prolongé jusqu'à la colonne précédente pour rester continu
+        double previousMin = Double.NaN;
+        double previousMax = Double.NaN;
+        for (int c = 0; c < w; c++) {
+            double min = columnMin[c];
+            double max = columnMax[c];
+            if (!Double.isFinite(min) || !Double.isFinite(max)) {
+                previousMin = Double.NaN;
+                previousMax = Double.NaN;
+                continue;
+            }
+            double top = Double.isFinite(previousMin) ? Math.max(max, previousMin) : max;
+            double bottom = Double.isFinite(previousMax) ? Math.min(min, previousMax) : min;
+            int y0 = clamp((int) Math.round((high - top) * rows), h);
+            int y1 = clamp((int) Math.round((high - bottom) * rows), h);
+            for (int y = y0; y <= y1; y++) {
+                pixels[y * w + c] = CURVE;
+            }
+            previousMin = min;
+            previousMax = max;
+        }
+
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(LABEL_FONT);
+            g.setColor(LABEL);
+            int line = g.getFontMetrics().getAscent();
+            g.drawString(ResultFormatter.format(high), 4, line);
+            g.drawString(ResultFormatter.format(low), 4, h - 4);
+            String right = ResultFormatter.format(viewTo);
+            g.drawString(ResultFormatter.format(viewFrom), 4, h - 4 - line);
+            g.drawString(right, w - 4 - g.getFontMetrics().stringWidth(right), h - 4 - line);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static int clamp(int y, int h) {
+        return Math.max(0, Math.min(h - 1, y));
+    }
+}
@@ -0,0 +1,64 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.io.ChannelResultWriter;
+import com.votreentreprise.calc.io.MappedCsvReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchCliTest {
+
+    private static final String INPUT = "6,×,7\n\n1,÷,0\n   \nx,+,1\n2,^,10\n\r\n";
+    private static final String OUTPUT = "42\n\nErreur: Division par 0\n\nErreur\n1024\n\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void blankLinesKeepTheOutputAligned() throws IOException {
+        StringWriter out = new StringWriter();
+        assertEquals(7, new BatchCli().run(new BufferedReader(new StringReader(INPUT)), out));
+        assertEquals(OUTPUT, out.toString());
+    }
+
+    @Test
+    void mappedRunWritesTheSameLines() throws IOException {
+        Path in = dir.resolve("in.csv");
+        Path out = dir.resolve("out.csv");
+        Files.writeString(in, INPUT, StandardCharsets.UTF_8);
+        try (MappedCsvReader reader = new MappedCsvReader(in, 16);
+             ChannelResultWriter writer = new ChannelResultWriter(out, ChannelResultWriter.MIN_BUFFER)) {
+            assertEquals(7, new BatchCli().run(reader, writer));
+        }
+        assertEquals(OUTPUT, Files.readString(out, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void smallestWriterBufferHoldsTheLongestLines() throws IOException {
+        Path out = dir.resolve("out.csv");
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChannelResultWriter(out, ChannelResultWriter.MIN_BUFFER - 1));
+        // Plus longs résultats possibles, en écriture décimale complète
+        double[] results = {-Double.MIN_VALUE, -Double.MAX_VALUE, 1.0 / 3, -Double.MIN_VALUE};
+        byte[] status = new byte[results.length];
+        StringWriter expected = new StringWriter();
+        new BatchCli().run(new BufferedReader(new StringReader(
+                "-4.9E-324,+,0\n-1.7976931348623157E308,+,0\n1,÷,3\n-4.9E-324,+,0\n")), expected);
+        try (ChannelResultWriter writer = new ChannelResultWriter(out, ChannelResultWriter.MIN_BUFFER)) {
+            for (int k = 0; k < 3; k++) {
+                writer.write(results, status, 0, results.length);
+            }
+        }
+        assertEquals(expected.toString().repeat(3), Files.readString(out, StandardCharsets.UTF_8));
+    }
+}
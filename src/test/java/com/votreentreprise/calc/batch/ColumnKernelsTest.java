@@ -0,0 +1,164 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnKernelsTest {
+
+    private static final Operator[] OPERATORS = {
+            Operator.PLUS, Operator.MINUS, Operator.TIMES, Operator.DIVIDE, Operator.MODULO
+    };
+    private static final UnaryFunction[] FUNCTIONS = {UnaryFunction.SQUARE, UnaryFunction.SQRT};
+    // Valeurs limites, tirées souvent : zéros (division par 0), négatifs (√), non finis
+    private static final double[] SPECIAL = {
+            0.0, -0.0, 1, -1, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, 1e-300, -2.5
+    };
+    // Longueurs qui ne sont pas des multiples de 2, 4 ou 8 lanes, et une colonne longue
+    private static final int[] LENGTHS = {0, 1, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 33, 1027};
+
+    private final ColumnKernels vector = ColumnKernels.get();
+    private final ColumnKernels scalar = ColumnKernels.scalar();
+
+    @Test
+    void vectorKernelsAreLoadedInTests() {
+        // surefire passe --add-modules jdk.incubator.vector : sinon ce test ne compare rien
+        assertTrue(vector.name().startsWith("simd-"), vector.name());
+    }
+
+    @Test
+    void binaryOperatorsMatchScalarLoops() {
+        Random random = new Random(11);
+        for (Operator op : OPERATORS) {
+            for (int length : LENGTHS) {
+                for (int offset : new int[]{0, 1, 3}) {
+                    int n = length + offset + 2;
+                    double[] left = column(random, n);
+                    double[] right = column(random, n);
+                    Run expected = new Run(n);
+                    Run actual = new Run(n);
+                    expected.errors = scalar.apply(op, left, right, expected.results, expected.status,
+                            offset, offset + length);
+                    actual.errors = vector.apply(op, left, right, actual.results, actual.status,
+                            offset, offset + length);
+                    actual.assertSameAs(expected, op.symbol() + " sur [" + offset + ", " + (offset + length) + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void unaryFunctionsMatchScalarLoops() {
+        Random random = new Random(13);
+        for (UnaryFunction f : FUNCTIONS) {
+            for (int length : LENGTHS) {
+                for (int offset : new int[]{0, 1, 3}) {
+                    int n = length + offset + 2;
+                    double[] values = column(random, n);
+                    Run expected = new Run(n);
+                    Run actual = new Run(n);
+                    expected.errors = scalar.apply(f, values, expected.results, expected.status,
+                            offset, offset + length);
+                    actual.errors = vector.apply(f, values, actual.results, actual.status,
+                            offset, offset + length);
+                    actual.assertSameAs(expected, f.symbol() + " sur [" + offset + ", " + (offset + length) + ")");
+                }
+            }
+        }
+    }
+
+    @Test
+    void compiledKernelsStillMatch() {
+        // Les premiers appels passent par l'implémentation Java de l'API vectorielle ;
+        // assez d'itérations pour que C2 compile les intrinsèques
+        Random random = new Random(17);
+        double[] left = column(random, 259);
+        double[] right = column(random, 259);
+        Run expected = new Run(259);
+        Run actual = new Run(259);
+        for (int k = 0; k < 3000; k++) {
+            Operator op = OPERATORS[k % OPERATORS.length];
+            expected.errors = scalar.apply(op, left, right, expected.results, expected.status, 1, 258);
+            actual.errors = vector.apply(op, left, right, actual.results, actual.status, 1, 258);
+            if (k % 500 == 0 || k >= 2990) {
+                actual.assertSameAs(expected, op.symbol() + ", itération " + k);
+            }
+            UnaryFunction f = FUNCTIONS[k % FUNCTIONS.length];
+            expected.errors = scalar.apply(f, left, expected.results, expected.status, 1, 258);
+            actual.errors = vector.apply(f, left, actual.results, actual.status, 1, 258);
+            if (k % 500 == 0 || k >= 2990) {
+                actual.assertSameAs(expected, f.symbol() + ", itération " + k);
+            }
+        }
+    }
+
+    @Test
+    void errorLanesGetNaNAndTheirCode() {
+        double[] left = new double[19];
+        double[] right = new double[19];
+        Arrays.fill(left, 6);
+        Arrays.fill(right, 3);
+        // Erreurs en première lane, en dernière lane d'un vecteur et dans la queue scalaire
+        for (int i : new int[]{0, 7, 18}) {
+            right[i] = i == 7 ? -0.0 : 0.0;
+        }
+        double[] results = new double[19];
+        byte[] status = new byte[19];
+        assertEquals(3, vector.apply(Operator.DIVIDE, left, right, results, status, 0, 19));
+        for (int i = 0; i < 19; i++) {
+            boolean error = i == 0 || i == 7 || i == 18;
+            assertEquals(error ? CalculationError.DIVISION_BY_ZERO.code() : CalculationError.OK, status[i], "ligne " + i);
+            assertEquals(error ? Double.NaN : 2.0, results[i], "ligne " + i);
+        }
+
+        right[5] = -4;
+        assertEquals(1, vector.apply(UnaryFunction.SQRT, right, results, status, 0, 19));
+        assertEquals(CalculationError.NEGATIVE_SQRT.code(), status[5]);
+        assertEquals(Double.NaN, results[5]);
+        assertEquals(0.0, results[0]);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(results[7]));
+    }
+
+    private static double[] column(Random random, int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextInt(4) == 0
+                    ? SPECIAL[random.nextInt(SPECIAL.length)]
+                    : (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 10);
+        }
+        return values;
+    }
+
+    // Résultats d'un noyau ; les cases hors de [from, to) doivent rester intactes
+    private static final class Run {
+        final double[] results;
+        final byte[] status;
+        int errors;
+
+        Run(int n) {
+            results = new double[n];
+            status = new byte[n];
+            Arrays.fill(results, -7.25);
+            Arrays.fill(status, (byte) 99);
+        }
+
+        void assertSameAs(Run expected, String message) {
+            assertEquals(expected.errors, errors, message);
+            assertArrayEquals(expected.status, status, message);
+            for (int i = 0; i < results.length; i++) {
+                // Bit à bit ; doubleToLongBits ne distingue pas les charges utiles des NaN
+                assertEquals(Double.doubleToLongBits(expected.results[i]), Double.doubleToLongBits(results[i]),
+                        message + ", ligne " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.votreentreprise.calc.batch;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelBatchEvaluatorTest {
+
+    private static final int THRESHOLD = 1000;
+
+    @Test
+    void matchesSequentialEvaluationAcrossChunkEdges() {
+        int n = 13 * THRESHOLD + 37;
+        Rows rows = new Rows(n, new Random(5));
+        List<Integer> edges = new ArrayList<>();
+        chunkEdges(0, n, THRESHOLD, edges);
+        assertTrue(edges.size() > 8, "découpage en " + edges.size() + " intervalles");
+        // Divisions par 0 de part et d'autre de chaque frontière, au milieu de longues suites de ÷
+        for (int edge : edges) {
+            for (int i = Math.max(0, edge - 40); i < Math.min(n, edge + 40); i++) {
+                rows.operators[i] = Operator.DIVIDE.code();
+            }
+            for (int i : new int[]{edge - 1, edge, edge + 1}) {
+                if (i >= 0 && i < n) {
+                    rows.right[i] = 0;
+                }
+            }
+        }
+        Rows sequential = rows.copy();
+        int expected = BatchEvaluator.evaluate(sequential.left, sequential.operators, sequential.right,
+                sequential.results, sequential.status);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int errors = new ParallelBatchEvaluator(pool, THRESHOLD)
+                    .evaluate(rows.left, rows.operators, rows.right, rows.results, rows.status);
+            assertEquals(expected, errors);
+            assertTrue(errors >= 3 * edges.size() - 2);
+        } finally {
+            pool.shutdown();
+        }
+        rows.assertSameAs(sequential);
+    }
+
+    @Test
+    void defaultThresholdMatchesSequentialEvaluation() {
+        int n = 5 * ParallelBatchEvaluator.DEFAULT_THRESHOLD + 5;
+        Rows rows = new Rows(n, new Random(6));
+        Rows sequential = rows.copy();
+        try (ParallelBatchEvaluator parallel = new ParallelBatchEvaluator(4)) {
+            assertEquals(BatchEvaluator.evaluate(sequential.left, sequential.operators, sequential.right,
+                            sequential.results, sequential.status),
+                    parallel.evaluate(rows.left, rows.operators, rows.right, rows.results, rows.status));
+        }
+        rows.assertSameAs(sequential);
+    }
+
+    @Test
+    void subrangeLeavesOtherRowsUntouched() {
+        int n = 4 * THRESHOLD;
+        Rows rows = new Rows(n, new Random(7));
+        Arrays.fill(rows.status, (byte) 99);
+        Rows sequential = rows.copy();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            new ParallelBatchEvaluator(pool, THRESHOLD)
+                    .evaluate(rows.left, rows.operators, rows.right, rows.results, rows.status, 123, n - 77);
+        } finally {
+            pool.shutdown();
+        }
+        BatchEvaluator.evaluate(sequential.left, sequential.operators, sequential.right, sequential.results,
+                sequential.status, 123, n - 77);
+        rows.assertSameAs(sequential);
+        assertEquals(99, rows.status[122]);
+        assertEquals(99, rows.status[n - 77]);
+    }
+
+    // Débuts des intervalles évalués par les tâches (même découpage que Chunk)
+    private static void chunkEdges(int from, int to, int threshold, List<Integer> edges) {
+        if (to - from <= threshold) {
+            edges.add(from);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        chunkEdges(from, mid, threshold, edges);
+        chunkEdges(mid, to, threshold, edges);
+    }
+
+    private static final class Rows {
+        final double[] left;
+        final byte[] operators;
+        final double[] right;
+        final double[] results;
+        final byte[] status;
+
+        Rows(int n, Random random) {
+            left = new double[n];
+            operators = new byte[n];
+            right = new double[n];
+            results = new double[n];
+            status = new byte[n];
+            Operator[] all = Operator.values();
+            int i = 0;
+            while (i < n) {
+                // Suites courtes (ligne à ligne) et longues (noyaux en colonnes)
+                int run = random.nextBoolean() ? 1 + random.nextInt(5) : 32 + random.nextInt(300);
+                byte op = all[random.nextInt(all.length)].code();
+                for (int end = Math.min(n, i + run); i < end; i++) {
+                    operators[i] = op;
+                    left[i] = random.nextInt(10) == 0 ? 0 : (random.nextDouble() - 0.3) * 1000;
+                    right[i] = random.nextInt(10) == 0 ? 0 : (random.nextDouble() - 0.3) * 60;
+                }
+            }
+        }
+
+        private Rows(Rows other) {
+            left = other.left.clone();
+            operators = other.operators.clone();
+            right = other.right.clone();
+            results = other.results.clone();
+            status = other.status.clone();
+        }
+
+        Rows copy() {
+            return new Rows(this);
+        }
+
+        void assertSameAs(Rows expected) {
+            assertArrayEquals(expected.status, status);
+            for (int i = 0; i < results.length; i++) {
+                assertEquals(Double.doubleToLongBits(expected.results[i]), Double.doubleToLongBits(results[i]),
+                        "ligne " + i);
+                if (status[i] == CalculationError.DIVISION_BY_ZERO.code()) {
+                    assertTrue(Double.isNaN(results[i]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.votreentreprise.calc.decimal;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.CalculationException;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExactDecimalTest {
+
+    private static final MathContext MC = MathContext.DECIMAL128;
+
+    @Test
+    void smallIntegerPowerIsExact() {
+        ExactDecimal result = ExactDecimal.parse("1.5").pow(ExactDecimal.valueOf(40), MC);
+        assertEquals(new BigDecimal("1.5").pow(40).stripTrailingZeros().toPlainString(), result.toPlainString());
+    }
+
+    @Test
+    void largeIntegerPowerIsRoundedToContext() {
+        ExactDecimal result = ExactDecimal.valueOf(2).pow(ExactDecimal.valueOf(2000), MC);
+        assertEquals(0, new BigDecimal(2).pow(2000, MC).compareTo(result.toBigDecimal()));
+        assertTrue(result.toBigDecimal().precision() <= MC.getPrecision());
+    }
+
+    @Test
+    void powerTooLargeToDisplayIsAnError() {
+        CalculationException e = assertThrows(CalculationException.class,
+                () -> ExactDecimal.valueOf(2).pow(ExactDecimal.valueOf(99_999), MC));
+        assertEquals(CalculationError.GENERIC, e.error());
+        assertThrows(CalculationException.class,
+                () -> ExactDecimal.valueOf(2).pow(ExactDecimal.valueOf(999_999_999), MC));
+        assertThrows(CalculationException.class,
+                () -> ExactDecimal.valueOf(2).pow(ExactDecimal.valueOf(-99_999), MC));
+    }
+
+    @Test
+    void productIsBoundedLikePowers() {
+        DecimalEngine engine = new DecimalEngine();
+        // x² répété sur 99 : 2, 4, 8... chiffres, refusé avant de dépasser la borne
+        ExactDecimal x = ExactDecimal.valueOf(99);
+        int squares = 0;
+        try {
+            while (squares < 30) {
+                x = engine.apply(UnaryFunction.SQUARE, x);
+                squares++;
+            }
+        } catch (CalculationException e) {
+            assertEquals(CalculationError.GENERIC, e.error());
+        }
+        assertEquals(8, squares); // 99^256 a 511 chiffres, son carré en aurait 1022
+        assertEquals(new BigDecimal(99).pow(256), x.toBigDecimal());
+
+        ExactDecimal big = ExactDecimal.parse("9".repeat(500));
+        assertEquals(1000, big.multiply(big).toPlainString().length());
+        ExactDecimal bigger = ExactDecimal.parse("9".repeat(502));
+        assertThrows(CalculationException.class, () -> bigger.multiply(bigger));
+        assertThrows(CalculationException.class,
+                () -> engine.apply(Operator.TIMES, bigger, bigger));
+        // Peu de chiffres mais trop d'ordres de grandeur pour l'affichage sans exposant
+        ExactDecimal huge = ExactDecimal.valueOf(new BigDecimal("1E600"));
+        assertThrows(CalculationException.class, () -> huge.multiply(huge));
+        ExactDecimal tiny = ExactDecimal.valueOf(new BigDecimal("1E-600"));
+        assertThrows(CalculationException.class, () -> tiny.multiply(tiny));
+        assertEquals(0, ExactDecimal.ONE.compareTo(huge.multiply(tiny)));
+    }
+
+    @Test
+    void zeroToNegativePowerIsDivisionByZero() {
+        CalculationException e = assertThrows(CalculationException.class,
+                () -> ExactDecimal.ZERO.pow(ExactDecimal.valueOf(-2), MC));
+        assertEquals(CalculationError.DIVISION_BY_ZERO, e.error());
+    }
+}
@@ -0,0 +1,99 @@
+package com.votreentreprise.calc.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionCacheTest {
+
+    @Test
+    void spacedExpressionsShareAnEntry() {
+        ExpressionCache cache = new ExpressionCache();
+        CompiledExpression first = cache.get("1 + 2");
+        assertSame(first, cache.get("  1   +\t2 "));
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(3.0, first.evaluate());
+    }
+
+    @Test
+    void spacesBetweenSymbolsAreKept() {
+        ExpressionCache cache = new ExpressionCache();
+        assertEquals(4.0, cache.get("1<<2").evaluate());
+        assertThrows(ExpressionSyntaxException.class, () -> cache.get("1 < < 2"));
+        assertEquals(1e-5, cache.get("1e-5").evaluate());
+        assertEquals("1 < < 2", ExpressionCache.normalize(" 1  <  < 2 "));
+        assertEquals("1e -5", ExpressionCache.normalize("1e  -5"));
+    }
+
+    @Test
+    void invalidExpressionIsNotKept() {
+        ExpressionCache cache = new ExpressionCache();
+        assertThrows(ExpressionSyntaxException.class, () -> cache.get("1 +"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void variablesArePartOfTheKey() {
+        ExpressionCache cache = new ExpressionCache();
+        CompiledExpression x = cache.get("x + y", "x", "y");
+        CompiledExpression y = cache.get("x + y", "y", "x");
+        assertEquals(0, x.variableIndex("x"));
+        assertEquals(0, y.variableIndex("y"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void sizeIsBounded() {
+        ExpressionCache cache = new ExpressionCache(16, Long.MAX_VALUE, ExpressionCache.Policy.LRU);
+        for (int i = 0; i < 100; i++) {
+            cache.get(i + " + 1");
+        }
+        assertTrue(cache.size() <= 16, "size " + cache.size());
+        assertTrue(cache.evictionCount() >= 84);
+    }
+
+    @Test
+    void weightIsBounded() {
+        ExpressionCache cache = new ExpressionCache(Long.MAX_VALUE, 40, ExpressionCache.Policy.LFU);
+        for (int i = 0; i < 100; i++) {
+            cache.get(i + " * 2");
+        }
+        assertTrue(cache.weight() <= 40, "weight " + cache.weight());
+    }
+
+    @Test
+    void concurrentMissesCompileOnce() throws Exception {
+        ExpressionCache cache = new ExpressionCache();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<CompiledExpression>[] results = new Future[threads];
+            for (int i = 0; i < threads; i++) {
+                results[i] = pool.submit(() -> {
+                    start.await();
+                    return cache.get("sin(x) * 2", "x");
+                });
+            }
+            start.countDown();
+            CompiledExpression first = results[0].get(10, TimeUnit.SECONDS);
+            for (Future<CompiledExpression> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, cache.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
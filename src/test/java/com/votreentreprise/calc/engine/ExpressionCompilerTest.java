@@ -0,0 +1,126 @@
+package com.votreentreprise.calc.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpressionCompilerTest {
+
+    private static double eval(String expression) {
+        return ExpressionCompiler.compile(expression).evaluate();
+    }
+
+    @Test
+    void precedenceFromOrToMultiplicative() {
+        // Chaque paire donnerait un autre résultat avec les priorités inversées
+        assertEquals(3, eval("1 OR 3 XOR 1"));
+        assertEquals(3, eval("6 AND 3 XOR 1"));
+        assertEquals(0, eval("8 >> 1 AND 3"));
+        assertEquals(3, eval("1 | 6 & 3"));
+        assertEquals(8, eval("1 << 2 + 1"));
+        assertEquals(14, eval("2 + 3 × 4"));
+        assertEquals(3, eval("1 OR 2 XOR 3 AND 6 << 1 + 1 * 2"));
+        // Même priorité : de gauche à droite
+        assertEquals(3, eval("10 - 4 - 3"));
+        assertEquals(6, eval("7 % 4 * 2"));
+        assertEquals(1, eval("8 ÷ 4 / 2"));
+        assertEquals(2, eval("32 >> 2 >> 2"));
+        assertEquals(15, eval("-16 >>> 60"));
+        assertEquals(Long.MIN_VALUE, eval("1 ROL 63"));
+        assertEquals(Long.MIN_VALUE, eval("1 ROR 1"));
+    }
+
+    @Test
+    void powerIsRightAssociativeAndBelowSign() {
+        assertEquals(512, eval("2^3^2"));
+        assertEquals(-4, eval("-2^2"));
+        assertEquals(4, eval("(-2)^2"));
+        assertEquals(0.5, eval("2^-1"));
+        assertEquals(0.5, eval("2 ^ - 1"));
+        assertEquals(-8, eval("-2^3"));
+        assertEquals(2, eval("4^0.5"));
+    }
+
+    @Test
+    void squareIsPostfix() {
+        assertEquals(-9, eval("-3²"));
+        assertEquals(81, eval("3²²"));
+        assertEquals(512, eval("2^3²"));
+        assertEquals(64, eval("2²^3"));
+        assertEquals(25, eval("(2 + 3)²"));
+        assertEquals(9, ExpressionCompiler.compile("x²").evaluate(new double[]{-3}));
+        assertEquals(2, eval("√2²")); // Une fonction prend son argument avec ses ² : √(2²)
+        assertEquals(2, eval("(√2)²"), 1e-12);
+    }
+
+    @Test
+    void keywordsNeedAWordBoundary() {
+        CompiledExpression e = ExpressionCompiler.compile("order OR 1");
+        assertArrayEquals(new String[]{"order"}, e.variableNames());
+        assertEquals(5, e.evaluate(new double[]{4}));
+        assertArrayEquals(new String[]{"andy", "nota"}, ExpressionCompiler.compile("andy + nota").variableNames());
+        assertEquals(5, eval("4 or 1"));
+        assertEquals(-1, eval("NOT 0"));
+        assertEquals(-1, eval("~0"));
+        assertEquals(3, eval("sqrt(9)"));
+        ExpressionSyntaxException missing = assertThrows(ExpressionSyntaxException.class,
+                () -> ExpressionCompiler.compile("1 + AND 2"));
+        assertEquals(4, missing.getPosition());
+    }
+
+    @Test
+    void constantsAreFoldedButErrorsWaitForEvaluation() {
+        CompiledExpression folded = ExpressionCompiler.compile("2 * 3 + sin(0)");
+        assertTrue(folded.isConstant());
+        assertEquals(6, folded.evaluate());
+
+        CompiledExpression divisionByZero = ExpressionCompiler.compile("1/0");
+        assertFalse(divisionByZero.isConstant());
+        CalculationException e = assertThrows(CalculationException.class, divisionByZero::evaluate);
+        assertEquals(CalculationError.DIVISION_BY_ZERO, e.error());
+        assertThrows(CalculationException.class, () -> ExpressionCompiler.compile("(1/0) × 0 + 2").evaluate());
+
+        CompiledExpression partial = ExpressionCompiler.compile("x + 2 * 3");
+        assertFalse(partial.isConstant());
+        assertEquals(7, partial.evaluate(new double[]{1}));
+    }
+
+    @Test
+    void variablesAreNumberedOrFixed() {
+        assertArrayEquals(new String[]{"b", "a"}, ExpressionCompiler.compile("b + a * b").variableNames());
+
+        CompiledExpression fixed = ExpressionCompiler.compile("y - x", "x", "y");
+        assertEquals(1, fixed.variableIndex("y"));
+        assertEquals(-1, fixed.variableIndex("z"));
+        assertEquals(3, fixed.evaluate(new double[]{2, 5}));
+        // Variable déclarée mais absente : gardée à sa place
+        assertEquals(2, ExpressionCompiler.compile("y", "x", "y").variableCount());
+
+        ExpressionSyntaxException unknown = assertThrows(ExpressionSyntaxException.class,
+                () -> ExpressionCompiler.compile("x + z", "x", "y"));
+        assertEquals(4, unknown.getPosition());
+        assertThrows(IllegalArgumentException.class, () -> fixed.evaluate(new double[]{1}));
+    }
+
+    @Test
+    void syntaxErrorsReportTheirPosition() {
+        assertPosition(4, "1 + ");
+        assertPosition(4, "1 + )");
+        assertPosition(6, "(1 + 2");
+        assertPosition(2, "1 2");
+        assertPosition(0, "1..2");
+        assertPosition(2, "1 $ 2");
+        assertPosition(0, "");
+        assertPosition(3, "2 *");
+    }
+
+    private static void assertPosition(int expected, String expression) {
+        ExpressionSyntaxException e = assertThrows(ExpressionSyntaxException.class,
+                () -> ExpressionCompiler.compile(expression));
+        assertEquals(expected, e.getPosition(), expression);
+    }
+}
@@ -0,0 +1,83 @@
+package com.votreentreprise.calc.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoizedFunctionTest {
+
+    @Test
+    void sameResultsAsDirectCall() {
+        MemoizedFunction memo = new MemoizedFunction(UnaryFunction.SIN, 16);
+        for (int round = 0; round < 3; round++) {
+            for (int i = -200; i <= 200; i++) {
+                assertEquals(UnaryFunction.SIN.apply(i * 0.5), memo.apply(i * 0.5));
+            }
+        }
+        assertEquals(16, memo.capacity());
+    }
+
+    @Test
+    void signedZerosAreDistinctKeys() {
+        MemoizedFunction memo = new MemoizedFunction(UnaryFunction.NEGATE);
+        assertEquals(-0.0, memo.apply(0.0));
+        assertEquals(0.0, memo.apply(-0.0));
+    }
+
+    @Test
+    void domainErrorsAreNotMemoized() {
+        MemoizedFunction memo = new MemoizedFunction(UnaryFunction.LN);
+        for (int i = 0; i < 2; i++) {
+            CalculationException e = assertThrows(CalculationException.class, () -> memo.apply(-1));
+            assertEquals(CalculationError.NON_POSITIVE_LOG, e.error());
+        }
+        memo.clear();
+        assertEquals(0.0, memo.apply(1));
+    }
+
+    @Test
+    void squareRootIsNotWorthMemoizing() {
+        assertFalse(MemoizedFunction.isWorthMemoizing(UnaryFunction.SQRT));
+        assertTrue(MemoizedFunction.isWorthMemoizing(UnaryFunction.LN));
+        CompiledExpression sqrt = ExpressionCompiler.compileMemoized("√x", "x");
+        assertEquals(3.0, sqrt.evaluate(new double[]{9}));
+    }
+
+    @Test
+    void concurrentWritersNeverMixArgumentAndResult() throws Exception {
+        // Petite table : les threads se disputent sans cesse les mêmes emplacements
+        MemoizedFunction memo = new MemoizedFunction(UnaryFunction.SQUARE, 8);
+        int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<Integer>[] results = new Future[threads];
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                results[t] = pool.submit(() -> {
+                    int wrong = 0;
+                    for (int i = 0; i < 200_000; i++) {
+                        double v = (i * 7 + seed) % 64;
+                        if (memo.apply(v) != v * v) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                });
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
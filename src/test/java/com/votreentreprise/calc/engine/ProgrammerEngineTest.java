@@ -0,0 +1,105 @@
+package com.votreentreprise.calc.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProgrammerEngineTest {
+
+    @ParameterizedTest(name = "{0} bits : {1} → {2}")
+    @CsvSource({
+            "8, 255, -1",
+            "8, 128, -128",
+            "8, 127, 127",
+            "8, 256, 0",
+            "16, 65535, -1",
+            "16, 32768, -32768",
+            "32, 4294967295, -1",
+            "32, 2147483648, -2147483648",
+            "64, -1, -1",
+            "12, 4095, -1",
+            "1, 1, -1"
+    })
+    void wrapSignExtendsTheWord(int width, long value, long expected) {
+        ProgrammerEngine engine = ProgrammerEngine.ofWidth(width);
+        assertEquals(expected, engine.wrap(value));
+        assertEquals(value & engine.mask(), engine.unsigned(expected));
+    }
+
+    @ParameterizedTest(name = "{0} bits : {2} {1} {3} = {4}")
+    @CsvSource({
+            // Débordements du mot
+            "8, PLUS, 127, 1, -128",
+            "8, TIMES, 16, 16, 0",
+            "16, MINUS, -32768, 1, 32767",
+            "32, TIMES, 65536, 65536, 0",
+            "64, PLUS, 9223372036854775807, 1, -9223372036854775808",
+            "8, DIVIDE, -128, -1, -128",
+            "8, MODULO, -7, 3, -1",
+            "8, POWER, 2, 7, -128",
+            "8, POWER, 2, 8, 0",
+            "8, POWER, -1, -3, -1",
+            "8, POWER, 5, -1, 0",
+            "8, XOR, -1, 15, -16",
+            "16, AND, -1, 255, 255",
+            // Décalages : au-delà de la largeur, tous les bits sortent
+            "8, SHIFT_LEFT, 1, 7, -128",
+            "8, SHIFT_LEFT, 1, 8, 0",
+            "8, SHIFT_LEFT, 1, -1, 0",
+            "8, SHIFT_RIGHT, -128, 7, -1",
+            "8, SHIFT_RIGHT, -128, 8, -1",
+            "8, SHIFT_RIGHT, 64, 9, 0",
+            "8, UNSIGNED_SHIFT_RIGHT, -128, 7, 1",
+            "8, UNSIGNED_SHIFT_RIGHT, -1, 1, 127",
+            "16, UNSIGNED_SHIFT_RIGHT, -1, 4, 4095",
+            "32, UNSIGNED_SHIFT_RIGHT, -1, 32, 0",
+            "64, UNSIGNED_SHIFT_RIGHT, -1, 63, 1",
+            // Rotations : nombre de bits modulo la largeur
+            "8, ROTATE_LEFT, -128, 1, 1",
+            "8, ROTATE_LEFT, 1, 9, 2",
+            "8, ROTATE_RIGHT, 1, 1, -128",
+            "8, ROTATE_RIGHT, 1, 8, 1",
+            "16, ROTATE_LEFT, 4660, 4, 9025",
+            "16, ROTATE_RIGHT, 4660, 4, 16675",
+            "32, ROTATE_LEFT, 1, 31, -2147483648",
+            "32, ROTATE_RIGHT, 1, -1, 2",
+            "64, ROTATE_LEFT, -9223372036854775808, 1, 1",
+            "64, ROTATE_RIGHT, 1, 64, 1",
+            "64, ROTATE_RIGHT, 1, 1, -9223372036854775808",
+            "12, ROTATE_LEFT, 2048, 1, 1"
+    })
+    void operatorsWrapAtTheWordWidth(int width, Operator op, long a, long b, long expected) {
+        assertEquals(expected, ProgrammerEngine.ofWidth(width).apply(op, a, b));
+    }
+
+    @Test
+    void rotationsMatchTheJdkOn64Bits() {
+        long v = 0x0123_4567_89AB_CDEFL;
+        for (int n = -70; n <= 70; n++) {
+            assertEquals(Long.rotateLeft(v, n), ProgrammerEngine.QWORD.rotateLeft(v, n));
+            assertEquals(Long.rotateRight(v, n), ProgrammerEngine.QWORD.rotateRight(v, n));
+        }
+        // 32 bits : comme Integer.rotate* sur le mot
+        for (int n = -40; n <= 40; n++) {
+            assertEquals(Integer.rotateLeft(0x89AB_CDEF, n), ProgrammerEngine.DWORD.rotateLeft(0x89AB_CDEF, n));
+        }
+    }
+
+    @Test
+    void unaryOperationsAndErrors() {
+        assertEquals(0, ProgrammerEngine.BYTE.not(-1));
+        assertEquals(-128, ProgrammerEngine.BYTE.negate(-128));
+        assertEquals(8, ProgrammerEngine.BYTE.popCount(-1));
+        assertEquals(64, ProgrammerEngine.QWORD.popCount(-1));
+        assertEquals(1, ProgrammerEngine.WORD.popCount(0x1_8000));
+        assertThrows(CalculationException.class, () -> ProgrammerEngine.BYTE.apply(Operator.DIVIDE, 1, 0));
+        assertThrows(CalculationException.class, () -> ProgrammerEngine.BYTE.apply(Operator.MODULO, 1, 0));
+        assertThrows(CalculationException.class, () -> ProgrammerEngine.BYTE.apply(Operator.POWER, 0, -1));
+        assertSame(ProgrammerEngine.DWORD, ProgrammerEngine.ofWidth(32));
+        assertThrows(IllegalArgumentException.class, () -> new ProgrammerEngine(65));
+    }
+}
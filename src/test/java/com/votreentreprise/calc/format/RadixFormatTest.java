@@ -0,0 +1,109 @@
+package com.votreentreprise.calc.format;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RadixFormatTest {
+
+    @ParameterizedTest(name = "{0} sur {2} bits en base {1} : {3}")
+    @CsvSource({
+            // Décimal signé, autres bases en complément à deux sans zéros de tête
+            "-1, 10, 8, -1",
+            "-1, 16, 8, FF",
+            "-1, 8, 8, 377",
+            "-1, 2, 8, 11111111",
+            "255, 10, 8, -1",
+            "128, 10, 8, -128",
+            "127, 10, 8, 127",
+            "-1, 16, 16, FFFF",
+            "-32768, 10, 16, -32768",
+            "-32768, 16, 16, 8000",
+            "-1, 16, 32, FFFFFFFF",
+            "4294967295, 10, 32, -1",
+            "-2147483648, 2, 32, 10000000000000000000000000000000",
+            "-1, 16, 64, FFFFFFFFFFFFFFFF",
+            "-1, 8, 64, 1777777777777777777777",
+            "-9223372036854775808, 10, 64, -9223372036854775808",
+            "9223372036854775807, 10, 64, 9223372036854775807",
+            "0, 16, 64, 0",
+            "0, 2, 8, 0",
+            "3054, 16, 64, BEE",
+            "99, 10, 64, 99",
+            "100, 10, 64, 100"
+    })
+    void formatsTheWord(long value, int radix, int width, String expected) {
+        assertEquals(expected, RadixFormat.format(value, radix, width));
+        ByteBuffer bytes = ByteBuffer.allocate(RadixFormat.MAX_LENGTH + 1);
+        RadixFormat.appendTo(value, radix, width, bytes);
+        assertEquals(expected, new String(bytes.array(), 0, bytes.position(), StandardCharsets.US_ASCII));
+    }
+
+    @ParameterizedTest(name = "\"{0}\" en base {1} sur {2} bits : {3}")
+    @CsvSource({
+            "FF, 16, 8, -1",
+            "ff, 16, 8, -1",
+            "0xFF, 16, 8, -1",
+            "0xff, 0, 8, -1",
+            "0b1010, 0, 8, 10",
+            "0o17, 0, 8, 15",
+            "255, 10, 8, -1",
+            "-128, 10, 8, -128",
+            "-1, 16, 8, -1",
+            "'  1_000 ', 10, 16, 1000",
+            "1111_0000, 2, 8, -16",
+            "FFFFFFFF, 16, 32, -1",
+            "18446744073709551615, 10, 64, -1",
+            "-9223372036854775808, 10, 64, -9223372036854775808",
+            "1777777777777777777777, 8, 64, -1"
+    })
+    void parsesTheWord(String text, int radix, int width, long expected) {
+        assertEquals(expected, RadixFormat.parse(text, radix, width));
+    }
+
+    @ParameterizedTest(name = "\"{0}\" en base {1} sur {2} bits")
+    @CsvSource({
+            "100, 16, 8",
+            "256, 10, 8",
+            "-129, 10, 8",
+            "111111111, 2, 8",
+            "18446744073709551616, 10, 64",
+            "12G, 16, 64",
+            "19, 8, 64",
+            "2, 2, 64",
+            "_1, 10, 64",
+            "1_, 10, 64",
+            "'', 10, 64",
+            "0x, 16, 64"
+    })
+    void rejectsInvalidOrTooLarge(String text, int radix, int width) {
+        assertThrows(NumberFormatException.class, () -> RadixFormat.parse(text, radix, width));
+    }
+
+    @Test
+    void roundTripsMatchTheJdk() {
+        Random random = new Random(3);
+        int[] widths = {8, 16, 32, 64};
+        int[] radixes = {2, 8, 10, 16};
+        for (int k = 0; k < 20_000; k++) {
+            int width = widths[k % widths.length];
+            long value = random.nextLong() >> random.nextInt(64);
+            long mask = width == 64 ? -1L : (1L << width) - 1;
+            long signed = (value << (64 - width)) >> (64 - width);
+            for (int radix : radixes) {
+                String text = RadixFormat.format(value, radix, width);
+                String expected = radix == 10 ? Long.toString(signed)
+                        : Long.toUnsignedString(value & mask, radix).toUpperCase();
+                assertEquals(expected, text);
+                assertEquals(signed, RadixFormat.parse(text, radix, width));
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.votreentreprise.calc.format;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultFormatterTest {
+
+    private static final DecimalFormat REFERENCE = new DecimalFormat("#.##########");
+
+    private static String reference(double value) {
+        return value == (long) value ? String.format("%d", (long) value) : REFERENCE.format(value);
+    }
+
+    @Test
+    void matchesDecimalFormat() {
+        double[] values = {0.1, -0.1, 1.0 / 3, 2.0 / 3, 123456789.123456789, 1e-11, 5e-11, -7.5e-11,
+                0.30000000000000004, 1e15 + 0.5, 42, -42, 0, Double.NaN, Double.POSITIVE_INFINITY, 1e300};
+        for (double v : values) {
+            assertEquals(reference(v), ResultFormatter.format(v), () -> Double.toString(v));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            double v = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(24) - 12);
+            assertEquals(reference(v), ResultFormatter.format(v), () -> Double.toString(v));
+        }
+    }
+
+    @Test
+    void tieAtAShorterLengthStaysOnTheFastPath() {
+        // 8.375 tombe pile entre 8.37 et 8.38 : 2 décimales sont trop courtes, 3 conviennent
+        for (double v : new double[]{8.375, 0.125, -2.625, 1.0625, 1234.5625}) {
+            char[] dst = new char[ResultFormatter.MAX_LENGTH];
+            int end = ResultFormatter.writeDecimal(v, dst, 0);
+            assertTrue(end >= 0, () -> Double.toString(v));
+            assertEquals(reference(v), new String(dst, 0, end));
+        }
+    }
+
+    @Test
+    void writesTheSameTextEverywhere() {
+        double v = -8.375;
+        ByteBuffer bytes = ByteBuffer.allocate(ResultFormatter.MAX_LENGTH);
+        ResultFormatter.appendTo(v, bytes);
+        bytes.flip();
+        assertEquals(ResultFormatter.format(v), StandardCharsets.UTF_8.decode(bytes).toString());
+        assertEquals("= " + ResultFormatter.format(v),
+                ResultFormatter.appendTo(v, new StringBuilder("= ")).toString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.votreentreprise.calc.history;
+
+import com.votreentreprise.calc.decimal.DecimalEngine;
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalculationHistoryTest {
+
+    @Test
+    void rendersEachNumericType() {
+        CalculationHistory history = new CalculationHistory(8);
+        long d = history.add(Operator.PLUS, 1.5, 2, 3.5);
+        long i = history.add(Operator.PLUS, 10L, 5L, 15L, 8);
+        long c = history.add(Operator.PLUS, ExactDecimal.parse("0.1"), ExactDecimal.parse("0.2"),
+                ExactDecimal.parse("0.3"));
+        assertEquals("1.5 + 2.0 = 3.5", history.render(d));
+        assertEquals("A + 5 = F", history.render(i, 16));
+        assertEquals("0.1 + 0.2 = 0.3", history.render(c));
+    }
+
+    @Test
+    void nonCompactDecimalKeepsExactText() {
+        DecimalEngine engine = DecimalEngine.withPrecision(34);
+        ExactDecimal third = engine.apply(Operator.DIVIDE, ExactDecimal.ONE, ExactDecimal.valueOf(3));
+        CalculationHistory history = new CalculationHistory(8);
+        long s = history.add(Operator.DIVIDE, ExactDecimal.ONE, ExactDecimal.valueOf(3), third);
+        assertEquals("1 ÷ 3 = " + third.toPlainString(), history.render(s));
+        assertEquals(34, third.toPlainString().length() - 2);
+
+        long r = history.add(UnaryFunction.SQRT, ExactDecimal.valueOf(2), engine.apply(UnaryFunction.SQRT,
+                ExactDecimal.valueOf(2)));
+        assertEquals("√2 = 1.414213562373095048801688724209698", history.render(r));
+        assertEquals(Math.sqrt(2), history.result(r), 1e-15);
+    }
+
+    @Test
+    void exactValuesAreDroppedWhenTheirSlotIsReused() {
+        CalculationHistory history = new CalculationHistory(2);
+        ExactDecimal big = ExactDecimal.parse("123456789012345678901234567890");
+        history.add(Operator.PLUS, big, ExactDecimal.ONE, big.add(ExactDecimal.ONE));
+        history.add(Operator.PLUS, 1, 1, 2);
+        long s = history.add(Operator.PLUS, 2, 2, 4);
+        assertEquals("2.0 + 2.0 = 4", history.render(s));
+        assertFalse(history.contains(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.render(0));
+    }
+
+    @Test
+    void findsByOperationAndResultAcrossOverwrites() {
+        CalculationHistory history = new CalculationHistory(100);
+        for (int k = 0; k < 250; k++) {
+            history.add(k % 2 == 0 ? Operator.PLUS : Operator.TIMES, k, 0, k);
+        }
+        long[] page = new long[3];
+        assertEquals(3, history.findByOperator(Operator.TIMES, 0, page));
+        assertArrayEquals(new long[]{249, 247, 245}, page);
+        long[] found = new long[10];
+        assertEquals(5, history.findByResult(150, 154, 0, found));
+        assertEquals(0, history.findByResult(0, 149, 0, found));
+    }
+}
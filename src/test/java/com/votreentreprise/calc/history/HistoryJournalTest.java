@@ -0,0 +1,112 @@
+package com.votreentreprise.calc.history;
+
+import com.votreentreprise.calc.engine.Operator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryJournalTest {
+
+    // Disposition du fichier : en-tête (4096), deux emplacements d'état (2 × 4096), trames de 48 octets
+    private static final int FRAMES_OFFSET = 3 * 4096;
+    private static final int FRAME_SIZE = 16 + CalculationHistory.RECORD_SIZE;
+
+    @TempDir
+    Path dir;
+
+    private static void append(HistoryJournal journal, CalculationHistory history, int from, int to)
+            throws IOException {
+        for (int k = from; k < to; k++) {
+            journal.append(history, history.add(Operator.PLUS, k, 1, k + 1));
+        }
+    }
+
+    @Test
+    void reopenReplaysTheLastCalculations() throws IOException {
+        Path file = dir.resolve("historique.journal");
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            append(journal, new CalculationHistory(), 0, 100);
+        }
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            assertEquals(100, journal.size());
+            assertEquals(100, journal.nextSequence());
+            CalculationHistory history = new CalculationHistory();
+            assertEquals(3, journal.replay(history, 3));
+            assertEquals("97.0 + 1.0 = 98", history.render(history.firstSequence()));
+            assertEquals("99.0 + 1.0 = 100", history.render(history.lastSequence()));
+        }
+    }
+
+    @Test
+    void tornFrameIsDroppedOnReopen() throws IOException {
+        Path file = dir.resolve("historique.journal");
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            append(journal, new CalculationHistory(), 0, 10);
+        }
+        // Arrêt brutal au milieu de l'écriture de la dernière trame
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(FRAMES_OFFSET + 9L * FRAME_SIZE + 20);
+            raf.writeLong(0x0102030405060708L);
+        }
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            assertEquals(9, journal.size());
+            CalculationHistory history = new CalculationHistory();
+            journal.replay(history, 1);
+            assertEquals("8.0 + 1.0 = 9", history.render(history.lastSequence()));
+            // La trame suivante reprend la place de celle qui était abîmée
+            append(journal, history, 100, 101);
+        }
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            assertEquals(10, journal.size());
+        }
+    }
+
+    @Test
+    void compactionKeepsTheLatestFramesAndTheSequence() throws IOException {
+        Path file = dir.resolve("historique.journal");
+        try (HistoryJournal journal = HistoryJournal.open(file, 10, 4)) {
+            append(journal, new CalculationHistory(), 0, 25);
+            assertEquals(25, journal.nextSequence());
+        }
+        try (HistoryJournal journal = HistoryJournal.open(file, 10, 4)) {
+            assertEquals(25, journal.nextSequence());
+            CalculationHistory history = new CalculationHistory();
+            int replayed = journal.replay(history, 100);
+            assertEquals(journal.size(), replayed);
+            assertEquals("24.0 + 1.0 = 25", history.render(history.lastSequence()));
+            int first = 25 - replayed;
+            assertEquals(first + ".0 + 1.0 = " + (first + 1), history.render(history.firstSequence()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> HistoryJournal.open(file, 4, 4));
+    }
+
+    @Test
+    void displayStateSurvivesReopen() throws IOException {
+        Path file = dir.resolve("historique.journal");
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            assertNull(journal.lastState());
+            journal.saveState(new DisplayState("STANDARD", "12", "+", "3", 10, 64, false));
+            journal.saveState(new DisplayState("PROGRAMMER", "FF", "", "0", 16, 8, true));
+            // Trop grand pour un emplacement : l'état précédent est gardé
+            journal.saveState(new DisplayState("STANDARD", "9".repeat(5000), "", "0", 10, 64, true));
+        }
+        try (HistoryJournal journal = HistoryJournal.open(file)) {
+            DisplayState state = journal.lastState();
+            assertEquals("PROGRAMMER", state.mode());
+            assertEquals("FF", state.display());
+            assertEquals(16, state.radix());
+            assertEquals(8, state.width());
+            assertTrue(state.startNewNumber());
+            journal.saveState(new DisplayState("SCIENTIFIC", "3.14", "×", "2", 10, 64, false));
+            assertEquals("3.14", journal.lastState().display());
+        }
+    }
+}
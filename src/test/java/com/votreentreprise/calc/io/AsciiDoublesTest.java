@@ -0,0 +1,85 @@
+package com.votreentreprise.calc.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsciiDoublesTest {
+
+    private final AsciiDoubles numbers = new AsciiDoubles();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0", "-0", "+0", "0.0", "-0.000", "1", "-1", "+7", " 12 ", "\t3.5\r",
+            "0.1", "0.2", "0.3", "123.456", ".5", "5.", "-.25", "00000000000000000000000042",
+            // Autour de 2^53 : le chemin rapide s'arrête à 2^53 - 1
+            "9007199254740991", "9007199254740992", "9007199254740993", "-9007199254740991",
+            "900719925474099.1", "9007199254740991e22", "9007199254740991e-22",
+            "9007199254740993e-22", "4503599627370497.5",
+            // Exposants aux bornes ±22 du tableau des puissances exactes
+            "1e22", "1e23", "1e-22", "1e-23", "123e20", "123e-25", "1.5e22", "1.5e-21",
+            "9e22", "9.999e22", "0.001e-20", "1000e20",
+            // Plus de 15 chiffres significatifs
+            "1234567890123456", "12345678901234567", "123456789012345678",
+            "1234567890123456789", "0.1234567890123456789", "3.14159265358979323846",
+            "2.2250738585072014E-308", "4.9e-324", "1.7976931348623157e308",
+            "1e400", "-1e400", "1e-400", "1E5", "1e+5", "1d", "2.5f",
+            "NaN", "Infinity", "-Infinity", "0x1p3", "0x1.8p1"})
+    void matchesDoubleParseDouble(String text) {
+        double expected = Double.parseDouble(text.trim());
+        // Comparaison au bit près : distingue 0.0 et -0.0
+        assertEquals(expected, parse(text), text);
+        assertTrue(numbers.isValid(), text);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "-", "+", ".", "e5", "1e", "1e+", "1.2.3", "1,5", "abc", "--1", "1 2", "0x"})
+    void rejectsWhatDoubleParseDoubleRejects(String text) {
+        assertEquals(Double.NaN, parse(text), text);
+        assertFalse(numbers.isValid(), text);
+    }
+
+    @Test
+    void randomDecimalsMatchDoubleParseDouble() {
+        SplittableRandom random = new SplittableRandom(20240522);
+        for (int k = 0; k < 200_000; k++) {
+            int length = 1 + random.nextInt(20);
+            StringBuilder text = new StringBuilder();
+            if (random.nextBoolean()) {
+                text.append('-');
+            }
+            int point = random.nextInt(length + 1);
+            for (int i = 0; i < length; i++) {
+                if (i == point) {
+                    text.append('.');
+                }
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(3) == 0) {
+                text.append('e').append(random.nextInt(61) - 30);
+            }
+            String s = text.toString();
+            assertEquals(Double.parseDouble(s), parse(s), s);
+        }
+    }
+
+    @Test
+    void readsOnlyTheGivenRange() {
+        ByteBuffer buf = ByteBuffer.wrap("x1.25;".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(1.25, numbers.parse(buf, 1, 5));
+        assertTrue(numbers.isValid());
+        assertEquals(0, buf.position());
+    }
+
+    private double parse(String text) {
+        return numbers.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)), 0, text.length());
+    }
+}
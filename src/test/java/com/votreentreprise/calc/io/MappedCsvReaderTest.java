@@ -0,0 +1,94 @@
+package com.votreentreprise.calc.io;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void linesAcrossWindowBoundariesAreReadWhole() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        List<double[]> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double a = i * 1.25;
+            double b = 1000 - i;
+            csv.append(a).append(i % 2 == 0 ? ",+," : " , × , ").append(b).append(i % 3 == 0 ? "\r\n" : "\n");
+            expected.add(new double[]{a, b});
+        }
+        Path file = write(csv.toString());
+        // Fenêtres de tailles diverses : chaque ligne (≤ 25 octets) finit par en chevaucher une
+        for (int window : new int[]{25, 26, 31, 32, 64, 100, 4096}) {
+            List<double[]> rows = new ArrayList<>();
+            List<Byte> ops = new ArrayList<>();
+            readAll(file, window, 7, rows, ops);
+            assertEquals(expected.size(), rows.size(), "fenêtre " + window);
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(expected.get(i)[0], rows.get(i)[0], "fenêtre " + window + ", ligne " + i);
+                assertEquals(expected.get(i)[1], rows.get(i)[1], "fenêtre " + window + ", ligne " + i);
+                Operator op = i % 2 == 0 ? Operator.PLUS : Operator.TIMES;
+                assertEquals(op.code(), ops.get(i), "fenêtre " + window + ", ligne " + i);
+            }
+        }
+    }
+
+    @Test
+    void lastLineWithoutNewlineAndInvalidRows() throws IOException {
+        Path file = write("1,+,2\nx,+,2\n3,?,4\n5,-\n6,-,7");
+        List<double[]> rows = new ArrayList<>();
+        List<Byte> ops = new ArrayList<>();
+        List<Byte> status = readAll(file, 8, 2, rows, ops);
+        assertEquals(List.of(CalculationError.OK, CalculationError.GENERIC.code(), CalculationError.GENERIC.code(),
+                CalculationError.GENERIC.code(), CalculationError.OK), status);
+        assertEquals(6.0, rows.get(4)[0]);
+        assertEquals(7.0, rows.get(4)[1]);
+        assertEquals(Operator.MINUS.code(), ops.get(4));
+    }
+
+    @Test
+    void lineLongerThanTheWindowIsReported() throws IOException {
+        Path file = write("1,+,2\n123456789.5,+,987654321.25\n");
+        assertThrows(IOException.class, () -> readAll(file, 16, 4, new ArrayList<>(), new ArrayList<>()));
+    }
+
+    private Path write(String csv) throws IOException {
+        Path file = dir.resolve("in.csv");
+        Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    // Lecture par petits blocs pour croiser aussi les frontières entre appels à read()
+    private static List<Byte> readAll(Path file, int window, int chunk, List<double[]> rows, List<Byte> ops)
+            throws IOException {
+        double[] left = new double[chunk];
+        byte[] operators = new byte[chunk];
+        double[] right = new double[chunk];
+        byte[] status = new byte[chunk];
+        List<Byte> statuses = new ArrayList<>();
+        try (MappedCsvReader reader = new MappedCsvReader(file, window)) {
+            int n;
+            while ((n = reader.read(left, operators, right, status)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    rows.add(new double[]{left[i], right[i]});
+                    ops.add(operators[i]);
+                    statuses.add(status[i]);
+                }
+            }
+        }
+        return statuses;
+    }
+}
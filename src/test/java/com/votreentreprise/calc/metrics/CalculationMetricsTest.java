@@ -0,0 +1,75 @@
+package com.votreentreprise.calc.metrics;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CalculationMetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void countsEachOperationAndErrorType() {
+        CalculationMetrics metrics = new CalculationMetrics();
+        for (int i = 0; i < 3; i++) {
+            metrics.record(Operator.PLUS, CalculationMetrics.start());
+        }
+        metrics.recordError(Operator.DIVIDE, CalculationError.DIVISION_BY_ZERO, CalculationMetrics.start());
+        metrics.record(UnaryFunction.SQRT, CalculationMetrics.start());
+        metrics.recordError(UnaryFunction.SQRT, CalculationError.NEGATIVE_SQRT, CalculationMetrics.start());
+        metrics.recordError(UnaryFunction.LN, CalculationError.NON_POSITIVE_LOG, CalculationMetrics.start());
+        metrics.recordExpression(CalculationMetrics.start());
+        metrics.recordExpressionError(CalculationError.DIVISION_BY_ZERO, CalculationMetrics.start());
+        metrics.recordError(CalculationError.GENERIC);
+
+        assertEquals(3, metrics.latency(Operator.PLUS).snapshot().count());
+        assertEquals(1, metrics.latency(Operator.DIVIDE).snapshot().count());
+        assertEquals(0, metrics.latency(Operator.TIMES).snapshot().count());
+        assertEquals(2, metrics.latency(UnaryFunction.SQRT).snapshot().count());
+        assertEquals(1, metrics.latency(UnaryFunction.LN).snapshot().count());
+        assertEquals(2, metrics.expressionLatency().snapshot().count());
+        assertEquals(2, metrics.errorCount(CalculationError.DIVISION_BY_ZERO));
+        assertEquals(1, metrics.errorCount(CalculationError.NEGATIVE_SQRT));
+        assertEquals(1, metrics.errorCount(CalculationError.NON_POSITIVE_LOG));
+        // L'erreur générique n'a pas d'opération ni de durée
+        assertEquals(1, metrics.errorCount(CalculationError.GENERIC));
+    }
+
+    @Test
+    void enabledRecordingReceivesOneEventPerCalculation() throws IOException {
+        CalculationMetrics metrics = new CalculationMetrics();
+        Path file = dir.resolve("calculs.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.votreentreprise.calc.Calcul");
+            recording.start();
+            metrics.record(Operator.TIMES, CalculationMetrics.start());
+            metrics.recordError(Operator.DIVIDE, CalculationError.DIVISION_BY_ZERO, CalculationMetrics.start());
+            metrics.recordError(CalculationError.GENERIC);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("com.votreentreprise.calc.Calcul"))
+                .toList();
+        assertEquals(3, events.size());
+        assertEquals("×", events.get(0).getString("operation"));
+        assertNull(events.get(0).getString("error"));
+        assertEquals("÷", events.get(1).getString("operation"));
+        assertEquals("DIVISION_BY_ZERO", events.get(1).getString("error"));
+        assertNull(events.get(2).getString("operation"));
+        assertEquals("GENERIC", events.get(2).getString("error"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.votreentreprise.calc.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverEveryValueWithinOneSixteenth() {
+        List<Long> values = new ArrayList<>();
+        for (long v = 0; v < 4096; v++) {
+            values.add(v);
+        }
+        for (int e = 4; e < 36; e++) {
+            long p = 1L << e;
+            values.add(p - 1);
+            values.add(p);
+            values.add(p + 1);
+        }
+        values.add(LatencyHistogram.MAX_VALUE);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int k = 0; k < 100_000; k++) {
+            values.add(random.nextLong(LatencyHistogram.MAX_VALUE + 1));
+        }
+        for (long v : values) {
+            int i = LatencyHistogram.index(v);
+            assertTrue(i >= 0 && i < LatencyHistogram.BUCKETS, "case " + i + " pour " + v);
+            long low = LatencyHistogram.lowestValue(i);
+            long high = LatencyHistogram.highestValue(i);
+            assertTrue(low <= v && v <= high, v + " hors de [" + low + ", " + high + "]");
+            assertTrue(high - low + 1 <= Math.max(1, low / LatencyHistogram.SUB_BUCKETS), "case trop large pour " + v);
+        }
+        // Cases contiguës, sans trou ni chevauchement
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            assertEquals(LatencyHistogram.highestValue(i - 1) + 1, LatencyHistogram.lowestValue(i));
+        }
+    }
+
+    @Test
+    void snapshotEstimatesPercentilesAndMean() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.snapshot().count());
+        assertEquals(0, h.snapshot().percentile(0.99));
+        for (int v = 1; v <= 10_000; v++) {
+            h.record(v * 100L);
+        }
+        LatencyHistogram.Snapshot s = h.snapshot();
+        assertEquals(10_000, s.count());
+        assertBetween(500_000, s.percentile(0.5));
+        assertBetween(990_000, s.percentile(0.99));
+        assertBetween(1_000_000, s.max());
+        assertBetween(500_050, (long) s.mean());
+        // Hors bornes : 0 et la dernière case
+        h.record(-5);
+        h.record(Long.MAX_VALUE);
+        s = h.snapshot();
+        assertEquals(10_002, s.count());
+        assertEquals(LatencyHistogram.MAX_VALUE, s.max());
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        int threads = 8;
+        int records = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long value = 1000L * (t + 1);
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int k = 0; k < records; k++) {
+                        h.record(value);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals((long) threads * records, h.snapshot().count());
+        assertBetween(8000, h.snapshot().max());
+    }
+
+    // Erreur relative d'au plus 1/16, comme les cases
+    private static void assertBetween(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKETS,
+                "attendu ≈ " + expected + ", obtenu " + actual);
+    }
+}
@@ -0,0 +1,83 @@
+package com.votreentreprise.calc.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.votreentreprise.calc.engine.ExpressionCache;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculationControllerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final CalculationController controller =
+            new CalculationController(mapper, new ExpressionCache(), new CalculationMetrics());
+
+    @Test
+    void getBindsQueryParametersToVariables() throws IOException {
+        ResponseEntity<String> ok = controller.evaluate("2*x + y", Map.of("expression", "2*x + y", "x", "3", "y", "0.5"));
+        assertEquals(200, ok.getStatusCodeValue());
+        assertEquals(6.5, json(ok).get("result").asDouble());
+        assertEquals("6.5", json(ok).get("display").asText());
+
+        ResponseEntity<String> missing = controller.evaluate("2*x", Map.of("expression", "2*x"));
+        assertEquals(400, missing.getStatusCodeValue());
+        assertEquals("Variable sans valeur : x", json(missing).get("error").asText());
+        assertEquals(400, controller.evaluate("2*x", Map.of("expression", "2*x", "x", "trois")).getStatusCodeValue());
+    }
+
+    @Test
+    void postReportsSyntaxAndCalculationErrors() throws IOException {
+        ResponseEntity<String> ok = controller.evaluate(mapper.readTree("{\"expression\":\"√x\",\"variables\":{\"x\":16}}"));
+        assertEquals(200, ok.getStatusCodeValue());
+        assertEquals("4", json(ok).get("display").asText());
+        assertEquals(200, controller.evaluate(mapper.readTree("\"6 × 7\"")).getStatusCodeValue());
+
+        ResponseEntity<String> syntax = controller.evaluate(mapper.readTree("{\"expression\":\"2 * (3\"}"));
+        assertEquals(400, syntax.getStatusCodeValue());
+        assertEquals("SYNTAX", json(syntax).get("code").asText());
+        assertTrue(json(syntax).has("position"));
+
+        ResponseEntity<String> division = controller.evaluate(mapper.readTree("{\"expression\":\"1/x\",\"variables\":{\"x\":0}}"));
+        assertEquals(422, division.getStatusCodeValue());
+        assertEquals("DIVISION_BY_ZERO", json(division).get("code").asText());
+        assertEquals("Erreur: Division par 0", json(division).get("error").asText());
+        assertEquals(422, controller.evaluate(mapper.readTree("\"ln(0)\"")).getStatusCodeValue());
+
+        assertEquals(400, controller.evaluate(mapper.readTree("{\"expr\":\"1\"}")).getStatusCodeValue());
+        assertEquals(400, controller.evaluate(mapper.readTree("{\"expression\":\"x\",\"variables\":[1]}")).getStatusCodeValue());
+        assertEquals(400, controller.evaluate(mapper.readTree("{\"expression\":\"x\",\"variables\":{\"x\":\"1\"}}"))
+                .getStatusCodeValue());
+    }
+
+    @Test
+    void batchAnswersEveryLineInOrder() throws IOException {
+        String body = "6*7\n\n{\"expression\":\"2*x\",\"variables\":{\"x\":3}}\n   \n\"1/0\"\n{oups\n";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.batch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), response);
+        assertEquals(CalculationController.NDJSON, response.getContentType().split(";")[0]);
+        String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n", -1);
+        // Une réponse par ligne reçue, lignes vides comprises, puis la fin de ligne finale
+        assertEquals(7, lines.length);
+        assertEquals("42", mapper.readTree(lines[0]).get("display").asText());
+        assertEquals("Requête vide", mapper.readTree(lines[1]).get("error").asText());
+        assertEquals("6", mapper.readTree(lines[2]).get("display").asText());
+        assertEquals("Requête vide", mapper.readTree(lines[3]).get("error").asText());
+        assertEquals("DIVISION_BY_ZERO", mapper.readTree(lines[4]).get("code").asText());
+        assertEquals("JSON invalide", mapper.readTree(lines[5]).get("error").asText());
+        assertEquals("", lines[6]);
+    }
+
+    private JsonNode json(ResponseEntity<String> response) throws IOException {
+        return mapper.readTree(response.getBody());
+    }
+}
@@ -0,0 +1,36 @@
+package com.votreentreprise.calc.server;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculationMetricsBinderTest {
+
+    @Test
+    void meterValuesAreReadFromTheHistogramsAtCollection() {
+        CalculationMetrics metrics = new CalculationMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        new CalculationMetricsBinder(metrics).bindTo(registry);
+        // Enregistrés après la liaison : lus à la collecte
+        for (int i = 0; i < 5; i++) {
+            metrics.record(Operator.PLUS, CalculationMetrics.start());
+        }
+        metrics.recordError(Operator.DIVIDE, CalculationError.DIVISION_BY_ZERO, CalculationMetrics.start());
+        metrics.recordExpression(CalculationMetrics.start());
+
+        assertEquals(5, registry.get("calculatrice.calculs").tag("operation", "+").functionTimer().count());
+        assertEquals(1, registry.get("calculatrice.calculs").tag("operation", "÷").functionTimer().count());
+        assertEquals(1, registry.get("calculatrice.calculs").tag("operation", "expression").functionTimer().count());
+        assertEquals(1, registry.get("calculatrice.erreurs").tag("type", "DIVISION_BY_ZERO").functionCounter().count());
+        assertEquals(0, registry.get("calculatrice.erreurs").tag("type", "GENERIC").functionCounter().count());
+        double p99 = registry.get("calculatrice.calculs.latence").tag("operation", "+").tag("quantile", "0.99")
+                .gauge().value();
+        assertTrue(p99 > 0 && p99 < 1, "p99 " + p99);
+    }
+}
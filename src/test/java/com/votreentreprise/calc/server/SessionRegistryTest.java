@@ -0,0 +1,148 @@
+package com.votreentreprise.calc.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.session.CalculatorMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionRegistryTest {
+
+    @Test
+    void keysUpdateTheSession() {
+        try (SessionRegistry registry = new SessionRegistry(10, TimeUnit.MINUTES.toNanos(1))) {
+            String id = registry.create(CalculatorMode.STANDARD);
+            assertEquals("42", registry.update(id, s -> s.press("6").press("×").press("7").press("=")).display());
+            assertEquals("42", registry.get(id).display());
+            assertNull(registry.get("inconnue"));
+        }
+    }
+
+    @Test
+    void concurrentStatisticsKeysOnOneSession() throws Exception {
+        try (SessionRegistry registry = new SessionRegistry(10, TimeUnit.MINUTES.toNanos(1))) {
+            String id = registry.create(CalculatorMode.STATISTICS);
+            int threads = 8;
+            int rounds = 300;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    boolean reader = t % 2 == 0;
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        for (int k = 0; k < rounds; k++) {
+                            if (reader) {
+                                // Méd et P% lisent la série que partagent les états successifs
+                                registry.update(id, s -> s.press("Méd"));
+                                registry.update(id, s -> s.press("9").press("0").press("P%"));
+                            } else {
+                                String digit = Integer.toString(k % 10);
+                                registry.update(id, s -> s.press(digit).press("Σ+"));
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            int added = threads / 2 * rounds;
+            assertEquals(Integer.toString(added), registry.update(id, s -> s.press("n")).display());
+            assertEquals(Integer.toString(added * 9 / 2), registry.update(id, s -> s.press("Σx")).display());
+            assertEquals("0", registry.update(id, s -> s.press("min")).display());
+            assertEquals("9", registry.update(id, s -> s.press("max")).display());
+            double median = Double.parseDouble(registry.update(id, s -> s.press("Méd")).display());
+            assertTrue(median >= 4 && median <= 5, "médiane " + median);
+        }
+    }
+
+    @Test
+    void concurrentKeysAreMeasuredOncePerInstalledState() throws Exception {
+        try (SessionRegistry registry = new SessionRegistry(10, TimeUnit.MINUTES.toNanos(1))) {
+            CalculationMetrics metrics = new CalculationMetrics();
+            SessionController controller = new SessionController(registry, metrics);
+            String id = registry.create(CalculatorMode.STANDARD);
+            ArrayNode keys = new ObjectMapper().createArrayNode().add("2").add("+").add("3").add("=");
+            int threads = 8;
+            int rounds = 200;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        for (int k = 0; k < rounds; k++) {
+                            controller.press(id, keys);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } finally {
+                pool.shutdown();
+            }
+            // Une addition par requête, même quand la transition a été rejouée
+            assertEquals(threads * rounds, metrics.latency(Operator.PLUS).snapshot().count());
+            controller.press("inconnue", keys);
+            assertEquals(threads * rounds, metrics.latency(Operator.PLUS).snapshot().count());
+        }
+    }
+
+    @Test
+    void idleSessionExpiresOnAccess() throws InterruptedException {
+        try (SessionRegistry registry = new SessionRegistry(10, TimeUnit.MILLISECONDS.toNanos(20))) {
+            String id = registry.create(CalculatorMode.STANDARD);
+            String other = registry.create(CalculatorMode.STANDARD);
+            Thread.sleep(50);
+            assertNull(registry.get(id));
+            assertNull(registry.update(other, s -> s.press("1")));
+            assertEquals(0, registry.size());
+        }
+    }
+
+    @Test
+    void fullTableRejectsNewSessions() {
+        try (SessionRegistry registry = new SessionRegistry(2, TimeUnit.MINUTES.toNanos(1))) {
+            registry.create(CalculatorMode.STANDARD);
+            String id = registry.create(CalculatorMode.PROGRAMMER);
+            assertThrows(IllegalStateException.class, () -> registry.create(CalculatorMode.STANDARD));
+            registry.remove(id);
+            assertNotNull(registry.create(CalculatorMode.STANDARD));
+        }
+    }
+
+    @Test
+    void fullTableDropsIdleSessions() throws InterruptedException {
+        try (SessionRegistry registry = new SessionRegistry(1, TimeUnit.MILLISECONDS.toNanos(20))) {
+            registry.create(CalculatorMode.STANDARD);
+            Thread.sleep(50);
+            assertNotNull(registry.create(CalculatorMode.STANDARD));
+            assertEquals(1, registry.size());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.votreentreprise.calc.session;
+
+import com.votreentreprise.calc.decimal.ExactDecimal;
+import com.votreentreprise.calc.engine.CalculationError;
+import com.votreentreprise.calc.engine.Operator;
+import com.votreentreprise.calc.engine.UnaryFunction;
+import com.votreentreprise.calc.history.CalculationHistory;
+import com.votreentreprise.calc.history.DisplayState;
+import com.votreentreprise.calc.metrics.CalculationMetrics;
+import com.votreentreprise.calc.stats.StreamingStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CalculatorStateTest {
+
+    @Test
+    void digitsAndOperators() {
+        CalculatorState s = CalculatorState.initial().press("1").press("2").press("+").press("3").press("=");
+        assertEquals("15", s.display());
+        assertEquals("12.0 + 3.0 = 15", s.history());
+    }
+
+    @Test
+    void unknownKeyShowsError() {
+        CalculatorState s = CalculatorState.initial().press("1").press("hello").press("world");
+        assertEquals("Erreur", s.display());
+        assertEquals("7", s.press("7").display());
+        assertEquals("Erreur", CalculatorState.initial().press("A").display());
+        assertEquals("Erreur", CalculatorState.initial().press("").display());
+    }
+
+    @Test
+    void programmerAcceptsDigitsOfTheRadixOnly() {
+        CalculatorState hex = CalculatorState.initial(CalculatorMode.PROGRAMMER).press("HEX").press("F").press("F");
+        assertEquals("FF", hex.display());
+        assertEquals("Erreur", hex.press("G").display());
+        assertEquals("Erreur", hex.press(".").display());
+        CalculatorState bin = CalculatorState.initial(CalculatorMode.PROGRAMMER).press("BIN").press("1");
+        assertSame(bin, bin.press("2"));
+    }
+
+    @Test
+    void typedNumberIsBounded() {
+        CalculatorState s = CalculatorState.initial(CalculatorMode.PRECISION);
+        for (int i = 0; i < 1000; i++) {
+            s = s.press("9");
+        }
+        assertEquals(KeyTransitions.MAX_INPUT_LENGTH, s.display().length());
+        // Le plafond ne vaut que pour la saisie, pas pour les résultats
+        assertEquals("1" + "0".repeat(KeyTransitions.MAX_INPUT_LENGTH), s.press("+").press("1").press("=").display());
+    }
+
+    @Test
+    void statisticsKeysWorkOnACopyOfTheSeries() {
+        CalculatorState one = CalculatorState.initial(CalculatorMode.STATISTICS).press("4").press("Σ+");
+        CalculatorState two = one.press("8").press("Σ+");
+        assertEquals(1, one.dataCount());
+        assertEquals(2, two.dataCount());
+        assertEquals("6", two.press("x̄").display());
+        assertEquals("x̄ (n = 2)", two.press("x̄").history());
+        assertEquals("4", one.press("x̄").display());
+        assertEquals("Aucune donnée", two.press("ΣC").press("n").display());
+        assertEquals(2, two.withMode(CalculatorMode.STANDARD).withMode(CalculatorMode.STATISTICS).dataCount());
+    }
+
+    @Test
+    void statisticsKeysAreRejectedInOtherModes() {
+        assertEquals("Erreur", CalculatorState.initial().press("5").press("Σ+").display());
+        assertEquals("Erreur", CalculatorState.initial(CalculatorMode.PROGRAMMER).press("Méd").display());
+    }
+
+    @Test
+    void listenerSeesEachCalculationWithTypedOperands() {
+        List<String> seen = new ArrayList<>();
+        CalculationListener listener = new CalculationListener() {
+            @Override
+            public void calculated(Operator op, double a, double b, double result) {
+                seen.add(a + " " + op.symbol() + " " + b + " = " + result);
+            }
+
+            @Override
+            public void calculated(UnaryFunction f, long value, long result, int width) {
+                seen.add(f + " " + value + " " + result + " " + width);
+            }
+
+            @Override
+            public void calculated(UnaryFunction f, ExactDecimal value, ExactDecimal result) {
+                seen.add(f + " " + value + " " + result);
+            }
+        };
+        CalculatorState s = CalculatorState.initial();
+        for (String key : "1 + 2 + 3 =".split(" ")) {
+            s = s.press(key, listener);
+        }
+        CalculatorState.initial(CalculatorMode.PROGRAMMER).press("7", listener).press("POP", listener);
+        CalculatorState.initial(CalculatorMode.PRECISION).press("2", listener).press("x²", listener);
+        CalculatorState.initial().press("1", listener).press("÷", listener).press("0", listener).press("=", listener);
+        assertEquals(List.of("1.0 + 2.0 = 3.0", "3.0 + 3.0 = 6.0", "POPCOUNT 7 3 64", "SQUARE 2 4"), seen);
+    }
+
+    @Test
+    void measuresWaitUntilRecorded() {
+        CalculationMeasures measures = new CalculationMeasures();
+        CalculatorState s = CalculatorState.initial();
+        for (String key : "1 ÷ 0 = √ 4 = x² +".split(" ")) {
+            s = s.press(key, measures);
+        }
+        // ÷ en erreur, √ de son message d'erreur refusé, x² réussi
+        assertEquals(3, measures.size());
+        CalculationMetrics metrics = new CalculationMetrics();
+        measures.recordTo(metrics);
+        assertEquals(0, measures.size());
+        assertEquals(1, metrics.latency(Operator.DIVIDE).snapshot().count());
+        assertEquals(1, metrics.errorCount(CalculationError.DIVISION_BY_ZERO));
+        assertEquals(1, metrics.errorCount(CalculationError.GENERIC));
+        assertEquals(1, metrics.latency(UnaryFunction.SQUARE).snapshot().count());
+        // Sans écouteur, rien n'est compté
+        long global = CalculationMetrics.global().latency(UnaryFunction.SQUARE).snapshot().count();
+        CalculatorState.initial().press("2").press("x²");
+        assertEquals(global, CalculationMetrics.global().latency(UnaryFunction.SQUARE).snapshot().count());
+    }
+
+    @Test
+    void savedStateIsRestored() {
+        CalculatorState s = CalculatorState.initial(CalculatorMode.PROGRAMMER)
+                .press("HEX").press("F").press("F").press("AND");
+        CalculationHistory history = new CalculationHistory();
+        CalculatorState restored = CalculatorState.restore(s.toDisplayState(), history);
+        assertEquals(CalculatorMode.PROGRAMMER, restored.mode());
+        assertEquals("FF AND ", restored.history());
+        assertEquals("F", restored.press("0").press("F").press("=").display());
+
+        history.add(Operator.PLUS, 1, 2, 3);
+        CalculatorState done = CalculatorState.restore(CalculatorState.initial().press("3").toDisplayState(), history);
+        assertEquals("1.0 + 2.0 = 3", done.history());
+        assertEquals("3", done.display());
+    }
+
+    @Test
+    void unknownSavedModeIsIgnored() {
+        CalculatorState s = CalculatorState.initial();
+        DisplayState saved = new DisplayState("INCONNU", "0", "", "0", 10, 64, true);
+        assertNull(CalculatorState.restore(saved, new CalculationHistory()));
+        assertEquals("Calcul annulé", s.press("2").press("+").withError("Calcul annulé").display());
+        assertEquals("", s.press("2").press("+").withError("Calcul annulé").operator());
+    }
+
+    @Test
+    void mergedDataJoinsTheSeries() {
+        StreamingStatistics read = new StreamingStatistics();
+        read.add(new double[]{1, 2, 3}, 0, 3);
+        CalculatorState s = CalculatorState.initial(CalculatorMode.STATISTICS).press("4").press("Σ+")
+                .merge(read, "fichier");
+        assertEquals("4", s.display());
+        assertEquals("fichier", s.history());
+        assertEquals("2.5", s.press("x̄").display());
+        assertEquals(3, read.count());
+    }
+}
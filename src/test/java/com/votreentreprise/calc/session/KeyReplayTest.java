@@ -0,0 +1,82 @@
+package com.votreentreprise.calc.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyReplayTest {
+
+    private static final Path SEQUENCES = Path.of("replay", "sequences.txt");
+    private static final Path GOLDEN = Path.of("replay", "sequences.golden");
+
+    @Test
+    void replayMatchesGoldenFile() throws IOException {
+        List<KeySequence> log = KeySequence.parseAll(Files.readAllLines(SEQUENCES, StandardCharsets.UTF_8));
+        List<String> expected = Files.readAllLines(GOLDEN, StandardCharsets.UTF_8);
+        assertEquals(log.size(), expected.size());
+        for (int i = 0; i < log.size(); i++) {
+            assertEquals(expected.get(i), KeyReplay.golden(log.get(i)), log.get(i).toString());
+        }
+    }
+
+    @Test
+    void parallelReplayKeepsOrder() throws IOException {
+        List<KeySequence> log = KeySequence.parseAll(Files.readAllLines(SEQUENCES, StandardCharsets.UTF_8));
+        List<String> expected = Files.readAllLines(GOLDEN, StandardCharsets.UTF_8);
+        // Assez de séquences pour que le pool découpe le travail
+        List<KeySequence> sequences = new ArrayList<>();
+        List<String> repeated = new ArrayList<>();
+        while (sequences.size() <= 4 * KeyReplay.THRESHOLD) {
+            sequences.addAll(log);
+            repeated.addAll(expected);
+        }
+        try (KeyReplay replay = new KeyReplay(4)) {
+            String[] lines = replay.replay(sequences);
+            assertEquals(sequences.size(), lines.length);
+            assertTrue(KeyReplay.mismatches(lines, repeated).isEmpty());
+        }
+    }
+
+    @Test
+    void goldenLineHasTheWholeHistory() {
+        // Calculs enchaînés : chacun est dans l'historique, l'affichage n'en montre que le dernier
+        KeySequence chain = new KeySequence(CalculatorMode.STANDARD, "1", "+", "2", "+", "3", "×", "4", "=");
+        assertEquals("24\t6.0 × 4.0 = 24\t1.0 + 2.0 = 3\t3.0 + 3.0 = 6\t6.0 × 4.0 = 24", KeyReplay.golden(chain));
+        assertEquals("1\t", KeyReplay.golden(new KeySequence(CalculatorMode.STANDARD, "1")));
+        // Historique gardé après AC, rendu dans la base finale en mode programmeur
+        KeySequence programmer = new KeySequence(CalculatorMode.PROGRAMMER, "1", "5", "+", "1", "=", "AC", "HEX", "3", "NOT");
+        assertEquals("FFFFFFFFFFFFFFFC\t~3 = FFFFFFFFFFFFFFFC\tF + 1 = 10\t~3 = FFFFFFFFFFFFFFFC",
+                KeyReplay.golden(programmer));
+    }
+
+    @Test
+    void mismatchesReportsDifferencesAndMissingLines() {
+        String[] lines = {
+                KeyReplay.golden(new KeySequence(CalculatorMode.STANDARD, "7", "×", "8", "=")),
+                KeyReplay.golden(new KeySequence(CalculatorMode.STANDARD, "2", "+", "2", "=")),
+                KeyReplay.golden(new KeySequence(CalculatorMode.STANDARD, "1"))
+        };
+        assertEquals("56\t7.0 × 8.0 = 56\t7.0 × 8.0 = 56", lines[0]);
+        assertEquals(List.of(1, 2), KeyReplay.mismatches(lines, List.of(lines[0], "5\t2.0 + 2.0 = 5")));
+    }
+
+    @Test
+    void parseReadsModeAndKeys() {
+        KeySequence s = KeySequence.parse("@PROGRAMMER  HEX F  F ");
+        assertEquals(CalculatorMode.PROGRAMMER, s.mode());
+        assertEquals(3, s.length());
+        assertEquals("FF", s.replay().display());
+        assertEquals(0, KeySequence.parse("   ").length());
+        assertEquals(1, KeySequence.parseAll(List.of("# commentaire", "", "1 + 1 =")).size());
+        assertThrows(IllegalArgumentException.class, () -> KeySequence.parse("@INCONNU 1"));
+    }
+}
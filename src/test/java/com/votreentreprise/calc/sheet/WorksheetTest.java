@@ -0,0 +1,121 @@
+package com.votreentreprise.calc.sheet;
+
+import com.votreentreprise.calc.engine.CalculationError;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WorksheetTest {
+
+    @Test
+    void onlyDependentsOfAChangeAreRecalculated() {
+        Worksheet sheet = new Worksheet();
+        sheet.set("a", 1);
+        sheet.set("b", "a + 1");
+        sheet.set("c", "b * 2");
+        sheet.set("d", 5);
+        sheet.set("e", "d + 1");
+        assertEquals(5, sheet.recalculate());
+        assertEquals(0, sheet.recalculate());
+
+        sheet.set("a", 2);
+        assertEquals(3, sheet.recalculate()); // a, b, c ; ni d ni e
+        assertEquals(6, sheet.value("c"));
+        sheet.set("d", 7);
+        assertEquals(2, sheet.recalculate());
+        assertEquals(8, sheet.value("e"));
+        // Une formule remplacée ne dépend plus de ses anciennes entrées
+        sheet.set("b", "d");
+        sheet.recalculate();
+        sheet.set("a", 100);
+        assertEquals(1, sheet.recalculate());
+        assertEquals(14, sheet.value("c"));
+    }
+
+    @Test
+    void cellsAreComputedAfterAllTheirInputs() {
+        Worksheet sheet = new Worksheet();
+        // d lit a directement et par une chaîne a → b → c : d doit attendre c
+        sheet.set("a", 1);
+        sheet.set("b", "a + 1");
+        sheet.set("c", "b + 1");
+        sheet.set("d", "c × 10 + a");
+        assertEquals(31, sheet.value("d"));
+        sheet.set("a", 5);
+        assertEquals(75, sheet.value("d"));
+
+        // Losange et longue chaîne
+        sheet.set("x0", 0);
+        for (int i = 1; i < 1000; i++) {
+            sheet.set("x" + i, "x" + (i - 1) + " + 1");
+        }
+        sheet.set("sum", "x999 + x500 + x1");
+        assertEquals(999 + 500 + 1, sheet.value("sum"));
+        sheet.set("x0", 1000);
+        assertEquals(1001, sheet.recalculate());
+        assertEquals(1999 + 1500 + 1001, sheet.value("sum"));
+    }
+
+    @Test
+    void circularReferencesAreRejected() {
+        Worksheet sheet = new Worksheet();
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("self", "self + 1"));
+        sheet.set("a", "b + 1");
+        sheet.set("c", "a × 2");
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("b", "c"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("a", "a"));
+        // Refus sans effet sur la feuille
+        sheet.set("b", 3);
+        assertEquals(8, sheet.value("c"));
+        assertEquals("b + 1", sheet.expression("a"));
+        // Sans l'ancienne dépendance, le sens inverse devient possible
+        sheet.set("a", 1);
+        sheet.set("b", "c + a");
+        assertEquals(3, sheet.value("b"));
+    }
+
+    @Test
+    void errorsPropagateAndClear() {
+        Worksheet sheet = new Worksheet();
+        sheet.set("x", 0);
+        sheet.set("y", "1 ÷ x");
+        sheet.set("z", "y + missing");
+        assertEquals(CalculationError.DIVISION_BY_ZERO, sheet.error("z"));
+        assertEquals(Double.NaN, sheet.value("z"));
+        // Cellule référencée mais jamais remplie : 0
+        assertEquals(0, sheet.value("missing"));
+        sheet.set("x", 4);
+        assertNull(sheet.error("z"));
+        assertEquals(0.25, sheet.value("z"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.value("inconnue"));
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("AND", 1));
+        assertThrows(IllegalArgumentException.class, () -> sheet.set("1x", 1));
+    }
+
+    @Test
+    void wideWavesAreComputedInParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Worksheet sheet = new Worksheet(pool);
+            int n = 3 * Worksheet.PARALLEL_THRESHOLD;
+            sheet.set("base", 1);
+            for (int i = 0; i < n; i++) {
+                sheet.set("c" + i, "base × " + i);
+            }
+            sheet.set("last", "c" + (n - 1) + " + c0 + c1");
+            sheet.set("base", 2);
+            assertEquals(n + 2, sheet.recalculate());
+            for (int i = 0; i < n; i += 997) {
+                assertEquals(2.0 * i, sheet.value("c" + i));
+            }
+            assertEquals(2.0 * (n - 1) + 2, sheet.value("last"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.votreentreprise.calc.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamingStatisticsTest {
+
+    @Test
+    void exactAggregates() {
+        StreamingStatistics stats = new StreamingStatistics();
+        stats.add(new double[]{2, 4, 4, 4, 5, 5, 7, 9}, 0, 8);
+        stats.add(Double.NaN);
+        assertEquals(8, stats.count());
+        assertEquals(1, stats.ignored());
+        assertEquals(40, stats.sum());
+        assertEquals(5, stats.mean());
+        assertEquals(2, stats.populationStandardDeviation());
+        assertEquals(2, stats.min());
+        assertEquals(9, stats.max());
+    }
+
+    @Test
+    void compensatedSumKeepsSmallValues() {
+        StreamingStatistics stats = new StreamingStatistics();
+        stats.add(1e16);
+        for (int i = 0; i < 1000; i++) {
+            stats.add(1);
+        }
+        stats.add(-1e16);
+        assertEquals(1000, stats.sum());
+    }
+
+    @Test
+    void mergedPartsMatchTheWholeSeries() {
+        Random random = new Random(7);
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextBoolean() ? random.nextGaussian() : 10 + 3 * random.nextGaussian();
+        }
+        StreamingStatistics whole = new StreamingStatistics();
+        whole.add(values, 0, values.length);
+        StreamingStatistics merged = new StreamingStatistics();
+        int parts = 16;
+        for (int p = 0; p < parts; p++) {
+            StreamingStatistics part = new StreamingStatistics();
+            part.add(values, p * values.length / parts, (p + 1) * values.length / parts);
+            merged.merge(part);
+        }
+        assertEquals(whole.count(), merged.count());
+        assertEquals(whole.sum(), merged.sum(), 1e-9 * Math.abs(whole.sum()));
+        assertEquals(whole.variance(), merged.variance(), 1e-9 * whole.variance());
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99}) {
+            // Erreur de l'ordre de 1 / δ en rang au milieu (δ = 200)
+            double rank = rank(sorted, merged.quantile(q));
+            assertEquals(q, rank, 5e-3, "q = " + q);
+        }
+        assertEquals(sorted[0], merged.min());
+        assertEquals(sorted[sorted.length - 1], merged.quantile(1));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        StreamingStatistics original = new StreamingStatistics();
+        for (int i = 1; i <= 10; i++) {
+            original.add(i);
+        }
+        StreamingStatistics copy = new StreamingStatistics(original);
+        copy.add(1000);
+        assertEquals(10, original.count());
+        assertEquals(10, original.max());
+        assertEquals(5.5, original.median(), 0.5);
+        assertEquals(11, copy.count());
+        assertEquals(1000, copy.quantile(1));
+    }
+
+    @Test
+    void readsDoNotModifyTheSeries() throws Exception {
+        StreamingStatistics stats = new StreamingStatistics();
+        for (int i = 0; i < 10_000; i++) {
+            stats.add(i % 1000);
+        }
+        // Valeurs encore dans le tampon : chaque lecture fusionne une copie
+        double median = new StreamingStatistics(stats).median();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Double>> reads = new ArrayList<>();
+            for (int t = 0; t < 64; t++) {
+                reads.add(pool.submit(() -> {
+                    double m = 0;
+                    for (int k = 0; k < 200; k++) {
+                        m = stats.median();
+                    }
+                    return m;
+                }));
+            }
+            for (Future<Double> read : reads) {
+                assertEquals(median, read.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        stats.flush();
+        assertEquals(median, stats.median());
+        assertEquals(10_000, stats.count());
+    }
+
+    private static double rank(double[] sorted, double x) {
+        int i = Arrays.binarySearch(sorted, x);
+        return (double) (i < 0 ? -i - 1 : i) / sorted.length;
+    }
+}
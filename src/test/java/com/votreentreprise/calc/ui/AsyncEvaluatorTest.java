@@ -0,0 +1,89 @@
+package com.votreentreprise.calc.ui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncEvaluatorTest {
+
+    private AsyncEvaluator evaluator;
+
+    @AfterEach
+    void close() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            if (evaluator != null) {
+                evaluator.close();
+            }
+        });
+    }
+
+    @Test
+    void resultArrivesOnTheEventThread() throws Exception {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        SwingUtilities.invokeAndWait(() -> {
+            evaluator = new AsyncEvaluator();
+            evaluator.submit(() -> "42", value -> {
+                assertTrue(SwingUtilities.isEventDispatchThread());
+                assertFalse(evaluator.isBusy());
+                result.complete(value);
+            }, result::completeExceptionally, elapsed -> { });
+            assertTrue(evaluator.isBusy());
+        });
+        assertEquals("42", result.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void errorEndsTheCalculation() throws Exception {
+        CompletableFuture<RuntimeException> failure = new CompletableFuture<>();
+        SwingUtilities.invokeAndWait(() -> {
+            evaluator = new AsyncEvaluator();
+            evaluator.submit(() -> {
+                throw new OutOfMemoryError("test");
+            }, value -> failure.completeExceptionally(new AssertionError("résultat inattendu")),
+                    failure::complete, elapsed -> { });
+        });
+        RuntimeException e = failure.get(10, TimeUnit.SECONDS);
+        assertInstanceOf(OutOfMemoryError.class, e.getCause());
+        AtomicBoolean busy = new AtomicBoolean(true);
+        SwingUtilities.invokeAndWait(() -> busy.set(evaluator.isBusy()));
+        assertFalse(busy.get());
+    }
+
+    @Test
+    void abandonedCalculationsUseABoundedNumberOfThreads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeAndWait(() -> {
+            evaluator = new AsyncEvaluator();
+            for (int i = 0; i < 3 * AsyncEvaluator.MAX_THREADS; i++) {
+                // Ignore l'interruption, comme une multiplication de BigInteger
+                evaluator.submit(() -> {
+                    while (true) {
+                        try {
+                            if (release.await(10, TimeUnit.SECONDS)) {
+                                return null;
+                            }
+                        } catch (InterruptedException e) {
+                            // Ignorée
+                        }
+                    }
+                }, value -> { }, e -> { }, elapsed -> { });
+                evaluator.cancel();
+            }
+        });
+        Thread.sleep(100);
+        long threads = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("calcul-")).count();
+        release.countDown();
+        assertTrue(threads <= AsyncEvaluator.MAX_THREADS, threads + " threads");
+    }
+}
@@ -0,0 +1,17 @@
+package com.votreentreprise.calc.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FunctionPlotDialogTest {
+
+    @Test
+    void maxPointsFitsInAQuarterOfTheHeap() {
+        long max = FunctionPlotDialog.maxPoints();
+        assertTrue(max <= FunctionPlotDialog.MAX_POINTS);
+        assertTrue(max * FunctionPlotDialog.BYTES_PER_POINT <= Runtime.getRuntime().maxMemory() / 4);
+        // Le tracé par défaut reste possible avec un tas raisonnable
+        assertTrue(max >= FunctionPlotDialog.DEFAULT_POINTS || Runtime.getRuntime().maxMemory() < (256L << 20));
+    }
+}
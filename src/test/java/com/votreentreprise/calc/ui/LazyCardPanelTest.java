@@ -0,0 +1,66 @@
+package com.votreentreprise.calc.ui;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyCardPanelTest {
+
+    private enum Key { A, B, C }
+
+    @Test
+    void buildsEachCardOnceAndOnlyWhenShown() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            List<Key> built = new ArrayList<>();
+            LazyCardPanel<Key> panel = new LazyCardPanel<>(key -> {
+                built.add(key);
+                return new JLabel(key.name());
+            });
+            assertEquals(0, panel.getComponentCount());
+
+            panel.show(Key.B);
+            assertEquals(List.of(Key.B), built);
+            assertTrue(panel.isBuilt(Key.B));
+            assertFalse(panel.isBuilt(Key.A));
+
+            panel.show(Key.A);
+            panel.show(Key.B);
+            panel.show(Key.A);
+            assertEquals(List.of(Key.B, Key.A), built);
+            assertEquals(2, panel.getComponentCount());
+            assertFalse(panel.isBuilt(Key.C));
+        });
+    }
+
+    @Test
+    void showsOnlyTheRequestedCard() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            LazyCardPanel<Key> panel = new LazyCardPanel<>(key -> new JLabel(key.name()));
+            panel.setSize(100, 100);
+            for (Key key : new Key[] {Key.A, Key.C, Key.B, Key.C}) {
+                panel.show(key);
+                assertEquals(key.name(), visible(panel));
+            }
+        });
+    }
+
+    private static String visible(LazyCardPanel<Key> panel) {
+        String name = null;
+        for (Component card : panel.getComponents()) {
+            if (card.isVisible()) {
+                assertNull(name, "une seule carte visible");
+                name = ((JLabel) card).getText();
+            }
+        }
+        return name;
+    }
+}